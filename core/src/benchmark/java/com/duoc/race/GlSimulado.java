@@ -0,0 +1,127 @@
+package com.duoc.race;
+
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+/**
+ * OpenGL falso para correr el juego sin ventana.
+ * <p>
+ * El backend headless no trae contexto gráfico, y los shaders del
+ * <code>SpriteBatch</code> y los frame buffers fallan si el driver no dice que
+ * compilaron. Este GL acepta todas las llamadas sin hacer nada, responde que
+ * los shaders compilan y los frame buffers están completos, entrega
+ * identificadores nuevos y lleva la cuenta de las texturas, frame buffers y
+ * buffers de vértices vivos: son los objetos de la GPU que una fuga dejaría
+ * sin liberar.
+ * </p>
+ */
+class GlSimulado {
+
+    private final GL20 gl;
+    private int siguienteId = 1;
+    private int texturas = 0;
+    private int frameBuffers = 0;
+    private int buffers = 0;
+
+    GlSimulado() {
+        gl = (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[]{GL20.class},
+            (proxy, metodo, args) -> invocar(metodo, args));
+    }
+
+    GL20 getGl() {
+        return gl;
+    }
+
+    /** Texturas creadas y todavía no borradas. */
+    int getTexturas() {
+        return texturas;
+    }
+
+    int getFrameBuffers() {
+        return frameBuffers;
+    }
+
+    /** Buffers de vértices e índices creados y todavía no borrados. */
+    int getBuffers() {
+        return buffers;
+    }
+
+    private Object invocar(Method metodo, Object[] args) {
+        switch (metodo.getName()) {
+            case "glGenTexture":
+                texturas++;
+                return siguienteId++;
+            case "glGenTextures":
+                texturas += generar(args);
+                return null;
+            case "glDeleteTexture":
+                texturas--;
+                return null;
+            case "glDeleteTextures":
+                texturas -= (Integer) args[0];
+                return null;
+            case "glGenFramebuffer":
+                frameBuffers++;
+                return siguienteId++;
+            case "glGenFramebuffers":
+                frameBuffers += generar(args);
+                return null;
+            case "glDeleteFramebuffer":
+                frameBuffers--;
+                return null;
+            case "glDeleteFramebuffers":
+                frameBuffers -= (Integer) args[0];
+                return null;
+            case "glGenBuffer":
+                buffers++;
+                return siguienteId++;
+            case "glGenBuffers":
+                buffers += generar(args);
+                return null;
+            case "glDeleteBuffer":
+                buffers--;
+                return null;
+            case "glDeleteBuffers":
+                buffers -= (Integer) args[0];
+                return null;
+            case "glGenRenderbuffer":
+            case "glCreateShader":
+            case "glCreateProgram":
+                return siguienteId++;
+            case "glGetShaderiv":
+                // Cualquier consulta sobre un shader: compiló sin errores
+                ((IntBuffer) args[2]).put(0, 1);
+                return null;
+            case "glGetProgramiv":
+                // El programa enlaza; sin atributos ni uniforms activos que listar
+                ((IntBuffer) args[2]).put(0, (Integer) args[1] == GL20.GL_LINK_STATUS ? 1 : 0);
+                return null;
+            case "glCheckFramebufferStatus":
+                return GL20.GL_FRAMEBUFFER_COMPLETE;
+            default:
+                return valorPorDefecto(metodo.getReturnType());
+        }
+    }
+
+    /** Llena el IntBuffer de una llamada glGen*s y devuelve cuántos identificadores entregó. */
+    private int generar(Object[] args) {
+        int cantidad = (Integer) args[0];
+        IntBuffer ids = (IntBuffer) args[1];
+        for (int i = 0; i < cantidad; i++) {
+            ids.put(ids.position() + i, siguienteId++);
+        }
+        return cantidad;
+    }
+
+    private static Object valorPorDefecto(Class<?> tipo) {
+        if (tipo == int.class) return 0;
+        if (tipo == boolean.class) return false;
+        if (tipo == float.class) return 0f;
+        if (tipo == long.class) return 0L;
+        if (tipo == String.class) return "";
+        return null;
+    }
+}
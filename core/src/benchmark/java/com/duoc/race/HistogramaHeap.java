@@ -0,0 +1,91 @@
+package com.duoc.race;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cantidad de instancias y bytes vivos por clase, tomados del histograma de
+ * la JVM (lo mismo que <code>jcmd &lt;pid&gt; GC.class_histogram</code>).
+ * <p>
+ * Comparando uno tomado al principio de la prueba con otro al final, las
+ * clases que más crecieron son las primeras sospechosas de una fuga.
+ * </p>
+ */
+class HistogramaHeap {
+
+    // "   1:         12345        6789012  [B (java.base@11.0.2)"
+    private static final Pattern FILA = Pattern.compile("^\\s*\\d+:\\s+(\\d+)\\s+(\\d+)\\s+(\\S+)");
+
+    private final Map<String, long[]> clases = new HashMap<>();
+
+    private HistogramaHeap() {
+    }
+
+    /**
+     * Pide el histograma a la JVM. El comando hace antes una recolección
+     * completa, así que solo cuenta objetos alcanzables.
+     *
+     * @return el histograma, o <code>null</code> si esta JVM no ofrece el comando.
+     */
+    static HistogramaHeap tomar() {
+        String texto;
+        try {
+            texto = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+                new ObjectName("com.sun.management:type=DiagnosticCommand"), "gcClassHistogram",
+                new Object[]{new String[0]}, new String[]{String[].class.getName()});
+        } catch (Exception e) {
+            return null;
+        }
+        HistogramaHeap histograma = new HistogramaHeap();
+        for (String linea : texto.split("\n")) {
+            Matcher fila = FILA.matcher(linea);
+            if (fila.find()) {
+                histograma.clases.put(fila.group(3),
+                    new long[]{Long.parseLong(fila.group(1)), Long.parseLong(fila.group(2))});
+            }
+        }
+        return histograma;
+    }
+
+    /**
+     * Clases que crecieron desde <code>anterior</code>, de mayor a menor
+     * crecimiento en bytes.
+     */
+    List<Diferencia> comparar(HistogramaHeap anterior) {
+        List<Diferencia> diferencias = new ArrayList<>();
+        for (Map.Entry<String, long[]> clase : clases.entrySet()) {
+            long[] antes = anterior.clases.get(clase.getKey());
+            long instancias = clase.getValue()[0] - (antes == null ? 0L : antes[0]);
+            long bytes = clase.getValue()[1] - (antes == null ? 0L : antes[1]);
+            if (bytes > 0L) {
+                diferencias.add(new Diferencia(clase.getKey(), instancias, bytes));
+            }
+        }
+        diferencias.sort((a, b) -> Long.compare(b.bytes, a.bytes));
+        return diferencias;
+    }
+
+    /** Crecimiento de una clase entre dos histogramas. */
+    static final class Diferencia {
+        final String clase;
+        final long instancias;
+        final long bytes;
+
+        Diferencia(String clase, long instancias, long bytes) {
+            this.clase = clase;
+            this.instancias = instancias;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%+12d B %+10d inst  %s", bytes, instancias, clase);
+        }
+    }
+}
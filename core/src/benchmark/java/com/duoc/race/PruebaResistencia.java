@@ -0,0 +1,482 @@
+package com.duoc.race;
+
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.Input.Keys;
+import com.badlogic.gdx.InputProcessor;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.utils.BufferUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Prueba de resistencia: juega miles de carreras seguidas sin ventana, como
+ * pasa durante horas en el quiosco, y falla si algo crece de una carrera a
+ * otra.
+ * <p>
+ * Cada carrera termina en Game Over y la siguiente empieza con ENTER, por el
+ * mismo camino que usa un jugador (la escena de Game Over reemplaza la pila
+ * con una carrera nueva y <code>resetGameState()</code> limpia el mundo).
+ * Mientras tanto el auto gira al azar para que los choques lleguen pronto.
+ * El tiempo de cada frame es fijo, así que la prueba corre tan rápido como
+ * pueda la CPU.
+ * </p>
+ * <p>
+ * Cada cierta cantidad de carreras, al llegar el Game Over, se muestrea:
+ * <ul>
+ *     <li><b>Heap</b>: memoria ocupada después de recolectar la basura.</li>
+ *
+ *     <li><b>GPU</b>: texturas, frame buffers y buffers de vértices vivos,
+ *     contados por el {@link GlSimulado}, y la memoria de video estimada por
+ *     el gestor de recursos.</li>
+ *
+ *     <li><b>Memoria nativa</b>: buffers directos de Java y los que libGDX
+ *     reserva por fuera del heap.</li>
+ *
+ *     <li><b>Entidades</b>: obstáculos vivos en el mundo y partículas activas.</li>
+ * </ul>
+ * <p>
+ * Las primeras carreras se descartan como calentamiento. Si la mediana del
+ * último tercio de las muestras supera a la del primero más una tolerancia,
+ * la prueba falla. Además compara el histograma de clases del heap al final
+ * del calentamiento con el del final, y escribe las clases que más crecieron:
+ * la primera suele ser el tipo que se está acumulando.
+ * </p>
+ * <p>
+ * Uso: <code>PruebaResistencia [carreras] [carpeta de salida]</code>. Deja en
+ * la carpeta <code>muestras.csv</code> y <code>histograma.txt</code>, y termina
+ * con código 1 si detectó una fuga.
+ * </p>
+ */
+public class PruebaResistencia implements ApplicationListener {
+
+    private static final int   CARRERAS_POR_DEFECTO = 1000;
+    private static final int   MUESTRAS_DESEADAS    = 100;
+    private static final int   MUESTRAS_MINIMAS     = 6;
+    private static final float CALENTAMIENTO        = 0.1f;
+    private static final float DELTA                = 1f / 60f;
+    private static final int   ANCHO                = 640;
+    private static final int   ALTO                 = 480;
+    // Diez minutos simulados sin Game Over: el juego quedó trabado en alguna escena
+    private static final int   MAX_FRAMES_CARRERA   = 60 * 60 * 10;
+    private static final float CAMBIO_DIRECCION     = 0.4f;
+    private static final int   CLASES_INFORMADAS    = 30;
+    private static final long  SEMILLA              = 42L;
+
+    // Resultado de Proxy para que la llamada siga hacia el objeto original
+    private static final Object DELEGAR = new Object();
+
+    private final int objetivo;
+    private final int muestreoCada;
+    private final int calentamiento;
+    private final File salida;
+    private final CountDownLatch terminada = new CountDownLatch(1);
+    private final Random azar = new Random(SEMILLA);
+    private final GlSimulado gl = new GlSimulado();
+
+    private final Serie heap         = new Serie("heap", "KB", 2048, 0.05f);
+    private final Serie texturas     = new Serie("texturas GL", "", 0, 0f);
+    private final Serie frameBuffers = new Serie("frame buffers GL", "", 0, 0f);
+    private final Serie buffers      = new Serie("buffers GL", "", 0, 0f);
+    private final Serie vram         = new Serie("VRAM estimada", "KB", 0, 0f);
+    private final Serie nativa       = new Serie("memoria nativa", "KB", 64, 0f);
+    private final Serie entidades    = new Serie("entidades", "", 4, 0.25f);
+    private final Serie particulas   = new Serie("partículas", "", 64, 0.5f);
+    private final Serie[] series = {heap, texturas, frameBuffers, buffers, vram, nativa, entidades, particulas};
+    private final List<Integer> carrerasMuestreadas = new ArrayList<>();
+
+    private Main juego;
+    private InputProcessor procesador;
+    private boolean terminando = false;
+    private int carreras = 0;
+    private int framesCarrera = 0;
+    private boolean gameOverAnterior = false;
+    private boolean enterPresionado = false;
+    private int teclaGiro = -1;
+    private float tiempoGiro = 0f;
+    private HistogramaHeap histogramaInicial;
+    private final List<String> fallas = new ArrayList<>();
+    private int codigoSalida = 1;
+
+    public static void main(String[] args) throws InterruptedException {
+        int carreras = args.length > 0 ? Integer.parseInt(args[0]) : CARRERAS_POR_DEFECTO;
+        File salida = new File(args.length > 1 ? args[1] : "resistencia");
+        salida.mkdirs();
+
+        HeadlessApplicationConfiguration configuracion = new HeadlessApplicationConfiguration();
+        // Sin pausa entre frames: el tiempo del juego lo fija DELTA, no el reloj
+        configuracion.updatesPerSecond = 0;
+        // Los récords de la prueba no se mezclan con los del quiosco
+        configuracion.preferencesDirectory = new File(salida, "prefs").getAbsolutePath();
+        configuracion.preferencesFileType = Files.FileType.Absolute;
+
+        PruebaResistencia prueba = new PruebaResistencia(carreras, salida);
+        new HeadlessApplication(prueba, configuracion);
+        prueba.terminada.await();
+        System.exit(prueba.codigoSalida);
+    }
+
+    private PruebaResistencia(int objetivo, File salida) {
+        this.objetivo = objetivo;
+        this.salida = salida;
+        this.muestreoCada = Math.max(1, objetivo / MUESTRAS_DESEADAS);
+        this.calentamiento = Math.max(muestreoCada, (int) (objetivo * CALENTAMIENTO));
+    }
+
+    // -------------------------------------------------------------------------
+    // Ciclo de vida
+    // -------------------------------------------------------------------------
+
+    @Override
+    public void create() {
+        Gdx.gl = gl.getGl();
+        Gdx.gl20 = gl.getGl();
+        Gdx.graphics = interceptar(Graphics.class, Gdx.graphics, this::graficos);
+        Gdx.input = interceptar(Input.class, Gdx.input, this::entrada);
+        try {
+            juego = new Main(new ConfiguracionJuego().setRastrearRecursos(true));
+            juego.create();
+            juego.resize(ANCHO, ALTO);
+        } catch (RuntimeException e) {
+            abortar("el juego no arrancó", e);
+        }
+    }
+
+    @Override
+    public void render() {
+        if (terminando) {
+            return;
+        }
+        try {
+            conducir();
+            juego.render();
+            revisarCarrera();
+        } catch (RuntimeException e) {
+            abortar("excepción en la carrera " + (carreras + 1), e);
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {
+    }
+
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void dispose() {
+        try {
+            if (juego != null) {
+                juego.dispose();
+            }
+            if (gl.getTexturas() != 0) {
+                fallas.add(gl.getTexturas() + " texturas sin liberar al cerrar");
+            }
+            if (gl.getFrameBuffers() != 0) {
+                fallas.add(gl.getFrameBuffers() + " frame buffers sin liberar al cerrar");
+            }
+        } catch (RuntimeException e) {
+            fallas.add("excepción al cerrar: " + e);
+        }
+        for (String falla : fallas) {
+            Gdx.app.error("RESISTENCIA", falla);
+        }
+        Gdx.app.log("RESISTENCIA", (fallas.isEmpty() ? "OK" : "FALLA") + ": " + carreras + " carreras");
+        codigoSalida = fallas.isEmpty() ? 0 : 1;
+        terminada.countDown();
+    }
+
+    // -------------------------------------------------------------------------
+    // Jugador simulado
+    // -------------------------------------------------------------------------
+
+    /** Presiona ENTER fuera de la carrera y gira al azar durante ella. */
+    private void conducir() {
+        if (procesador == null) {
+            return;
+        }
+        if (enterPresionado) {
+            procesador.keyUp(Keys.ENTER);
+            enterPresionado = false;
+        } else if (!juego.isRaceRunning() || juego.isGameOver()) {
+            soltarGiro();
+            procesador.keyDown(Keys.ENTER);
+            enterPresionado = true;
+            return;
+        }
+        tiempoGiro -= DELTA;
+        if (tiempoGiro <= 0f) {
+            soltarGiro();
+            tiempoGiro = CAMBIO_DIRECCION;
+            int opcion = azar.nextInt(3);
+            if (opcion < 2) {
+                teclaGiro = opcion == 0 ? Keys.LEFT : Keys.RIGHT;
+                procesador.keyDown(teclaGiro);
+            }
+        }
+    }
+
+    private void soltarGiro() {
+        if (teclaGiro >= 0) {
+            procesador.keyUp(teclaGiro);
+            teclaGiro = -1;
+        }
+    }
+
+    private void revisarCarrera() {
+        framesCarrera++;
+        boolean gameOver = juego.isGameOver();
+        if (gameOver && !gameOverAnterior) {
+            carreras++;
+            framesCarrera = 0;
+            if (carreras == calentamiento) {
+                histogramaInicial = HistogramaHeap.tomar();
+            }
+            if (carreras >= calentamiento && carreras % muestreoCada == 0) {
+                muestrear();
+            }
+            if (carreras >= objetivo) {
+                evaluar();
+                terminar();
+            }
+        }
+        gameOverAnterior = gameOver;
+        if (framesCarrera > MAX_FRAMES_CARRERA) {
+            fallas.add("la carrera " + (carreras + 1) + " no terminó en " + MAX_FRAMES_CARRERA + " frames");
+            terminar();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Muestras y evaluación
+    // -------------------------------------------------------------------------
+
+    private void muestrear() {
+        System.gc();
+        System.gc();
+        heap.agregar(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / 1024);
+        texturas.agregar(gl.getTexturas());
+        frameBuffers.agregar(gl.getFrameBuffers());
+        buffers.agregar(gl.getBuffers());
+        vram.agregar(juego.getLoadedTextureBytes() / 1024);
+        nativa.agregar((memoriaDirecta() + BufferUtils.getAllocatedBytesUnsafe()) / 1024);
+        entidades.agregar(juego.getLiveEntities());
+        particulas.agregar(juego.getActiveParticles());
+        carrerasMuestreadas.add(carreras);
+    }
+
+    private static long memoriaDirecta() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return 0L;
+    }
+
+    private void evaluar() {
+        int muestras = carrerasMuestreadas.size();
+        if (muestras < MUESTRAS_MINIMAS) {
+            Gdx.app.error("RESISTENCIA", "solo " + muestras + " muestras; se necesitan "
+                + MUESTRAS_MINIMAS + " para ver tendencias (pruebe con más carreras)");
+        } else {
+            for (Serie serie : series) {
+                String falla = serie.evaluar();
+                if (falla != null) {
+                    fallas.add(falla);
+                }
+                Gdx.app.log("RESISTENCIA", serie.resumen());
+            }
+        }
+        escribirMuestras();
+
+        HistogramaHeap histogramaFinal = HistogramaHeap.tomar();
+        if (histogramaInicial == null || histogramaFinal == null) {
+            Gdx.app.error("RESISTENCIA", "esta JVM no entrega el histograma de clases");
+            return;
+        }
+        List<HistogramaHeap.Diferencia> diferencias = histogramaFinal.comparar(histogramaInicial);
+        escribirHistograma(diferencias);
+        if (!fallas.isEmpty() && !diferencias.isEmpty()) {
+            fallas.add("la clase que más creció es " + diferencias.get(0).clase
+                + " (" + diferencias.get(0) + "); ver " + new File(salida, "histograma.txt").getPath());
+        }
+    }
+
+    private void escribirMuestras() {
+        try (PrintWriter csv = new PrintWriter(new File(salida, "muestras.csv"), "UTF-8")) {
+            StringBuilder cabecera = new StringBuilder("carrera");
+            for (Serie serie : series) {
+                cabecera.append(',').append(serie.nombre.replace(' ', '_'));
+            }
+            csv.println(cabecera);
+            for (int i = 0; i < carrerasMuestreadas.size(); i++) {
+                StringBuilder fila = new StringBuilder().append(carrerasMuestreadas.get(i));
+                for (Serie serie : series) {
+                    fila.append(',').append(serie.valores[i]);
+                }
+                csv.println(fila);
+            }
+        } catch (IOException e) {
+            Gdx.app.error("RESISTENCIA", "no se pudo escribir muestras.csv", e);
+        }
+    }
+
+    private void escribirHistograma(List<HistogramaHeap.Diferencia> diferencias) {
+        try (PrintWriter texto = new PrintWriter(new File(salida, "histograma.txt"), "UTF-8")) {
+            texto.println("Clases que crecieron entre la carrera " + calentamiento + " y la " + carreras
+                + " (bytes e instancias vivas)");
+            for (int i = 0; i < Math.min(CLASES_INFORMADAS, diferencias.size()); i++) {
+                texto.println(diferencias.get(i));
+            }
+        } catch (IOException e) {
+            Gdx.app.error("RESISTENCIA", "no se pudo escribir histograma.txt", e);
+        }
+    }
+
+    private void abortar(String motivo, RuntimeException e) {
+        Gdx.app.error("RESISTENCIA", motivo, e);
+        fallas.add(motivo + ": " + e);
+        terminar();
+    }
+
+    private void terminar() {
+        terminando = true;
+        Gdx.app.exit();
+    }
+
+    // -------------------------------------------------------------------------
+    // Backend simulado
+    // -------------------------------------------------------------------------
+
+    /** Pantalla de tamaño fijo y frames de duración fija. */
+    private Object graficos(Method metodo, Object[] args) {
+        switch (metodo.getName()) {
+            case "getDeltaTime":
+            case "getRawDeltaTime":
+                return DELTA;
+            case "getWidth":
+            case "getBackBufferWidth":
+                return ANCHO;
+            case "getHeight":
+            case "getBackBufferHeight":
+                return ALTO;
+            case "getFramesPerSecond":
+                return Math.round(1f / DELTA);
+            case "getGL20":
+                return gl.getGl();
+            default:
+                return DELEGAR;
+        }
+    }
+
+    /** La entrada simulada no guarda el procesador; se guarda aquí para inyectarle teclas. */
+    private Object entrada(Method metodo, Object[] args) {
+        switch (metodo.getName()) {
+            case "setInputProcessor":
+                procesador = (InputProcessor) args[0];
+                return null;
+            case "getInputProcessor":
+                return procesador;
+            default:
+                return DELEGAR;
+        }
+    }
+
+    private interface Intercepcion {
+        Object invocar(Method metodo, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T interceptar(Class<T> tipo, T original, Intercepcion intercepcion) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, args) -> {
+            Object resultado = intercepcion.invocar(metodo, args);
+            if (resultado != DELEGAR) {
+                return resultado;
+            }
+            try {
+                return metodo.invoke(original, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    /**
+     * Valores de una medida a lo largo de la prueba. Crece si la mediana del
+     * último tercio supera a la del primero en más que la tolerancia, que es
+     * la mayor entre la absoluta y la relativa al valor inicial.
+     */
+    private final class Serie {
+        final String nombre;
+        final String unidad;
+        final long toleranciaAbsoluta;
+        final float toleranciaRelativa;
+        long[] valores = new long[MUESTRAS_DESEADAS];
+        int cantidad = 0;
+
+        Serie(String nombre, String unidad, long toleranciaAbsoluta, float toleranciaRelativa) {
+            this.nombre = nombre;
+            this.unidad = unidad;
+            this.toleranciaAbsoluta = toleranciaAbsoluta;
+            this.toleranciaRelativa = toleranciaRelativa;
+        }
+
+        void agregar(long valor) {
+            if (cantidad == valores.length) {
+                valores = Arrays.copyOf(valores, cantidad * 2);
+            }
+            valores[cantidad++] = valor;
+        }
+
+        long medianaInicial() {
+            return mediana(0, cantidad / 3);
+        }
+
+        long medianaFinal() {
+            return mediana(cantidad - cantidad / 3, cantidad);
+        }
+
+        /** @return la descripción de la falla, o <code>null</code> si no creció. */
+        String evaluar() {
+            long inicial = medianaInicial();
+            long tolerancia = Math.max(toleranciaAbsoluta, (long) (inicial * toleranciaRelativa));
+            if (medianaFinal() <= inicial + tolerancia) {
+                return null;
+            }
+            return nombre + " crece: de " + inicial + " a " + medianaFinal() + " " + unidad
+                + " (tolerancia " + tolerancia + ")";
+        }
+
+        String resumen() {
+            return String.format("%-18s inicio %8d  final %8d %s", nombre, medianaInicial(), medianaFinal(), unidad);
+        }
+
+        private long mediana(int desde, int hasta) {
+            long[] tramo = Arrays.copyOfRange(valores, desde, hasta);
+            Arrays.sort(tramo);
+            return tramo[tramo.length / 2];
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.duoc.race.colision;
+
+import com.badlogic.gdx.math.Rectangle;
+
+import java.util.Random;
+
+/**
+ * Compara la detección de choques solo con rectángulos (AABB reducido en 5 px,
+ * como <code>Juego.getBounds()</code>) contra la fase amplia con rectángulos
+ * completos seguida de la fase fina con máscaras de bits.
+ * <p>
+ * Usa máscaras sintéticas del mismo tamaño que las entidades del juego (60×100):
+ * un auto con esquinas redondeadas y una barrera con huecos, y posiciones
+ * aleatorias cercanas para que la mayoría de los pares pase la fase amplia.
+ * Informa el tiempo por prueba y cuántos resultados del AABB difieren de la
+ * colisión exacta por píxel.
+ * </p>
+ */
+public class BenchmarkColision {
+
+    private static final int ANCHO = 60;
+    private static final int ALTO = 100;
+    private static final int PARES = 4096;
+    private static final int RONDAS_CALENTAMIENTO = 200;
+    private static final int RONDAS_MEDIDAS = 1000;
+
+    public static void main(String[] args) {
+        MascaraAlfa auto = crearAuto();
+        MascaraAlfa barrera = crearBarrera();
+
+        Random aleatorio = new Random(42);
+        int[] ax = new int[PARES];
+        int[] ay = new int[PARES];
+        int[] bx = new int[PARES];
+        int[] by = new int[PARES];
+        boolean[] esBarrera = new boolean[PARES];
+        Rectangle[] reducidoA = new Rectangle[PARES];
+        Rectangle[] reducidoB = new Rectangle[PARES];
+        Rectangle[] completoA = new Rectangle[PARES];
+        Rectangle[] completoB = new Rectangle[PARES];
+
+        for (int i = 0; i < PARES; i++) {
+            ax[i] = 200;
+            ay[i] = 50;
+            bx[i] = ax[i] + aleatorio.nextInt(2 * ANCHO) - ANCHO;
+            by[i] = ay[i] + aleatorio.nextInt(2 * ALTO) - ALTO;
+            esBarrera[i] = aleatorio.nextBoolean();
+            reducidoA[i] = new Rectangle(ax[i] + 5, ay[i] + 5, ANCHO - 10, ALTO - 10);
+            reducidoB[i] = new Rectangle(bx[i] + 5, by[i] + 5, ANCHO - 10, ALTO - 10);
+            completoA[i] = new Rectangle(ax[i], ay[i], ANCHO, ALTO);
+            completoB[i] = new Rectangle(bx[i], by[i], ANCHO, ALTO);
+        }
+
+        // Precisión: el resultado por píxel es la referencia
+        int falsosPositivos = 0;
+        int falsosNegativos = 0;
+        int choquesReales = 0;
+        for (int i = 0; i < PARES; i++) {
+            MascaraAlfa b = esBarrera[i] ? barrera : auto;
+            boolean real = MascaraAlfa.seSolapan(auto, ax[i], ay[i], b, bx[i], by[i]);
+            boolean aabb = reducidoA[i].overlaps(reducidoB[i]);
+            if (real) choquesReales++;
+            if (aabb && !real) falsosPositivos++;
+            if (!aabb && real) falsosNegativos++;
+        }
+
+        long sumidero = 0;
+        for (int r = 0; r < RONDAS_CALENTAMIENTO; r++) {
+            sumidero += medirAabb(reducidoA, reducidoB);
+            sumidero += medirMascaras(completoA, completoB, auto, barrera, esBarrera, ax, ay, bx, by);
+        }
+
+        long inicio = System.nanoTime();
+        for (int r = 0; r < RONDAS_MEDIDAS; r++) {
+            sumidero += medirAabb(reducidoA, reducidoB);
+        }
+        long tiempoAabb = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        for (int r = 0; r < RONDAS_MEDIDAS; r++) {
+            sumidero += medirMascaras(completoA, completoB, auto, barrera, esBarrera, ax, ay, bx, by);
+        }
+        long tiempoMascaras = System.nanoTime() - inicio;
+
+        double pruebas = (double) PARES * RONDAS_MEDIDAS;
+        System.out.printf("pares: %d, choques reales por píxel: %d%n", PARES, choquesReales);
+        System.out.printf("AABB reducido        : %6.2f ns/prueba, falsos positivos %d, falsos negativos %d%n",
+            tiempoAabb / pruebas, falsosPositivos, falsosNegativos);
+        System.out.printf("AABB + máscara de bits: %6.2f ns/prueba, exacto%n", tiempoMascaras / pruebas);
+        System.out.println("(sumidero " + sumidero + ")");
+    }
+
+    private static int medirAabb(Rectangle[] a, Rectangle[] b) {
+        int choques = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i].overlaps(b[i])) choques++;
+        }
+        return choques;
+    }
+
+    private static int medirMascaras(Rectangle[] a, Rectangle[] b, MascaraAlfa auto, MascaraAlfa barrera,
+                                     boolean[] esBarrera, int[] ax, int[] ay, int[] bx, int[] by) {
+        int choques = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i].overlaps(b[i])
+                && MascaraAlfa.seSolapan(auto, ax[i], ay[i], esBarrera[i] ? barrera : auto, bx[i], by[i])) {
+                choques++;
+            }
+        }
+        return choques;
+    }
+
+    /** Auto visto desde arriba: margen transparente a los lados y esquinas redondeadas. */
+    private static MascaraAlfa crearAuto() {
+        MascaraAlfa mascara = new MascaraAlfa(ANCHO, ALTO);
+        int margen = 6;
+        int radio = 14;
+        for (int y = 0; y < ALTO; y++) {
+            for (int x = margen; x < ANCHO - margen; x++) {
+                int cx = Math.max(margen + radio - x, Math.max(0, x - (ANCHO - margen - radio - 1)));
+                int cy = Math.max(radio - y, Math.max(0, y - (ALTO - radio - 1)));
+                if (cx * cx + cy * cy <= radio * radio) {
+                    mascara.marcar(x, y);
+                }
+            }
+        }
+        return mascara;
+    }
+
+    /** Barrera: dos travesaños horizontales unidos por postes, con huecos entre ellos. */
+    private static MascaraAlfa crearBarrera() {
+        MascaraAlfa mascara = new MascaraAlfa(ANCHO, ALTO);
+        for (int y = 0; y < ALTO; y++) {
+            for (int x = 0; x < ANCHO; x++) {
+                boolean travesano = (y >= 30 && y < 42) || (y >= 58 && y < 70);
+                boolean poste = y >= 20 && y < 80 && (x < 6 || x >= ANCHO - 6);
+                if (travesano || poste) {
+                    mascara.marcar(x, y);
+                }
+            }
+        }
+        return mascara;
+    }
+}
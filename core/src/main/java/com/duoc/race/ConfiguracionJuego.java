@@ -0,0 +1,163 @@
+package com.duoc.race;
+
+import com.duoc.race.captura.FormatoCaptura;
+import com.duoc.race.interfaces.OyenteCarga;
+import com.duoc.race.interfaces.SondaLatencia;
+
+import java.io.File;
+
+/**
+ * Opciones con que se arranca el juego, normalmente tomadas de la línea de
+ * comandos del lanzador.
+ * <p>
+ * Los valores por defecto corresponden a una partida normal: se conduce con
+ * el teclado, no se graba nada, no se informa la latencia de entrada, las
+ * texturas pueden ocupar hasta 256 MB de memoria de video y las fotos y videos
+ * (F12 y F11) se guardan en la carpeta <code>capturas</code>. No se corre
+ * contra fantasmas ni se hace la prueba de rendimiento.
+ * </p>
+ */
+public class ConfiguracionJuego {
+
+    private boolean modoBot = false;
+    private File archivoTelemetria = null;
+    private long presupuestoVram = 256L * 1024 * 1024;
+    private boolean rastrearRecursos = false;
+    private SondaLatencia sondaLatencia = null;
+    private OyenteCarga oyenteCarga = null;
+    private File carpetaCapturas = new File("capturas");
+    private FormatoCaptura formatoVideo = FormatoCaptura.Y4M;
+    private boolean grabarAlIniciar = false;
+    private File carpetaFantasmas = null;
+    private File archivoBenchmark = null;
+
+    /** Si el auto lo conduce el piloto automático. */
+    public boolean isModoBot() {
+        return modoBot;
+    }
+
+    public ConfiguracionJuego setModoBot(boolean modoBot) {
+        this.modoBot = modoBot;
+        return this;
+    }
+
+    /** Archivo donde se graba la telemetría de la sesión, o <code>null</code> para no grabar. */
+    public File getArchivoTelemetria() {
+        return archivoTelemetria;
+    }
+
+    public ConfiguracionJuego setArchivoTelemetria(File archivoTelemetria) {
+        this.archivoTelemetria = archivoTelemetria;
+        return this;
+    }
+
+    /**
+     * Memoria de video, en bytes, que pueden ocupar las texturas antes de que
+     * el gestor de recursos descargue las que no se están usando.
+     */
+    public long getPresupuestoVram() {
+        return presupuestoVram;
+    }
+
+    public ConfiguracionJuego setPresupuestoVram(long presupuestoVram) {
+        this.presupuestoVram = presupuestoVram;
+        return this;
+    }
+
+    /**
+     * Si el gestor de recursos anota dónde se adquirió cada recurso, para que
+     * el reporte de fugas diga quién no lo devolvió.
+     */
+    public boolean isRastrearRecursos() {
+        return rastrearRecursos;
+    }
+
+    public ConfiguracionJuego setRastrearRecursos(boolean rastrearRecursos) {
+        this.rastrearRecursos = rastrearRecursos;
+        return this;
+    }
+
+    /**
+     * Recibe cada medición de latencia entre un evento de entrada y el frame
+     * que lo mostró, o <code>null</code> para solo acumular estadísticas.
+     */
+    public SondaLatencia getSondaLatencia() {
+        return sondaLatencia;
+    }
+
+    public ConfiguracionJuego setSondaLatencia(SondaLatencia sondaLatencia) {
+        this.sondaLatencia = sondaLatencia;
+        return this;
+    }
+
+    /** Se avisa cuando termina la carga del juego, o <code>null</code> si nadie espera. */
+    public OyenteCarga getOyenteCarga() {
+        return oyenteCarga;
+    }
+
+    public ConfiguracionJuego setOyenteCarga(OyenteCarga oyenteCarga) {
+        this.oyenteCarga = oyenteCarga;
+        return this;
+    }
+
+    /** Carpeta donde se guardan las fotos y los videos de la pantalla. */
+    public File getCarpetaCapturas() {
+        return carpetaCapturas;
+    }
+
+    public ConfiguracionJuego setCarpetaCapturas(File carpetaCapturas) {
+        this.carpetaCapturas = carpetaCapturas;
+        return this;
+    }
+
+    /**
+     * Cómo se guardan los videos: un único archivo Y4M sin comprimir, o una
+     * secuencia de PNG (más lenta de codificar, así que pierde más frames).
+     */
+    public FormatoCaptura getFormatoVideo() {
+        return formatoVideo;
+    }
+
+    public ConfiguracionJuego setFormatoVideo(FormatoCaptura formatoVideo) {
+        this.formatoVideo = formatoVideo;
+        return this;
+    }
+
+    /** Si se empieza a grabar video desde el primer frame. */
+    public boolean isGrabarAlIniciar() {
+        return grabarAlIniciar;
+    }
+
+    public ConfiguracionJuego setGrabarAlIniciar(boolean grabarAlIniciar) {
+        this.grabarAlIniciar = grabarAlIniciar;
+        return this;
+    }
+
+    /**
+     * Carpeta con las mejores carreras guardadas, o <code>null</code> si no se
+     * corre contra fantasmas. Con fantasmas todas las carreras usan la pista
+     * de la mejor guardada.
+     */
+    public File getCarpetaFantasmas() {
+        return carpetaFantasmas;
+    }
+
+    public ConfiguracionJuego setCarpetaFantasmas(File carpetaFantasmas) {
+        this.carpetaFantasmas = carpetaFantasmas;
+        return this;
+    }
+
+    /**
+     * Archivo JSON donde la prueba de rendimiento deja sus mediciones, o
+     * <code>null</code> para jugar normalmente. Con la prueba, el juego corre
+     * sus etapas sin pasar por el menú y se cierra al terminar.
+     */
+    public File getArchivoBenchmark() {
+        return archivoBenchmark;
+    }
+
+    public ConfiguracionJuego setArchivoBenchmark(File archivoBenchmark) {
+        this.archivoBenchmark = archivoBenchmark;
+        return this;
+    }
+}
@@ -1,19 +1,76 @@
 package com.duoc.race;
 
+import com.badlogic.gdx.Application;
 import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.controllers.Controllers;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.ScreenUtils;
-import com.duoc.race.interfaces.Chocable;
-import com.duoc.race.model.*;
-
+import com.badlogic.gdx.utils.TimeUtils;
+import com.duoc.race.audio.MotorAudio;
+import com.duoc.race.audio.MotorAudioGdx;
+import com.duoc.race.audio.MotorAudioNulo;
+import com.duoc.race.audio.SonidoJuego;
+import com.duoc.race.captura.Capturador;
+import com.duoc.race.colision.MascaraAlfa;
+import com.duoc.race.control.ControladorIA;
+import com.duoc.race.control.ControladorJugador;
+import com.duoc.race.ecs.Arquetipo;
+import com.duoc.race.ecs.Consulta;
+import com.duoc.race.ecs.Mundo;
+import com.duoc.race.ecs.Planificador;
+import com.duoc.race.efectos.SistemaParticulas;
+import com.duoc.race.entrada.Accion;
+import com.duoc.race.entrada.BotonMando;
+import com.duoc.race.entrada.MapaControles;
+import com.duoc.race.entrada.SistemaEntrada;
+import com.duoc.race.escenas.Escena;
+import com.duoc.race.escenas.FotogramaCongelado;
+import com.duoc.race.escenas.PilaEscenas;
+import com.duoc.race.fantasma.BibliotecaFantasmas;
+import com.duoc.race.fantasma.Fantasma;
+import com.duoc.race.fantasma.GrabadorFantasma;
+import com.duoc.race.fondo.CapaDecorativa;
+import com.duoc.race.fondo.CapaPista;
+import com.duoc.race.fondo.FondoParallax;
+import com.duoc.race.efectos.TipoParticula;
+import com.duoc.race.interfaces.Controlador;
+import com.duoc.race.interfaces.OyenteColision;
+import com.duoc.race.interfaces.VistaCarrera;
+import com.duoc.race.model.AutoJugador;
+import com.duoc.race.obstaculos.RegistroObstaculos;
+import com.duoc.race.obstaculos.TipoObstaculo;
+import com.duoc.race.pista.PistaProcedural;
+import com.duoc.race.recursos.GestorRecursos;
+import com.duoc.race.recursos.Recurso;
+import com.duoc.race.rendimiento.EtapaBenchmark;
+import com.duoc.race.rendimiento.GobernadorFrames;
+import com.duoc.race.rendimiento.InformeBenchmark;
+import com.duoc.race.rendimiento.NivelCalidad;
+import com.duoc.race.sistemas.Componentes;
+import com.duoc.race.sistemas.SistemaColision;
+import com.duoc.race.sistemas.SistemaDibujo;
+import com.duoc.race.sistemas.SistemaLimpieza;
+import com.duoc.race.sistemas.SistemaMovimiento;
+import com.duoc.race.sistemas.TablaSprites;
+import com.duoc.race.telemetria.GrabadorTelemetria;
+
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 public class Main extends ApplicationAdapter {
@@ -26,41 +83,176 @@ public class Main extends ApplicationAdapter {
     private static final float SPAWN_INTERVAL    = 0.8f;
     private static final float SCORE_INTERVAL    = 0.1f;
     private static final int   INITIAL_LIFE      = 100;
-    private static final int   DAMAGE_ENEMY      = 30;
-    private static final int   DAMAGE_BARRIER    = 10;
     private static final float DESPAWN_Y         = -150f;
     private static final int   LEFT_BOUND        = 80;
     private static final int   RIGHT_MARGIN      = 80;
-    // Nuevas constantes para las nubes
-    private static final float CLOUD_SPAWN_INTERVAL = 1.8f;
+    // Tipos de obstáculo: daño, velocidad, imagen y efecto vienen de este archivo
+    private static final String OBSTACLE_TYPES_FILE = "obstaculos.json";
+    private static final float SPAWN_EDGE_MARGIN    = 10f;
+    // Efectos al tocar obstáculos especiales (aceite e impulso)
+    private static final float OIL_GRIP             = 0.35f;
+    private static final float OIL_SLIDE_SPEED      = 160f;
+    private static final float BOOST_FACTOR         = 1.6f;
+    // Fondo en capas: nubes cercanas y lejanas, con velocidad relativa a la pista
+    private static final float CLOUD_NEAR_SPEED     = 0.24f;
+    private static final float CLOUD_FAR_SPEED      = 0.1f;
+    private static final float CLOUD_SPACING        = 216f;
+    private static final float CLOUD_DENSITY        = 0.8f;
+    private static final float CLOUD_FAR_SCALE      = 0.55f;
+    private static final float CLOUD_FAR_ALPHA      = 0.5f;
+    // Efectos de partículas
+    private static final int   PARTICLE_BUDGET      = 1024;
+    private static final float NEAR_MISS_DISTANCE   = 18f;
+    // Pista procedural
+    private static final float TRACK_CURVE_AMPLITUDE = 50f;
+    private static final int   TRACK_SLICE_HEIGHT    = 8;
+    // Audio
+    private static final int   MAX_AUDIO_VOICES      = 8;
+    // Colisión precisa por píxel (fase fina después del AABB)
+    private static final boolean PIXEL_PERFECT_COLLISIONS = true;
+    private static final int   MASK_ALPHA_THRESHOLD  = 128;
+    private static final int   CAR_WIDTH             = 60;
+    private static final int   CAR_HEIGHT            = 100;
+    // Hilos auxiliares del planificador de sistemas; con pocas entidades no compensa repartir
+    private static final int   ECS_WORKER_THREADS    = 0;
+    // Colisión continua: revisa todo el recorrido del frame, no solo la posición final
+    private static final boolean SWEPT_COLLISIONS     = true;
+    private static final float SWEPT_SAMPLE_STEP     = 4f;
+    // Piloto automático (modo demostración y pruebas largas)
+    private static final long  BOT_PLANNING_BUDGET_US = 500L;
+    private static final float BOT_RESTART_DELAY     = 2f;
+    // Gobernador de calidad según el tiempo de cada frame
+    private static final int   QUALITY_WINDOW_FRAMES = 60;
+    private static final int   DEFAULT_REFRESH_RATE  = 60;
+    // Telemetría: tamaño de cada archivo y cuántos archivos rotados se conservan
+    private static final long  TELEMETRY_FILE_BYTES  = 16L * 1024 * 1024;
+    private static final int   TELEMETRY_FILES_KEPT  = 3;
+    // Escenas: récords guardados y oscurecimiento de las escenas superpuestas
+    private static final int   LEADERBOARD_SIZE      = 5;
+    private static final String PREFERENCES_NAME     = "duoc-racing";
+    private static final float OVERLAY_DIM_ALPHA     = 0.55f;
+    // Fantasmas: cuántos corren a la vez, su transparencia y ticks grabados por segundo
+    private static final int   GHOST_COUNT           = 3;
+    private static final float GHOST_ALPHA           = 0.35f;
+    private static final int   GHOST_TICK_RATE       = 60;
+    // Prueba de rendimiento: semilla, paso fijo de simulación y frames por etapa
+    private static final long  BENCHMARK_SEED        = 0x5EEDL;
+    private static final float BENCHMARK_STEP        = 1f / 60f;
+    private static final int   BENCHMARK_WARMUP      = 60;
+    private static final int   BENCHMARK_FRAMES      = 600;
+    private static final float BENCHMARK_WEAVE_SPEED = 1.5f;
 
     // -------------------------------------------------------------------------
     // 2. RENDERING (HERRAMIENTAS GRÁFICAS)
     // -------------------------------------------------------------------------
     private SpriteBatch batch;
     private BitmapFont font;
-
-    private Texture texJugador;
-    private Texture texEnemigo;
-    private Texture texBarrera;
-    private Texture texPista;
-    private Texture texTribuna;
-    private Texture texNube;
+    // Medidas del último texto centrado; se reutiliza para no crear una por llamada
+    private final GlyphLayout textLayout = new GlyphLayout();
+
+    // Texturas tomadas del gestor de recursos; se devuelven todas juntas al cerrar
+    private final GestorRecursos recursos;
+    private final List<Recurso<?>> recursosTomados = new ArrayList<>();
+    private Recurso<Texture> texJugador;
+    private Recurso<Texture> texPista;
+    private Recurso<Texture> texTribuna;
+    private Recurso<Texture> texNube;
+    private Recurso<Texture> texParticula;
+
+    // Silencioso hasta que la escena de carga prepare el motor real
+    private MotorAudio audio = new MotorAudioNulo();
+
+    // Imágenes de las entidades con sus máscaras de colisión, creadas al cargar las texturas
+    private final TablaSprites sprites = new TablaSprites();
+    private int spriteJugador;
+    // Imagen de cada tipo de obstáculo, indexada por su id en el registro
+    private RegistroObstaculos tiposObstaculo;
+    private int[] spritesObstaculo;
+
+    // Gobernador de calidad y buffer para dibujar el mundo a menor resolución
+    private GobernadorFrames gobernador;
+    private FrameBuffer sceneBuffer;
+    private TextureRegion sceneRegion;
 
     // -------------------------------------------------------------------------
     // 3. MODELO DEL JUEGO (OBJETOS Y ESTADO)
     // -------------------------------------------------------------------------
     private AutoJugador jugador;
-    private List<Juego> obstaculos;
-    private List<Juego> nubes;    // <-- LISTA DE NUBES DECORATIVAS
+    // Los obstáculos son entidades del mundo; sus sistemas se ejecutan cada frame
+    private Mundo mundo;
+    private Arquetipo arquetipoObstaculo;
+    private Consulta obstaculos;
+    private Planificador planificador;
+    private SistemaDibujo dibujoObstaculos;
+    private FondoParallax fondo;
+    private CapaPista capaCalzada;
+    private CapaPista capaTribunas;
+    private CapaDecorativa nubesLejanas;
+    private CapaDecorativa nubesCercanas;
+    private SistemaParticulas particulas;
+    private PistaProcedural pista;
+
+    // Quién conduce: el teclado o el piloto automático
+    private final ConfiguracionJuego configuracion;
+    private Controlador controlador;
+
+    // Teclado y mandos traducidos a acciones y muestreados una vez por frame
+    private final MapaControles controles = new MapaControles();
+    private SistemaEntrada entrada;
+
+    // Grabación opcional de la sesión (null si no se pidió)
+    private GrabadorTelemetria grabador;
+
+    // Fotos (F12) y video (F11) de la pantalla, leídos y guardados fuera del dibujado
+    private Capturador capturador;
+
+    // Modo fantasma: mejores carreras guardadas y la carrera actual (null si no se pidió)
+    private BibliotecaFantasmas fantasmas;
+    private GrabadorFantasma grabacionFantasma;
+
+    // Azar de la carrera (pista, nubes y obstáculos), sembrado con su semilla.
+    // Partículas y derrapes siguen usando MathUtils.random, que no se toca.
+    private final RandomXS128 azarCarrera = new RandomXS128();
 
     private float scrollY        = 0f;
     private float tiempoSpawn    = 0f;
     private float tiempoPuntaje  = 0f;
-    private float tiempoSpawnNube = 0f;  // <-- TIMER PARA NUBES
+    private float derrapeRestante = 0f;
+    private float derrapeSentido  = 0f;
+    private float impulsoRestante = 0f;
+    private float tiempoCarrera  = 0f;
+    private long  semillaCarrera = 0L;
     private int   puntaje        = 0;
     private int   vida           = INITIAL_LIFE;
     private boolean gameOver     = false;
+    private final int[] records  = new int[LEADERBOARD_SIZE];
+
+    // Escenas del juego; solo la de arriba de la pila se actualiza
+    private final PilaEscenas escenas        = new PilaEscenas();
+    private final EscenaCarga escenaCarga    = new EscenaCarga();
+    private final EscenaMenu escenaMenu      = new EscenaMenu();
+    private final EscenaCarrera escenaCarrera = new EscenaCarrera();
+    private final EscenaPausa escenaPausa    = new EscenaPausa();
+    private final EscenaGameOver escenaGameOver = new EscenaGameOver();
+    private final EscenaRecords escenaRecords = new EscenaRecords();
+    private final EscenaControles escenaControles = new EscenaControles();
+    private final EscenaBenchmark escenaBenchmark = new EscenaBenchmark();
+
+    /** Crea el juego con la configuración por defecto: teclado y sin grabación. */
+    public Main() {
+        this(new ConfiguracionJuego());
+    }
+
+    /**
+     * @param configuracion opciones de arranque. En modo bot el auto lo conduce
+     *                      el piloto automático y la partida se reinicia sola
+     *                      tras un Game Over.
+     */
+    public Main(ConfiguracionJuego configuracion) {
+        this.configuracion = configuracion;
+        this.recursos = new GestorRecursos(configuracion.getPresupuestoVram());
+        this.recursos.setRastrearOrigen(configuracion.isRastrearRecursos());
+    }
 
     // -------------------------------------------------------------------------
     // 4. CICLO DE VIDA LIBGDX
@@ -70,23 +262,45 @@ public class Main extends ApplicationAdapter {
      * Inicializa el juego al momento de arrancar la aplicación.
      * <p>
      * Este método forma parte del ciclo de vida estándar de LibGDX y se ejecuta
-     * **una sola vez** al inicio del programa. Su responsabilidad es preparar
-     * todos los recursos necesarios para que el juego pueda comenzar: configurar
-     * herramientas de renderizado, cargar texturas y construir los objetos base
-     * del mundo.
+     * **una sola vez** al inicio del programa. Prepara lo mínimo para dibujar y
+     * deja en la pila la escena de carga, que muestra un mensaje mientras se
+     * cargan los recursos en <code>loadGame()</code>.
      * <p>
      * Flujo interno:
      * <ul>
      *     <li><b>initRendering()</b>: Inicializa el motor gráfico del juego
      *     (SpriteBatch y BitmapFont), que se utilizarán para dibujar en pantalla.</li>
      *
+     *     <li><b>initInput()</b>: Carga los controles guardados y empieza a
+     *     recibir los eventos del teclado y de los mandos.</li>
+     *
+     *     <li><b>initCapture()</b>: Prepara las fotos y videos de la pantalla y,
+     *     si se pidió, empieza a grabar desde el primer frame.</li>
+     *
+     *     <li><b>EscenaCarga</b>: En su primer frame llama a <code>loadGame()</code>,
+     *     que ejecuta los pasos siguientes, y luego pasa al menú (o directamente a
+     *     la carrera en modo bot).</li>
+     *
      *     <li><b>loadTexturesSafely()</b>: Carga las imágenes desde el disco. Si
      *     alguna textura falta o se produce un error crítico, el método devuelve
      *     <code>false</code>, y el juego no continúa para evitar fallas.</li>
      *
+     *     <li><b>createAudioEngine()</b>: Carga los sonidos del juego, o prepara
+     *     un motor silencioso si no hay dispositivo de audio.</li>
+     *
+     *     <li><b>initGhosts()</b>: Si se pidió el modo fantasma, abre la carpeta
+     *     de las mejores carreras guardadas.</li>
+     *
      *     <li><b>initWorld()</b>: Crea los objetos principales del juego, como el
      *     auto del jugador y la lista de obstáculos, además de establecer el estado
      *     inicial (vida, puntaje, timers, etc.).</li>
+     *
+     *     <li><b>initQualityGovernor()</b>: Prepara el control automático de la
+     *     calidad gráfica según el tiempo de cada frame.</li>
+     *
+     *     <li><b>initTelemetry()</b>: Si se pidió, empieza a grabar la sesión.</li>
+     *
+     *     <li><b>loadLeaderboard()</b>: Lee los mejores puntajes guardados.</li>
      * </ul>
      * <p>
      * En resumen, este método prepara todo lo necesario antes de que el ciclo
@@ -95,11 +309,28 @@ public class Main extends ApplicationAdapter {
     @Override
     public void create() {
         initRendering();
+        initInput();
+        initCapture();
+        escenas.apilar(escenaCarga);
+    }
+
+    /**
+     * Carga los recursos y construye el mundo. La llama la escena de carga.
+     *
+     * @return <code>false</code> si faltó alguna textura y el juego no puede seguir.
+     */
+    private boolean loadGame() {
         if (!loadTexturesSafely()) {
             // Si algo falló cargando texturas, no seguimos
-            return;
+            return false;
         }
+        audio = createAudioEngine();
+        initGhosts();
         initWorld();
+        initQualityGovernor();
+        initTelemetry();
+        loadLeaderboard();
+        return true;
     }
 
     /**
@@ -118,18 +349,37 @@ public class Main extends ApplicationAdapter {
      *     los movimientos y actualizaciones sean suaves e independientes de la velocidad
      *     del CPU.</li>
      *
-     *     <li><b>updateRunningState(delta)</b>: Si el juego está en curso
-     *     (no hay Game Over), se actualiza toda la lógica principal: movimiento
-     *     del jugador, generación de obstáculos, scroll de la pista, detección de
-     *     choques, puntaje, etc.</li>
+     *     <li><b>entrada.muestrear()</b>: Entrega a la simulación los eventos de
+     *     teclado y mando llegados desde el frame anterior, con qué fracción del
+     *     frame estuvo presionada cada acción.</li>
+     *
+     *     <li><b>handleCaptureKeys()</b>: Pide una foto o empieza y detiene el
+     *     video, en cualquier escena.</li>
+     *
+     *     <li><b>escenas.actualizar(delta)</b>: Actualiza solo la escena de
+     *     arriba de la pila. Durante la carrera es <code>updateRunningState</code>
+     *     (movimiento, obstáculos, scroll, choques, puntaje); en pausa o Game Over
+     *     la carrera no se simula.</li>
      *
-     *     <li><b>updateGameOverState()</b>: Si el jugador ha perdido,
-     *     este método gestiona las opciones disponibles en la pantalla de Game Over
-     *     (reiniciar o salir del juego).</li>
+     *     <li><b>escenas.dibujar()</b>: Dibuja las escenas visibles. Una escena
+     *     superpuesta (pausa, Game Over) se dibuja sobre una copia congelada del
+     *     último frame de la carrera, sin volver a dibujar el mundo.</li>
      *
-     *     <li><b>drawFrame()</b>: Finalmente, una vez actualizada la lógica del
-     *     frame, se dibuja todo en pantalla (fondo, autos, enemigos, HUD,
-     *     mensajes, etc.).</li>
+     *     <li><b>capturador.frameDibujado()</b>: Si se está capturando, encarga
+     *     la copia de este frame y entrega al codificador la de hace unos
+     *     frames. Su costo queda dentro del tiempo de trabajo del frame.</li>
+     *
+     *     <li><b>entrada.frameDibujado()</b>: Mide la latencia desde el evento de
+     *     entrada más antiguo de este frame (en escritorio, desde el sondeo de
+     *     eventos) hasta que terminó de dibujarse, antes del intercambio de
+     *     buffers.</li>
+     *
+     *     <li><b>gobernador.registrar()</b>: Informa cuánto tardaron la
+     *     actualización y el dibujado, para ajustar la calidad si el equipo no
+     *     alcanza la tasa de refresco.</li>
+     *
+     *     <li><b>grabador.registrar()</b>: Si la telemetría está activa, graba el
+     *     estado del mundo y los tiempos del frame.</li>
      * </ul>
      *
      * <p>
@@ -139,15 +389,36 @@ public class Main extends ApplicationAdapter {
      */
     @Override
     public void render() {
+        long frameStart = TimeUtils.nanoTime();
         float delta = Gdx.graphics.getDeltaTime();
-
-        if (!gameOver) {
-            updateRunningState(delta);
-        } else {
-            updateGameOverState();
+        recursos.nuevoFrame();
+
+        entrada.muestrear(frameStart);
+        handleCaptureKeys();
+        escenas.actualizar(delta);
+        audio.actualizar(delta);
+        escenas.dibujar();
+        capturador.frameDibujado();
+        entrada.frameDibujado(TimeUtils.nanoTime());
+
+        float workMs = (TimeUtils.nanoTime() - frameStart) / 1_000_000f;
+        // En la prueba de rendimiento la calidad no cambia: cada etapa se mide completa
+        if (gobernador != null && configuracion.getArchivoBenchmark() == null) {
+            gobernador.registrar(workMs, delta * 1000f);
+        }
+        if (grabador != null) {
+            grabador.registrar(Gdx.graphics.getFrameId(), delta * 1000f, workMs, gameOver, vida, puntaje,
+                jugador, obstaculos, getTrackDistance(), semillaCarrera);
         }
+    }
 
-        drawFrame();
+    /**
+     * Avisa a las escenas que cambió el tamaño de la ventana, para que
+     * descarten los frames congelados con el tamaño anterior.
+     */
+    @Override
+    public void resize(int width, int height) {
+        escenas.redimensionar(width, height);
     }
 
     /**
@@ -161,10 +432,22 @@ public class Main extends ApplicationAdapter {
      *
      * <p>Flujo interno:</p>
      * <ul>
+     *     <li><b>closeTelemetry()</b>: Termina de escribir la grabación de la
+     *     sesión, si había una.</li>
+     *
+     *     <li><b>closeGhosts()</b>: Cierra los archivos de los fantasmas.</li>
+     *
+     *     <li><b>closeInput()</b>: Deja de recibir eventos de los mandos e
+     *     informa la latencia de entrada medida.</li>
+     *
+     *     <li><b>closeCapture()</b>: Termina el video en curso y espera a que
+     *     se guarden las fotos pendientes.</li>
+     *
      *     <li><b>disposeRenderingResources()</b>: Encapsula la liberación de
-     *     SpriteBatch, BitmapFont y todas las texturas utilizadas en el juego.
-     *     Esto mantiene la responsabilidad única del método y facilita su
-     *     mantenimiento.</li>
+     *     SpriteBatch, BitmapFont y los buffers de dibujo, y devuelve las
+     *     texturas al gestor de recursos, que informa las que quedaron sin
+     *     liberar. Esto mantiene la responsabilidad única del método y facilita
+     *     su mantenimiento.</li>
      * </ul>
      *
      * <p>
@@ -175,6 +458,10 @@ public class Main extends ApplicationAdapter {
      */
     @Override
     public void dispose() {
+        closeTelemetry();
+        closeGhosts();
+        closeInput();
+        closeCapture();
         disposeRenderingResources();
     }
 
@@ -213,6 +500,39 @@ public class Main extends ApplicationAdapter {
         font.getData().setScale(2);
     }
 
+    /**
+     * Prepara la entrada del jugador: carga los controles guardados y registra
+     * el {@link SistemaEntrada} para recibir los eventos del teclado y de los
+     * mandos. Si la plataforma no tiene soporte de mandos, se juega solo con
+     * el teclado.
+     */
+    private void initInput() {
+        controles.cargar(Gdx.app.getPreferences(PREFERENCES_NAME));
+        entrada = new SistemaEntrada(controles);
+        entrada.setSonda(configuracion.getSondaLatencia());
+        Gdx.input.setInputProcessor(entrada);
+        try {
+            Controllers.addListener(entrada);
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error("ENTRADA", "sin soporte de mandos", e);
+        }
+    }
+
+    /**
+     * Prepara el capturador de pantalla. Los videos se anotan a la tasa de
+     * refresco del monitor, que es el ritmo al que el lanzador dibuja.
+     */
+    private void initCapture() {
+        int refreshRate = Gdx.graphics.getDisplayMode().refreshRate;
+        if (refreshRate <= 0) {
+            refreshRate = DEFAULT_REFRESH_RATE;
+        }
+        capturador = new Capturador(configuracion.getCarpetaCapturas(), refreshRate);
+        if (configuracion.isGrabarAlIniciar()) {
+            capturador.iniciarVideo(configuracion.getFormatoVideo());
+        }
+    }
+
     /**
      * Carga todas las texturas necesarias para el juego de forma segura.
      * <p>
@@ -225,8 +545,10 @@ public class Main extends ApplicationAdapter {
      * <p>Flujo y responsabilidades:</p>
      * <ul>
      *     <li><b>Carga de texturas principales</b>:
-     *         Se cargan las imágenes asociadas al jugador, enemigos, barreras y
-     *         tribunas. Cada una es esencial para la representación visual del juego.</li>
+     *         Se piden al <code>GestorRecursos</code> las imágenes asociadas al
+     *         jugador, enemigos, barreras y tribunas. Cada una es esencial para la
+     *         representación visual del juego. Los manejadores quedan anotados en
+     *         <code>recursosTomados</code> para devolverlos al cerrar.</li>
      *
      *     <li><b>Carga segura de la pista</b>:
      *         Antes de cargar la textura de la pista (<code>Road19.jpg</code>),
@@ -243,6 +565,10 @@ public class Main extends ApplicationAdapter {
      *         verticalmente, permitiendo el efecto de desplazamiento infinito
      *         durante la carrera.</li>
      *
+     *     <li><b>Máscaras de colisión</b>:
+     *         Si la colisión por píxel está activa, se precalcula la máscara de
+     *         transparencia del jugador y de cada tipo de obstáculo.</li>
+     *
      *     <li><b>Control de errores</b>:
      *         Cualquier excepción en la carga es capturada. En ese caso el método
      *         informa el error por consola y retorna <code>false</code>, señalando
@@ -260,25 +586,19 @@ public class Main extends ApplicationAdapter {
      */
     private boolean loadTexturesSafely() {
         try {
-            texJugador  = new Texture("car_blue_1.png");
-            texEnemigo  = new Texture("car_black_small_5.png");
-            texBarrera  = new Texture("barrier_red_race.png");
-            texTribuna  = new Texture("tribune_full.png");
-            texNube     = new Texture("cloud.PNG"); // <-- Asegúrate de tener este asset
-
-            if (Gdx.files.internal("Road19.jpg").exists()) {
-                texPista = new Texture("Road19.jpg");
-            } else {
-                texPista = new Texture(
-                    new com.badlogic.gdx.graphics.Pixmap(
-                        1, 1,
-                        com.badlogic.gdx.graphics.Pixmap.Format.RGB888
-                    )
-                );
-            }
-
-            texPista.setWrap(Texture.TextureWrap.Repeat, Texture.TextureWrap.Repeat);
-            texTribuna.setWrap(Texture.TextureWrap.Repeat, Texture.TextureWrap.Repeat);
+            texJugador  = take(recursos.textura("car_blue_1.png"));
+            texTribuna  = take(recursos.adquirir("tribune_full.png", Texture.class,
+                () -> createRepeatingTexture("tribune_full.png")));
+            texNube     = take(recursos.textura("cloud.PNG")); // <-- Asegúrate de tener este asset
+            texParticula = take(recursos.adquirir("generada:pixel-blanco", Texture.class,
+                this::createWhitePixelTexture));
+            texPista    = take(recursos.adquirir("Road19.jpg", Texture.class,
+                () -> createRepeatingTexture("Road19.jpg")));
+
+            TextureRegion playerRegion = new TextureRegion(texJugador.get());
+            spriteJugador = sprites.registrar(playerRegion,
+                buildCollisionMask("car_blue_1.png", playerRegion, CAR_WIDTH, CAR_HEIGHT));
+            loadObstacleTypes();
 
             return true;
 
@@ -288,24 +608,136 @@ public class Main extends ApplicationAdapter {
         }
     }
 
+    /**
+     * Lee los tipos de obstáculo y prepara la imagen y la máscara de cada uno.
+     * <p>
+     * Varios tipos pueden usar la misma textura con distintas regiones; el
+     * gestor de recursos la carga una sola vez.
+     * </p>
+     */
+    private void loadObstacleTypes() {
+        tiposObstaculo = RegistroObstaculos.cargar(Gdx.files.internal(OBSTACLE_TYPES_FILE));
+        spritesObstaculo = new int[tiposObstaculo.getCantidad() + 1];
+        for (int id = 1; id <= tiposObstaculo.getCantidad(); id++) {
+            TipoObstaculo tipo = tiposObstaculo.get(id);
+            Texture texture = take(recursos.textura(tipo.getTextura())).get();
+            TextureRegion region = tipo.tieneRegion()
+                ? new TextureRegion(texture, tipo.getRegionX(), tipo.getRegionY(), tipo.getRegionAncho(), tipo.getRegionAlto())
+                : new TextureRegion(texture);
+            spritesObstaculo[id] = sprites.registrar(region,
+                buildCollisionMask(tipo.getTextura(), region, tipo.getAncho(), tipo.getAlto()));
+        }
+    }
+
+    /**
+     * Precalcula la máscara de colisión de una región de una imagen.
+     * <p>
+     * La máscara se genera con el tamaño con que se dibuja la entidad, para
+     * que cada bit corresponda a un píxel en pantalla.
+     * </p>
+     *
+     * @param file   archivo de imagen de la textura.
+     * @param region parte de la imagen que se dibuja.
+     * @param width  ancho con que se dibuja.
+     * @param height alto con que se dibuja.
+     * @return la máscara, o <code>null</code> si la colisión por píxel está desactivada.
+     */
+    private MascaraAlfa buildCollisionMask(String file, TextureRegion region, int width, int height) {
+        if (!PIXEL_PERFECT_COLLISIONS) {
+            return null;
+        }
+        Pixmap pixmap = new Pixmap(Gdx.files.internal(file));
+        MascaraAlfa mascara = MascaraAlfa.desdePixmap(pixmap, region.getRegionX(), region.getRegionY(),
+            region.getRegionWidth(), region.getRegionHeight(), width, height, MASK_ALPHA_THRESHOLD);
+        pixmap.dispose();
+        return mascara;
+    }
+
+    /** Anota un recurso tomado por el juego para devolverlo en <code>releaseResources()</code>. */
+    private <T extends Recurso<?>> T take(T recurso) {
+        recursosTomados.add(recurso);
+        return recurso;
+    }
+
+    /**
+     * Carga una textura que se repite al desplazarse (pista y tribunas). Si el
+     * archivo no existe se usa una textura mínima de 1×1 píxel.
+     * <p>
+     * La repetición se configura aquí y no después de adquirirla, para que
+     * también la tenga si el gestor la descarga y la vuelve a crear.
+     * </p>
+     */
+    private Texture createRepeatingTexture(String file) {
+        Texture texture;
+        if (Gdx.files.internal(file).exists()) {
+            texture = new Texture(file);
+        } else {
+            Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGB888);
+            texture = new Texture(pixmap);
+            pixmap.dispose();
+        }
+        texture.setWrap(Texture.TextureWrap.Repeat, Texture.TextureWrap.Repeat);
+        return texture;
+    }
+
+    /**
+     * Crea el motor de audio del juego.
+     * <p>
+     * Si LibGDX no dispone de audio (ejecución sin ventana o sin dispositivo),
+     * se usa un motor silencioso con la misma interfaz, de modo que el resto del
+     * juego no necesita comprobarlo.
+     * </p>
+     */
+    private MotorAudio createAudioEngine() {
+        if (Gdx.audio == null || Gdx.app.getType() == Application.ApplicationType.HeadlessDesktop) {
+            return new MotorAudioNulo();
+        }
+        return new MotorAudioGdx(MAX_AUDIO_VOICES);
+    }
+
+    /**
+     * Crea una textura blanca de 1×1 píxel que se tiñe al dibujar partículas.
+     * <p>
+     * Usar una sola textura para todos los efectos permite que las partículas
+     * se dibujen dentro del mismo lote del <code>SpriteBatch</code>.
+     * </p>
+     */
+    private Texture createWhitePixelTexture() {
+        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        pixmap.setColor(Color.WHITE);
+        pixmap.fill();
+        Texture texture = new Texture(pixmap);
+        pixmap.dispose();
+        return texture;
+    }
+
     /**
      * Inicializa los elementos principales del mundo del juego.
      * <p>
      * Este método se ejecuta después de cargar correctamente las texturas y tiene
      * como responsabilidad construir los objetos base que dan vida al escenario:
-     * el jugador, la lista de obstáculos y el estado inicial del juego.
+     * el jugador, el mundo de obstáculos y el estado inicial del juego.
      * </p>
      *
      * <p>Flujo interno:</p>
      * <ul>
+     *     <li><b>Pista procedural</b>:
+     *         Se crea la pista con el mismo ancho de calzada que tenía la pista
+     *         recta, y un hilo que genera sus tramos en segundo plano.</li>
+     *
      *     <li><b>Posicionamiento del jugador</b>:
      *         Se calcula la posición horizontal central en pantalla y se instancia
      *         el objeto <code>AutoJugador</code> utilizando su textura asociada.</li>
      *
-     *     <li><b>Creación de la lista polimórfica de obstáculos</b>:
-     *         Se inicializa un <code>ArrayList&lt;Juego&gt;</code>, que almacenará
-     *         tanto autos enemigos como barreras, aprovechando el polimorfismo de
-     *         la jerarquía de clases.</li>
+     *     <li><b>Mundo de obstáculos</b>:
+     *         Autos enemigos y barreras son entidades de un mismo arquetipo que
+     *         solo se distinguen por sus datos; <code>createObstacleWorld()</code>
+     *         arma el mundo y los sistemas que los mueven, chocan y eliminan.</li>
+     *
+     *     <li><b>Controlador</b>:
+     *         Se elige quién conduce: el teclado o, en modo bot, el piloto
+     *         automático, que observa la carrera a través de una
+     *         <code>VistaCarrera</code>.</li>
      *
      *     <li><b>resetGameState()</b>:
      *         Se encarga de establecer los valores iniciales del juego
@@ -321,13 +753,271 @@ public class Main extends ApplicationAdapter {
      * </p>
      */
     private void initWorld() {
-        int centerX = Gdx.graphics.getWidth() / 2 - 30;
-        jugador = new AutoJugador(centerX, 50, texJugador);
-        obstaculos = new ArrayList<>();
-        nubes = new ArrayList<>();
+        int width = Gdx.graphics.getWidth();
+        float roadWidth = width - LEFT_BOUND - RIGHT_MARGIN;
+        float roadCenter = LEFT_BOUND + roadWidth / 2f;
+        pista = new PistaProcedural(roadWidth, roadCenter, TRACK_CURVE_AMPLITUDE, Gdx.graphics.getHeight());
+
+        int centerX = width / 2 - 30;
+        jugador = new AutoJugador(centerX, 50, texJugador.get());
+        createObstacleWorld();
+        createBackground();
+        particulas = new SistemaParticulas(PARTICLE_BUDGET);
+        controlador = createController();
         resetGameState();
     }
 
+    /**
+     * Elige quién conduce: el piloto automático en modo bot, un zigzag fijo en
+     * la prueba de rendimiento (para que todas las ejecuciones sean iguales) o
+     * el jugador.
+     */
+    private Controlador createController() {
+        if (configuracion.getArchivoBenchmark() != null) {
+            return delta -> MathUtils.sin(tiempoCarrera * BENCHMARK_WEAVE_SPEED);
+        }
+        if (configuracion.isModoBot()) {
+            return new ControladorIA(createRaceView(), BOT_PLANNING_BUDGET_US);
+        }
+        return new ControladorJugador(entrada);
+    }
+
+    /**
+     * Crea el mundo de entidades y registra sus sistemas en el orden en que se
+     * ejecutan: movimiento, colisiones con el jugador y limpieza de los que
+     * salen de la pantalla.
+     * <p>
+     * El dibujo de los obstáculos es también un sistema, pero se llama desde
+     * <code>renderObstacles()</code> porque necesita el lote ya iniciado.
+     * </p>
+     */
+    private void createObstacleWorld() {
+        mundo = new Mundo();
+        arquetipoObstaculo = mundo.arquetipo(Componentes.POSICION, Componentes.POSICION_ANTERIOR,
+            Componentes.VELOCIDAD, Componentes.TAMANO, Componentes.SPRITE, Componentes.OBSTACULO);
+        obstaculos = new Consulta(mundo, Componentes.POSICION, Componentes.VELOCIDAD, Componentes.TAMANO,
+            Componentes.OBSTACULO);
+
+        SistemaColision colisiones = new SistemaColision(mundo, sprites, jugador, spriteJugador, createCollisionListener());
+        colisiones.setPorPixel(PIXEL_PERFECT_COLLISIONS);
+        colisiones.setContinua(SWEPT_COLLISIONS, SWEPT_SAMPLE_STEP);
+        colisiones.setDistanciaRoce(NEAR_MISS_DISTANCE);
+
+        planificador = new Planificador(mundo, ECS_WORKER_THREADS);
+        planificador.agregar(new SistemaMovimiento(mundo));
+        planificador.agregar(colisiones);
+        planificador.agregar(new SistemaLimpieza(mundo, DESPAWN_Y));
+        dibujoObstaculos = new SistemaDibujo(mundo, sprites, batch);
+    }
+
+    /**
+     * Arma el fondo en capas, de atrás hacia adelante: calzada, tribunas, nubes
+     * lejanas y nubes cercanas.
+     * <p>
+     * La calzada y las tribunas avanzan junto con la pista. Las nubes lejanas
+     * son más chicas, más transparentes y más lentas que las cercanas, lo que da
+     * la sensación de profundidad.
+     * </p>
+     */
+    private void createBackground() {
+        capaCalzada = new CapaPista(texPista.get(), CapaPista.Zona.CALZADA, 1f, pista, TRACK_SLICE_HEIGHT);
+        capaTribunas = new CapaPista(texTribuna.get(), CapaPista.Zona.TRIBUNAS, 1f, pista, TRACK_SLICE_HEIGHT);
+        nubesLejanas = new CapaDecorativa(texNube.get(), CLOUD_FAR_SPEED, CLOUD_DENSITY, CLOUD_SPACING * 0.75f,
+            CLOUD_FAR_SCALE, CLOUD_FAR_ALPHA, MathUtils.random.nextLong());
+        nubesCercanas = new CapaDecorativa(texNube.get(), CLOUD_NEAR_SPEED, CLOUD_DENSITY, CLOUD_SPACING,
+            1f, 1f, MathUtils.random.nextLong());
+
+        fondo = new FondoParallax();
+        fondo.agregar(capaCalzada);
+        fondo.agregar(capaTribunas);
+        fondo.agregar(nubesLejanas);
+        fondo.agregar(nubesCercanas);
+    }
+
+    /**
+     * Crea la vista de solo lectura que usa el piloto automático para observar
+     * la carrera. Los bordes de la calzada se consultan en coordenadas de
+     * pantalla, sumando la distancia recorrida.
+     */
+    private VistaCarrera createRaceView() {
+        return new VistaCarrera() {
+            @Override
+            public AutoJugador getJugador() {
+                return jugador;
+            }
+
+            @Override
+            public Consulta getObstaculos() {
+                return obstaculos;
+            }
+
+            @Override
+            public float getBordeIzquierdo(float pantallaY) {
+                return pista.getBordeIzquierdo(getTrackDistance() + pantallaY);
+            }
+
+            @Override
+            public float getBordeDerecho(float pantallaY) {
+                return pista.getBordeDerecho(getTrackDistance() + pantallaY);
+            }
+
+            @Override
+            public float getVelocidadJugador() {
+                return PLAYER_SPEED;
+            }
+
+            @Override
+            public float getVelocidadPista() {
+                return impulsoRestante > 0f ? SCROLL_SPEED * BOOST_FACTOR : SCROLL_SPEED;
+            }
+        };
+    }
+
+    /**
+     * Crea el gobernador de frames y aplica el nivel de calidad inicial.
+     * <p>
+     * El presupuesto de cada frame es la duración de un refresco del monitor,
+     * que es el ritmo que impone la sincronización vertical del lanzador. Si
+     * el backend no informa la tasa de refresco se asume
+     * <code>DEFAULT_REFRESH_RATE</code>.
+     * </p>
+     */
+    private void initQualityGovernor() {
+        int refreshRate = Gdx.graphics.getDisplayMode().refreshRate;
+        if (refreshRate <= 0) {
+            refreshRate = DEFAULT_REFRESH_RATE;
+        }
+        gobernador = new GobernadorFrames(1000f / refreshRate, QUALITY_WINDOW_FRAMES, NivelCalidad.ALTO);
+        gobernador.agregarOyente(this::onQualityChanged);
+        applyQuality(gobernador.getNivel());
+    }
+
+    /**
+     * Lee los mejores puntajes guardados en las preferencias del juego.
+     */
+    private void loadLeaderboard() {
+        Preferences prefs = Gdx.app.getPreferences(PREFERENCES_NAME);
+        for (int i = 0; i < LEADERBOARD_SIZE; i++) {
+            records[i] = prefs.getInteger("record." + i, 0);
+        }
+    }
+
+    /**
+     * Inserta un puntaje en la tabla de récords, si alcanza, y la guarda.
+     */
+    private void saveScore(int score) {
+        int position = LEADERBOARD_SIZE;
+        while (position > 0 && records[position - 1] < score) {
+            position--;
+        }
+        if (position == LEADERBOARD_SIZE) {
+            return;
+        }
+        System.arraycopy(records, position, records, position + 1, LEADERBOARD_SIZE - position - 1);
+        records[position] = score;
+
+        Preferences prefs = Gdx.app.getPreferences(PREFERENCES_NAME);
+        for (int i = 0; i < LEADERBOARD_SIZE; i++) {
+            prefs.putInteger("record." + i, records[i]);
+        }
+        prefs.flush();
+    }
+
+    /**
+     * En modo fantasma, guarda la carrera que terminó si quedó entre las
+     * mejores de su pista; correrá como fantasma desde la próxima carrera.
+     */
+    private void saveGhost() {
+        if (fantasmas == null) {
+            return;
+        }
+        try {
+            File file = fantasmas.guardar(grabacionFantasma, puntaje);
+            if (file != null) {
+                Gdx.app.log("FANTASMAS", "carrera guardada en " + file.getName());
+            }
+        } catch (IOException e) {
+            Gdx.app.error("FANTASMAS", "no se pudo guardar la carrera", e);
+        }
+    }
+
+    /**
+     * Guarda los controles que el jugador cambió en la pantalla de controles.
+     */
+    private void saveControls() {
+        Preferences prefs = Gdx.app.getPreferences(PREFERENCES_NAME);
+        controles.guardar(prefs);
+        prefs.flush();
+    }
+
+    /**
+     * Empieza a grabar la sesión si la configuración indica un archivo de
+     * telemetría. Si el archivo no se puede crear, el juego sigue sin grabar.
+     */
+    private void initTelemetry() {
+        File file = configuracion.getArchivoTelemetria();
+        if (file == null) {
+            return;
+        }
+        try {
+            grabador = new GrabadorTelemetria(file, TELEMETRY_FILE_BYTES, TELEMETRY_FILES_KEPT);
+            Gdx.app.log("TELEMETRIA", "grabando en " + file.getAbsolutePath());
+        } catch (IOException e) {
+            Gdx.app.error("TELEMETRIA", "no se pudo crear " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Abre la carpeta de fantasmas si la configuración la indica. Desde ahí
+     * cada carrera se graba y se corre contra las mejores guardadas.
+     */
+    private void initGhosts() {
+        File folder = configuracion.getCarpetaFantasmas();
+        if (folder == null) {
+            return;
+        }
+        fantasmas = new BibliotecaFantasmas(folder, GHOST_COUNT);
+        grabacionFantasma = new GrabadorFantasma(GHOST_TICK_RATE);
+        Gdx.app.log("FANTASMAS", "carreras guardadas en " + folder.getAbsolutePath());
+    }
+
+    /**
+     * Evento del gobernador: aplica el nuevo nivel y deja constancia en el log.
+     */
+    private void onQualityChanged(NivelCalidad previous, NivelCalidad next, float percentileMs) {
+        Gdx.app.log("CALIDAD", previous + " -> " + next
+            + " (p90 " + percentileMs + " ms, presupuesto " + gobernador.getPresupuestoMs() + " ms"
+            + ", bajadas " + gobernador.getBajadas() + ", subidas " + gobernador.getSubidas() + ")");
+        applyQuality(next);
+    }
+
+    /**
+     * Aplica un nivel de calidad: calidad de partículas, densidad de nubes,
+     * alto de las franjas del fondo y resolución del buffer del mundo.
+     */
+    private void applyQuality(NivelCalidad nivel) {
+        particulas.setCalidad(nivel.calidadEfectos);
+        nubesLejanas.setFactorDensidad(nivel.densidadNubes);
+        nubesCercanas.setFactorDensidad(nivel.densidadNubes);
+        capaCalzada.setAltoFranja(TRACK_SLICE_HEIGHT * nivel.multiplicadorFranjaFondo);
+        capaTribunas.setAltoFranja(TRACK_SLICE_HEIGHT * nivel.multiplicadorFranjaFondo);
+
+        if (sceneBuffer != null) {
+            sceneBuffer.dispose();
+            sceneBuffer = null;
+            sceneRegion = null;
+        }
+        if (nivel.escalaRender < 1f) {
+            int bufferWidth = Math.max(1, Math.round(Gdx.graphics.getWidth() * nivel.escalaRender));
+            int bufferHeight = Math.max(1, Math.round(Gdx.graphics.getHeight() * nivel.escalaRender));
+            sceneBuffer = new FrameBuffer(Pixmap.Format.RGB888, bufferWidth, bufferHeight, false);
+            sceneBuffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+            sceneRegion = new TextureRegion(sceneBuffer.getColorBufferTexture());
+            // La textura de un FrameBuffer queda invertida verticalmente
+            sceneRegion.flip(false, true);
+        }
+    }
+
     /**
      * Restablece todas las variables críticas del juego para comenzar una partida nueva.
      * <p>
@@ -340,7 +1030,11 @@ public class Main extends ApplicationAdapter {
      * <p>Acciones realizadas:</p>
      * <ul>
      *     <li>Restablece vida, puntaje y temporizadores (spawn y score).</li>
-     *     <li>Limpia la lista de obstáculos, eliminando cualquier enemigo previo.</li>
+     *     <li>Destruye todas las entidades del mundo, eliminando cualquier enemigo previo.</li>
+     *     <li>Elimina las partículas que quedaron de la partida anterior.</li>
+     *     <li>Elige la semilla de la carrera (en modo fantasma, la de la mejor
+     *     carrera guardada) y con ella genera la pista desde el comienzo.</li>
+     *     <li>Abre los fantasmas de esa semilla y empieza a grabar la carrera.</li>
      *     <li>Reubica al jugador en el centro de la pantalla.</li>
      *     <li>Desactiva el estado de Game Over.</li>
      * </ul>
@@ -350,19 +1044,70 @@ public class Main extends ApplicationAdapter {
         puntaje = 0;
         tiempoPuntaje = 0;
         tiempoSpawn = 0;
-        tiempoSpawnNube = 0f;   // <-- REINICIAMOS TIMER DE NUBES
+        derrapeRestante = 0f;
+        impulsoRestante = 0f;
         gameOver = false;
-        obstaculos.clear();
-        nubes.clear();          // <-- LIMPIAMOS NUBES EXISTENTES
+        mundo.limpiar();
+        particulas.limpiar();
+        scrollY = 0f;
+        tiempoCarrera = 0f;
+        semillaCarrera = chooseRaceSeed();
+        // La pista, las nubes y la secuencia de obstáculos salen de la semilla
+        azarCarrera.setSeed(semillaCarrera);
+        pista.reiniciar(azarCarrera.nextLong());
+        nubesLejanas.setSemilla(azarCarrera.nextLong());
+        nubesCercanas.setSemilla(azarCarrera.nextLong());
+        pista.actualizar(getTrackDistance(), Gdx.graphics.getHeight());
 
         int centerX = Gdx.graphics.getWidth() / 2 - 30;
         jugador.setX(centerX);
+        jugador.savePreviousPosition();
+        if (grabacionFantasma != null) {
+            grabacionFantasma.iniciar(semillaCarrera, jugador.getX(), getTrackDistance());
+        }
+    }
+
+    /**
+     * Semilla de la próxima carrera: una nueva al azar o, en modo fantasma, la
+     * de la mejor carrera guardada, cuyos fantasmas quedan abiertos. Si la
+     * carpeta no se puede leer se corre sin fantasmas.
+     */
+    private long chooseRaceSeed() {
+        long seed = MathUtils.random.nextLong();
+        if (fantasmas == null) {
+            return seed;
+        }
+        try {
+            seed = fantasmas.elegirSemilla(seed);
+            fantasmas.cargar(seed);
+        } catch (IOException e) {
+            Gdx.app.error("FANTASMAS", "no se pudieron abrir los fantasmas", e);
+        }
+        return seed;
     }
 
 // -----------------------------------------------------------------------------
 // 6. ACTUALIZACIÓN DEL ESTADO (LÓGICA DEL JUEGO)
 // -----------------------------------------------------------------------------
 
+    /**
+     * Atiende las teclas de captura, que funcionan en cualquier escena:
+     * <code>FOTO</code> guarda el próximo frame como PNG y <code>GRABAR</code>
+     * empieza o detiene el video.
+     */
+    private void handleCaptureKeys() {
+        if (entrada.fuePresionada(Accion.FOTO)) {
+            capturador.pedirFoto();
+        }
+        if (entrada.fuePresionada(Accion.GRABAR)) {
+            if (capturador.isGrabando()) {
+                capturador.detenerVideo();
+            } else {
+                capturador.iniciarVideo(configuracion.getFormatoVideo());
+            }
+        }
+    }
+
     /**
      * Actualiza toda la lógica del juego mientras la partida está activa.
      * <p>
@@ -374,51 +1119,45 @@ public class Main extends ApplicationAdapter {
      * @param delta tiempo transcurrido entre el frame anterior y el actual.
      */
     private void updateRunningState(float delta) {
+        jugador.savePreviousPosition();
+        tiempoCarrera += delta;
         handlePlayerInput(delta);
         updateScrollAndTimers(delta);
-        spawnCloudsIfNeeded();        // <-- NUEVO: SPAWN DE NUBES
-        spawnObstaclesIfNeeded();
+        // La prueba de rendimiento pone ella misma los obstáculos de cada etapa
+        if (configuracion.getArchivoBenchmark() == null) {
+            spawnObstaclesIfNeeded();
+        }
         updateScoreIfNeeded(delta);
         updateObstaclesAndCollisions(delta);
-        updateClouds(delta);          // <-- NUEVO: ACTUALIZAR NUBES
-    }
-
-    /**
-     * Gestiona el comportamiento del juego cuando el estado es "Game Over".
-     * <p>
-     * Permite que el jugador reinicie la partida o cierre la aplicación.
-     * Este método evita mezclar la lógica de juego activo con la lógica de fin
-     * de partida.
-     * </p>
-     */
-    private void updateGameOverState() {
-        if (Gdx.input.isKeyJustPressed(Input.Keys.ENTER)) {
-            resetGameState();
-        }
-        if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
-            Gdx.app.exit();
+        if (grabacionFantasma != null) {
+            grabacionFantasma.registrar(tiempoCarrera, jugador.getX(), getTrackDistance());
         }
     }
 
     /**
-     * Procesa la entrada del jugador (teclas izquierda y derecha) y mueve el auto.
+     * Mueve el auto según la dirección que decide el controlador activo (las
+     * flechas izquierda y derecha, o el piloto automático).
      * <p>
      * También garantiza que el jugador no salga de los límites de la pista mediante
-     * un <code>clamp</code> de la posición X.
+     * un <code>clamp</code> de la posición X, usando los bordes de la calzada a la
+     * altura del auto. Mientras dura un derrape, el volante responde menos y el
+     * auto se desliza hacia un costado.
      * </p>
      *
      * @param delta tiempo transcurrido entre frames.
      */
     private void handlePlayerInput(float delta) {
-        if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
-            jugador.setX(jugador.getX() - PLAYER_SPEED * delta);
-        }
-        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
-            jugador.setX(jugador.getX() + PLAYER_SPEED * delta);
+        float direction = MathUtils.clamp(controlador.leerDireccion(delta), -1f, 1f);
+        float dx = direction * PLAYER_SPEED * delta;
+        if (derrapeRestante > 0f) {
+            derrapeRestante -= delta;
+            dx = dx * OIL_GRIP + derrapeSentido * OIL_SLIDE_SPEED * delta;
         }
+        jugador.setX(jugador.getX() + dx);
 
-        float minX = LEFT_BOUND;
-        float maxX = Gdx.graphics.getWidth() - RIGHT_MARGIN - jugador.getWidth();
+        float playerTrackY = getTrackDistance() + jugador.getY() + jugador.getHeight() / 2f;
+        float minX = pista.getBordeIzquierdo(playerTrackY);
+        float maxX = pista.getBordeDerecho(playerTrackY) - jugador.getWidth();
         float clampedX = MathUtils.clamp(jugador.getX(), minX, maxX);
         jugador.setX(clampedX);
     }
@@ -427,22 +1166,31 @@ public class Main extends ApplicationAdapter {
      * Actualiza el scroll vertical de la pista y los temporizadores internos.
      * <p>
      * Este método controla el movimiento del fondo y la medición del tiempo
-     * necesario para spawn de enemigos y acumulación de puntaje.
+     * necesario para spawn de enemigos y acumulación de puntaje. También avisa a
+     * la pista del avance para que prepare los tramos que están por aparecer.
+     * Durante un impulso, la pista y el puntaje avanzan <code>BOOST_FACTOR</code>
+     * veces más rápido.
      * </p>
      */
     private void updateScrollAndTimers(float delta) {
-        scrollY -= SCROLL_SPEED * delta;
+        float speedFactor = 1f;
+        if (impulsoRestante > 0f) {
+            impulsoRestante -= delta;
+            speedFactor = BOOST_FACTOR;
+        }
+        scrollY -= SCROLL_SPEED * speedFactor * delta;
+        pista.actualizar(getTrackDistance(), Gdx.graphics.getHeight());
         tiempoSpawn += delta;
-        tiempoPuntaje += delta;
-        tiempoSpawnNube += delta;     // <-- AVANZA TEMPORIZADOR DE NUBES
+        tiempoPuntaje += delta * speedFactor;
     }
 
     /**
      * Genera enemigos u obstáculos cuando el temporizador de spawn supera el umbral configurado.
      * <p>
-     * El método utiliza probabilidad para decidir si el nuevo objeto será un
-     * <code>AutoEnemigo</code> o una <code>Barrera</code>. Todos los objetos se
-     * agregan a la lista polimórfica <code>List&lt;Juego&gt;</code>.
+     * El tipo del nuevo obstáculo se elige al azar según los pesos de aparición
+     * del registro de obstáculos; todos son la misma clase de entidad con otros
+     * datos (velocidad, imagen y tamaño). La posición X se elige dentro de la
+     * calzada del tramo donde aparece el obstáculo.
      * </p>
      */
     private void spawnObstaclesIfNeeded() {
@@ -450,17 +1198,43 @@ public class Main extends ApplicationAdapter {
             return;
         }
 
-        float randomX = MathUtils.random(90, Gdx.graphics.getWidth() - 130);
+        TipoObstaculo tipo = tiposObstaculo.elegir(azarCarrera.nextFloat());
+        float spawnTrackY = getTrackDistance() + Gdx.graphics.getHeight();
+        float minX = pista.getBordeIzquierdo(spawnTrackY) + SPAWN_EDGE_MARGIN;
+        float maxX = pista.getBordeDerecho(spawnTrackY) - tipo.getAncho() - SPAWN_EDGE_MARGIN;
+        float randomX = minX + azarCarrera.nextFloat() * (maxX - minX);
 
-        if (MathUtils.randomBoolean(0.6f)) {
-            obstaculos.add(new AutoEnemigo(randomX, Gdx.graphics.getHeight(), texEnemigo));
-        } else {
-            obstaculos.add(new Barrera(randomX, Gdx.graphics.getHeight(), texBarrera));
-        }
+        createObstacle(tipo, randomX, Gdx.graphics.getHeight());
 
         tiempoSpawn = 0f;
     }
 
+    /**
+     * Crea un obstáculo del tipo indicado; los que aparecen durante la carrera
+     * lo hacen en el borde superior de la pantalla.
+     */
+    private void createObstacle(TipoObstaculo type, float x, float y) {
+        int entidad = mundo.crear(arquetipoObstaculo);
+        mundo.setFloat(entidad, Componentes.POSICION, Componentes.X, x);
+        mundo.setFloat(entidad, Componentes.POSICION, Componentes.Y, y);
+        mundo.setFloat(entidad, Componentes.POSICION_ANTERIOR, Componentes.X, x);
+        mundo.setFloat(entidad, Componentes.POSICION_ANTERIOR, Componentes.Y, y);
+        mundo.setFloat(entidad, Componentes.VELOCIDAD, Componentes.Y, -type.getVelocidad());
+        mundo.setFloat(entidad, Componentes.TAMANO, Componentes.ANCHO, type.getAncho());
+        mundo.setFloat(entidad, Componentes.TAMANO, Componentes.ALTO, type.getAlto());
+        mundo.setFloat(entidad, Componentes.TAMANO, Componentes.MARGEN, type.getMargen());
+        mundo.setInt(entidad, Componentes.SPRITE, Componentes.IMAGEN, spritesObstaculo[type.getId()]);
+        mundo.setInt(entidad, Componentes.OBSTACULO, Componentes.TIPO, type.getId());
+    }
+
+    /**
+     * Distancia recorrida desde el inicio de la partida: la posición, en el mundo,
+     * del borde inferior de la pantalla.
+     */
+    private float getTrackDistance() {
+        return -scrollY;
+    }
+
     /**
      * Incrementa el puntaje del jugador según el temporizador interno.
      * <p>
@@ -479,61 +1253,87 @@ public class Main extends ApplicationAdapter {
      * Actualiza cada obstáculo, verifica colisiones con el jugador y elimina
      * los objetos que salen de la pantalla.
      * <p>
-     * El método recorre la lista polimórfica de objetos del juego, aplicando
-     * <code>update()</code> a cada uno. También realiza detección de colisiones
-     * y coordina la eliminación segura mediante un iterador.
+     * El trabajo lo hacen los sistemas del mundo, en el orden en que se
+     * registraron en <code>createObstacleWorld()</code>. Los choques y roces
+     * llegan a <code>createCollisionListener()</code>.
      * </p>
      *
      * @param delta tiempo transcurrido entre frames.
      */
     private void updateObstaclesAndCollisions(float delta) {
-        Iterator<Juego> iter = obstaculos.iterator();
-
-        while (iter.hasNext()) {
-            Juego obj = iter.next();
-
-            obj.update(delta);
+        planificador.ejecutar(delta);
+    }
 
-            if (obj.getBounds().overlaps(jugador.getBounds())) {
-                handleCollision(obj);
-                iter.remove();
-                if (gameOver) {
-                    continue;
-                }
+    /**
+     * Crea el oyente que reacciona a lo que detecta el sistema de colisiones:
+     * choques (daño, efectos, sonido y Game Over) y roces (chispas).
+     */
+    private OyenteColision createCollisionListener() {
+        return new OyenteColision() {
+            @Override
+            public void alChocar(int entidad, int tipo, float impactoX, float impactoY) {
+                handleCollision(tiposObstaculo.get(tipo), impactoX, impactoY);
             }
 
-            if (obj.getY() < DESPAWN_Y) {
-                iter.remove();
+            @Override
+            public void alRozar(float x, float y) {
+                particulas.emitir(TipoParticula.CHISPA, x, y, 12);
             }
-        }
+        };
     }
 
     /**
-     * Procesa una colisión entre el jugador y un obstáculo específico.
+     * Procesa una colisión entre el jugador y un obstáculo.
      * <p>
-     * Ejecuta la reacción definida por la interfaz <code>Chocable</code> si aplica,
-     * aplica daño según el tipo de objeto, y actualiza el estado de vida del jugador.
-     * Si la vida llega a cero, marca el estado de Game Over.
+     * La reacción sale de los datos del tipo: su efecto (choque, derrape,
+     * impulso o recogida) y su daño, que con valor negativo repara el auto sin
+     * pasar de la vida inicial. Si la vida llega a cero, marca el estado de
+     * Game Over y cambia el sonido del motor por el aviso de fin de partida.
      * </p>
      *
-     * @param obj el objeto con el que el jugador colisionó.
+     * @param type    tipo del obstáculo tocado.
+     * @param impactX punto del choque en X.
+     * @param impactY punto del choque en Y.
      */
-    private void handleCollision(Juego obj) {
-        if (obj instanceof Chocable) {
-            ((Chocable) obj).chocoEnLaCarrera();
+    private void handleCollision(TipoObstaculo type, float impactX, float impactY) {
+        switch (type.getEfecto()) {
+            case CHOQUE:
+                audio.reproducir(SonidoJuego.CHOQUE);
+                emitCrashEffects(impactX, impactY);
+                break;
+            case DERRAPE:
+                derrapeRestante = type.getDuracion();
+                derrapeSentido = MathUtils.randomSign();
+                particulas.emitir(TipoParticula.HUMO, impactX, impactY, 6);
+                break;
+            case IMPULSO:
+                impulsoRestante = type.getDuracion();
+                particulas.emitir(TipoParticula.CHISPA, impactX, impactY, 20);
+                break;
+            case RECOGIDA:
+                particulas.emitir(TipoParticula.CHISPA, impactX, impactY, 12);
+                break;
         }
 
-        if (obj instanceof AutoEnemigo) {
-            vida -= DAMAGE_ENEMY;
-        } else if (obj instanceof Barrera) {
-            vida -= DAMAGE_BARRIER;
-        }
+        vida = Math.min(INITIAL_LIFE, vida - type.getDanio());
 
         if (vida <= 0) {
             gameOver = true;
+            audio.detener(SonidoJuego.MOTOR);
+            audio.reproducir(SonidoJuego.GAME_OVER);
         }
     }
 
+    /**
+     * Genera el efecto visual de un choque en el punto medio entre el jugador
+     * y el obstáculo: chispas, escombros y una nube de humo.
+     */
+    private void emitCrashEffects(float impactX, float impactY) {
+        particulas.emitir(TipoParticula.CHISPA, impactX, impactY, 40);
+        particulas.emitir(TipoParticula.ESCOMBRO, impactX, impactY, 16);
+        particulas.emitir(TipoParticula.HUMO, impactX, impactY, 10);
+    }
+
 // -----------------------------------------------------------------------------
 // 7. DIBUJADO (RENDER)
 // -----------------------------------------------------------------------------
@@ -543,66 +1343,85 @@ public class Main extends ApplicationAdapter {
      * <p>
      * Este método se ejecuta en cada ciclo y se encarga del proceso de renderizado.
      * Internamente delega en métodos especializados la responsabilidad de dibujar
-     * fondo, jugador, enemigos, HUD y mensajes de Game Over.
+     * fondo, jugador, enemigos y HUD. Los mensajes de pausa y Game Over los
+     * dibujan sus propias escenas encima.
+     * </p>
+     * <p>
+     * Si el nivel de calidad reduce la resolución, el mundo se dibuja primero en
+     * un <code>FrameBuffer</code> más pequeño que luego se estira a la ventana;
+     * el HUD y los mensajes se dibujan encima a resolución completa para que el
+     * texto siga siendo nítido.
      * </p>
      */
     private void drawFrame() {
         ScreenUtils.clear(0, 0, 0, 1);
-        batch.begin();
 
-        renderBackground();
-        renderClouds();      // <-- NUBES SOBRE EL FONDO
-        renderPlayer();
-        renderObstacles();
+        if (sceneBuffer != null) {
+            sceneBuffer.begin();
+            ScreenUtils.clear(0, 0, 0, 1);
+            batch.begin();
+            renderWorld();
+            batch.end();
+            sceneBuffer.end();
+
+            batch.begin();
+            batch.draw(sceneRegion, 0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        } else {
+            batch.begin();
+            renderWorld();
+        }
+
         renderHUD();
-        renderGameOverMessageIfNeeded();
 
         batch.end();
     }
 
     /**
-     * Renderiza el fondo del juego: pista central y tribunas laterales.
+     * Dibuja el mundo del juego: fondo (con las nubes), fantasmas, autos,
+     * obstáculos y partículas.
+     */
+    private void renderWorld() {
+        renderBackground();
+        renderGhosts();
+        renderPlayer();
+        renderObstacles();
+        renderParticles();
+    }
+
+    /**
+     * Renderiza el fondo del juego: pista central, tribunas laterales y nubes.
      * <p>
-     * Utiliza texturas configuradas en modo repetición para dar la sensación visual
-     * de desplazamiento infinito hacia abajo.
+     * Cada capa del <code>FondoParallax</code> calcula lo que se ve a partir
+     * de la distancia recorrida, así que el fondo no tiene estado que actualizar
+     * durante la carrera.
      * </p>
      */
     private void renderBackground() {
-        int width = Gdx.graphics.getWidth();
-        int height = Gdx.graphics.getHeight();
+        fondo.dibujar(batch, getTrackDistance(), Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+    }
 
-        // Pista central
-        batch.draw(
-            texPista,
-            LEFT_BOUND, 0,
-            width - LEFT_BOUND * 2f,
-            height,
-            0, (int) scrollY,
-            texPista.getWidth(), texPista.getHeight(),
-            false, false
-        );
-
-        // Tribunas laterales
-        batch.draw(
-            texTribuna,
-            0, 0,
-            LEFT_BOUND,
-            height,
-            0, (int) scrollY,
-            texTribuna.getWidth(), texTribuna.getHeight(),
-            false, false
-        );
-
-        batch.draw(
-            texTribuna,
-            width - LEFT_BOUND,
-            0,
-            LEFT_BOUND,
-            height,
-            0, (int) scrollY,
-            texTribuna.getWidth(), texTribuna.getHeight(),
-            false, false
-        );
+    /**
+     * Dibuja los fantasmas como autos translúcidos. Cada uno va a la altura que
+     * le corresponde por la distancia que llevaba recorrida en este mismo
+     * momento de su carrera: más arriba si iba adelante. Un fantasma cuya
+     * carrera ya terminó no se dibuja.
+     */
+    private void renderGhosts() {
+        if (fantasmas == null) {
+            return;
+        }
+        batch.setColor(1f, 1f, 1f, GHOST_ALPHA);
+        for (int i = 0; i < fantasmas.getCantidad(); i++) {
+            Fantasma fantasma = fantasmas.get(i);
+            if (!fantasma.ubicar(tiempoCarrera)) {
+                continue;
+            }
+            float y = jugador.getY() + fantasma.getDistancia() - getTrackDistance();
+            if (y > -jugador.getHeight() && y < Gdx.graphics.getHeight()) {
+                batch.draw(jugador.texture, fantasma.getX(), y, jugador.getWidth(), jugador.getHeight());
+            }
+        }
+        batch.setColor(Color.WHITE);
     }
 
     /**
@@ -615,14 +1434,19 @@ public class Main extends ApplicationAdapter {
     /**
      * Renderiza todos los obstáculos presentes en el mundo (autos enemigos y barreras).
      * <p>
-     * Se recorre la lista polimórfica <code>List&lt;Juego&gt;</code> para dibujar
-     * cada objeto con su textura correspondiente.
+     * El sistema de dibujo recorre las tablas del mundo y dibuja cada entidad
+     * con la imagen que indica su componente <code>SPRITE</code>.
      * </p>
      */
     private void renderObstacles() {
-        for (Juego obj : obstaculos) {
-            batch.draw(obj.texture, obj.getX(), obj.getY(), obj.getWidth(), obj.getHeight());
-        }
+        dibujoObstaculos.ejecutar(0f);
+    }
+
+    /**
+     * Dibuja los efectos de partículas sobre los autos y por debajo del HUD.
+     */
+    private void renderParticles() {
+        particulas.dibujar(batch, texParticula.get());
     }
 
     /**
@@ -651,13 +1475,11 @@ public class Main extends ApplicationAdapter {
     /**
      * Muestra los mensajes de Game Over cuando la partida termina.
      * <p>
-     * Indica al jugador que puede reiniciar o salir del juego.
+     * Indica al jugador que puede reiniciar, ver los récords o salir del juego.
      * El tamaño y color del texto se ajustan dinámicamente para mayor impacto visual.
      * </p>
      */
-    private void renderGameOverMessageIfNeeded() {
-        if (!gameOver) return;
-
+    private void renderGameOverMessage() {
         int width  = Gdx.graphics.getWidth();
         int height = Gdx.graphics.getHeight();
 
@@ -668,6 +1490,38 @@ public class Main extends ApplicationAdapter {
         font.setColor(Color.YELLOW);
         font.getData().setScale(1.5f);
         font.draw(batch, "¿CONTINUAR?", width / 2f - 80, height / 2f - 20);
+        font.setColor(Color.WHITE);
+        font.getData().setScale(1f);
+        font.draw(batch, keyLabel(Accion.CONFIRMAR) + ": otra carrera   " + keyLabel(Accion.RECORDS) + ": récords   "
+            + keyLabel(Accion.VOLVER) + ": salir", width / 2f - 150, height / 2f - 60);
+        font.getData().setScale(2);
+    }
+
+    /**
+     * Oscurece la pantalla para que una escena superpuesta se lea sobre la
+     * carrera congelada. Usa la textura blanca de las partículas teñida de negro.
+     */
+    private void renderOverlayDim() {
+        batch.setColor(0f, 0f, 0f, OVERLAY_DIM_ALPHA);
+        batch.draw(texParticula.get(), 0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        batch.setColor(Color.WHITE);
+    }
+
+    /**
+     * Nombre de la tecla asignada a una acción, para las instrucciones en pantalla.
+     */
+    private String keyLabel(Accion accion) {
+        return controles.nombreTecla(accion);
+    }
+
+    /**
+     * Dibuja un texto centrado horizontalmente con la escala indicada.
+     */
+    private void drawCentered(String text, float y, float scale, Color color) {
+        font.getData().setScale(scale);
+        font.setColor(color);
+        textLayout.setText(font, text);
+        font.draw(batch, textLayout, (Gdx.graphics.getWidth() - textLayout.width) / 2f, y);
         font.getData().setScale(2);
     }
 
@@ -675,6 +1529,75 @@ public class Main extends ApplicationAdapter {
 // 8. LIBERACIÓN DE RECURSOS
 // -----------------------------------------------------------------------------
 
+    /**
+     * Cierra la grabación de la sesión e informa cuánto se grabó y cuánto costó
+     * por frame.
+     */
+    private void closeTelemetry() {
+        if (grabador == null) {
+            return;
+        }
+        grabador.cerrar();
+        Gdx.app.log("TELEMETRIA", "ticks " + grabador.getTicksGrabados()
+            + ", descartados " + grabador.getTicksDescartados()
+            + ", bytes " + grabador.getBytesEscritos()
+            + ", costo medio " + grabador.getCostoMedioMicros() + " us/frame"
+            + (grabador.getError() != null ? ", error: " + grabador.getError() : ""));
+        grabador = null;
+    }
+
+    /**
+     * Cierra los archivos de los fantasmas que estaban corriendo.
+     */
+    private void closeGhosts() {
+        if (fantasmas == null) {
+            return;
+        }
+        fantasmas.close();
+        fantasmas = null;
+    }
+
+    /**
+     * Deja de recibir eventos de los mandos e informa la latencia medida entre
+     * los eventos de entrada y el final del frame que los mostró.
+     */
+    private void closeInput() {
+        if (entrada == null) {
+            return;
+        }
+        try {
+            Controllers.removeListener(entrada);
+        } catch (GdxRuntimeException e) {
+            // Sin soporte de mandos no se había registrado
+        }
+        Gdx.app.log("ENTRADA", "latencia media " + entrada.getLatenciaMediaMs() + " ms"
+            + ", máxima " + entrada.getLatenciaMaximaMs() + " ms"
+            + ", muestras " + entrada.getMuestrasLatencia()
+            + ", eventos descartados " + entrada.getDescartados());
+        entrada = null;
+    }
+
+    /**
+     * Termina el video en curso, espera a que se guarden las capturas
+     * pendientes e informa cuántos frames se capturaron, cuántos se perdieron
+     * y cuánto costó la captura en el hilo del juego.
+     */
+    private void closeCapture() {
+        if (capturador == null) {
+            return;
+        }
+        capturador.dispose();
+        if (capturador.getCapturados() > 0L) {
+            Gdx.app.log("CAPTURA", "capturados " + capturador.getCapturados()
+                + ", escritos " + capturador.getEscritos()
+                + ", descartados " + capturador.getDescartados()
+                + ", errores " + capturador.getErrores()
+                + ", costo medio " + capturador.getCostoMedioMicros() + " us/frame"
+                + ", máximo " + capturador.getCostoMaximoMicros() + " us");
+        }
+        capturador = null;
+    }
+
     /**
      * Libera todos los recursos gráficos utilizados por el juego.
      * <p>
@@ -683,65 +1606,628 @@ public class Main extends ApplicationAdapter {
      * </p>
      */
     private void disposeRenderingResources() {
+        if (pista != null) pista.dispose();
+        if (planificador != null) planificador.dispose();
         if (batch != null) batch.dispose();
         if (font != null) font.dispose();
-        if (texJugador != null) texJugador.dispose();
-        if (texEnemigo != null) texEnemigo.dispose();
-        if (texBarrera != null) texBarrera.dispose();
-        if (texPista != null) texPista.dispose();
-        if (texTribuna != null) texTribuna.dispose();
-        if (texNube != null) texNube.dispose();   // <-- IMPORTANTE
+        releaseResources();
+        if (sceneBuffer != null) sceneBuffer.dispose();
+        escenaCarrera.congelado.dispose();
+        if (audio != null) audio.dispose();
     }
 
     /**
-     * Genera nubes decorativas cuando el temporizador supera el intervalo.
+     * Devuelve al gestor todos los recursos tomados por el juego y lo cierra.
      * <p>
-     * Las nubes se crean en posiciones aleatorias en la parte superior de la pantalla
-     * y se desplazan hacia abajo. No afectan al jugador ni causan daño.
+     * Si después de devolverlos queda algún manejador sin liberar, se informa
+     * cada uno (con el lugar donde se adquirió, si se rastreaba): es un recurso
+     * que alguien pidió y olvidó devolver.
      * </p>
      */
-    private void spawnCloudsIfNeeded() {
-        if (tiempoSpawnNube <= CLOUD_SPAWN_INTERVAL) {
-            return;
+    private void releaseResources() {
+        for (Recurso<?> recurso : recursosTomados) {
+            recurso.liberar();
+        }
+        recursosTomados.clear();
+
+        for (String fuga : recursos.getReporteFugas()) {
+            Gdx.app.error("RECURSOS", "sin liberar: " + fuga);
         }
+        Gdx.app.log("RECURSOS", "cargas " + recursos.getCargas()
+            + ", aciertos " + recursos.getAciertos()
+            + ", descargas por presupuesto " + recursos.getDescargas()
+            + ", VRAM estimada " + recursos.getBytesCargados() / 1024 + " KB");
+        recursos.dispose();
+    }
+
+// -----------------------------------------------------------------------------
+// 9. ESCENAS
+// -----------------------------------------------------------------------------
+
+    /**
+     * Primera escena: muestra un mensaje y, en el frame siguiente, carga los
+     * recursos con <code>loadGame()</code>. Si la carga falla, se queda
+     * mostrando el error hasta que se cierre el juego.
+     */
+    private class EscenaCarga implements Escena {
 
-        float randomX = MathUtils.random(0, Gdx.graphics.getWidth() - 150);
-        float startY = Gdx.graphics.getHeight() + 50;
+        private boolean mostrada = false;
+        private boolean fallo = false;
 
-        nubes.add(new Nube(randomX, startY, texNube));
+        @Override
+        public void alEntrar() {
+            mostrada = false;
+        }
+
+        @Override
+        public void alSalir() {
+        }
 
-        tiempoSpawnNube = 0f;
+        @Override
+        public void actualizar(float delta) {
+            if (fallo) {
+                if (entrada.fuePresionada(Accion.VOLVER)) {
+                    Gdx.app.exit();
+                }
+                return;
+            }
+            // Se espera a que el mensaje se haya dibujado al menos una vez
+            if (!mostrada) {
+                return;
+            }
+            boolean cargado = loadGame();
+            if (configuracion.getOyenteCarga() != null) {
+                configuracion.getOyenteCarga().juegoCargado(cargado);
+            }
+            if (!cargado) {
+                fallo = true;
+                return;
+            }
+            if (configuracion.getArchivoBenchmark() != null) {
+                escenas.reemplazarTodo(escenaBenchmark);
+            } else {
+                escenas.reemplazarTodo(configuracion.isModoBot() ? escenaCarrera : escenaMenu);
+            }
+        }
+
+        @Override
+        public void dibujar() {
+            ScreenUtils.clear(0, 0, 0, 1);
+            batch.begin();
+            float y = Gdx.graphics.getHeight() / 2f;
+            if (fallo) {
+                drawCentered("ERROR CARGANDO IMÁGENES", y + 20, 1.5f, Color.RED);
+                drawCentered(keyLabel(Accion.VOLVER) + ": salir", y - 20, 1f, Color.WHITE);
+            } else {
+                drawCentered("CARGANDO...", y, 2f, Color.WHITE);
+            }
+            batch.end();
+            mostrada = true;
+        }
+
+        @Override
+        public boolean esSuperpuesta() {
+            return false;
+        }
     }
 
     /**
-     * Actualiza la posición de todas las nubes y elimina las que salen de la pantalla.
-     *
-     * @param delta tiempo transcurrido entre frames.
+     * Menú principal: la pista quieta de fondo y las opciones. No simula nada.
      */
-    private void updateClouds(float delta) {
-        Iterator<Juego> iter = nubes.iterator();
+    private class EscenaMenu implements Escena {
+
+        @Override
+        public void alEntrar() {
+        }
 
-        while (iter.hasNext()) {
-            Juego nube = iter.next();
-            nube.update(delta);
+        @Override
+        public void alSalir() {
+        }
 
-            if (nube.getY() < DESPAWN_Y) {
-                iter.remove();
+        @Override
+        public void actualizar(float delta) {
+            if (entrada.fuePresionada(Accion.CONFIRMAR)) {
+                escenas.reemplazarTodo(escenaCarrera);
+            } else if (entrada.fuePresionada(Accion.RECORDS)) {
+                escenas.apilar(escenaRecords);
+            } else if (entrada.fuePresionada(Accion.CONTROLES)) {
+                escenas.apilar(escenaControles);
+            } else if (entrada.fuePresionada(Accion.VOLVER)) {
+                Gdx.app.exit();
             }
         }
+
+        @Override
+        public void dibujar() {
+            ScreenUtils.clear(0, 0, 0, 1);
+            batch.begin();
+            renderBackground();
+            renderOverlayDim();
+            float y = Gdx.graphics.getHeight() / 2f;
+            drawCentered("DUOC RACING", y + 60, 3f, Color.YELLOW);
+            drawCentered(keyLabel(Accion.CONFIRMAR) + ": correr   " + keyLabel(Accion.RECORDS) + ": récords   "
+                + keyLabel(Accion.CONTROLES) + ": controles   " + keyLabel(Accion.VOLVER) + ": salir", y - 20, 1f, Color.WHITE);
+            batch.end();
+        }
+
+        @Override
+        public boolean esSuperpuesta() {
+            return false;
+        }
     }
 
     /**
-     * Renderiza todas las nubes en pantalla.
+     * La carrera en sí. Cada vez que entra a la pila empieza una partida nueva.
      * <p>
-     * Se dibujan por encima del fondo pero por detrás del HUD.
+     * Mientras está cubierta por la pausa o el Game Over no se simula, y en vez
+     * de dibujar el mundo en cada frame muestra una copia congelada de su último
+     * frame, tomada una sola vez al quedar cubierta.
      * </p>
      */
-    private void renderClouds() {
-        for (Juego nube : nubes) {
-            batch.draw(nube.texture, nube.getX(), nube.getY(), nube.getWidth(), nube.getHeight());
+    private class EscenaCarrera implements Escena {
+
+        private final FotogramaCongelado congelado = new FotogramaCongelado();
+        private boolean cubierta = false;
+
+        @Override
+        public void alEntrar() {
+            cubierta = false;
+            resetGameState();
+            audio.detener(SonidoJuego.MOTOR);
+            audio.reproducir(SonidoJuego.MOTOR);
+        }
+
+        @Override
+        public void alSalir() {
+            audio.detener(SonidoJuego.MOTOR);
+            congelado.invalidar();
+        }
+
+        @Override
+        public void alCubrirse() {
+            cubierta = true;
+            congelado.invalidar();
+            audio.detener(SonidoJuego.MOTOR);
+        }
+
+        @Override
+        public void alDescubrirse() {
+            cubierta = false;
+            if (!gameOver) {
+                audio.reproducir(SonidoJuego.MOTOR);
+            }
+        }
+
+        @Override
+        public void alRedimensionar(int ancho, int alto) {
+            congelado.invalidar();
+        }
+
+        @Override
+        public void actualizar(float delta) {
+            updateRunningState(delta);
+            particulas.actualizar(delta);
+
+            if (gameOver) {
+                escenas.apilar(escenaGameOver);
+            } else if (entrada.fuePresionada(Accion.PAUSA)) {
+                escenas.apilar(escenaPausa);
+            }
+        }
+
+        @Override
+        public void dibujar() {
+            if (!cubierta) {
+                drawFrame();
+                return;
+            }
+            if (!congelado.isValido()) {
+                // Se dibuja a resolución completa: el buffer del mundo no se puede anidar
+                congelado.capturar(this::drawFrozenFrame);
+            }
+            congelado.dibujar(batch);
+        }
+
+        private void drawFrozenFrame() {
+            batch.begin();
+            renderWorld();
+            renderHUD();
+            batch.end();
+        }
+
+        @Override
+        public boolean esSuperpuesta() {
+            return false;
+        }
+    }
+
+    /**
+     * Pausa, dibujada sobre la carrera congelada.
+     */
+    private class EscenaPausa implements Escena {
+
+        @Override
+        public void alEntrar() {
+        }
+
+        @Override
+        public void alSalir() {
+        }
+
+        @Override
+        public void actualizar(float delta) {
+            if (entrada.fuePresionada(Accion.PAUSA)) {
+                escenas.desapilar();
+            } else if (entrada.fuePresionada(Accion.MENU)) {
+                escenas.reemplazarTodo(escenaMenu);
+            }
+        }
+
+        @Override
+        public void dibujar() {
+            batch.begin();
+            renderOverlayDim();
+            float y = Gdx.graphics.getHeight() / 2f;
+            drawCentered("PAUSA", y + 40, 3f, Color.YELLOW);
+            drawCentered(keyLabel(Accion.PAUSA) + ": continuar   " + keyLabel(Accion.MENU) + ": menú", y - 20, 1f, Color.WHITE);
+            batch.end();
+        }
+
+        @Override
+        public boolean esSuperpuesta() {
+            return true;
+        }
+    }
+
+    /**
+     * Fin de la partida, dibujado sobre la carrera congelada. Guarda el puntaje
+     * en los récords y, en modo bot, reinicia la carrera sola después de
+     * <code>BOT_RESTART_DELAY</code> segundos.
+     */
+    private class EscenaGameOver implements Escena {
+
+        private float tiempo = 0f;
+
+        @Override
+        public void alEntrar() {
+            tiempo = 0f;
+            // Las partidas del piloto automático no cuentan como récords
+            if (!configuracion.isModoBot()) {
+                saveScore(puntaje);
+                saveGhost();
+            }
+        }
+
+        @Override
+        public void alSalir() {
+        }
+
+        @Override
+        public void actualizar(float delta) {
+            tiempo += delta;
+            if (configuracion.isModoBot() && tiempo >= BOT_RESTART_DELAY) {
+                escenas.reemplazarTodo(escenaCarrera);
+                return;
+            }
+            if (entrada.fuePresionada(Accion.CONFIRMAR)) {
+                escenas.reemplazarTodo(escenaCarrera);
+            } else if (entrada.fuePresionada(Accion.RECORDS)) {
+                escenas.apilar(escenaRecords);
+            } else if (entrada.fuePresionada(Accion.VOLVER)) {
+                Gdx.app.exit();
+            }
+        }
+
+        @Override
+        public void dibujar() {
+            batch.begin();
+            renderOverlayDim();
+            renderGameOverMessage();
+            batch.end();
+        }
+
+        @Override
+        public boolean esSuperpuesta() {
+            return true;
         }
     }
 
+    /**
+     * Tabla de los mejores puntajes. Tapa toda la pantalla, así que lo que
+     * quede debajo en la pila no se dibuja.
+     */
+    private class EscenaRecords implements Escena {
+
+        @Override
+        public void alEntrar() {
+        }
 
+        @Override
+        public void alSalir() {
+        }
+
+        @Override
+        public void actualizar(float delta) {
+            if (entrada.fuePresionada(Accion.VOLVER)
+                || entrada.fuePresionada(Accion.CONFIRMAR)
+                || entrada.fuePresionada(Accion.RECORDS)) {
+                escenas.desapilar();
+            }
+        }
+
+        @Override
+        public void dibujar() {
+            ScreenUtils.clear(0, 0, 0, 1);
+            batch.begin();
+            float y = Gdx.graphics.getHeight() - 80f;
+            drawCentered("RÉCORDS", y, 3f, Color.YELLOW);
+            for (int i = 0; i < LEADERBOARD_SIZE; i++) {
+                drawCentered((i + 1) + ".  " + records[i], y - 80 - i * 40, 1.5f, Color.WHITE);
+            }
+            drawCentered(keyLabel(Accion.VOLVER) + ": volver", 60, 1f, Color.WHITE);
+            batch.end();
+        }
+
+        @Override
+        public boolean esSuperpuesta() {
+            return false;
+        }
+    }
+
+    /**
+     * Pantalla para cambiar las teclas y botones de cada acción. Con arriba y
+     * abajo se elige una acción y al confirmar se espera la tecla o el botón
+     * nuevo (ESC cancela la espera, así que ESC no se puede asignar). La última
+     * fila vuelve a los controles por defecto. Al salir se guardan los cambios.
+     */
+    private class EscenaControles implements Escena {
+
+        private final Accion[] acciones = Accion.values();
+        private int seleccion = 0;
+
+        @Override
+        public void alEntrar() {
+            seleccion = 0;
+        }
+
+        @Override
+        public void alSalir() {
+            entrada.cancelarCaptura();
+            saveControls();
+        }
+
+        @Override
+        public void actualizar(float delta) {
+            if (entrada.isCapturando()) {
+                int tecla = entrada.getTeclaCapturada();
+                BotonMando boton = entrada.getBotonCapturado();
+                if (tecla == Input.Keys.ESCAPE) {
+                    entrada.cancelarCaptura();
+                } else if (tecla >= 0) {
+                    controles.asignarTecla(acciones[seleccion], tecla);
+                    entrada.cancelarCaptura();
+                } else if (boton != null) {
+                    controles.asignarBoton(acciones[seleccion], boton);
+                    entrada.cancelarCaptura();
+                }
+                return;
+            }
+            int filas = acciones.length + 1;
+            if (entrada.fuePresionada(Accion.ARRIBA)) {
+                seleccion = (seleccion + filas - 1) % filas;
+            } else if (entrada.fuePresionada(Accion.ABAJO)) {
+                seleccion = (seleccion + 1) % filas;
+            } else if (entrada.fuePresionada(Accion.CONFIRMAR)) {
+                if (seleccion == acciones.length) {
+                    controles.restablecer();
+                } else {
+                    entrada.iniciarCaptura();
+                }
+            } else if (entrada.fuePresionada(Accion.VOLVER)) {
+                escenas.desapilar();
+            }
+        }
+
+        @Override
+        public void dibujar() {
+            ScreenUtils.clear(0, 0, 0, 1);
+            batch.begin();
+            float y = Gdx.graphics.getHeight() - 50f;
+            drawCentered("CONTROLES", y, 2f, Color.YELLOW);
+            for (int i = 0; i < acciones.length; i++) {
+                String valor = entrada.isCapturando() && i == seleccion
+                    ? "presione una tecla o botón..."
+                    : controles.describir(acciones[i]);
+                drawCentered(acciones[i].name() + ": " + valor, y - 60 - i * 24, 1f,
+                    i == seleccion ? Color.YELLOW : Color.WHITE);
+            }
+            drawCentered("RESTABLECER", y - 60 - acciones.length * 24, 1f,
+                seleccion == acciones.length ? Color.YELLOW : Color.WHITE);
+            drawCentered(keyLabel(Accion.CONFIRMAR) + ": cambiar   " + keyLabel(Accion.VOLVER) + ": guardar y volver",
+                30, 1f, Color.WHITE);
+            batch.end();
+        }
+
+        @Override
+        public boolean esSuperpuesta() {
+            return false;
+        }
+    }
+
+    /**
+     * Prueba de rendimiento (<code>--benchmark</code>): una carrera que pasa
+     * por las {@link EtapaBenchmark}, de la más liviana a la más pesada, y al
+     * terminar escribe el informe y cierra el juego.
+     * <p>
+     * La simulación avanza siempre <code>BENCHMARK_STEP</code> por frame y
+     * parte de <code>BENCHMARK_SEED</code>, así que todas las ejecuciones
+     * dibujan exactamente lo mismo y solo cambia cuánto tardan. En cada etapa
+     * se dejan pasar <code>BENCHMARK_WARMUP</code> frames sin medir y después
+     * se miden <code>BENCHMARK_FRAMES</code>. El auto no pierde vida, para que
+     * la carrera no termine antes que la prueba, y no aparece el tráfico normal:
+     * los obstáculos son solo los de la etapa.
+     * </p>
+     * <p>
+     * Las llamadas de dibujo se cuentan con el contador del
+     * <code>SpriteBatch</code>, que dibuja todo el juego; un
+     * <code>GLProfiler</code> revisaría errores después de cada llamada a
+     * OpenGL y los frames medidos serían más lentos que los reales.
+     * </p>
+     */
+    private class EscenaBenchmark implements Escena {
+
+        private final EtapaBenchmark[] etapas = EtapaBenchmark.values();
+        private final TipoParticula[] tiposParticula = TipoParticula.values();
+        private InformeBenchmark informe;
+        private int etapa = 0;
+        private int frameEnEtapa = 0;
+        private boolean terminada = false;
+        // El frame anterior se mide al empezar este: su etapa, o null si no se medía
+        private EtapaBenchmark etapaMedida;
+        private long inicioFrameAnterior;
+        private int llamadasAnteriores;
+
+        @Override
+        public void alEntrar() {
+            MathUtils.random.setSeed(BENCHMARK_SEED);
+            resetGameState();
+            informe = new InformeBenchmark(BENCHMARK_FRAMES);
+            etapa = 0;
+            frameEnEtapa = 0;
+            terminada = false;
+            etapaMedida = null;
+            startStage();
+            inicioFrameAnterior = TimeUtils.nanoTime();
+            llamadasAnteriores = batch.totalRenderCalls;
+        }
+
+        @Override
+        public void alSalir() {
+        }
+
+        @Override
+        public void actualizar(float delta) {
+            if (terminada) {
+                return;
+            }
+            long ahora = TimeUtils.nanoTime();
+            int llamadas = batch.totalRenderCalls;
+            if (etapaMedida != null) {
+                informe.registrar(etapaMedida, (ahora - inicioFrameAnterior) / 1_000_000f,
+                    llamadas - llamadasAnteriores, mundo.getCantidadEntidades());
+            }
+            inicioFrameAnterior = ahora;
+            llamadasAnteriores = llamadas;
+
+            if (frameEnEtapa == BENCHMARK_WARMUP + BENCHMARK_FRAMES) {
+                logStage(etapas[etapa]);
+                etapa++;
+                if (etapa == etapas.length) {
+                    finish();
+                    return;
+                }
+                frameEnEtapa = 0;
+                startStage();
+            }
+            etapaMedida = frameEnEtapa >= BENCHMARK_WARMUP ? etapas[etapa] : null;
+            frameEnEtapa++;
+
+            vida = INITIAL_LIFE;
+            updateRunningState(BENCHMARK_STEP);
+            gameOver = false;
+            fillStage(etapas[etapa]);
+            particulas.actualizar(BENCHMARK_STEP);
+        }
+
+        @Override
+        public void dibujar() {
+            drawFrame();
+        }
+
+        @Override
+        public boolean esSuperpuesta() {
+            return false;
+        }
+
+        /** Llena todas las celdas de nubes, con la separación de la etapa. */
+        private void startStage() {
+            EtapaBenchmark actual = etapas[etapa];
+            nubesLejanas.setFactorDensidad(1f / CLOUD_DENSITY);
+            nubesCercanas.setFactorDensidad(1f / CLOUD_DENSITY);
+            nubesLejanas.setFactorEspaciado(actual.factorNubes);
+            nubesCercanas.setFactorEspaciado(actual.factorNubes);
+        }
+
+        /**
+         * Repone los obstáculos que salieron de la pantalla, repartidos a lo
+         * alto para que vayan entrando de a poco, y las partículas que se
+         * apagaron.
+         */
+        private void fillStage(EtapaBenchmark actual) {
+            int alto = Gdx.graphics.getHeight();
+            while (mundo.getCantidadEntidades() < actual.obstaculos) {
+                TipoObstaculo tipo = tiposObstaculo.elegir(azarCarrera.nextFloat());
+                float y = alto * (0.25f + azarCarrera.nextFloat() * 1.25f);
+                float trackY = getTrackDistance() + y;
+                float minX = pista.getBordeIzquierdo(trackY) + SPAWN_EDGE_MARGIN;
+                float maxX = pista.getBordeDerecho(trackY) - tipo.getAncho() - SPAWN_EDGE_MARGIN;
+                createObstacle(tipo, minX + azarCarrera.nextFloat() * (maxX - minX), y);
+            }
+            for (int i = 0; i < tiposParticula.length && particulas.getActivas() < actual.particulas; i++) {
+                particulas.emitir(tiposParticula[i], MathUtils.random(Gdx.graphics.getWidth()), MathUtils.random(alto),
+                    actual.particulas - particulas.getActivas());
+            }
+        }
+
+        private void logStage(EtapaBenchmark medida) {
+            Gdx.app.log("BENCHMARK", medida + ": " + informe.getFps(medida) + " fps"
+                + ", p50 " + informe.getPercentilMs(medida, 0.5f) + " ms"
+                + ", p99 " + informe.getPercentilMs(medida, 0.99f) + " ms"
+                + ", máximo " + informe.getPercentilMs(medida, 1f) + " ms"
+                + ", llamadas de dibujo " + informe.getLlamadasMedias(medida)
+                + ", obstáculos " + informe.getObstaculosMedios(medida));
+        }
+
+        /** Escribe el informe y cierra el juego. */
+        private void finish() {
+            terminada = true;
+            File file = configuracion.getArchivoBenchmark();
+            try {
+                informe.escribir(file, Gdx.gl.glGetString(GL20.GL_RENDERER), Gdx.gl.glGetString(GL20.GL_VERSION),
+                    Gdx.graphics.getBackBufferWidth(), Gdx.graphics.getBackBufferHeight(),
+                    BENCHMARK_SEED, BENCHMARK_STEP, BENCHMARK_WARMUP);
+                Gdx.app.log("BENCHMARK", "informe en " + file.getAbsolutePath());
+            } catch (IOException e) {
+                Gdx.app.error("BENCHMARK", "no se pudo escribir " + file.getAbsolutePath(), e);
+            }
+            Gdx.app.exit();
+        }
+    }
+
+// -----------------------------------------------------------------------------
+// 10. ESTADO PARA HERRAMIENTAS DE PRUEBA
+// -----------------------------------------------------------------------------
+
+    /** Si la carrera es la escena de arriba: no hay menú, pausa ni Game Over encima. */
+    boolean isRaceRunning() {
+        return escenas.getActual() == escenaCarrera;
+    }
+
+    boolean isGameOver() {
+        return gameOver;
+    }
+
+    /** Obstáculos vivos en el mundo. */
+    int getLiveEntities() {
+        return mundo == null ? 0 : mundo.getCantidadEntidades();
+    }
+
+    int getActiveParticles() {
+        return particulas == null ? 0 : particulas.getActivas();
+    }
+
+    /** Memoria de video estimada de las texturas que el gestor tiene cargadas. */
+    long getLoadedTextureBytes() {
+        return recursos.getBytesCargados();
+    }
 }
@@ -0,0 +1,27 @@
+package com.duoc.race.audio;
+
+/**
+ * Contrato del backend de audio del juego.
+ * <p>
+ * <code>Main</code> solo conoce esta interfaz, de modo que el mismo código
+ * funciona con el backend real de LibGDX o con uno silencioso cuando no hay
+ * dispositivo de audio (por ejemplo, en ejecuciones sin ventana).
+ * </p>
+ */
+public interface MotorAudio {
+
+    /**
+     * Reproduce un sonido. Los sonidos en bucle siguen sonando hasta llamar a
+     * {@link #detener(SonidoJuego)}.
+     */
+    void reproducir(SonidoJuego sonido);
+
+    /** Detiene todas las voces de un sonido. */
+    void detener(SonidoJuego sonido);
+
+    /** Avanza el reloj interno que libera las voces terminadas. */
+    void actualizar(float delta);
+
+    /** Libera los sonidos cargados. */
+    void dispose();
+}
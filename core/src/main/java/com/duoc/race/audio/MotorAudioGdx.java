@@ -0,0 +1,179 @@
+package com.duoc.race.audio;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
+
+import java.util.Arrays;
+
+/**
+ * Backend de audio basado en <code>Sound</code> de LibGDX, con un limitador de
+ * voces simultáneas.
+ * <p>
+ * Todos los sonidos se decodifican una sola vez al construir el motor. Durante
+ * la partida solo se reutilizan las voces de una tabla de tamaño fijo, así una
+ * ráfaga de choques no crea objetos ni satura el dispositivo de audio.
+ * </p>
+ *
+ * <p>Reglas del limitador:</p>
+ * <ul>
+ *     <li>Si un sonido se repite antes de su <code>intervaloMinimo</code>, la
+ *     repetición se descarta.</li>
+ *
+ *     <li>Si hay una voz libre, se usa esa voz.</li>
+ *
+ *     <li>Si no hay voces libres, se corta la voz de menor prioridad (y, entre
+ *     iguales, la que le queda menos tiempo), siempre que su prioridad no sea
+ *     mayor que la del sonido nuevo. Si no hay ninguna, el sonido nuevo se
+ *     descarta.</li>
+ * </ul>
+ */
+public class MotorAudioGdx implements MotorAudio {
+
+    private static final SonidoJuego[] SONIDOS = SonidoJuego.values();
+
+    private final Sound[] sonidos = new Sound[SONIDOS.length];
+    private final float[] ultimaReproduccion = new float[SONIDOS.length];
+
+    // Tabla de voces: una voz es un índice en estos arreglos
+    private final int[]   vozSonido;
+    private final long[]  vozId;
+    private final float[] vozRestante;
+
+    private float reloj = 0f;
+    private int descartados = 0;
+
+    /**
+     * Carga todos los sonidos definidos en {@link SonidoJuego}. Un archivo que
+     * falta o no se puede decodificar se informa por consola y ese sonido queda
+     * mudo, sin impedir que el juego arranque.
+     *
+     * @param maxVoces cantidad máxima de sonidos sonando al mismo tiempo.
+     */
+    public MotorAudioGdx(int maxVoces) {
+        vozSonido   = new int[maxVoces];
+        vozId       = new long[maxVoces];
+        vozRestante = new float[maxVoces];
+        Arrays.fill(vozSonido, -1);
+        Arrays.fill(ultimaReproduccion, -Float.MAX_VALUE);
+
+        for (SonidoJuego sonido : SONIDOS) {
+            FileHandle archivo = Gdx.files.internal(sonido.archivo);
+            if (!archivo.exists()) {
+                System.err.println("AUDIO: falta el archivo " + sonido.archivo);
+                continue;
+            }
+            try {
+                sonidos[sonido.ordinal()] = Gdx.audio.newSound(archivo);
+            } catch (Exception e) {
+                System.err.println("AUDIO: no se pudo cargar " + sonido.archivo + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void reproducir(SonidoJuego sonido) {
+        int indice = sonido.ordinal();
+        Sound sound = sonidos[indice];
+        if (sound == null) {
+            return;
+        }
+        if (reloj - ultimaReproduccion[indice] < sonido.intervaloMinimo) {
+            descartados++;
+            return;
+        }
+
+        int voz = buscarVoz(sonido.prioridad);
+        if (voz < 0) {
+            descartados++;
+            return;
+        }
+        liberarVoz(voz);
+
+        long id = sonido.bucle ? sound.loop(sonido.volumen) : sound.play(sonido.volumen);
+        if (id == -1) {
+            // El backend no tenía fuentes disponibles
+            descartados++;
+            return;
+        }
+
+        vozSonido[voz] = indice;
+        vozId[voz] = id;
+        vozRestante[voz] = sonido.bucle ? Float.MAX_VALUE : sonido.duracion;
+        ultimaReproduccion[indice] = reloj;
+    }
+
+    @Override
+    public void detener(SonidoJuego sonido) {
+        int indice = sonido.ordinal();
+        for (int voz = 0; voz < vozSonido.length; voz++) {
+            if (vozSonido[voz] == indice) {
+                liberarVoz(voz);
+            }
+        }
+    }
+
+    @Override
+    public void actualizar(float delta) {
+        reloj += delta;
+        for (int voz = 0; voz < vozSonido.length; voz++) {
+            if (vozSonido[voz] >= 0) {
+                vozRestante[voz] -= delta;
+                if (vozRestante[voz] <= 0f) {
+                    vozSonido[voz] = -1;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        for (int i = 0; i < sonidos.length; i++) {
+            if (sonidos[i] != null) {
+                sonidos[i].dispose();
+                sonidos[i] = null;
+            }
+        }
+    }
+
+    /** Cantidad de reproducciones descartadas por el limitador desde el inicio. */
+    public int getDescartados() {
+        return descartados;
+    }
+
+    /**
+     * Elige la voz para un sonido nuevo: una libre, o la de menor prioridad que
+     * se pueda cortar.
+     *
+     * @return el índice de la voz, o <code>-1</code> si no se puede cortar ninguna.
+     */
+    private int buscarVoz(int prioridad) {
+        int candidata = -1;
+        for (int voz = 0; voz < vozSonido.length; voz++) {
+            if (vozSonido[voz] < 0) {
+                return voz;
+            }
+            int prioridadVoz = SONIDOS[vozSonido[voz]].prioridad;
+            if (prioridadVoz > prioridad) {
+                continue;
+            }
+            if (candidata < 0) {
+                candidata = voz;
+                continue;
+            }
+            int prioridadCandidata = SONIDOS[vozSonido[candidata]].prioridad;
+            if (prioridadVoz < prioridadCandidata
+                || (prioridadVoz == prioridadCandidata && vozRestante[voz] < vozRestante[candidata])) {
+                candidata = voz;
+            }
+        }
+        return candidata;
+    }
+
+    private void liberarVoz(int voz) {
+        if (vozSonido[voz] >= 0) {
+            sonidos[vozSonido[voz]].stop(vozId[voz]);
+            vozSonido[voz] = -1;
+        }
+    }
+}
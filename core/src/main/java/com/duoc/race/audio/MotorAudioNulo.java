@@ -0,0 +1,24 @@
+package com.duoc.race.audio;
+
+/**
+ * Backend de audio que no reproduce nada. Se usa cuando LibGDX no tiene un
+ * dispositivo de audio disponible.
+ */
+public class MotorAudioNulo implements MotorAudio {
+
+    @Override
+    public void reproducir(SonidoJuego sonido) {
+    }
+
+    @Override
+    public void detener(SonidoJuego sonido) {
+    }
+
+    @Override
+    public void actualizar(float delta) {
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
@@ -0,0 +1,35 @@
+package com.duoc.race.audio;
+
+/**
+ * Sonidos del juego, con los datos que usa el limitador de voces.
+ * <p>
+ * La prioridad decide qué voz se corta cuando no quedan voces libres: un
+ * sonido solo puede quitarle la voz a otro de prioridad menor o igual. La
+ * duración es aproximada y sirve para saber cuándo una voz vuelve a quedar
+ * libre sin consultar al backend de audio.
+ * </p>
+ */
+public enum SonidoJuego {
+
+    //          archivo              prioridad duración volumen bucle  intervalo mínimo
+    MOTOR     ("motor_loop.wav",     3,        0f,      0.35f,  true,  0f),
+    CHOQUE    ("choque.wav",         2,        0.45f,   0.9f,   false, 0.06f),
+    GAME_OVER ("game_over.wav",      4,        1.2f,    1f,     false, 0f);
+
+    final String archivo;
+    final int prioridad;
+    final float duracion;
+    final float volumen;
+    final boolean bucle;
+    /** Tiempo mínimo entre dos reproducciones; las repeticiones más rápidas se descartan. */
+    final float intervaloMinimo;
+
+    SonidoJuego(String archivo, int prioridad, float duracion, float volumen, boolean bucle, float intervaloMinimo) {
+        this.archivo = archivo;
+        this.prioridad = prioridad;
+        this.duracion = duracion;
+        this.volumen = volumen;
+        this.bucle = bucle;
+        this.intervaloMinimo = intervaloMinimo;
+    }
+}
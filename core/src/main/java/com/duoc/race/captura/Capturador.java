@@ -0,0 +1,260 @@
+package com.duoc.race.captura;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Fotos y video del juego sin detener el dibujado.
+ * <p>
+ * Funcionamiento:
+ * <ul>
+ *     <li><b>Lectura diferida</b>: al terminar cada frame que hay que capturar
+ *     se encarga una copia de la pantalla a una de <code>RANURAS</code>
+ *     ranuras en la GPU, y se lee la ranura encargada
+ *     <code>RANURAS</code> frames antes, que ya está lista. Con OpenGL ES 3.0
+ *     se usan PBOs ({@link LecturaPbo}); con ES 2.0, copias a texturas
+ *     ({@link LecturaCopia}).</li>
+ *
+ *     <li><b>Codificación en otro hilo</b>: los píxeles leídos pasan a
+ *     {@link CodificadorCaptura}, que escribe PNG o Y4M.</li>
+ *
+ *     <li><b>Sin esperas</b>: hay <code>FOTOGRAMAS</code> buffers de píxeles
+ *     reservados. Si todos están en la cola del codificador, el frame se
+ *     descarta y se cuenta; el juego nunca espera al disco.</li>
+ * </ul>
+ * <p>
+ * El tiempo que la captura agrega al hilo del juego queda dentro del trabajo
+ * del frame que miden el gobernador de calidad y la telemetría, y además se
+ * acumula aparte en {@link #getCostoMedioMicros()}.
+ * </p>
+ */
+public class Capturador implements Disposable {
+
+    private static final int RANURAS = 3;
+    private static final int FOTOGRAMAS = 6;
+
+    private final File carpeta;
+    private final int fps;
+    private final BlockingQueue<FotogramaCapturado> libres = new ArrayBlockingQueue<>(FOTOGRAMAS);
+    private final BlockingQueue<FotogramaCapturado> pendientes = new ArrayBlockingQueue<>(FOTOGRAMAS + 2);
+    private final CodificadorCaptura codificador;
+    private final Thread hilo;
+
+    private LecturaPixeles lectura;
+    private final FotogramaCapturado[] enVuelo = new FotogramaCapturado[RANURAS];
+    private int ranura = 0;
+
+    private SesionVideo video;
+    private boolean fotoPedida = false;
+
+    private long capturados = 0L;
+    private long descartados = 0L;
+    private long framesConCosto = 0L;
+    private long costoTotalNanos = 0L;
+    private long costoMaximoNanos = 0L;
+
+    /**
+     * @param carpeta dónde se guardan las fotos y los videos.
+     * @param fps     cuadros por segundo que se anotan en los videos.
+     */
+    public Capturador(File carpeta, int fps) {
+        this.carpeta = carpeta;
+        this.fps = fps;
+        for (int i = 0; i < FOTOGRAMAS; i++) {
+            libres.add(new FotogramaCapturado(0));
+        }
+        codificador = new CodificadorCaptura(pendientes, libres, carpeta);
+        hilo = new Thread(codificador, "captura");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /** Guarda como PNG el próximo frame que termine de dibujarse. */
+    public void pedirFoto() {
+        fotoPedida = true;
+    }
+
+    public boolean isGrabando() {
+        return video != null;
+    }
+
+    /**
+     * Empieza a grabar todos los frames en un video nuevo dentro de la carpeta
+     * de capturas. Si ya se estaba grabando, no hace nada.
+     */
+    public void iniciarVideo(FormatoCaptura formato) {
+        if (video != null) {
+            return;
+        }
+        int ancho = Gdx.graphics.getBackBufferWidth();
+        int alto = Gdx.graphics.getBackBufferHeight();
+        String nombre = "video-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        File destino = formato == FormatoCaptura.Y4M ? new File(carpeta, nombre + ".y4m") : new File(carpeta, nombre);
+        if (formato == FormatoCaptura.PNG) {
+            destino.mkdirs();
+        }
+        video = new SesionVideo(formato, destino, ancho, alto, fps);
+        Gdx.app.log("CAPTURA", "grabando " + ancho + "x" + alto + " en " + destino.getPath());
+    }
+
+    /**
+     * Deja de grabar. Los frames que todavía están en la GPU o en la cola se
+     * terminan de guardar antes de cerrar el archivo.
+     */
+    public void detenerVideo() {
+        if (video == null) {
+            return;
+        }
+        SesionVideo terminado = video;
+        video = null;
+        vaciar();
+        encolar(FotogramaCapturado.cierre(terminado));
+    }
+
+    /**
+     * Se llama al terminar de dibujar cada frame, antes de presentarlo. Lee la
+     * ranura más antigua y, si hay que capturar este frame, encarga su copia.
+     */
+    public void frameDibujado() {
+        boolean capturar = video != null || fotoPedida;
+        if (lectura == null && !capturar) {
+            return;
+        }
+        long inicio = TimeUtils.nanoTime();
+
+        int ancho = Gdx.graphics.getBackBufferWidth();
+        int alto = Gdx.graphics.getBackBufferHeight();
+        if (lectura != null && (lectura.getAncho() != ancho || lectura.getAlto() != alto)) {
+            if (video != null) {
+                Gdx.app.error("CAPTURA", "la ventana cambió de tamaño; se detiene la grabación");
+                detenerVideo();
+                capturar = fotoPedida;
+            }
+            vaciar();
+            lectura.dispose();
+            lectura = null;
+        }
+
+        // La copia de esta ranura se encargó hace RANURAS frames: ya está lista
+        if (enVuelo[ranura] != null) {
+            leer(ranura);
+        }
+        if (capturar) {
+            if (lectura == null) {
+                lectura = Gdx.gl30 != null
+                    ? new LecturaPbo(Gdx.gl30, RANURAS, ancho, alto)
+                    : new LecturaCopia(RANURAS, ancho, alto);
+            }
+            FotogramaCapturado fotograma = libres.poll();
+            if (fotograma == null) {
+                // El codificador va atrasado: se pierde este frame, no se espera
+                descartados++;
+            } else {
+                fotograma.preparar(ancho, alto, video, fotoPedida);
+                fotoPedida = false;
+                lectura.copiar(ranura);
+                enVuelo[ranura] = fotograma;
+            }
+        } else if (sinNadaEnVuelo()) {
+            // Sin captura pendiente se liberan las ranuras de la GPU
+            lectura.dispose();
+            lectura = null;
+        }
+        ranura = (ranura + 1) % RANURAS;
+
+        long costo = TimeUtils.nanoTime() - inicio;
+        framesConCosto++;
+        costoTotalNanos += costo;
+        costoMaximoNanos = Math.max(costoMaximoNanos, costo);
+    }
+
+    /** Frames leídos de la GPU y entregados al codificador. */
+    public long getCapturados() {
+        return capturados;
+    }
+
+    /** Frames perdidos porque el codificador no alcanzaba a guardarlos. */
+    public long getDescartados() {
+        return descartados;
+    }
+
+    public long getEscritos() {
+        return codificador.getEscritos();
+    }
+
+    public long getErrores() {
+        return codificador.getErrores();
+    }
+
+    /** Tiempo medio que la captura agrega al hilo del juego en los frames en que trabajó. */
+    public long getCostoMedioMicros() {
+        return framesConCosto == 0L ? 0L : costoTotalNanos / framesConCosto / 1000L;
+    }
+
+    public long getCostoMaximoMicros() {
+        return costoMaximoNanos / 1000L;
+    }
+
+    /**
+     * Termina el video en curso, espera a que el codificador guarde lo
+     * pendiente y libera las ranuras de la GPU. Debe llamarse en el hilo del
+     * juego, con el contexto gráfico todavía vivo.
+     */
+    @Override
+    public void dispose() {
+        detenerVideo();
+        vaciar();
+        if (lectura != null) {
+            lectura.dispose();
+            lectura = null;
+        }
+        encolar(FotogramaCapturado.FIN);
+        try {
+            hilo.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Lee ya todas las ranuras encargadas, en orden, aunque la GPU tenga que terminarlas. */
+    private void vaciar() {
+        for (int i = 0; i < RANURAS; i++) {
+            int r = (ranura + i) % RANURAS;
+            if (enVuelo[r] != null) {
+                leer(r);
+            }
+        }
+    }
+
+    private void leer(int r) {
+        FotogramaCapturado fotograma = enVuelo[r];
+        enVuelo[r] = null;
+        lectura.leer(r, fotograma.pixeles);
+        capturados++;
+        encolar(fotograma);
+    }
+
+    private boolean sinNadaEnVuelo() {
+        for (FotogramaCapturado fotograma : enVuelo) {
+            if (fotograma != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void encolar(FotogramaCapturado fotograma) {
+        try {
+            pendientes.put(fotograma);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.duoc.race.captura;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Hilo que guarda en disco los fotogramas capturados, lejos del hilo del
+ * juego.
+ * <p>
+ * Toma los fotogramas de <code>pendientes</code>, los escribe como PNG o como
+ * parte de un video Y4M y los devuelve a <code>libres</code> para que el juego
+ * los vuelva a usar. Si el disco o la codificación no dan abasto, la cola de
+ * libres se vacía y el juego descarta frames en vez de esperar.
+ * </p>
+ */
+class CodificadorCaptura implements Runnable {
+
+    private static final byte[] MARCA_FRAME = "FRAME\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final BlockingQueue<FotogramaCapturado> pendientes;
+    private final BlockingQueue<FotogramaCapturado> libres;
+    private final File carpetaFotos;
+    private final SimpleDateFormat formatoFecha = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS");
+
+    // Se reservan una vez y se reutilizan mientras el tamaño no cambie
+    private Pixmap imagen;
+    private byte[] planoY = new byte[0];
+    private byte[] planoU = new byte[0];
+    private byte[] planoV = new byte[0];
+
+    private volatile long escritos = 0L;
+    private volatile long errores = 0L;
+
+    CodificadorCaptura(BlockingQueue<FotogramaCapturado> pendientes, BlockingQueue<FotogramaCapturado> libres,
+                       File carpetaFotos) {
+        this.pendientes = pendientes;
+        this.libres = libres;
+        this.carpetaFotos = carpetaFotos;
+    }
+
+    long getEscritos() {
+        return escritos;
+    }
+
+    long getErrores() {
+        return errores;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                FotogramaCapturado fotograma = pendientes.take();
+                if (fotograma == FotogramaCapturado.FIN) {
+                    break;
+                }
+                if (fotograma.cierre) {
+                    cerrar(fotograma.sesion);
+                    continue;
+                }
+                try {
+                    escribir(fotograma);
+                    escritos++;
+                } catch (IOException | RuntimeException e) {
+                    errores++;
+                    Gdx.app.error("CAPTURA", "no se pudo guardar un fotograma", e);
+                }
+                fotograma.sesion = null;
+                libres.offer(fotograma);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (imagen != null) {
+                imagen.dispose();
+            }
+        }
+    }
+
+    private void escribir(FotogramaCapturado fotograma) throws IOException {
+        SesionVideo sesion = fotograma.sesion;
+        if (sesion != null && !sesion.fallida) {
+            try {
+                if (sesion.formato == FormatoCaptura.Y4M) {
+                    escribirY4m(sesion, fotograma);
+                } else {
+                    escribirPng(new File(sesion.destino, String.format("frame-%06d.png", sesion.fotogramas)), fotograma);
+                }
+                sesion.fotogramas++;
+            } catch (IOException e) {
+                // Un video a medias no sirve: se deja de escribir en él y se avisa una vez
+                sesion.fallida = true;
+                throw e;
+            }
+        }
+        if (fotograma.foto) {
+            carpetaFotos.mkdirs();
+            File archivo = new File(carpetaFotos, "foto-" + formatoFecha.format(new Date()) + ".png");
+            escribirPng(archivo, fotograma);
+            Gdx.app.log("CAPTURA", "foto guardada en " + archivo.getPath());
+        }
+    }
+
+    private void escribirPng(File archivo, FotogramaCapturado fotograma) {
+        if (imagen == null || imagen.getWidth() != fotograma.ancho || imagen.getHeight() != fotograma.alto) {
+            if (imagen != null) {
+                imagen.dispose();
+            }
+            imagen = new Pixmap(fotograma.ancho, fotograma.alto, Pixmap.Format.RGBA8888);
+        }
+        ByteBuffer destino = imagen.getPixels();
+        destino.clear();
+        fotograma.pixeles.rewind();
+        destino.put(fotograma.pixeles);
+        // El alfa del framebuffer no es transparencia de la imagen: la foto va opaca
+        for (int i = 3; i < destino.limit(); i += 4) {
+            destino.put(i, (byte) 0xFF);
+        }
+        destino.rewind();
+        // Las filas llegan de abajo hacia arriba; PixmapIO las invierte al escribir
+        PixmapIO.writePNG(Gdx.files.absolute(archivo.getAbsolutePath()), imagen, Deflater.BEST_SPEED, true);
+    }
+
+    /**
+     * Agrega un frame al video YUV4MPEG2: plano Y a resolución completa y U,
+     * V a la mitad en cada eje (4:2:0), con los coeficientes BT.601 de rango
+     * completo que indica la cabecera <code>C420jpeg</code>.
+     */
+    private void escribirY4m(SesionVideo sesion, FotogramaCapturado fotograma) throws IOException {
+        // 4:2:0 exige lados pares; se recorta la última fila o columna si hace falta
+        int ancho = sesion.ancho & ~1;
+        int alto = sesion.alto & ~1;
+        if (sesion.salida == null) {
+            sesion.destino.getParentFile().mkdirs();
+            sesion.salida = new BufferedOutputStream(new FileOutputStream(sesion.destino), 1 << 20);
+            String cabecera = "YUV4MPEG2 W" + ancho + " H" + alto + " F" + sesion.fps + ":1 Ip A1:1 C420jpeg\n";
+            sesion.salida.write(cabecera.getBytes(StandardCharsets.US_ASCII));
+        }
+        int mitad = (ancho / 2) * (alto / 2);
+        if (planoY.length < ancho * alto) {
+            planoY = new byte[ancho * alto];
+            planoU = new byte[mitad];
+            planoV = new byte[mitad];
+        }
+
+        ByteBuffer rgba = fotograma.pixeles;
+        int paso = fotograma.ancho * 4;
+        for (int fila = 0; fila < alto; fila++) {
+            // La primera fila del video es la última que entregó OpenGL
+            int origen = (fotograma.alto - 1 - fila) * paso;
+            for (int x = 0; x < ancho; x++) {
+                int i = origen + x * 4;
+                int r = rgba.get(i) & 0xFF;
+                int g = rgba.get(i + 1) & 0xFF;
+                int b = rgba.get(i + 2) & 0xFF;
+                planoY[fila * ancho + x] = (byte) ((77 * r + 150 * g + 29 * b + 128) >> 8);
+            }
+        }
+        for (int fila = 0; fila < alto / 2; fila++) {
+            int arriba = (fotograma.alto - 1 - fila * 2) * paso;
+            int abajo = arriba - paso;
+            for (int x = 0; x < ancho / 2; x++) {
+                int i = arriba + x * 8;
+                int j = abajo + x * 8;
+                int r = (rgba.get(i) & 0xFF) + (rgba.get(i + 4) & 0xFF) + (rgba.get(j) & 0xFF) + (rgba.get(j + 4) & 0xFF);
+                int g = (rgba.get(i + 1) & 0xFF) + (rgba.get(i + 5) & 0xFF) + (rgba.get(j + 1) & 0xFF) + (rgba.get(j + 5) & 0xFF);
+                int b = (rgba.get(i + 2) & 0xFF) + (rgba.get(i + 6) & 0xFF) + (rgba.get(j + 2) & 0xFF) + (rgba.get(j + 6) & 0xFF);
+                // r, g y b suman cuatro píxeles: dividir por 1024 es promediar y escalar a la vez
+                planoU[fila * (ancho / 2) + x] = (byte) (((-43 * r - 85 * g + 128 * b + 512) >> 10) + 128);
+                planoV[fila * (ancho / 2) + x] = (byte) (((128 * r - 107 * g - 21 * b + 512) >> 10) + 128);
+            }
+        }
+        sesion.salida.write(MARCA_FRAME);
+        sesion.salida.write(planoY, 0, ancho * alto);
+        sesion.salida.write(planoU, 0, mitad);
+        sesion.salida.write(planoV, 0, mitad);
+    }
+
+    private void cerrar(SesionVideo sesion) {
+        if (sesion.salida != null) {
+            try {
+                sesion.salida.close();
+            } catch (IOException e) {
+                Gdx.app.error("CAPTURA", "no se pudo cerrar " + sesion.destino.getPath(), e);
+            }
+            sesion.salida = null;
+        }
+        Gdx.app.log("CAPTURA", "video terminado: " + sesion.fotogramas + " frames en " + sesion.destino.getPath());
+    }
+}
@@ -0,0 +1,11 @@
+package com.duoc.race.captura;
+
+/**
+ * Cómo se guarda un video capturado.
+ */
+public enum FormatoCaptura {
+    /** Un PNG por frame: sin pérdida, pero codificar cuesta y a 60 fps se descartan frames. */
+    PNG,
+    /** Un solo archivo YUV 4:2:0 sin comprimir, que ffmpeg y la mayoría de los editores leen directo. */
+    Y4M
+}
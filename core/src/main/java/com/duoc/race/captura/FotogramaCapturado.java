@@ -0,0 +1,56 @@
+package com.duoc.race.captura;
+
+import com.badlogic.gdx.utils.BufferUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Píxeles de un frame leídos de la GPU, en RGBA y con la fila de abajo
+ * primero (el orden de OpenGL), camino del hilo codificador.
+ * <p>
+ * Los fotogramas se reservan al empezar a capturar y circulan entre el hilo
+ * del juego y el codificador; no se crean durante la captura. Los que marcan
+ * el cierre de un video o el fin del hilo no llevan píxeles.
+ * </p>
+ */
+final class FotogramaCapturado {
+
+    /** Pide al codificador que termine lo pendiente y se detenga. */
+    static final FotogramaCapturado FIN = new FotogramaCapturado(0);
+
+    ByteBuffer pixeles;
+    int ancho;
+    int alto;
+    /** Video al que pertenece, o <code>null</code> si es solo una foto. */
+    SesionVideo sesion;
+    /** Además de ir al video, guardarlo como foto PNG. */
+    boolean foto;
+    /** Este fotograma no trae píxeles: indica que <code>sesion</code> terminó. */
+    boolean cierre;
+
+    FotogramaCapturado(int bytes) {
+        pixeles = bytes > 0 ? BufferUtils.newByteBuffer(bytes) : null;
+    }
+
+    /** Marca de cierre de un video; se crea una vez por video, al detenerlo. */
+    static FotogramaCapturado cierre(SesionVideo sesion) {
+        FotogramaCapturado marca = new FotogramaCapturado(0);
+        marca.sesion = sesion;
+        marca.cierre = true;
+        return marca;
+    }
+
+    /** Prepara el fotograma para un frame de este tamaño; solo reserva memoria si la ventana creció. */
+    void preparar(int ancho, int alto, SesionVideo sesion, boolean foto) {
+        int bytes = ancho * alto * 4;
+        if (pixeles == null || pixeles.capacity() < bytes) {
+            pixeles = BufferUtils.newByteBuffer(bytes);
+        }
+        pixeles.clear();
+        pixeles.limit(bytes);
+        this.ancho = ancho;
+        this.alto = alto;
+        this.sesion = sesion;
+        this.foto = foto;
+    }
+}
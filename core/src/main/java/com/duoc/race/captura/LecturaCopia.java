@@ -0,0 +1,67 @@
+package com.duoc.race.captura;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Lectura diferida para OpenGL ES 2.0, que no tiene PBOs (por ejemplo con
+ * ANGLE).
+ * <p>
+ * Cada frame se copia dentro de la GPU a la textura de un
+ * <code>FrameBuffer</code> de la ranura, lo que no espera a nada. La lectura
+ * con <code>glReadPixels</code> se hace unos frames después sobre esa copia,
+ * que la GPU ya terminó; así no obliga a esperar el frame en curso.
+ * </p>
+ */
+class LecturaCopia implements LecturaPixeles {
+
+    private final FrameBuffer[] copias;
+    private final int ancho;
+    private final int alto;
+
+    LecturaCopia(int ranuras, int ancho, int alto) {
+        this.ancho = ancho;
+        this.alto = alto;
+        this.copias = new FrameBuffer[ranuras];
+        for (int i = 0; i < ranuras; i++) {
+            // Sin alfa: se puede copiar desde una pantalla RGB o RGBA
+            copias[i] = new FrameBuffer(Pixmap.Format.RGB888, ancho, alto, false);
+        }
+    }
+
+    @Override
+    public int getAncho() {
+        return ancho;
+    }
+
+    @Override
+    public int getAlto() {
+        return alto;
+    }
+
+    @Override
+    public void copiar(int ranura) {
+        copias[ranura].getColorBufferTexture().bind();
+        Gdx.gl.glCopyTexSubImage2D(GL20.GL_TEXTURE_2D, 0, 0, 0, 0, 0, ancho, alto);
+    }
+
+    @Override
+    public void leer(int ranura, ByteBuffer destino) {
+        copias[ranura].bind();
+        destino.clear();
+        Gdx.gl.glReadPixels(0, 0, ancho, alto, GL20.GL_RGBA, GL20.GL_UNSIGNED_BYTE, destino);
+        destino.limit(ancho * alto * 4);
+        FrameBuffer.unbind();
+    }
+
+    @Override
+    public void dispose() {
+        for (FrameBuffer copia : copias) {
+            copia.dispose();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.duoc.race.captura;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.utils.BufferUtils;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Lectura asíncrona con pixel buffer objects (OpenGL ES 3.0).
+ * <p>
+ * <code>glReadPixels</code> hacia un PBO vuelve enseguida: la GPU copia el
+ * frame cuando termina de dibujarlo. Al mapear el PBO unos frames después los
+ * datos ya están listos y la lectura no espera.
+ * </p>
+ */
+class LecturaPbo implements LecturaPixeles {
+
+    private final GL30 gl;
+    private final int ancho;
+    private final int alto;
+    private final int bytes;
+    private final int[] pbos;
+
+    LecturaPbo(GL30 gl, int ranuras, int ancho, int alto) {
+        this.gl = gl;
+        this.ancho = ancho;
+        this.alto = alto;
+        this.bytes = ancho * alto * 4;
+        this.pbos = new int[ranuras];
+
+        IntBuffer ids = BufferUtils.newIntBuffer(ranuras);
+        gl.glGenBuffers(ranuras, ids);
+        for (int i = 0; i < ranuras; i++) {
+            pbos[i] = ids.get(i);
+            gl.glBindBuffer(GL30.GL_PIXEL_PACK_BUFFER, pbos[i]);
+            gl.glBufferData(GL30.GL_PIXEL_PACK_BUFFER, bytes, null, GL30.GL_STREAM_READ);
+        }
+        gl.glBindBuffer(GL30.GL_PIXEL_PACK_BUFFER, 0);
+    }
+
+    @Override
+    public int getAncho() {
+        return ancho;
+    }
+
+    @Override
+    public int getAlto() {
+        return alto;
+    }
+
+    @Override
+    public void copiar(int ranura) {
+        gl.glBindBuffer(GL30.GL_PIXEL_PACK_BUFFER, pbos[ranura]);
+        gl.glReadPixels(0, 0, ancho, alto, GL20.GL_RGBA, GL20.GL_UNSIGNED_BYTE, 0);
+        gl.glBindBuffer(GL30.GL_PIXEL_PACK_BUFFER, 0);
+    }
+
+    @Override
+    public void leer(int ranura, ByteBuffer destino) {
+        gl.glBindBuffer(GL30.GL_PIXEL_PACK_BUFFER, pbos[ranura]);
+        Buffer mapeado = gl.glMapBufferRange(GL30.GL_PIXEL_PACK_BUFFER, 0, bytes, GL30.GL_MAP_READ_BIT);
+        if (mapeado instanceof ByteBuffer) {
+            ByteBuffer datos = (ByteBuffer) mapeado;
+            datos.limit(bytes);
+            destino.clear();
+            destino.put(datos);
+            destino.flip();
+        }
+        gl.glUnmapBuffer(GL30.GL_PIXEL_PACK_BUFFER);
+        gl.glBindBuffer(GL30.GL_PIXEL_PACK_BUFFER, 0);
+    }
+
+    @Override
+    public void dispose() {
+        for (int pbo : pbos) {
+            gl.glDeleteBuffer(pbo);
+        }
+    }
+}
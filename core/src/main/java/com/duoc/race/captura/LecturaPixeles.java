@@ -0,0 +1,27 @@
+package com.duoc.race.captura;
+
+import com.badlogic.gdx.utils.Disposable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Lectura de la pantalla en dos pasos, para no detener la GPU esperando el
+ * frame que se acaba de dibujar.
+ * <p>
+ * {@link #copiar(int)} encarga una copia del frame actual a una ranura sin
+ * esperar a que termine; unos frames después, cuando la GPU ya la completó,
+ * {@link #leer(int, ByteBuffer)} trae esa ranura a la memoria.
+ * </p>
+ */
+interface LecturaPixeles extends Disposable {
+
+    int getAncho();
+
+    int getAlto();
+
+    /** Encarga la copia de la pantalla completa a la ranura. */
+    void copiar(int ranura);
+
+    /** Trae a <code>destino</code> los píxeles RGBA de la ranura, copiada frames atrás. */
+    void leer(int ranura, ByteBuffer destino);
+}
@@ -0,0 +1,35 @@
+package com.duoc.race.captura;
+
+import java.io.File;
+import java.io.OutputStream;
+
+/**
+ * Un video en curso: dónde se guarda, en qué formato y con qué tamaño.
+ * <p>
+ * Lo crea el hilo del juego al empezar a grabar; el archivo lo abre, escribe
+ * y cierra el hilo codificador, que es el único que toca los campos de
+ * escritura.
+ * </p>
+ */
+final class SesionVideo {
+
+    final FormatoCaptura formato;
+    /** Carpeta de los PNG, o archivo <code>.y4m</code>. */
+    final File destino;
+    final int ancho;
+    final int alto;
+    final int fps;
+
+    // Solo del hilo codificador
+    OutputStream salida;
+    int fotogramas = 0;
+    boolean fallida = false;
+
+    SesionVideo(FormatoCaptura formato, File destino, int ancho, int alto, int fps) {
+        this.formato = formato;
+        this.destino = destino;
+        this.ancho = ancho;
+        this.alto = alto;
+        this.fps = fps;
+    }
+}
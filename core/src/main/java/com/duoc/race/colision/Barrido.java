@@ -0,0 +1,78 @@
+package com.duoc.race.colision;
+
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * Detección continua (barrida) de choques entre rectángulos en movimiento.
+ * <p>
+ * Comprobar el solapamiento solo en la posición final de cada frame falla
+ * cuando un objeto avanza en un frame más que su propio tamaño: en un frame
+ * lento, un auto enemigo puede pasar "a través" del jugador sin que sus
+ * rectángulos se toquen nunca en las posiciones muestreadas. Esta clase
+ * calcula en qué fracción del frame empiezan y terminan a tocarse dos
+ * rectángulos que se mueven en línea recta, sin importar la distancia recorrida.
+ * </p>
+ */
+public final class Barrido {
+
+    private Barrido() {
+    }
+
+    /**
+     * Calcula el intervalo del frame durante el cual dos rectángulos se tocan.
+     * <p>
+     * Se trabaja con el movimiento de <code>a</code> relativo a <code>b</code> y
+     * se intersecan los intervalos de contacto de cada eje (método de "slabs").
+     * </p>
+     *
+     * @param a        rectángulo A al comienzo del frame.
+     * @param aDx      desplazamiento de A en X durante el frame.
+     * @param aDy      desplazamiento de A en Y durante el frame.
+     * @param b        rectángulo B al comienzo del frame.
+     * @param bDx      desplazamiento de B en X durante el frame.
+     * @param bDy      desplazamiento de B en Y durante el frame.
+     * @param intervalo arreglo de 2 posiciones donde se guardan el instante de
+     *                 entrada y de salida, como fracción del frame entre 0 y 1.
+     * @return <code>true</code> si los rectángulos se tocan en algún momento del frame.
+     */
+    public static boolean intervaloDeContacto(Rectangle a, float aDx, float aDy,
+                                              Rectangle b, float bDx, float bDy,
+                                              float[] intervalo) {
+        float vx = aDx - bDx;
+        float vy = aDy - bDy;
+
+        float entrada = 0f;
+        float salida = 1f;
+
+        // Eje X
+        if (vx == 0f) {
+            if (a.x + a.width <= b.x || b.x + b.width <= a.x) {
+                return false;
+            }
+        } else {
+            float t1 = (b.x - (a.x + a.width)) / vx;
+            float t2 = (b.x + b.width - a.x) / vx;
+            entrada = Math.max(entrada, Math.min(t1, t2));
+            salida = Math.min(salida, Math.max(t1, t2));
+        }
+
+        // Eje Y
+        if (vy == 0f) {
+            if (a.y + a.height <= b.y || b.y + b.height <= a.y) {
+                return false;
+            }
+        } else {
+            float t1 = (b.y - (a.y + a.height)) / vy;
+            float t2 = (b.y + b.height - a.y) / vy;
+            entrada = Math.max(entrada, Math.min(t1, t2));
+            salida = Math.min(salida, Math.max(t1, t2));
+        }
+
+        if (entrada >= salida) {
+            return false;
+        }
+        intervalo[0] = entrada;
+        intervalo[1] = salida;
+        return true;
+    }
+}
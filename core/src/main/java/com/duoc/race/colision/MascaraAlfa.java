@@ -0,0 +1,170 @@
+package com.duoc.race.colision;
+
+import com.badlogic.gdx.graphics.Pixmap;
+
+/**
+ * Máscara de colisión de una textura: un bit por píxel que indica si el píxel
+ * es visible (opaco) o transparente.
+ * <p>
+ * Cada fila se guarda empaquetada en palabras de 64 bits, con el bit
+ * <code>i</code> de la palabra <code>k</code> representando la columna
+ * <code>64·k + i</code>. La fila 0 es la inferior, igual que el eje Y del mundo.
+ * La máscara se crea una sola vez, al cargar las texturas, con el tamaño con que
+ * se dibuja la entidad en pantalla; así una coordenada de la máscara equivale a
+ * un píxel del mundo.
+ * </p>
+ *
+ * <p>
+ * La prueba de solapamiento compara 64 columnas por operación (un
+ * <code>AND</code> entre palabras, desplazadas según la distancia horizontal de
+ * las entidades), por lo que su costo depende de la altura de la zona común y
+ * no de su área.
+ * </p>
+ */
+public class MascaraAlfa {
+
+    private final int ancho;
+    private final int alto;
+    private final int palabrasPorFila;
+    private final long[] bits;
+
+    /**
+     * Crea una máscara vacía (totalmente transparente).
+     *
+     * @param ancho ancho en píxeles.
+     * @param alto  alto en píxeles.
+     */
+    public MascaraAlfa(int ancho, int alto) {
+        this.ancho = ancho;
+        this.alto = alto;
+        this.palabrasPorFila = (ancho + 63) >>> 6;
+        this.bits = new long[palabrasPorFila * alto];
+    }
+
+    /**
+     * Crea la máscara de una imagen escalada al tamaño con que se dibuja.
+     * <p>
+     * Cada píxel de la máscara toma el píxel más cercano de la imagen original,
+     * que es lo mismo que hace el filtro <code>Nearest</code> al dibujarla.
+     * </p>
+     *
+     * @param pixmap     imagen de origen en formato RGBA.
+     * @param ancho      ancho con que se dibuja la entidad.
+     * @param alto       alto con que se dibuja la entidad.
+     * @param umbralAlfa valor de alfa (0–255) desde el cual un píxel se considera sólido.
+     * @return la máscara creada.
+     */
+    public static MascaraAlfa desdePixmap(Pixmap pixmap, int ancho, int alto, int umbralAlfa) {
+        return desdePixmap(pixmap, 0, 0, pixmap.getWidth(), pixmap.getHeight(), ancho, alto, umbralAlfa);
+    }
+
+    /**
+     * Crea la máscara de una región de la imagen, escalada al tamaño con que
+     * se dibuja. La región se indica como en <code>TextureRegion</code>, con
+     * el origen arriba a la izquierda.
+     */
+    public static MascaraAlfa desdePixmap(Pixmap pixmap, int regionX, int regionY, int anchoOrigen, int altoOrigen,
+                                          int ancho, int alto, int umbralAlfa) {
+        MascaraAlfa mascara = new MascaraAlfa(ancho, alto);
+
+        for (int y = 0; y < alto; y++) {
+            // La imagen tiene el origen arriba; la máscara, abajo
+            int origenY = regionY + (alto - 1 - y) * altoOrigen / alto;
+            for (int x = 0; x < ancho; x++) {
+                int origenX = regionX + x * anchoOrigen / ancho;
+                int alfa = pixmap.getPixel(origenX, origenY) & 0xFF;
+                if (alfa >= umbralAlfa) {
+                    mascara.marcar(x, y);
+                }
+            }
+        }
+        return mascara;
+    }
+
+    /** Marca un píxel como sólido. */
+    public void marcar(int x, int y) {
+        bits[y * palabrasPorFila + (x >>> 6)] |= 1L << (x & 63);
+    }
+
+    /** Indica si un píxel es sólido. Fuera de la máscara siempre es transparente. */
+    public boolean esSolido(int x, int y) {
+        if (x < 0 || y < 0 || x >= ancho || y >= alto) {
+            return false;
+        }
+        return (bits[y * palabrasPorFila + (x >>> 6)] & (1L << (x & 63))) != 0;
+    }
+
+    public int getAncho() {
+        return ancho;
+    }
+
+    public int getAlto() {
+        return alto;
+    }
+
+    /**
+     * Indica si dos máscaras ubicadas en el mundo tienen al menos un píxel
+     * sólido en común.
+     *
+     * @param a  primera máscara.
+     * @param ax posición X (esquina inferior izquierda) de la primera máscara.
+     * @param ay posición Y de la primera máscara.
+     * @param b  segunda máscara.
+     * @param bx posición X de la segunda máscara.
+     * @param by posición Y de la segunda máscara.
+     * @return <code>true</code> si se solapan.
+     */
+    public static boolean seSolapan(MascaraAlfa a, int ax, int ay, MascaraAlfa b, int bx, int by) {
+        int inicioX = Math.max(ax, bx);
+        int finX = Math.min(ax + a.ancho, bx + b.ancho);
+        int inicioY = Math.max(ay, by);
+        int finY = Math.min(ay + a.alto, by + b.alto);
+        if (inicioX >= finX || inicioY >= finY) {
+            return false;
+        }
+
+        // Columnas de la zona común, expresadas en coordenadas de la máscara A
+        int primeraPalabra = (inicioX - ax) >>> 6;
+        int ultimaPalabra = (finX - ax - 1) >>> 6;
+        int desplazamiento = bx - ax;
+
+        for (int y = inicioY; y < finY; y++) {
+            int filaA = (y - ay) * a.palabrasPorFila;
+            int filaB = (y - by) * b.palabrasPorFila;
+            for (int k = primeraPalabra; k <= ultimaPalabra; k++) {
+                long palabraA = a.bits[filaA + k];
+                if (palabraA == 0L) {
+                    continue;
+                }
+                // Columna de B que cae sobre la columna 64·k de A
+                long palabraB = b.extraer(filaB, (k << 6) - desplazamiento);
+                if ((palabraA & palabraB) != 0L) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Devuelve 64 columnas consecutivas de una fila, empezando en
+     * <code>columna</code>, que puede caer fuera de la máscara o no estar
+     * alineada a una palabra.
+     */
+    private long extraer(int inicioFila, int columna) {
+        int palabra = columna >> 6;
+        int resto = columna & 63;
+        long bajo = palabra(inicioFila, palabra) >>> resto;
+        if (resto == 0) {
+            return bajo;
+        }
+        return bajo | (palabra(inicioFila, palabra + 1) << (64 - resto));
+    }
+
+    private long palabra(int inicioFila, int indice) {
+        if (indice < 0 || indice >= palabrasPorFila) {
+            return 0L;
+        }
+        return bits[inicioFila + indice];
+    }
+}
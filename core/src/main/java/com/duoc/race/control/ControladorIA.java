@@ -0,0 +1,244 @@
+package com.duoc.race.control;
+
+import com.duoc.race.ecs.Arquetipo;
+import com.duoc.race.ecs.Consulta;
+import com.duoc.race.interfaces.Controlador;
+import com.duoc.race.interfaces.VistaCarrera;
+import com.duoc.race.model.AutoJugador;
+
+import static com.duoc.race.sistemas.Componentes.*;
+
+/**
+ * Piloto automático que esquiva obstáculos planificando cambios de carril.
+ * <p>
+ * Se usa para el modo demostración y para pruebas largas sin supervisión: juega
+ * con las mismas reglas que el jugador, así que recorre el mismo código de
+ * movimiento, colisiones y reinicio.
+ * </p>
+ *
+ * <p>Planificación en cada frame:</p>
+ * <ul>
+ *     <li><b>Carriles</b>: el ancho de la pista se divide en posiciones separadas
+ *     por <code>ANCHO_CARRIL</code> píxeles.</li>
+ *
+ *     <li><b>Predicción</b>: para cada paso de tiempo hasta el horizonte se
+ *     calcula dónde estará cada obstáculo según su componente de velocidad
+ *     y se marcan los carriles bloqueados, incluidos
+ *     los que quedan fuera de la calzada en ese momento.</li>
+ *
+ *     <li><b>Búsqueda</b>: una programación dinámica hacia atrás elige la
+ *     secuencia de carriles alcanzables con menos choques, penalizando más los
+ *     choques cercanos y, en menor medida, cada cambio de carril.</li>
+ *
+ *     <li><b>Presupuesto</b>: la predicción revisa el reloj en cada paso. Si se
+ *     agota el presupuesto de microsegundos, el horizonte se acorta a los pasos
+ *     ya calculados, de modo que el costo por frame está acotado.</li>
+ * </ul>
+ */
+public class ControladorIA implements Controlador {
+
+    private static final float PASO_TIEMPO        = 0.1f;
+    private static final int   PASOS_HORIZONTE    = 12;
+    private static final float ANCHO_CARRIL       = 20f;
+    private static final int   MAX_CARRILES       = 64;
+    private static final int   MAX_OBSTACULOS     = 64;
+    private static final float MARGEN_SEGURIDAD   = 6f;
+    private static final float COSTO_CHOQUE       = 1000f;
+    private static final float COSTO_MOVIMIENTO   = 1f;
+    private static final float COSTO_DESCENTRADO  = 0.01f;
+
+    private final VistaCarrera vista;
+    private final long presupuestoNanos;
+
+    // Memoria de trabajo preasignada: el planificador no crea objetos por frame
+    private final float[]   carrilX    = new float[MAX_CARRILES];
+    private final boolean[] bloqueado  = new boolean[(PASOS_HORIZONTE + 1) * MAX_CARRILES];
+    private final float[]   costo      = new float[(PASOS_HORIZONTE + 1) * MAX_CARRILES];
+    private final float[]   obstaculoX  = new float[MAX_OBSTACULOS];
+    private final float[]   obstaculoY  = new float[MAX_OBSTACULOS];
+    private final float[]   obstaculoVy = new float[MAX_OBSTACULOS];
+    private final float[]   obstaculoAncho = new float[MAX_OBSTACULOS];
+    private final float[]   obstaculoAlto  = new float[MAX_OBSTACULOS];
+
+    private long  ultimoTiempoNanos = 0L;
+    private int   horizontesAcortados = 0;
+
+    /**
+     * @param vista                 estado de la carrera que el piloto puede observar.
+     * @param presupuestoMicrosegundos tiempo máximo de planificación por frame.
+     */
+    public ControladorIA(VistaCarrera vista, long presupuestoMicrosegundos) {
+        this.vista = vista;
+        this.presupuestoNanos = presupuestoMicrosegundos * 1000L;
+    }
+
+    @Override
+    public float leerDireccion(float delta) {
+        long inicio = System.nanoTime();
+        long limite = inicio + presupuestoNanos;
+
+        AutoJugador jugador = vista.getJugador();
+        float jugadorX = jugador.getX();
+        float velocidadJugador = vista.getVelocidadJugador();
+
+        int obstaculos = capturarObstaculos(vista.getObstaculos());
+        int carriles = prepararCarriles(jugador);
+        int horizonte = predecirBloqueos(jugador, carriles, obstaculos, limite);
+        if (horizonte < PASOS_HORIZONTE) {
+            horizontesAcortados++;
+        }
+        planificar(carriles, horizonte, velocidadJugador);
+
+        // Primer paso: carriles alcanzables desde la posición actual
+        float alcance = velocidadJugador * PASO_TIEMPO;
+        float centro = (carrilX[0] + carrilX[carriles - 1]) / 2f;
+        int mejor = -1;
+        float mejorCosto = Float.MAX_VALUE;
+        for (int c = 0; c < carriles; c++) {
+            float distancia = Math.abs(carrilX[c] - jugadorX);
+            if (distancia > alcance) {
+                continue;
+            }
+            float total = (horizonte > 0 ? costo[indice(1, c)] : 0f)
+                + distancia / ANCHO_CARRIL * COSTO_MOVIMIENTO
+                + Math.abs(carrilX[c] - centro) * COSTO_DESCENTRADO;
+            if (total < mejorCosto) {
+                mejorCosto = total;
+                mejor = c;
+            }
+        }
+
+        ultimoTiempoNanos = System.nanoTime() - inicio;
+
+        if (mejor < 0 || delta <= 0f) {
+            return 0f;
+        }
+        float direccion = (carrilX[mejor] - jugadorX) / (velocidadJugador * delta);
+        return Math.max(-1f, Math.min(1f, direccion));
+    }
+
+    /** Duración de la última planificación, en microsegundos. */
+    public long getUltimoTiempoMicros() {
+        return ultimoTiempoNanos / 1000L;
+    }
+
+    /** Cantidad de frames en que el presupuesto obligó a acortar el horizonte. */
+    public int getHorizontesAcortados() {
+        return horizontesAcortados;
+    }
+
+    /**
+     * Copia la posición, el tamaño y la velocidad de los obstáculos desde las
+     * tablas del mundo a los arreglos de trabajo.
+     */
+    private int capturarObstaculos(Consulta consulta) {
+        int n = 0;
+        for (int t = 0; t < consulta.getCantidadTablas() && n < MAX_OBSTACULOS; t++) {
+            Arquetipo tabla = consulta.getTabla(t);
+            float[] x = tabla.getFloats(POSICION, X);
+            float[] y = tabla.getFloats(POSICION, Y);
+            float[] ancho = tabla.getFloats(TAMANO, ANCHO);
+            float[] alto = tabla.getFloats(TAMANO, ALTO);
+            float[] vy = tabla.getFloats(VELOCIDAD, Y);
+            for (int i = 0; i < tabla.getCantidad() && n < MAX_OBSTACULOS; i++, n++) {
+                obstaculoX[n] = x[i];
+                obstaculoY[n] = y[i];
+                obstaculoAncho[n] = ancho[i];
+                obstaculoAlto[n] = alto[i];
+                obstaculoVy[n] = vy[i];
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Reparte los carriles entre el punto más a la izquierda y el más a la
+     * derecha que alcanza la calzada dentro del horizonte.
+     */
+    private int prepararCarriles(AutoJugador jugador) {
+        float minimo = Float.MAX_VALUE;
+        float maximo = -Float.MAX_VALUE;
+        for (int paso = 0; paso <= PASOS_HORIZONTE; paso++) {
+            float y = alturaPista(jugador, paso);
+            minimo = Math.min(minimo, vista.getBordeIzquierdo(y));
+            maximo = Math.max(maximo, vista.getBordeDerecho(y) - jugador.getWidth());
+        }
+
+        int carriles = Math.max(1, Math.min(MAX_CARRILES, (int) ((maximo - minimo) / ANCHO_CARRIL) + 1));
+        for (int c = 0; c < carriles; c++) {
+            carrilX[c] = minimo + c * ANCHO_CARRIL;
+        }
+        return carriles;
+    }
+
+    /**
+     * Marca los carriles ocupados en cada paso del horizonte.
+     *
+     * @return la cantidad de pasos calculados antes de agotar el presupuesto.
+     */
+    private int predecirBloqueos(AutoJugador jugador, int carriles, int obstaculos, long limite) {
+        float jugadorY = jugador.getY();
+        float ancho = jugador.getWidth();
+        float alto = jugador.getHeight();
+
+        for (int paso = 1; paso <= PASOS_HORIZONTE; paso++) {
+            if (System.nanoTime() > limite) {
+                return paso - 1;
+            }
+            float t = paso * PASO_TIEMPO;
+            float y = alturaPista(jugador, paso);
+            float izquierda = vista.getBordeIzquierdo(y);
+            float derecha = vista.getBordeDerecho(y) - ancho;
+
+            for (int c = 0; c < carriles; c++) {
+                float x = carrilX[c];
+                boolean ocupado = x < izquierda || x > derecha;
+                for (int o = 0; o < obstaculos && !ocupado; o++) {
+                    float oy = obstaculoY[o] + obstaculoVy[o] * t;
+                    ocupado = x - MARGEN_SEGURIDAD < obstaculoX[o] + obstaculoAncho[o]
+                        && x + ancho + MARGEN_SEGURIDAD > obstaculoX[o]
+                        && jugadorY - MARGEN_SEGURIDAD < oy + obstaculoAlto[o]
+                        && jugadorY + alto + MARGEN_SEGURIDAD > oy;
+                }
+                bloqueado[indice(paso, c)] = ocupado;
+            }
+        }
+        return PASOS_HORIZONTE;
+    }
+
+    /**
+     * Programación dinámica hacia atrás: <code>costo[paso][carril]</code> es el
+     * menor costo posible desde ese carril en ese paso hasta el horizonte.
+     */
+    private void planificar(int carriles, int horizonte, float velocidadJugador) {
+        int alcance = Math.max(1, (int) (velocidadJugador * PASO_TIEMPO / ANCHO_CARRIL));
+
+        for (int paso = horizonte; paso >= 1; paso--) {
+            // Un choque cercano pesa más que uno lejano, que quizás se evite después
+            float penalizacion = COSTO_CHOQUE * (horizonte - paso + 1);
+            for (int c = 0; c < carriles; c++) {
+                float mejor = 0f;
+                if (paso < horizonte) {
+                    mejor = Float.MAX_VALUE;
+                    int desde = Math.max(0, c - alcance);
+                    int hasta = Math.min(carriles - 1, c + alcance);
+                    for (int siguiente = desde; siguiente <= hasta; siguiente++) {
+                        float candidato = costo[indice(paso + 1, siguiente)]
+                            + Math.abs(siguiente - c) * COSTO_MOVIMIENTO;
+                        mejor = Math.min(mejor, candidato);
+                    }
+                }
+                costo[indice(paso, c)] = mejor + (bloqueado[indice(paso, c)] ? penalizacion : 0f);
+            }
+        }
+    }
+
+    /** Altura en pantalla del tramo de pista que estará bajo el jugador dentro de <code>paso</code> pasos. */
+    private float alturaPista(AutoJugador jugador, int paso) {
+        return jugador.getY() + jugador.getHeight() / 2f + vista.getVelocidadPista() * paso * PASO_TIEMPO;
+    }
+
+    private static int indice(int paso, int carril) {
+        return paso * MAX_CARRILES + carril;
+    }
+}
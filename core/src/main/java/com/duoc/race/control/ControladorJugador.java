@@ -0,0 +1,26 @@
+package com.duoc.race.control;
+
+import com.duoc.race.entrada.Accion;
+import com.duoc.race.entrada.SistemaEntrada;
+import com.duoc.race.interfaces.Controlador;
+
+/**
+ * Controlador manejado por el jugador con el teclado o un mando.
+ * <p>
+ * La dirección es la fracción del frame en que se mantuvo cada lado, así que
+ * un toque corto mueve el auto menos que mantener la tecla todo el frame.
+ * </p>
+ */
+public class ControladorJugador implements Controlador {
+
+    private final SistemaEntrada entrada;
+
+    public ControladorJugador(SistemaEntrada entrada) {
+        this.entrada = entrada;
+    }
+
+    @Override
+    public float leerDireccion(float delta) {
+        return entrada.getFraccion(Accion.DERECHA) - entrada.getFraccion(Accion.IZQUIERDA);
+    }
+}
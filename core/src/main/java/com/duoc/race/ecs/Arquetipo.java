@@ -0,0 +1,153 @@
+package com.duoc.race.ecs;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tabla con todas las entidades que tienen exactamente el mismo conjunto de
+ * componentes.
+ * <p>
+ * Cada campo de cada componente es una columna (un arreglo primitivo) y cada
+ * entidad es una fila. Las filas están siempre compactas: al quitar una
+ * entidad, la última fila ocupa su lugar. Recorrer una columna es entonces
+ * recorrer memoria contigua, sin objetos por entidad.
+ * </p>
+ * <p>
+ * Las columnas se reemplazan por otras más grandes cuando la tabla crece, así
+ * que no deben guardarse entre frames: se piden con {@link #getFloats} o
+ * {@link #getInts} cada vez que se recorre la tabla.
+ * </p>
+ */
+public final class Arquetipo {
+
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private final long mascara;
+    private final int[] componentes;
+    private final float[][][] floats = new float[Componente.MAXIMO][][];
+    private final int[][][] ints = new int[Componente.MAXIMO][][];
+    private int[] entidades = new int[CAPACIDAD_INICIAL];
+    private int cantidad = 0;
+
+    Arquetipo(long mascara, List<Componente> componentes) {
+        this.mascara = mascara;
+        this.componentes = new int[componentes.size()];
+        for (int i = 0; i < componentes.size(); i++) {
+            Componente componente = componentes.get(i);
+            this.componentes[i] = componente.getId();
+            float[][] columnasFloat = new float[componente.getCamposFloat()][];
+            for (int c = 0; c < columnasFloat.length; c++) {
+                columnasFloat[c] = new float[CAPACIDAD_INICIAL];
+            }
+            int[][] columnasInt = new int[componente.getCamposInt()][];
+            for (int c = 0; c < columnasInt.length; c++) {
+                columnasInt[c] = new int[CAPACIDAD_INICIAL];
+            }
+            floats[componente.getId()] = columnasFloat;
+            ints[componente.getId()] = columnasInt;
+        }
+    }
+
+    public long getMascara() {
+        return mascara;
+    }
+
+    public boolean tiene(Componente componente) {
+        return (mascara & componente.getBit()) != 0L;
+    }
+
+    /** Cantidad de filas (entidades) de la tabla. */
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    /** Entidad guardada en una fila. */
+    public int getEntidad(int fila) {
+        return entidades[fila];
+    }
+
+    /**
+     * Columna de un campo <code>float</code>. Solo las primeras
+     * {@link #getCantidad()} posiciones son válidas.
+     *
+     * @throws IllegalArgumentException si el arquetipo no tiene el componente.
+     */
+    public float[] getFloats(Componente componente, int campo) {
+        float[][] columnas = floats[componente.getId()];
+        if (columnas == null) {
+            throw new IllegalArgumentException("El arquetipo no tiene el componente " + componente);
+        }
+        return columnas[campo];
+    }
+
+    /**
+     * Columna de un campo <code>int</code>. Solo las primeras
+     * {@link #getCantidad()} posiciones son válidas.
+     *
+     * @throws IllegalArgumentException si el arquetipo no tiene el componente.
+     */
+    public int[] getInts(Componente componente, int campo) {
+        int[][] columnas = ints[componente.getId()];
+        if (columnas == null) {
+            throw new IllegalArgumentException("El arquetipo no tiene el componente " + componente);
+        }
+        return columnas[campo];
+    }
+
+    /** Agrega una fila en cero para la entidad y devuelve su número. */
+    int agregar(int entidad) {
+        if (cantidad == entidades.length) {
+            crecer(cantidad * 2);
+        }
+        int fila = cantidad++;
+        entidades[fila] = entidad;
+        for (int id : componentes) {
+            for (float[] columna : floats[id]) {
+                columna[fila] = 0f;
+            }
+            for (int[] columna : ints[id]) {
+                columna[fila] = 0;
+            }
+        }
+        return fila;
+    }
+
+    /**
+     * Quita una fila moviendo la última a su lugar.
+     *
+     * @return la entidad que pasó a ocupar <code>fila</code>, o -1 si la fila
+     *         quitada era la última.
+     */
+    int quitar(int fila) {
+        int ultima = --cantidad;
+        if (fila == ultima) {
+            return -1;
+        }
+        entidades[fila] = entidades[ultima];
+        for (int id : componentes) {
+            for (float[] columna : floats[id]) {
+                columna[fila] = columna[ultima];
+            }
+            for (int[] columna : ints[id]) {
+                columna[fila] = columna[ultima];
+            }
+        }
+        return entidades[fila];
+    }
+
+    void vaciar() {
+        cantidad = 0;
+    }
+
+    private void crecer(int capacidad) {
+        entidades = Arrays.copyOf(entidades, capacidad);
+        for (int id : componentes) {
+            for (int c = 0; c < floats[id].length; c++) {
+                floats[id][c] = Arrays.copyOf(floats[id][c], capacidad);
+            }
+            for (int c = 0; c < ints[id].length; c++) {
+                ints[id][c] = Arrays.copyOf(ints[id][c], capacidad);
+            }
+        }
+    }
+}
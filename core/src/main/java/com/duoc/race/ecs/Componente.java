@@ -0,0 +1,78 @@
+package com.duoc.race.ecs;
+
+/**
+ * Descripción de un tipo de componente: cuántos campos <code>float</code> e
+ * <code>int</code> tiene.
+ * <p>
+ * Un componente no es un objeto por entidad: sus valores se guardan en
+ * columnas de arreglos primitivos dentro de cada {@link Arquetipo}, una
+ * columna por campo. Cada componente recibe un número de 0 a
+ * <code>MAXIMO - 1</code>, que se usa como bit en las máscaras de arquetipos y
+ * de acceso de los sistemas.
+ * </p>
+ */
+public final class Componente {
+
+    public static final int MAXIMO = 64;
+
+    private static int definidos = 0;
+
+    private final int id;
+    private final String nombre;
+    private final int camposFloat;
+    private final int camposInt;
+
+    private Componente(int id, String nombre, int camposFloat, int camposInt) {
+        this.id = id;
+        this.nombre = nombre;
+        this.camposFloat = camposFloat;
+        this.camposInt = camposInt;
+    }
+
+    /**
+     * Define un tipo de componente nuevo. Normalmente se llama al inicializar
+     * constantes estáticas.
+     *
+     * @throws IllegalStateException si ya se definieron <code>MAXIMO</code> componentes.
+     */
+    public static synchronized Componente definir(String nombre, int camposFloat, int camposInt) {
+        if (definidos >= MAXIMO) {
+            throw new IllegalStateException("No caben más de " + MAXIMO + " componentes");
+        }
+        return new Componente(definidos++, nombre, camposFloat, camposInt);
+    }
+
+    /** Máscara con el bit de cada componente indicado. */
+    public static long mascara(Componente... componentes) {
+        long mascara = 0L;
+        for (Componente componente : componentes) {
+            mascara |= componente.getBit();
+        }
+        return mascara;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public long getBit() {
+        return 1L << id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int getCamposFloat() {
+        return camposFloat;
+    }
+
+    public int getCamposInt() {
+        return camposInt;
+    }
+
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
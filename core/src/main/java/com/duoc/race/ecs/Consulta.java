@@ -0,0 +1,64 @@
+package com.duoc.race.ecs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Las tablas de arquetipos que tienen al menos ciertos componentes.
+ * <p>
+ * La lista de tablas se arma una vez y solo se completa cuando el mundo crea
+ * arquetipos nuevos, así que recorrer una consulta en cada frame no busca ni
+ * crea nada. Un sistema recorre cada tabla y, dentro de ella, sus columnas:
+ * </p>
+ * <pre>
+ * for (int t = 0; t &lt; consulta.getCantidadTablas(); t++) {
+ *     Arquetipo tabla = consulta.getTabla(t);
+ *     float[] y = tabla.getFloats(POSICION, Y);
+ *     for (int i = 0; i &lt; tabla.getCantidad(); i++) { ... }
+ * }
+ * </pre>
+ * <p>
+ * Una consulta no es segura para usarse desde dos hilos a la vez; cada sistema
+ * tiene la suya.
+ * </p>
+ */
+public final class Consulta {
+
+    private final Mundo mundo;
+    private final long requeridos;
+    private final List<Arquetipo> tablas = new ArrayList<>();
+    private int arquetiposRevisados = 0;
+
+    public Consulta(Mundo mundo, Componente... requeridos) {
+        this.mundo = mundo;
+        this.requeridos = Componente.mascara(requeridos);
+    }
+
+    public int getCantidadTablas() {
+        actualizar();
+        return tablas.size();
+    }
+
+    public Arquetipo getTabla(int indice) {
+        return tablas.get(indice);
+    }
+
+    /** Cantidad total de entidades que cumplen la consulta. */
+    public int contar() {
+        int total = 0;
+        for (int t = 0; t < getCantidadTablas(); t++) {
+            total += tablas.get(t).getCantidad();
+        }
+        return total;
+    }
+
+    private void actualizar() {
+        List<Arquetipo> arquetipos = mundo.getArquetipos();
+        while (arquetiposRevisados < arquetipos.size()) {
+            Arquetipo arquetipo = arquetipos.get(arquetiposRevisados++);
+            if ((arquetipo.getMascara() & requeridos) == requeridos) {
+                tablas.add(arquetipo);
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.duoc.race.ecs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contenedor de entidades y arquetipos.
+ *
+ * <p>Funcionamiento:</p>
+ * <ul>
+ *     <li><b>Entidades</b>: una entidad es solo un <code>int</code> que combina
+ *     un índice y una generación. Al destruirla el índice se recicla con la
+ *     generación siguiente, de modo que un número guardado de una entidad ya
+ *     destruida deja de ser válido ({@link #estaViva}).</li>
+ *
+ *     <li><b>Arquetipos</b>: cada combinación de componentes tiene su tabla.
+ *     Las entidades se crean directamente en la tabla de su arquetipo y no
+ *     cambian de componentes durante su vida.</li>
+ *
+ *     <li><b>Destrucción diferida</b>: {@link #destruir} solo anota la entidad;
+ *     se quita en {@link #aplicarCambios()}, cuando ningún sistema está
+ *     recorriendo tablas. Anotar es seguro desde varios hilos.</li>
+ * </ul>
+ * <p>
+ * Crear entidades y arquetipos no es seguro mientras se ejecutan sistemas en
+ * paralelo; el {@link Planificador} deja esas tareas a los sistemas exclusivos.
+ * </p>
+ */
+public class Mundo {
+
+    private static final int BITS_INDICE     = 20;
+    private static final int MASCARA_INDICE  = (1 << BITS_INDICE) - 1;
+    private static final int MASCARA_GENERACION = 0x7FF;
+
+    private final List<Arquetipo> arquetipos = new ArrayList<>();
+    private final Map<Long, Arquetipo> porMascara = new HashMap<>();
+
+    // Ubicación de cada índice de entidad: tabla, fila y generación vigente
+    private Arquetipo[] arquetipoDe = new Arquetipo[64];
+    private int[] filaDe = new int[64];
+    private int[] generacion = new int[64];
+    private int[] libres = new int[64];
+    private int cantidadLibres = 0;
+    private int siguienteIndice = 0;
+    private int vivas = 0;
+
+    private int[] pendientes = new int[64];
+    private int cantidadPendientes = 0;
+
+    /**
+     * Devuelve el arquetipo con exactamente esos componentes, creándolo si es
+     * la primera vez que se pide.
+     */
+    public Arquetipo arquetipo(Componente... componentes) {
+        long mascara = Componente.mascara(componentes);
+        Arquetipo arquetipo = porMascara.get(mascara);
+        if (arquetipo == null) {
+            arquetipo = new Arquetipo(mascara, Arrays.asList(componentes));
+            porMascara.put(mascara, arquetipo);
+            arquetipos.add(arquetipo);
+        }
+        return arquetipo;
+    }
+
+    /**
+     * Crea una entidad con todos sus campos en cero. Los valores se asignan
+     * después con {@link #setFloat} y {@link #setInt}.
+     */
+    public int crear(Arquetipo arquetipo) {
+        int indice;
+        if (cantidadLibres > 0) {
+            indice = libres[--cantidadLibres];
+        } else {
+            indice = siguienteIndice++;
+            if (indice > MASCARA_INDICE) {
+                throw new IllegalStateException("Demasiadas entidades vivas");
+            }
+            if (indice == arquetipoDe.length) {
+                int capacidad = indice * 2;
+                arquetipoDe = Arrays.copyOf(arquetipoDe, capacidad);
+                filaDe = Arrays.copyOf(filaDe, capacidad);
+                generacion = Arrays.copyOf(generacion, capacidad);
+            }
+        }
+
+        int entidad = (generacion[indice] << BITS_INDICE) | indice;
+        arquetipoDe[indice] = arquetipo;
+        filaDe[indice] = arquetipo.agregar(entidad);
+        vivas++;
+        return entidad;
+    }
+
+    /**
+     * Anota la entidad para quitarla en el próximo {@link #aplicarCambios()}.
+     * Anotar dos veces la misma entidad no tiene efecto.
+     */
+    public void destruir(int entidad) {
+        synchronized (this) {
+            if (cantidadPendientes == pendientes.length) {
+                pendientes = Arrays.copyOf(pendientes, cantidadPendientes * 2);
+            }
+            pendientes[cantidadPendientes++] = entidad;
+        }
+    }
+
+    /** Quita las entidades anotadas con {@link #destruir}. */
+    public void aplicarCambios() {
+        synchronized (this) {
+            for (int i = 0; i < cantidadPendientes; i++) {
+                if (estaViva(pendientes[i])) {
+                    quitar(pendientes[i] & MASCARA_INDICE);
+                }
+            }
+            cantidadPendientes = 0;
+        }
+    }
+
+    /** Destruye al instante todas las entidades, por ejemplo al reiniciar la partida. */
+    public void limpiar() {
+        synchronized (this) {
+            for (Arquetipo arquetipo : arquetipos) {
+                arquetipo.vaciar();
+            }
+            for (int indice = 0; indice < siguienteIndice; indice++) {
+                if (arquetipoDe[indice] != null) {
+                    arquetipoDe[indice] = null;
+                    liberarIndice(indice);
+                }
+            }
+            cantidadPendientes = 0;
+            vivas = 0;
+        }
+    }
+
+    public boolean estaViva(int entidad) {
+        int indice = entidad & MASCARA_INDICE;
+        return indice < siguienteIndice
+            && arquetipoDe[indice] != null
+            && generacion[indice] == entidad >>> BITS_INDICE;
+    }
+
+    public Arquetipo getArquetipo(int entidad) {
+        return arquetipoDe[entidad & MASCARA_INDICE];
+    }
+
+    /** Fila de la entidad dentro de la tabla de su arquetipo. */
+    public int getFila(int entidad) {
+        return filaDe[entidad & MASCARA_INDICE];
+    }
+
+    public float getFloat(int entidad, Componente componente, int campo) {
+        return getArquetipo(entidad).getFloats(componente, campo)[getFila(entidad)];
+    }
+
+    public void setFloat(int entidad, Componente componente, int campo, float valor) {
+        getArquetipo(entidad).getFloats(componente, campo)[getFila(entidad)] = valor;
+    }
+
+    public int getInt(int entidad, Componente componente, int campo) {
+        return getArquetipo(entidad).getInts(componente, campo)[getFila(entidad)];
+    }
+
+    public void setInt(int entidad, Componente componente, int campo, int valor) {
+        getArquetipo(entidad).getInts(componente, campo)[getFila(entidad)] = valor;
+    }
+
+    public int getCantidadEntidades() {
+        return vivas;
+    }
+
+    /** Arquetipos creados, en orden de creación. La lista solo crece. */
+    List<Arquetipo> getArquetipos() {
+        return arquetipos;
+    }
+
+    private void quitar(int indice) {
+        Arquetipo arquetipo = arquetipoDe[indice];
+        int movida = arquetipo.quitar(filaDe[indice]);
+        if (movida >= 0) {
+            filaDe[movida & MASCARA_INDICE] = filaDe[indice];
+        }
+        arquetipoDe[indice] = null;
+        liberarIndice(indice);
+        vivas--;
+    }
+
+    private void liberarIndice(int indice) {
+        generacion[indice] = (generacion[indice] + 1) & MASCARA_GENERACION;
+        if (cantidadLibres == libres.length) {
+            libres = Arrays.copyOf(libres, cantidadLibres * 2);
+        }
+        libres[cantidadLibres++] = indice;
+    }
+}
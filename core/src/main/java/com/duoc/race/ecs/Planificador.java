@@ -0,0 +1,143 @@
+package com.duoc.race.ecs;
+
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta los sistemas en el orden en que se agregaron, agrupando en etapas
+ * los que pueden correr en paralelo.
+ *
+ * <p>Funcionamiento:</p>
+ * <ul>
+ *     <li><b>Etapas</b>: cada sistema se suma a la última etapa si no entra en
+ *     conflicto con ninguno de los que ya están en ella; si no, abre una etapa
+ *     nueva. Los sistemas exclusivos siempre van solos. Como solo se mira la
+ *     última etapa, el orden entre sistemas que sí dependen entre sí se
+ *     respeta.</li>
+ *
+ *     <li><b>Ejecución</b>: una etapa de un solo sistema se ejecuta en el hilo
+ *     del juego. Si tiene varios y hay hilos auxiliares, el primero se ejecuta
+ *     en el hilo del juego y los demás en el grupo de hilos, y se espera a
+ *     todos antes de seguir.</li>
+ *
+ *     <li><b>Cambios de estructura</b>: al terminar cada etapa se aplican las
+ *     destrucciones anotadas, de modo que la etapa siguiente ya no ve esas
+ *     entidades.</li>
+ * </ul>
+ */
+public class Planificador implements Disposable {
+
+    private final Mundo mundo;
+    private final ExecutorService hilos;
+    private final List<Sistema> sistemas = new ArrayList<>();
+    private final List<List<Sistema>> etapas = new ArrayList<>();
+    private final List<Future<?>> pendientes = new ArrayList<>();
+
+    /**
+     * @param mundo          mundo cuyos cambios se aplican entre etapas.
+     * @param hilosAuxiliares hilos para las etapas con varios sistemas; con 0 todo
+     *                       se ejecuta en el hilo del juego.
+     */
+    public Planificador(Mundo mundo, int hilosAuxiliares) {
+        this.mundo = mundo;
+        if (hilosAuxiliares > 0) {
+            AtomicInteger contador = new AtomicInteger();
+            hilos = Executors.newFixedThreadPool(hilosAuxiliares, tarea -> {
+                Thread hilo = new Thread(tarea, "ecs-" + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        } else {
+            hilos = null;
+        }
+    }
+
+    public void agregar(Sistema sistema) {
+        sistemas.add(sistema);
+        List<Sistema> ultima = etapas.isEmpty() ? null : etapas.get(etapas.size() - 1);
+        if (ultima != null && puedeSumarse(ultima, sistema)) {
+            ultima.add(sistema);
+        } else {
+            List<Sistema> etapa = new ArrayList<>();
+            etapa.add(sistema);
+            etapas.add(etapa);
+        }
+    }
+
+    /** Ejecuta todas las etapas en orden. */
+    public void ejecutar(float delta) {
+        for (int e = 0; e < etapas.size(); e++) {
+            List<Sistema> etapa = etapas.get(e);
+            if (etapa.size() == 1 || hilos == null) {
+                for (int s = 0; s < etapa.size(); s++) {
+                    etapa.get(s).ejecutar(delta);
+                }
+            } else {
+                ejecutarEnParalelo(etapa, delta);
+            }
+            mundo.aplicarCambios();
+        }
+    }
+
+    public int getCantidadEtapas() {
+        return etapas.size();
+    }
+
+    /** Sistemas de una etapa, para diagnóstico. */
+    public List<Sistema> getEtapa(int indice) {
+        return etapas.get(indice);
+    }
+
+    @Override
+    public void dispose() {
+        if (hilos != null) {
+            hilos.shutdownNow();
+        }
+    }
+
+    private void ejecutarEnParalelo(List<Sistema> etapa, float delta) {
+        pendientes.clear();
+        for (int s = 1; s < etapa.size(); s++) {
+            Sistema sistema = etapa.get(s);
+            pendientes.add(hilos.submit(() -> sistema.ejecutar(delta)));
+        }
+        etapa.get(0).ejecutar(delta);
+
+        for (int i = 0; i < pendientes.size(); i++) {
+            try {
+                pendientes.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrumpido esperando a los sistemas", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Falló un sistema en paralelo", e.getCause());
+            }
+        }
+    }
+
+    private static boolean puedeSumarse(List<Sistema> etapa, Sistema nuevo) {
+        if (nuevo.isExclusivo()) {
+            return false;
+        }
+        for (int i = 0; i < etapa.size(); i++) {
+            Sistema otro = etapa.get(i);
+            if (otro.isExclusivo() || enConflicto(otro, nuevo)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean enConflicto(Sistema a, Sistema b) {
+        long accesoA = a.getLecturas() | a.getEscrituras();
+        long accesoB = b.getLecturas() | b.getEscrituras();
+        return (a.getEscrituras() & accesoB) != 0L || (b.getEscrituras() & accesoA) != 0L;
+    }
+}
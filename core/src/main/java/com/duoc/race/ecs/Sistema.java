@@ -0,0 +1,31 @@
+package com.duoc.race.ecs;
+
+/**
+ * Lógica que se ejecuta una vez por frame sobre las entidades de una o más
+ * consultas.
+ * <p>
+ * Cada sistema declara qué componentes lee y cuáles escribe. Con eso el
+ * {@link Planificador} sabe qué sistemas pueden ejecutarse al mismo tiempo:
+ * dos sistemas no entran en conflicto si ninguno escribe un componente que el
+ * otro lee o escribe.
+ * </p>
+ */
+public interface Sistema {
+
+    /** Máscara de los componentes que el sistema solo lee. */
+    long getLecturas();
+
+    /** Máscara de los componentes que el sistema modifica. */
+    long getEscrituras();
+
+    /**
+     * Si el sistema toca estado fuera del mundo (vida, sonidos, partículas) o
+     * crea entidades. Un sistema exclusivo se ejecuta solo, en el hilo del juego.
+     */
+    default boolean isExclusivo() {
+        return false;
+    }
+
+    /** @param delta tiempo transcurrido desde el frame anterior. */
+    void ejecutar(float delta);
+}
@@ -0,0 +1,184 @@
+package com.duoc.race.efectos;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Sistema de partículas con memoria preasignada para los efectos de choque.
+ * <p>
+ * A diferencia de los objetos del mundo (<code>Juego</code>), las partículas no
+ * son objetos: cada atributo vive en un arreglo primitivo y una partícula es
+ * solo un índice. Así no se crean objetos durante la partida y la
+ * actualización recorre memoria contigua en un único ciclo.
+ * </p>
+ *
+ * <p>Características:</p>
+ * <ul>
+ *     <li><b>Presupuesto fijo</b>: la capacidad se define al construir el
+ *     sistema y nunca crece. Si está lleno, las nuevas emisiones se descartan.</li>
+ *
+ *     <li><b>Escala de calidad</b>: un valor entre 0 y 1 que reduce la cantidad
+ *     de partículas emitidas y el límite de partículas vivas, para equipos con
+ *     poco margen de tiempo por frame.</li>
+ *
+ *     <li><b>Un solo lote</b>: todas las partículas se dibujan con la misma
+ *     textura dentro del <code>SpriteBatch</code> ya abierto, sin cambios de
+ *     textura ni vaciados intermedios.</li>
+ * </ul>
+ */
+public class SistemaParticulas {
+
+    private static final TipoParticula[] TIPOS = TipoParticula.values();
+
+    private final int capacidad;
+
+    private final float[] x;
+    private final float[] y;
+    private final float[] vx;
+    private final float[] vy;
+    private final float[] vida;
+    private final float[] vidaMax;
+    private final float[] tamano;
+    private final byte[]  tipo;
+
+    private int   activas = 0;
+    private float calidad = 1f;
+
+    /**
+     * @param capacidad cantidad máxima de partículas vivas al mismo tiempo.
+     */
+    public SistemaParticulas(int capacidad) {
+        this.capacidad = capacidad;
+        x       = new float[capacidad];
+        y       = new float[capacidad];
+        vx      = new float[capacidad];
+        vy      = new float[capacidad];
+        vida    = new float[capacidad];
+        vidaMax = new float[capacidad];
+        tamano  = new float[capacidad];
+        tipo    = new byte[capacidad];
+    }
+
+    /**
+     * Emite un grupo de partículas desde un punto, en todas direcciones.
+     * <p>
+     * La cantidad solicitada se multiplica por la calidad actual y se recorta
+     * al espacio disponible dentro del presupuesto.
+     * </p>
+     *
+     * @param tipoParticula tipo de partícula a emitir.
+     * @param origenX       posición X del origen.
+     * @param origenY       posición Y del origen.
+     * @param cantidad      cantidad de partículas con calidad máxima.
+     */
+    public void emitir(TipoParticula tipoParticula, float origenX, float origenY, int cantidad) {
+        int limite = getLimiteActivas();
+        int n = Math.min(Math.round(cantidad * calidad), limite - activas);
+
+        for (int k = 0; k < n; k++) {
+            int i = activas++;
+            float angulo = MathUtils.random(MathUtils.PI2);
+            float velocidad = MathUtils.random(tipoParticula.velocidadMin, tipoParticula.velocidadMax);
+
+            x[i]       = origenX;
+            y[i]       = origenY;
+            vx[i]      = MathUtils.cos(angulo) * velocidad;
+            vy[i]      = MathUtils.sin(angulo) * velocidad;
+            vida[i]    = MathUtils.random(tipoParticula.vidaMin, tipoParticula.vidaMax);
+            vidaMax[i] = vida[i];
+            tamano[i]  = MathUtils.random(tipoParticula.tamanoMin, tipoParticula.tamanoMax);
+            tipo[i]    = (byte) tipoParticula.ordinal();
+        }
+    }
+
+    /**
+     * Avanza todas las partículas y elimina las que terminaron su vida.
+     * <p>
+     * Las partículas muertas se reemplazan por la última partícula activa
+     * (intercambio con el final), por lo que el arreglo se mantiene compacto
+     * sin mover bloques de memoria.
+     * </p>
+     *
+     * @param delta tiempo transcurrido entre frames.
+     */
+    public void actualizar(float delta) {
+        int i = 0;
+        while (i < activas) {
+            vida[i] -= delta;
+            if (vida[i] <= 0f) {
+                mover(--activas, i);
+                continue;
+            }
+
+            TipoParticula t = TIPOS[tipo[i]];
+            float freno = Math.max(0f, 1f - t.roce * delta);
+            vx[i] *= freno;
+            vy[i] = vy[i] * freno + t.gravedad * delta;
+            x[i] += vx[i] * delta;
+            y[i] += vy[i] * delta;
+            i++;
+        }
+    }
+
+    /**
+     * Dibuja las partículas activas. Debe llamarse entre <code>batch.begin()</code>
+     * y <code>batch.end()</code>.
+     *
+     * @param batch  lote de dibujo ya iniciado.
+     * @param pixel  textura blanca que se tiñe con el color de cada partícula.
+     */
+    public void dibujar(SpriteBatch batch, Texture pixel) {
+        for (int i = 0; i < activas; i++) {
+            Color c = TIPOS[tipo[i]].color;
+            float alfa = c.a * (vida[i] / vidaMax[i]);
+            float t = tamano[i];
+            batch.setColor(c.r, c.g, c.b, alfa);
+            batch.draw(pixel, x[i] - t / 2f, y[i] - t / 2f, t, t);
+        }
+        batch.setColor(Color.WHITE);
+    }
+
+    /** Elimina todas las partículas activas. */
+    public void limpiar() {
+        activas = 0;
+    }
+
+    /**
+     * Ajusta la calidad de los efectos.
+     *
+     * @param calidad valor entre 0 (sin efectos) y 1 (calidad completa).
+     */
+    public void setCalidad(float calidad) {
+        this.calidad = MathUtils.clamp(calidad, 0f, 1f);
+    }
+
+    public float getCalidad() {
+        return calidad;
+    }
+
+    public int getActivas() {
+        return activas;
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    /** Cantidad máxima de partículas vivas permitida con la calidad actual. */
+    public int getLimiteActivas() {
+        return (int) (capacidad * calidad);
+    }
+
+    private void mover(int desde, int hacia) {
+        x[hacia]       = x[desde];
+        y[hacia]       = y[desde];
+        vx[hacia]      = vx[desde];
+        vy[hacia]      = vy[desde];
+        vida[hacia]    = vida[desde];
+        vidaMax[hacia] = vidaMax[desde];
+        tamano[hacia]  = tamano[desde];
+        tipo[hacia]    = tipo[desde];
+    }
+}
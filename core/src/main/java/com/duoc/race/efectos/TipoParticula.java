@@ -0,0 +1,45 @@
+package com.duoc.race.efectos;
+
+import com.badlogic.gdx.graphics.Color;
+
+/**
+ * Catálogo de los tipos de partícula disponibles para los efectos del juego.
+ * <p>
+ * Cada tipo define sus rangos de velocidad, duración, tamaño y color. El
+ * <code>SistemaParticulas</code> solo guarda el índice del tipo por partícula,
+ * de modo que estos valores se consultan una vez por emisión y no por frame.
+ * </p>
+ */
+public enum TipoParticula {
+
+    //             velMin velMax vidaMin vidaMax tamMin tamMax gravedad roce  color
+    CHISPA       ( 180f,  420f,  0.15f,  0.35f,  2f,    4f,    -300f,   6f,   new Color(1f, 0.85f, 0.3f, 1f)),
+    HUMO         (  20f,   70f,  0.60f,  1.20f,  8f,   16f,      40f,   1.5f, new Color(0.45f, 0.45f, 0.45f, 0.6f)),
+    ESCOMBRO     (  90f,  240f,  0.40f,  0.80f,  3f,    6f,    -500f,   3f,   new Color(0.25f, 0.25f, 0.28f, 1f));
+
+    final float velocidadMin;
+    final float velocidadMax;
+    final float vidaMin;
+    final float vidaMax;
+    final float tamanoMin;
+    final float tamanoMax;
+    final float gravedad;
+    /** Fracción de velocidad que se pierde por segundo. */
+    final float roce;
+    final Color color;
+
+    TipoParticula(float velocidadMin, float velocidadMax,
+                  float vidaMin, float vidaMax,
+                  float tamanoMin, float tamanoMax,
+                  float gravedad, float roce, Color color) {
+        this.velocidadMin = velocidadMin;
+        this.velocidadMax = velocidadMax;
+        this.vidaMin = vidaMin;
+        this.vidaMax = vidaMax;
+        this.tamanoMin = tamanoMin;
+        this.tamanoMax = tamanoMax;
+        this.gravedad = gravedad;
+        this.roce = roce;
+        this.color = color;
+    }
+}
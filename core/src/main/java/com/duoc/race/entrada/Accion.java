@@ -0,0 +1,42 @@
+package com.duoc.race.entrada;
+
+import com.badlogic.gdx.Input.Keys;
+
+/**
+ * Acciones del juego, con las teclas y botones que las activan por defecto.
+ * <p>
+ * El juego solo pregunta por acciones; qué tecla o botón activa cada una lo
+ * decide el {@link MapaControles}, que el jugador puede cambiar. Una misma
+ * tecla puede activar varias acciones (ESC pausa la carrera y vuelve atrás en
+ * los menús). El eje horizontal del stick izquierdo siempre maneja el auto.
+ * </p>
+ */
+public enum Accion {
+
+    //          teclas                            botones del mando
+    IZQUIERDA  (new int[]{Keys.LEFT, Keys.A},     BotonMando.IZQUIERDA),
+    DERECHA    (new int[]{Keys.RIGHT, Keys.D},    BotonMando.DERECHA),
+    ARRIBA     (new int[]{Keys.UP, Keys.W},       BotonMando.ARRIBA),
+    ABAJO      (new int[]{Keys.DOWN, Keys.S},     BotonMando.ABAJO),
+    CONFIRMAR  (new int[]{Keys.ENTER},            BotonMando.A),
+    VOLVER     (new int[]{Keys.ESCAPE},           BotonMando.B),
+    PAUSA      (new int[]{Keys.P, Keys.ESCAPE},   BotonMando.INICIO),
+    RECORDS    (new int[]{Keys.L},                BotonMando.Y),
+    MENU       (new int[]{Keys.Q},                BotonMando.ATRAS),
+    CONTROLES  (new int[]{Keys.C},                BotonMando.X),
+    FOTO       (new int[]{Keys.F12}),
+    GRABAR     (new int[]{Keys.F11});
+
+    final int[] teclasPorDefecto;
+    final BotonMando[] botonesPorDefecto;
+
+    Accion(int[] teclasPorDefecto, BotonMando... botonesPorDefecto) {
+        this.teclasPorDefecto = teclasPorDefecto;
+        this.botonesPorDefecto = botonesPorDefecto;
+    }
+
+    /** Bit de la acción en las máscaras del {@link MapaControles}. */
+    int getBit() {
+        return 1 << ordinal();
+    }
+}
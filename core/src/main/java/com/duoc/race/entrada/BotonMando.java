@@ -0,0 +1,61 @@
+package com.duoc.race.entrada;
+
+import com.badlogic.gdx.controllers.ControllerMapping;
+
+/**
+ * Botones de un mando con distribución estándar.
+ * <p>
+ * Los códigos crudos de cada botón cambian según el mando y el backend; los
+ * controles se guardan con estos nombres y el código se traduce con el
+ * <code>ControllerMapping</code> de cada mando al recibir el evento.
+ * </p>
+ */
+public enum BotonMando {
+    A,
+    B,
+    X,
+    Y,
+    ATRAS,
+    INICIO,
+    L1,
+    R1,
+    ARRIBA,
+    ABAJO,
+    IZQUIERDA,
+    DERECHA;
+
+    private static final BotonMando[] VALORES = values();
+
+    /**
+     * Traduce el código crudo de un botón.
+     *
+     * @return el botón, o <code>null</code> si el código no es ninguno de estos.
+     */
+    public static BotonMando desde(ControllerMapping mapa, int codigo) {
+        for (BotonMando boton : VALORES) {
+            if (boton.codigoEn(mapa) == codigo) {
+                return boton;
+            }
+        }
+        return null;
+    }
+
+    /** Código crudo del botón en un mando, o -1 si el mando no lo tiene. */
+    public int codigoEn(ControllerMapping mapa) {
+        switch (this) {
+            case A:         return mapa.buttonA;
+            case B:         return mapa.buttonB;
+            case X:         return mapa.buttonX;
+            case Y:         return mapa.buttonY;
+            case ATRAS:     return mapa.buttonBack;
+            case INICIO:    return mapa.buttonStart;
+            case L1:        return mapa.buttonL1;
+            case R1:        return mapa.buttonR1;
+            case ARRIBA:    return mapa.buttonDpadUp;
+            case ABAJO:     return mapa.buttonDpadDown;
+            case IZQUIERDA: return mapa.buttonDpadLeft;
+            case DERECHA:   return mapa.buttonDpadRight;
+            default:        return -1;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.duoc.race.entrada;
+
+/**
+ * Cola circular de cambios de estado de las acciones, con el instante en que
+ * ocurrió cada uno.
+ * <p>
+ * La memoria se reserva al crearla y no se crean objetos por evento. Si la
+ * cola se llena (un tick muy largo con muchas teclas), los eventos nuevos se
+ * descartan y se cuentan; quien la consume corrige entonces el estado de las
+ * acciones, porque puede haberse perdido una liberación. Se usa desde un solo hilo: los eventos de teclado y
+ * de mandos llegan en el hilo del juego antes de cada frame.
+ * </p>
+ */
+class ColaEventos {
+
+    private final long[] instantes;
+    private final byte[] acciones;
+    private final boolean[] presionadas;
+    private int inicio = 0;
+    private int cantidad = 0;
+    private long descartados = 0L;
+
+    ColaEventos(int capacidad) {
+        instantes = new long[capacidad];
+        acciones = new byte[capacidad];
+        presionadas = new boolean[capacidad];
+    }
+
+    void agregar(long instante, Accion accion, boolean presionada) {
+        if (cantidad == instantes.length) {
+            descartados++;
+            return;
+        }
+        int i = (inicio + cantidad) % instantes.length;
+        instantes[i] = instante;
+        acciones[i] = (byte) accion.ordinal();
+        presionadas[i] = presionada;
+        cantidad++;
+    }
+
+    boolean isVacia() {
+        return cantidad == 0;
+    }
+
+    /** Instante del evento más antiguo; la cola no debe estar vacía. */
+    long getInstante() {
+        return instantes[inicio];
+    }
+
+    int getAccion() {
+        return acciones[inicio];
+    }
+
+    boolean isPresionada() {
+        return presionadas[inicio];
+    }
+
+    /** Quita el evento más antiguo. */
+    void quitar() {
+        inicio = (inicio + 1) % instantes.length;
+        cantidad--;
+    }
+
+    void vaciar() {
+        inicio = 0;
+        cantidad = 0;
+    }
+
+    long getDescartados() {
+        return descartados;
+    }
+}
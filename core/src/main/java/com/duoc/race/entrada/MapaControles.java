@@ -0,0 +1,180 @@
+package com.duoc.race.entrada;
+
+import com.badlogic.gdx.Input.Keys;
+import com.badlogic.gdx.Preferences;
+
+import java.util.Arrays;
+
+/**
+ * Qué teclas y botones del mando activan cada {@link Accion}.
+ * <p>
+ * Para que traducir un evento sea leer un arreglo, se guarda al revés: por
+ * cada tecla y cada botón, la máscara de acciones que activa. Los cambios se
+ * guardan en las preferencias del juego con una clave por acción, por ejemplo
+ * <code>control.PAUSA.teclas = "44,111"</code> y
+ * <code>control.PAUSA.botones = "INICIO"</code>.
+ * </p>
+ */
+public class MapaControles {
+
+    private static final String PREFIJO = "control.";
+
+    private final int[] accionesPorTecla = new int[Keys.MAX_KEYCODE + 1];
+    private final int[] accionesPorBoton = new int[BotonMando.values().length];
+
+    public MapaControles() {
+        restablecer();
+    }
+
+    /** Vuelve a los controles por defecto de cada acción. */
+    public void restablecer() {
+        Arrays.fill(accionesPorTecla, 0);
+        Arrays.fill(accionesPorBoton, 0);
+        for (Accion accion : Accion.values()) {
+            for (int tecla : accion.teclasPorDefecto) {
+                accionesPorTecla[tecla] |= accion.getBit();
+            }
+            for (BotonMando boton : accion.botonesPorDefecto) {
+                accionesPorBoton[boton.ordinal()] |= accion.getBit();
+            }
+        }
+    }
+
+    /** Máscara de las acciones que activa una tecla (bit = <code>1 &lt;&lt; ordinal</code>). */
+    public int getAccionesTecla(int tecla) {
+        return tecla >= 0 && tecla < accionesPorTecla.length ? accionesPorTecla[tecla] : 0;
+    }
+
+    /** Máscara de las acciones que activa un botón del mando. */
+    public int getAccionesBoton(BotonMando boton) {
+        return accionesPorBoton[boton.ordinal()];
+    }
+
+    /** Hace que la acción se active solo con esta tecla, además de sus botones. */
+    public void asignarTecla(Accion accion, int tecla) {
+        for (int i = 0; i < accionesPorTecla.length; i++) {
+            accionesPorTecla[i] &= ~accion.getBit();
+        }
+        accionesPorTecla[tecla] |= accion.getBit();
+    }
+
+    /** Hace que la acción se active solo con este botón, además de sus teclas. */
+    public void asignarBoton(Accion accion, BotonMando boton) {
+        for (int i = 0; i < accionesPorBoton.length; i++) {
+            accionesPorBoton[i] &= ~accion.getBit();
+        }
+        accionesPorBoton[boton.ordinal()] |= accion.getBit();
+    }
+
+    /** Nombre de la primera tecla de la acción, en mayúsculas, o "-" si no tiene ninguna. */
+    public String nombreTecla(Accion accion) {
+        for (int tecla = 0; tecla < accionesPorTecla.length; tecla++) {
+            if ((accionesPorTecla[tecla] & accion.getBit()) != 0) {
+                return Keys.toString(tecla).toUpperCase();
+            }
+        }
+        return "-";
+    }
+
+    /** Texto con las teclas y botones de una acción, para mostrarlo en pantalla. */
+    public String describir(Accion accion) {
+        StringBuilder texto = new StringBuilder();
+        for (int tecla = 0; tecla < accionesPorTecla.length; tecla++) {
+            if ((accionesPorTecla[tecla] & accion.getBit()) != 0) {
+                separar(texto).append(Keys.toString(tecla));
+            }
+        }
+        for (BotonMando boton : BotonMando.values()) {
+            if ((accionesPorBoton[boton.ordinal()] & accion.getBit()) != 0) {
+                separar(texto).append("mando ").append(boton.name());
+            }
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Lee los controles guardados. Las acciones sin clave guardada, o con un
+     * valor que no se entiende, conservan los controles por defecto.
+     */
+    public void cargar(Preferences preferencias) {
+        for (Accion accion : Accion.values()) {
+            String teclas = preferencias.getString(PREFIJO + accion.name() + ".teclas", null);
+            if (teclas != null) {
+                cargarTeclas(accion, teclas);
+            }
+            String botones = preferencias.getString(PREFIJO + accion.name() + ".botones", null);
+            if (botones != null) {
+                cargarBotones(accion, botones);
+            }
+        }
+    }
+
+    /** Guarda todos los controles en las preferencias, sin hacer <code>flush()</code>. */
+    public void guardar(Preferences preferencias) {
+        for (Accion accion : Accion.values()) {
+            StringBuilder teclas = new StringBuilder();
+            for (int tecla = 0; tecla < accionesPorTecla.length; tecla++) {
+                if ((accionesPorTecla[tecla] & accion.getBit()) != 0) {
+                    (teclas.length() > 0 ? teclas.append(',') : teclas).append(tecla);
+                }
+            }
+            StringBuilder botones = new StringBuilder();
+            for (BotonMando boton : BotonMando.values()) {
+                if ((accionesPorBoton[boton.ordinal()] & accion.getBit()) != 0) {
+                    (botones.length() > 0 ? botones.append(',') : botones).append(boton.name());
+                }
+            }
+            preferencias.putString(PREFIJO + accion.name() + ".teclas", teclas.toString());
+            preferencias.putString(PREFIJO + accion.name() + ".botones", botones.toString());
+        }
+    }
+
+    private void cargarTeclas(Accion accion, String valor) {
+        int[] teclas = new int[accionesPorTecla.length];
+        int cantidad = 0;
+        try {
+            for (String parte : valor.split(",")) {
+                if (parte.isEmpty()) {
+                    continue;
+                }
+                int tecla = Integer.parseInt(parte.trim());
+                if (tecla <= 0 || tecla >= accionesPorTecla.length) {
+                    return;
+                }
+                teclas[cantidad++] = tecla;
+            }
+        } catch (NumberFormatException e) {
+            return;
+        }
+        for (int i = 0; i < accionesPorTecla.length; i++) {
+            accionesPorTecla[i] &= ~accion.getBit();
+        }
+        for (int i = 0; i < cantidad; i++) {
+            accionesPorTecla[teclas[i]] |= accion.getBit();
+        }
+    }
+
+    private void cargarBotones(Accion accion, String valor) {
+        int nuevos = 0;
+        try {
+            for (String parte : valor.split(",")) {
+                if (!parte.isEmpty()) {
+                    nuevos |= 1 << BotonMando.valueOf(parte.trim()).ordinal();
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        for (int i = 0; i < accionesPorBoton.length; i++) {
+            if ((nuevos & (1 << i)) != 0) {
+                accionesPorBoton[i] |= accion.getBit();
+            } else {
+                accionesPorBoton[i] &= ~accion.getBit();
+            }
+        }
+    }
+
+    private static StringBuilder separar(StringBuilder texto) {
+        return texto.length() > 0 ? texto.append(", ") : texto;
+    }
+}
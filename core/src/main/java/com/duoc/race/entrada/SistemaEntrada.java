@@ -0,0 +1,424 @@
+package com.duoc.race.entrada;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input.Keys;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.controllers.Controller;
+import com.badlogic.gdx.controllers.ControllerListener;
+import com.badlogic.gdx.controllers.ControllerMapping;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.duoc.race.interfaces.SondaLatencia;
+
+/**
+ * Entrada del jugador: teclado y mandos traducidos a {@link Accion acciones}
+ * y entregados al juego una vez por tick.
+ * <p>
+ * Funcionamiento:
+ * <ul>
+ *     <li><b>Eventos</b>: cada tecla o botón que cambia de estado se traduce
+ *     con el {@link MapaControles} y, si una acción pasa de suelta a presionada
+ *     (o al revés), se anota en una cola preasignada junto con el instante en
+ *     que ocurrió. Si dos fuentes activan la misma acción (flecha y stick) la
+ *     acción sigue presionada hasta que se suelta la última.</li>
+ *
+ *     <li><b>Muestreo</b>: al empezar cada tick, {@link #muestrear(long)}
+ *     consume la cola y calcula qué fracción del intervalo desde el tick
+ *     anterior estuvo presionada cada acción. Una acción presionada en el tick
+ *     cuenta al menos <code>TOQUE_MINIMO</code>, para que un toque que se
+ *     presiona y se suelta entre dos frames no se pierda.</li>
+ *
+ *     <li><b>Latencia</b>: {@link #frameDibujado(long)} mide cuánto pasó desde
+ *     el evento más antiguo consumido en el tick hasta que terminó de dibujarse
+ *     ese frame, y se lo pasa a la {@link SondaLatencia} si hay una.</li>
+ * </ul>
+ * <p>
+ * Los instantes son de <code>TimeUtils.nanoTime()</code>. Todo ocurre en el
+ * hilo del juego: libGDX entrega los eventos de teclado y de mandos justo antes
+ * de llamar a <code>render()</code>.
+ * </p>
+ * <p>
+ * La resolución depende del backend. En escritorio (LWJGL3) los eventos de
+ * teclado llevan el instante de <code>glfwPollEvents</code>, y los de mandos
+ * el de su callback, que también corre una vez por frame: todos los eventos de
+ * un frame comparten instante y la fracción solo distingue frames enteros
+ * (un toque rápido vale <code>TOQUE_MINIMO</code>, una tecla mantenida vale
+ * los frames que duró). Solo un backend que conserva la hora real de cada
+ * evento, como Android, da fracciones menores que un frame. Por lo mismo, la
+ * latencia se mide desde ese sondeo, no desde que se tocó la tecla, y hasta el
+ * final del dibujado, antes del intercambio de buffers.
+ * </p>
+ */
+public class SistemaEntrada extends InputAdapter implements ControllerListener {
+
+    private static final int CAPACIDAD_COLA = 256;
+
+    // El stick cuenta como presionado al pasar de la mitad y como suelto al bajar de un tercio
+    private static final float STICK_ENTRADA = 0.5f;
+    private static final float STICK_SALIDA  = 0.3f;
+
+    // Tiempo que cuenta como mínimo una acción presionada durante el tick (un cuarto de frame a 60 Hz)
+    private static final long TOQUE_MINIMO = 4_000_000L;
+
+    private static final Accion[] ACCIONES = Accion.values();
+
+    private final MapaControles mapa;
+    private final ColaEventos cola = new ColaEventos(CAPACIDAD_COLA);
+
+    // Cuántas fuentes (teclas, botones, stick) mantienen presionada cada acción
+    private final int[] fuentes = new int[ACCIONES.length];
+    // Acciones que activó cada tecla al presionarla, para soltar las mismas aunque se reasigne
+    private final int[] accionesTeclaPresionada = new int[Keys.MAX_KEYCODE + 1];
+    private final ObjectMap<Controller, EstadoMando> mandos = new ObjectMap<>();
+
+    // Estado de cada acción según los eventos ya consumidos
+    private final boolean[] presionada = new boolean[ACCIONES.length];
+    private final long[] presionadaDesde = new long[ACCIONES.length];
+    private final long[] tiempoPresionada = new long[ACCIONES.length];
+    private final float[] fraccion = new float[ACCIONES.length];
+    private final int[] pulsaciones = new int[ACCIONES.length];
+    private long inicioTick = -1L;
+    private long descartadosVistos = 0L;
+
+    // Captura de la próxima tecla o botón, para reasignar controles
+    private boolean capturando = false;
+    private int teclaCapturada = -1;
+    private BotonMando botonCapturado = null;
+
+    // Latencia de entrada a frame dibujado
+    private SondaLatencia sonda;
+    private long eventoPendiente = -1L;
+    private long muestrasLatencia = 0L;
+    private long sumaLatencia = 0L;
+    private long maximaLatencia = 0L;
+
+    public SistemaEntrada(MapaControles mapa) {
+        this.mapa = mapa;
+    }
+
+    public MapaControles getMapa() {
+        return mapa;
+    }
+
+    public void setSonda(SondaLatencia sonda) {
+        this.sonda = sonda;
+    }
+
+    // -------------------------------------------------------------------------
+    // Consultas del juego (valen para el último tick muestreado)
+    // -------------------------------------------------------------------------
+
+    /** <code>true</code> si la acción se presionó al menos una vez durante el tick. */
+    public boolean fuePresionada(Accion accion) {
+        return pulsaciones[accion.ordinal()] > 0;
+    }
+
+    /** <code>true</code> si la acción sigue presionada al final del tick. */
+    public boolean estaPresionada(Accion accion) {
+        return presionada[accion.ordinal()];
+    }
+
+    /** Fracción del tick, entre 0 y 1, durante la que la acción estuvo presionada. */
+    public float getFraccion(Accion accion) {
+        return fraccion[accion.ordinal()];
+    }
+
+    // -------------------------------------------------------------------------
+    // Tick
+    // -------------------------------------------------------------------------
+
+    /**
+     * Consume los eventos acumulados y calcula el estado de cada acción en el
+     * intervalo entre el tick anterior y <code>fin</code>.
+     *
+     * @param fin instante en que empieza el tick actual.
+     */
+    public void muestrear(long fin) {
+        long inicio = inicioTick < 0L ? fin : inicioTick;
+        inicioTick = fin;
+        for (int i = 0; i < ACCIONES.length; i++) {
+            tiempoPresionada[i] = 0L;
+            pulsaciones[i] = 0;
+        }
+
+        while (!cola.isVacia()) {
+            long instante = Math.max(inicio, Math.min(fin, cola.getInstante()));
+            int i = cola.getAccion();
+            if (cola.isPresionada()) {
+                if (!presionada[i]) {
+                    presionada[i] = true;
+                    presionadaDesde[i] = instante;
+                    pulsaciones[i]++;
+                }
+            } else if (presionada[i]) {
+                presionada[i] = false;
+                tiempoPresionada[i] += instante - presionadaDesde[i];
+            }
+            if (eventoPendiente < 0L) {
+                eventoPendiente = cola.getInstante();
+            }
+            cola.quitar();
+        }
+        if (cola.getDescartados() != descartadosVistos) {
+            descartadosVistos = cola.getDescartados();
+            sincronizarConFuentes(inicio, fin);
+        }
+
+        long duracion = fin - inicio;
+        for (int i = 0; i < ACCIONES.length; i++) {
+            if (presionada[i]) {
+                tiempoPresionada[i] += fin - Math.max(inicio, presionadaDesde[i]);
+                presionadaDesde[i] = fin;
+            }
+            if (pulsaciones[i] > 0) {
+                tiempoPresionada[i] = Math.max(tiempoPresionada[i], TOQUE_MINIMO);
+            }
+            if (duracion > 0L) {
+                fraccion[i] = Math.min(1f, (float) tiempoPresionada[i] / duracion);
+            } else {
+                fraccion[i] = presionada[i] || pulsaciones[i] > 0 ? 1f : 0f;
+            }
+        }
+    }
+
+    /**
+     * Corrige las acciones después de perder eventos con la cola llena: si se
+     * perdió una liberación la acción quedaría presionada para siempre. Las
+     * fuentes activas dicen el estado real, que se toma desde el final del tick.
+     */
+    private void sincronizarConFuentes(long inicio, long fin) {
+        for (int i = 0; i < ACCIONES.length; i++) {
+            boolean activa = fuentes[i] > 0;
+            if (presionada[i] && !activa) {
+                presionada[i] = false;
+                tiempoPresionada[i] += fin - Math.max(inicio, presionadaDesde[i]);
+            } else if (!presionada[i] && activa) {
+                presionada[i] = true;
+                presionadaDesde[i] = fin;
+            }
+        }
+    }
+
+    /**
+     * Avisa que terminó de dibujarse el frame del tick actual. Si en ese tick
+     * se consumió algún evento, registra la latencia desde el más antiguo.
+     * No incluye el intercambio de buffers ni lo que tarda la pantalla.
+     *
+     * @param instante momento en que terminó el dibujado, antes del intercambio de buffers.
+     */
+    public void frameDibujado(long instante) {
+        if (eventoPendiente < 0L) {
+            return;
+        }
+        long latencia = instante - eventoPendiente;
+        muestrasLatencia++;
+        sumaLatencia += latencia;
+        maximaLatencia = Math.max(maximaLatencia, latencia);
+        if (sonda != null) {
+            sonda.latenciaMedida(eventoPendiente, instante);
+        }
+        eventoPendiente = -1L;
+    }
+
+    public long getMuestrasLatencia() {
+        return muestrasLatencia;
+    }
+
+    public float getLatenciaMediaMs() {
+        return muestrasLatencia == 0L ? 0f : sumaLatencia / (muestrasLatencia * 1_000_000f);
+    }
+
+    public float getLatenciaMaximaMs() {
+        return maximaLatencia / 1_000_000f;
+    }
+
+    /** Eventos perdidos porque la cola estaba llena. */
+    public long getDescartados() {
+        return cola.getDescartados();
+    }
+
+    // -------------------------------------------------------------------------
+    // Captura para reasignar controles
+    // -------------------------------------------------------------------------
+
+    /**
+     * La próxima tecla o botón que se presione no activa ninguna acción: se
+     * guarda para que la pantalla de controles la asigne.
+     */
+    public void iniciarCaptura() {
+        capturando = true;
+        teclaCapturada = -1;
+        botonCapturado = null;
+    }
+
+    public void cancelarCaptura() {
+        capturando = false;
+        teclaCapturada = -1;
+        botonCapturado = null;
+    }
+
+    public boolean isCapturando() {
+        return capturando;
+    }
+
+    /** Tecla capturada, o -1 si todavía no se presionó ninguna (o fue un botón). */
+    public int getTeclaCapturada() {
+        return teclaCapturada;
+    }
+
+    /** Botón capturado, o <code>null</code> si todavía no se presionó ninguno (o fue una tecla). */
+    public BotonMando getBotonCapturado() {
+        return botonCapturado;
+    }
+
+    // -------------------------------------------------------------------------
+    // Teclado
+    // -------------------------------------------------------------------------
+
+    @Override
+    public boolean keyDown(int keycode) {
+        if (keycode <= 0 || keycode >= accionesTeclaPresionada.length) {
+            return false;
+        }
+        if (capturando) {
+            if (teclaCapturada < 0 && botonCapturado == null) {
+                teclaCapturada = keycode;
+            }
+            return true;
+        }
+        int acciones = mapa.getAccionesTecla(keycode);
+        accionesTeclaPresionada[keycode] = acciones;
+        presionar(acciones, instanteEvento());
+        return acciones != 0;
+    }
+
+    @Override
+    public boolean keyUp(int keycode) {
+        if (keycode <= 0 || keycode >= accionesTeclaPresionada.length) {
+            return false;
+        }
+        int acciones = accionesTeclaPresionada[keycode];
+        accionesTeclaPresionada[keycode] = 0;
+        soltar(acciones, instanteEvento());
+        return acciones != 0;
+    }
+
+    // -------------------------------------------------------------------------
+    // Mandos
+    // -------------------------------------------------------------------------
+
+    @Override
+    public void connected(Controller controller) {
+        Gdx.app.log("ENTRADA", "mando conectado: " + controller.getName());
+    }
+
+    @Override
+    public void disconnected(Controller controller) {
+        EstadoMando estado = mandos.remove(controller);
+        if (estado != null) {
+            // Lo que el mando tenía presionado se suelta, para que no quede una acción pegada
+            long instante = TimeUtils.nanoTime();
+            for (int acciones : estado.accionesBoton) {
+                soltar(acciones, instante);
+            }
+            soltar(estado.accionesStick, instante);
+        }
+        Gdx.app.log("ENTRADA", "mando desconectado: " + controller.getName());
+    }
+
+    @Override
+    public boolean buttonDown(Controller controller, int buttonCode) {
+        BotonMando boton = BotonMando.desde(controller.getMapping(), buttonCode);
+        if (boton == null) {
+            return false;
+        }
+        if (capturando) {
+            if (teclaCapturada < 0 && botonCapturado == null) {
+                botonCapturado = boton;
+            }
+            return true;
+        }
+        int acciones = mapa.getAccionesBoton(boton);
+        estado(controller).accionesBoton[boton.ordinal()] = acciones;
+        presionar(acciones, TimeUtils.nanoTime());
+        return acciones != 0;
+    }
+
+    @Override
+    public boolean buttonUp(Controller controller, int buttonCode) {
+        BotonMando boton = BotonMando.desde(controller.getMapping(), buttonCode);
+        if (boton == null) {
+            return false;
+        }
+        EstadoMando estado = estado(controller);
+        int acciones = estado.accionesBoton[boton.ordinal()];
+        estado.accionesBoton[boton.ordinal()] = 0;
+        soltar(acciones, TimeUtils.nanoTime());
+        return acciones != 0;
+    }
+
+    @Override
+    public boolean axisMoved(Controller controller, int axisCode, float value) {
+        ControllerMapping mapping = controller.getMapping();
+        if (axisCode != mapping.axisLeftX) {
+            return false;
+        }
+        EstadoMando estado = estado(controller);
+        // Para seguir presionado en la misma dirección basta el umbral de salida
+        int direccion = (value < 0f ? Accion.IZQUIERDA : Accion.DERECHA).getBit();
+        float umbral = direccion == estado.accionesStick ? STICK_SALIDA : STICK_ENTRADA;
+        int acciones = Math.abs(value) >= umbral ? direccion : 0;
+        if (acciones != estado.accionesStick) {
+            long instante = TimeUtils.nanoTime();
+            soltar(estado.accionesStick, instante);
+            presionar(acciones, instante);
+            estado.accionesStick = acciones;
+        }
+        return true;
+    }
+
+    private EstadoMando estado(Controller controller) {
+        EstadoMando estado = mandos.get(controller);
+        if (estado == null) {
+            estado = new EstadoMando();
+            mandos.put(controller, estado);
+        }
+        return estado;
+    }
+
+    // -------------------------------------------------------------------------
+    // Cola
+    // -------------------------------------------------------------------------
+
+    private void presionar(int acciones, long instante) {
+        for (int i = 0; acciones != 0; i++, acciones >>>= 1) {
+            if ((acciones & 1) != 0 && fuentes[i]++ == 0) {
+                cola.agregar(instante, ACCIONES[i], true);
+            }
+        }
+    }
+
+    private void soltar(int acciones, long instante) {
+        for (int i = 0; acciones != 0; i++, acciones >>>= 1) {
+            if ((acciones & 1) != 0 && fuentes[i] > 0 && --fuentes[i] == 0) {
+                cola.agregar(instante, ACCIONES[i], false);
+            }
+        }
+    }
+
+    /**
+     * Instante del evento de teclado que se está procesando, en la base de
+     * <code>TimeUtils</code>. En LWJGL3 es el del sondeo de eventos del frame,
+     * no el de la tecla.
+     */
+    private static long instanteEvento() {
+        long instante = Gdx.input.getCurrentEventTime();
+        return instante > 0L ? instante : TimeUtils.nanoTime();
+    }
+
+    /** Acciones que mantiene presionadas cada botón y el stick de un mando. */
+    private static final class EstadoMando {
+        final int[] accionesBoton = new int[BotonMando.values().length];
+        int accionesStick = 0;
+    }
+}
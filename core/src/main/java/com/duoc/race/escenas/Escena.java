@@ -0,0 +1,47 @@
+package com.duoc.race.escenas;
+
+/**
+ * Una pantalla o estado del juego (carga, menú, carrera, pausa, Game Over,
+ * récords) administrado por una {@link PilaEscenas}.
+ * <p>
+ * Solo la escena de arriba de la pila se actualiza; las de abajo quedan
+ * detenidas. Las escenas superpuestas (pausa, Game Over) dejan ver la escena
+ * que tienen debajo.
+ * </p>
+ */
+public interface Escena {
+
+    /** Se llama al entrar a la pila. */
+    void alEntrar();
+
+    /** Se llama al salir de la pila. */
+    void alSalir();
+
+    /** Se llama cuando otra escena queda encima de esta. */
+    default void alCubrirse() {
+    }
+
+    /** Se llama cuando la escena vuelve a quedar arriba de la pila. */
+    default void alDescubrirse() {
+    }
+
+    /** Se llama cuando cambia el tamaño de la ventana. */
+    default void alRedimensionar(int ancho, int alto) {
+    }
+
+    /**
+     * Avanza la lógica de la escena. Solo se llama para la escena de arriba.
+     *
+     * @param delta tiempo transcurrido entre frames.
+     */
+    void actualizar(float delta);
+
+    /** Dibuja la escena. */
+    void dibujar();
+
+    /**
+     * Indica si la escena se dibuja sobre la anterior sin taparla por
+     * completo, como un menú de pausa.
+     */
+    boolean esSuperpuesta();
+}
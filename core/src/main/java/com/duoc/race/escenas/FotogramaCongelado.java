@@ -0,0 +1,76 @@
+package com.duoc.race.escenas;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+/**
+ * Copia de un frame ya dibujado, para mostrarla mientras la escena que lo
+ * produjo está cubierta por otra (pausa, Game Over).
+ * <p>
+ * La escena se dibuja una sola vez dentro de un <code>FrameBuffer</code> del
+ * tamaño de la ventana; después, cada frame cuesta solo dibujar una textura.
+ * La copia se descarta con {@link #invalidar()} cuando el contenido cambia
+ * (por ejemplo, al redimensionar la ventana).
+ * </p>
+ */
+public class FotogramaCongelado implements Disposable {
+
+    private FrameBuffer buffer;
+    private TextureRegion region;
+    private boolean valido = false;
+
+    public boolean isValido() {
+        return valido;
+    }
+
+    public void invalidar() {
+        valido = false;
+    }
+
+    /**
+     * Dibuja la escena dentro del buffer. El dibujo no debe usar otro
+     * <code>FrameBuffer</code>, porque al terminar se volvería a la pantalla.
+     *
+     * @param dibujo código que dibuja el frame con el <code>SpriteBatch</code> del juego.
+     */
+    public void capturar(Runnable dibujo) {
+        int ancho = Gdx.graphics.getWidth();
+        int alto = Gdx.graphics.getHeight();
+        if (buffer == null || buffer.getWidth() != ancho || buffer.getHeight() != alto) {
+            dispose();
+            buffer = new FrameBuffer(Pixmap.Format.RGB888, ancho, alto, false);
+            region = new TextureRegion(buffer.getColorBufferTexture());
+            // La textura de un FrameBuffer queda invertida verticalmente
+            region.flip(false, true);
+        }
+
+        buffer.begin();
+        ScreenUtils.clear(0, 0, 0, 1);
+        dibujo.run();
+        buffer.end();
+        valido = true;
+    }
+
+    /** Dibuja la copia ocupando toda la ventana. */
+    public void dibujar(SpriteBatch batch) {
+        ScreenUtils.clear(0, 0, 0, 1);
+        batch.begin();
+        batch.draw(region, 0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        batch.end();
+    }
+
+    @Override
+    public void dispose() {
+        if (buffer != null) {
+            buffer.dispose();
+            buffer = null;
+            region = null;
+        }
+        valido = false;
+    }
+}
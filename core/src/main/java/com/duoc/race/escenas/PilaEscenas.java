@@ -0,0 +1,89 @@
+package com.duoc.race.escenas;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pila de escenas del juego.
+ *
+ * <p>Reglas:</p>
+ * <ul>
+ *     <li><b>Actualización</b>: solo se actualiza la escena de arriba; las demás
+ *     no simulan nada mientras están cubiertas.</li>
+ *
+ *     <li><b>Dibujado</b>: se busca, desde arriba, la primera escena que no es
+ *     superpuesta (la que tapa toda la pantalla) y se dibuja desde ella hacia
+ *     arriba. Lo que queda debajo no se dibuja.</li>
+ *
+ *     <li><b>Transiciones</b>: cada cambio llama a <code>alEntrar</code>,
+ *     <code>alSalir</code>, <code>alCubrirse</code> y
+ *     <code>alDescubrirse</code> en el orden en que ocurren. Una escena puede
+ *     cambiar la pila desde su propio <code>actualizar</code>.</li>
+ * </ul>
+ */
+public class PilaEscenas {
+
+    private final List<Escena> escenas = new ArrayList<>();
+
+    /** Pone una escena encima de la actual. */
+    public void apilar(Escena escena) {
+        if (!escenas.isEmpty()) {
+            getActual().alCubrirse();
+        }
+        escenas.add(escena);
+        escena.alEntrar();
+    }
+
+    /** Quita la escena de arriba y vuelve a la anterior. */
+    public void desapilar() {
+        if (escenas.isEmpty()) {
+            return;
+        }
+        escenas.remove(escenas.size() - 1).alSalir();
+        if (!escenas.isEmpty()) {
+            getActual().alDescubrirse();
+        }
+    }
+
+    /** Vacía la pila y deja solo la escena indicada. */
+    public void reemplazarTodo(Escena escena) {
+        while (!escenas.isEmpty()) {
+            escenas.remove(escenas.size() - 1).alSalir();
+        }
+        escenas.add(escena);
+        escena.alEntrar();
+    }
+
+    /** Escena de arriba, o <code>null</code> si la pila está vacía. */
+    public Escena getActual() {
+        return escenas.isEmpty() ? null : escenas.get(escenas.size() - 1);
+    }
+
+    /** Indica si la escena está en la pila (arriba o cubierta). */
+    public boolean contiene(Escena escena) {
+        return escenas.contains(escena);
+    }
+
+    public void actualizar(float delta) {
+        Escena actual = getActual();
+        if (actual != null) {
+            actual.actualizar(delta);
+        }
+    }
+
+    public void dibujar() {
+        int base = escenas.size() - 1;
+        while (base > 0 && escenas.get(base).esSuperpuesta()) {
+            base--;
+        }
+        for (int i = Math.max(base, 0); i < escenas.size(); i++) {
+            escenas.get(i).dibujar();
+        }
+    }
+
+    public void redimensionar(int ancho, int alto) {
+        for (int i = 0; i < escenas.size(); i++) {
+            escenas.get(i).alRedimensionar(ancho, alto);
+        }
+    }
+}
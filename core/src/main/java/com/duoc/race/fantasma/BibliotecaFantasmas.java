@@ -0,0 +1,177 @@
+package com.duoc.race.fantasma;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Carpeta con las mejores carreras guardadas como fantasmas.
+ * <p>
+ * Funcionamiento:
+ * <ul>
+ *     <li><b>Misma pista</b>: un fantasma solo tiene sentido en la carrera de
+ *     la que salió, así que el modo fantasma corre siempre con la semilla de
+ *     la mejor carrera guardada ({@link #elegirSemilla(long)}).</li>
+ *
+ *     <li><b>Varios a la vez</b>: {@link #cargar(long)} abre las
+ *     <code>maximo</code> mejores carreras de esa semilla.</li>
+ *
+ *     <li><b>Solo las mejores</b>: {@link #guardar(GrabadorFantasma, int)}
+ *     guarda una carrera si entra entre las <code>maximo</code> mejores de su
+ *     semilla y borra la que queda afuera.</li>
+ * </ul>
+ */
+public class BibliotecaFantasmas implements Closeable {
+
+    private final File carpeta;
+    private final int maximo;
+    private final Fantasma[] cargados;
+    private int cantidad = 0;
+
+    /**
+     * @param carpeta dónde se guardan los fantasmas; se crea al guardar el primero.
+     * @param maximo  cuántos fantasmas corren a la vez.
+     */
+    public BibliotecaFantasmas(File carpeta, int maximo) {
+        this.carpeta = carpeta;
+        this.maximo = maximo;
+        this.cargados = new Fantasma[maximo];
+    }
+
+    /**
+     * Semilla de la mejor carrera guardada, o <code>nueva</code> si todavía no
+     * hay ninguna.
+     */
+    public long elegirSemilla(long nueva) throws IOException {
+        Guardado mejor = null;
+        for (Guardado guardado : listar()) {
+            if (mejor == null || guardado.puntaje > mejor.puntaje) {
+                mejor = guardado;
+            }
+        }
+        return mejor == null ? nueva : mejor.semilla;
+    }
+
+    /**
+     * Cierra los fantasmas de la carrera anterior y abre los mejores de esta
+     * semilla. Un archivo dañado se salta.
+     *
+     * @return cuántos se abrieron; se obtienen con {@link #get(int)}.
+     */
+    public int cargar(long semilla) throws IOException {
+        cerrarCargados();
+        List<Guardado> candidatos = mejoresDe(semilla);
+        IOException primerError = null;
+        for (Guardado guardado : candidatos) {
+            if (cantidad == maximo) {
+                break;
+            }
+            try {
+                Fantasma fantasma = new Fantasma(guardado.archivo);
+                cargados[cantidad++] = fantasma;
+            } catch (IOException e) {
+                if (primerError == null) {
+                    primerError = e;
+                }
+            }
+        }
+        if (cantidad == 0 && primerError != null) {
+            throw primerError;
+        }
+        return cantidad;
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    public Fantasma get(int indice) {
+        return cargados[indice];
+    }
+
+    /**
+     * Guarda la carrera grabada si está entre las mejores de su semilla.
+     *
+     * @return el archivo creado, o <code>null</code> si el puntaje no alcanzó.
+     */
+    public File guardar(GrabadorFantasma grabacion, int puntaje) throws IOException {
+        if (grabacion.getTicks() < 2) {
+            return null;
+        }
+        List<Guardado> mejores = mejoresDe(grabacion.getSemilla());
+        if (mejores.size() >= maximo && mejores.get(maximo - 1).puntaje >= puntaje) {
+            return null;
+        }
+        carpeta.mkdirs();
+        File archivo = new File(carpeta, String.format("%016x-%06d-%d%s",
+            grabacion.getSemilla(), puntaje, System.currentTimeMillis(), FormatoFantasma.EXTENSION));
+        grabacion.escribir(archivo, puntaje);
+
+        // Lo que quedó fuera de las mejores ya no se va a cargar. Si el archivo
+        // todavía está mapeado (en Windows no se puede borrar) queda hasta la próxima vez.
+        for (int i = maximo - 1; i < mejores.size(); i++) {
+            mejores.get(i).archivo.delete();
+        }
+        return archivo;
+    }
+
+    @Override
+    public void close() {
+        cerrarCargados();
+    }
+
+    private void cerrarCargados() {
+        for (int i = 0; i < cantidad; i++) {
+            try {
+                cargados[i].close();
+            } catch (IOException e) {
+                // Solo se estaba leyendo
+            }
+            cargados[i] = null;
+        }
+        cantidad = 0;
+    }
+
+    /** Fantasmas guardados de una semilla, del mejor al peor. */
+    private List<Guardado> mejoresDe(long semilla) throws IOException {
+        List<Guardado> deSemilla = new ArrayList<>();
+        for (Guardado guardado : listar()) {
+            if (guardado.semilla == semilla) {
+                deSemilla.add(guardado);
+            }
+        }
+        deSemilla.sort((a, b) -> Integer.compare(b.puntaje, a.puntaje));
+        return deSemilla;
+    }
+
+    private List<Guardado> listar() throws IOException {
+        List<Guardado> guardados = new ArrayList<>();
+        File[] archivos = carpeta.listFiles((dir, nombre) -> nombre.endsWith(FormatoFantasma.EXTENSION));
+        if (archivos == null) {
+            return guardados;
+        }
+        for (File archivo : archivos) {
+            ByteBuffer cabecera = FormatoFantasma.leerCabecera(archivo);
+            if (cabecera != null) {
+                guardados.add(new Guardado(archivo, FormatoFantasma.getSemilla(cabecera), FormatoFantasma.getPuntaje(cabecera)));
+            }
+        }
+        return guardados;
+    }
+
+    /** Un archivo de la carpeta, conocido solo por su cabecera. */
+    private static final class Guardado {
+        final File archivo;
+        final long semilla;
+        final int puntaje;
+
+        Guardado(File archivo, long semilla, int puntaje) {
+            this.archivo = archivo;
+            this.semilla = semilla;
+            this.puntaje = puntaje;
+        }
+    }
+}
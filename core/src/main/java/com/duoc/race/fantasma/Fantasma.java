@@ -0,0 +1,157 @@
+package com.duoc.race.fantasma;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Una carrera grabada que se reproduce junto a la del jugador.
+ * <p>
+ * El archivo se mapea en memoria y se lee directamente desde ahí: no se copia
+ * al heap ni se descomprime. Cada consulta va a la clave del tick pedido y
+ * suma los deltas que faltan, que son menos de
+ * {@link FormatoFantasma#INTERVALO_CLAVE}; como el tiempo de carrera avanza,
+ * casi siempre basta continuar desde el tick consultado en el frame anterior.
+ * Las consultas no reservan memoria.
+ * </p>
+ */
+public class Fantasma implements Closeable {
+
+    private final File archivo;
+    private final FileChannel canal;
+    private final MappedByteBuffer datos;
+    private final long semilla;
+    private final int ticksPorSegundo;
+    private final int ticks;
+    private final int puntaje;
+    private final int inicioDeltas;
+
+    // Último tick decodificado, para seguir desde ahí en el frame siguiente
+    private int tickCursor = -1;
+    private int xCursor;
+    private int distanciaCursor;
+
+    // Resultado de la última consulta
+    private float x;
+    private float distancia;
+
+    /**
+     * Abre y mapea un archivo de fantasma.
+     *
+     * @throws IOException si no se puede leer o no es un fantasma.
+     */
+    public Fantasma(File archivo) throws IOException {
+        this.archivo = archivo;
+        canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ);
+        try {
+            datos = canal.map(FileChannel.MapMode.READ_ONLY, 0L, canal.size());
+            if (datos.capacity() < FormatoFantasma.LARGO_CABECERA || datos.getInt(0) != FormatoFantasma.MAGIA) {
+                throw new IOException("no es un fantasma: " + archivo);
+            }
+            semilla = FormatoFantasma.getSemilla(datos);
+            ticksPorSegundo = FormatoFantasma.getTicksPorSegundo(datos);
+            ticks = FormatoFantasma.getTicks(datos);
+            puntaje = FormatoFantasma.getPuntaje(datos);
+            inicioDeltas = FormatoFantasma.inicioDeltas(ticks);
+            if (ticks < 1 || ticksPorSegundo < 1
+                || datos.capacity() < inicioDeltas + ticks * FormatoFantasma.LARGO_DELTA) {
+                throw new IOException("fantasma incompleto: " + archivo);
+            }
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Ubica el fantasma en un momento de la carrera, interpolando entre los
+     * dos ticks más cercanos. El resultado queda en {@link #getX()} y
+     * {@link #getDistancia()}.
+     *
+     * @param tiempo tiempo de carrera transcurrido, sin contar las pausas.
+     * @return <code>false</code> si la carrera grabada ya había terminado en
+     * ese momento.
+     */
+    public boolean ubicar(float tiempo) {
+        float posicion = tiempo * ticksPorSegundo;
+        int tick = (int) posicion;
+        if (tiempo < 0f || tick >= ticks - 1) {
+            return false;
+        }
+        avanzarHasta(tick);
+        float fraccion = posicion - tick;
+        int siguiente = tick + 1;
+        float xSiguiente;
+        float distanciaSiguiente;
+        if (siguiente % FormatoFantasma.INTERVALO_CLAVE == 0) {
+            int clave = FormatoFantasma.inicioClaves() + siguiente / FormatoFantasma.INTERVALO_CLAVE * FormatoFantasma.LARGO_CLAVE;
+            xSiguiente = datos.getInt(clave);
+            distanciaSiguiente = datos.getInt(clave + 4);
+        } else {
+            int delta = inicioDeltas + siguiente * FormatoFantasma.LARGO_DELTA;
+            xSiguiente = xCursor + datos.get(delta);
+            distanciaSiguiente = distanciaCursor + (datos.get(delta + 1) & 0xFF);
+        }
+        x = (xCursor + (xSiguiente - xCursor) * fraccion) / FormatoFantasma.ESCALA_POSICION;
+        distancia = (distanciaCursor + (distanciaSiguiente - distanciaCursor) * fraccion) / FormatoFantasma.ESCALA_POSICION;
+        return true;
+    }
+
+    /** Posición X del auto en la última consulta. */
+    public float getX() {
+        return x;
+    }
+
+    /** Distancia recorrida en la última consulta. */
+    public float getDistancia() {
+        return distancia;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    public int getPuntaje() {
+        return puntaje;
+    }
+
+    /** Duración de la carrera grabada, en segundos. */
+    public float getDuracion() {
+        return (float) ticks / ticksPorSegundo;
+    }
+
+    public File getArchivo() {
+        return archivo;
+    }
+
+    /**
+     * Cierra el archivo. El mapeo lo libera el recolector de basura cuando ya
+     * no se usa este objeto.
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    private void avanzarHasta(int tick) {
+        int clave = tick / FormatoFantasma.INTERVALO_CLAVE;
+        int desde;
+        if (tickCursor >= 0 && tickCursor <= tick && tickCursor / FormatoFantasma.INTERVALO_CLAVE == clave) {
+            desde = tickCursor + 1;
+        } else {
+            int posicionClave = FormatoFantasma.inicioClaves() + clave * FormatoFantasma.LARGO_CLAVE;
+            xCursor = datos.getInt(posicionClave);
+            distanciaCursor = datos.getInt(posicionClave + 4);
+            desde = clave * FormatoFantasma.INTERVALO_CLAVE + 1;
+        }
+        for (int i = desde; i <= tick; i++) {
+            int delta = inicioDeltas + i * FormatoFantasma.LARGO_DELTA;
+            xCursor += datos.get(delta);
+            distanciaCursor += datos.get(delta + 1) & 0xFF;
+        }
+        tickCursor = tick;
+    }
+}
@@ -0,0 +1,93 @@
+package com.duoc.race.fantasma;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Constantes y cabecera compartidas por el grabador y el lector de fantasmas.
+ *
+ * <p>Un archivo de fantasma tiene tres partes, sin comprimir para poder leerlo
+ * directamente desde la memoria mapeada:</p>
+ * <ul>
+ *     <li><b>Cabecera</b>: <code>MAGIA</code> (int), semilla de la carrera
+ *     (long), ticks por segundo (int), cantidad de ticks (int) y puntaje final
+ *     (int).</li>
+ *
+ *     <li><b>Claves</b>: cada <code>INTERVALO_CLAVE</code> ticks, la posición
+ *     X del auto y la distancia recorrida, absolutas (dos int).</li>
+ *
+ *     <li><b>Deltas</b>: dos bytes por tick con la diferencia respecto del
+ *     tick anterior: X con signo y distancia sin signo (la pista nunca
+ *     retrocede). En los ticks clave valen cero.</li>
+ * </ul>
+ * <p>
+ * Las posiciones se guardan en cuartos de píxel (<code>ESCALA_POSICION</code>).
+ * Un tick cualquiera se obtiene desde su clave sumando a lo sumo
+ * <code>INTERVALO_CLAVE - 1</code> deltas, sin importar el largo de la carrera.
+ * </p>
+ */
+final class FormatoFantasma {
+
+    static final int   MAGIA            = 0x44524731; // "DRG1"
+    static final int   LARGO_CABECERA   = 24;
+    static final int   LARGO_CLAVE      = 8;
+    static final int   LARGO_DELTA      = 2;
+    static final int   INTERVALO_CLAVE  = 64;
+    static final float ESCALA_POSICION  = 4f;
+    static final String EXTENSION       = ".fantasma";
+
+    private FormatoFantasma() {
+    }
+
+    static int cantidadClaves(int ticks) {
+        return (ticks + INTERVALO_CLAVE - 1) / INTERVALO_CLAVE;
+    }
+
+    /** Posición, dentro del archivo, de la primera clave. */
+    static int inicioClaves() {
+        return LARGO_CABECERA;
+    }
+
+    /** Posición, dentro del archivo, del primer delta. */
+    static int inicioDeltas(int ticks) {
+        return LARGO_CABECERA + cantidadClaves(ticks) * LARGO_CLAVE;
+    }
+
+    /**
+     * Lee solo la cabecera de un archivo.
+     *
+     * @return la cabecera, con la posición en 0, o <code>null</code> si el
+     * archivo no es un fantasma.
+     */
+    static ByteBuffer leerCabecera(File archivo) throws IOException {
+        ByteBuffer cabecera = ByteBuffer.allocate(LARGO_CABECERA);
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            while (cabecera.hasRemaining()) {
+                if (canal.read(cabecera) < 0) {
+                    return null;
+                }
+            }
+        }
+        cabecera.flip();
+        return cabecera.getInt(0) == MAGIA ? cabecera : null;
+    }
+
+    static long getSemilla(ByteBuffer cabecera) {
+        return cabecera.getLong(4);
+    }
+
+    static int getTicksPorSegundo(ByteBuffer cabecera) {
+        return cabecera.getInt(12);
+    }
+
+    static int getTicks(ByteBuffer cabecera) {
+        return cabecera.getInt(16);
+    }
+
+    static int getPuntaje(ByteBuffer cabecera) {
+        return cabecera.getInt(20);
+    }
+}
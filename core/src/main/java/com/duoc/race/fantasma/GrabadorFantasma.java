@@ -0,0 +1,147 @@
+package com.duoc.race.fantasma;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Graba en memoria el recorrido del auto durante una carrera, para guardarlo
+ * como fantasma si la carrera termina entre las mejores.
+ * <p>
+ * El juego informa la posición en cada frame, con la duración que tenga ese
+ * frame; el grabador la convierte en ticks de duración fija interpolando entre
+ * el frame anterior y el actual. Cada tick ocupa dos bytes (ver
+ * {@link FormatoFantasma}) y la cuantización no acumula error: cada delta se
+ * calcula contra la posición ya reconstruida, no contra la real del tick
+ * anterior.
+ * </p>
+ */
+public class GrabadorFantasma {
+
+    // Diez minutos de carrera a 60 ticks por segundo antes de tener que crecer
+    private static final int TICKS_INICIALES = 60 * 60 * 10;
+
+    private final int ticksPorSegundo;
+
+    private byte[] deltas = new byte[TICKS_INICIALES * FormatoFantasma.LARGO_DELTA];
+    private int[] claves = new int[FormatoFantasma.cantidadClaves(TICKS_INICIALES) * 2];
+    private int ticks = 0;
+    private long semilla;
+
+    // Última posición reconstruida, en cuartos de píxel
+    private int xGuardada;
+    private int distanciaGuardada;
+
+    // Frame anterior, para interpolar los ticks que caen entre dos frames
+    private float tiempoAnterior;
+    private float xAnterior;
+    private float distanciaAnterior;
+
+    public GrabadorFantasma(int ticksPorSegundo) {
+        this.ticksPorSegundo = ticksPorSegundo;
+    }
+
+    /**
+     * Descarta lo grabado y empieza una carrera nueva.
+     *
+     * @param semilla   semilla de la carrera; solo se comparan fantasmas con la misma.
+     * @param x         posición X inicial del auto.
+     * @param distancia distancia recorrida al empezar.
+     */
+    public void iniciar(long semilla, float x, float distancia) {
+        this.semilla = semilla;
+        ticks = 0;
+        tiempoAnterior = 0f;
+        xAnterior = x;
+        distanciaAnterior = distancia;
+        agregarTick(x, distancia);
+    }
+
+    /**
+     * Informa la posición del auto al final de un frame.
+     *
+     * @param tiempo    tiempo de carrera transcurrido, sin contar las pausas.
+     * @param x         posición X del auto.
+     * @param distancia distancia recorrida por la pista.
+     */
+    public void registrar(float tiempo, float x, float distancia) {
+        float duracion = tiempo - tiempoAnterior;
+        float tiempoTick = (float) ticks / ticksPorSegundo;
+        while (tiempoTick <= tiempo) {
+            float t = duracion > 0f ? (tiempoTick - tiempoAnterior) / duracion : 1f;
+            agregarTick(xAnterior + (x - xAnterior) * t, distanciaAnterior + (distancia - distanciaAnterior) * t);
+            tiempoTick = (float) ticks / ticksPorSegundo;
+        }
+        tiempoAnterior = tiempo;
+        xAnterior = x;
+        distanciaAnterior = distancia;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Escribe la carrera grabada en un archivo de fantasma.
+     *
+     * @param archivo destino; se reemplaza si existe.
+     * @param puntaje puntaje final de la carrera.
+     */
+    public void escribir(File archivo, int puntaje) throws IOException {
+        int cantidadClaves = FormatoFantasma.cantidadClaves(ticks);
+        ByteBuffer datos = ByteBuffer.allocate(FormatoFantasma.inicioDeltas(ticks) + ticks * FormatoFantasma.LARGO_DELTA);
+        datos.putInt(FormatoFantasma.MAGIA);
+        datos.putLong(semilla);
+        datos.putInt(ticksPorSegundo);
+        datos.putInt(ticks);
+        datos.putInt(puntaje);
+        for (int i = 0; i < cantidadClaves * 2; i++) {
+            datos.putInt(claves[i]);
+        }
+        datos.put(deltas, 0, ticks * FormatoFantasma.LARGO_DELTA);
+        datos.flip();
+
+        try (FileChannel canal = FileChannel.open(archivo.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (datos.hasRemaining()) {
+                canal.write(datos);
+            }
+        }
+    }
+
+    private void agregarTick(float x, float distancia) {
+        if ((ticks + 1) * FormatoFantasma.LARGO_DELTA > deltas.length) {
+            deltas = Arrays.copyOf(deltas, deltas.length * 2);
+            claves = Arrays.copyOf(claves, claves.length * 2);
+        }
+        int xCuantizada = Math.round(x * FormatoFantasma.ESCALA_POSICION);
+        int distanciaCuantizada = Math.round(distancia * FormatoFantasma.ESCALA_POSICION);
+        int posicion = ticks * FormatoFantasma.LARGO_DELTA;
+
+        if (ticks % FormatoFantasma.INTERVALO_CLAVE == 0) {
+            int clave = ticks / FormatoFantasma.INTERVALO_CLAVE * 2;
+            claves[clave] = xCuantizada;
+            claves[clave + 1] = distanciaCuantizada;
+            xGuardada = xCuantizada;
+            distanciaGuardada = distanciaCuantizada;
+            deltas[posicion] = 0;
+            deltas[posicion + 1] = 0;
+        } else {
+            // Un salto mayor que un byte se reparte en los ticks siguientes
+            int dx = Math.max(-128, Math.min(127, xCuantizada - xGuardada));
+            int dd = Math.max(0, Math.min(255, distanciaCuantizada - distanciaGuardada));
+            xGuardada += dx;
+            distanciaGuardada += dd;
+            deltas[posicion] = (byte) dx;
+            deltas[posicion + 1] = (byte) dd;
+        }
+        ticks++;
+    }
+}
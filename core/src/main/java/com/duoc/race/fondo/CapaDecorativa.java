@@ -0,0 +1,125 @@
+package com.duoc.race.fondo;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.duoc.race.interfaces.CapaFondo;
+
+/**
+ * Capa de adornos repartidos al azar (nubes, por ejemplo) que se calcula en
+ * cada frame a partir del recorrido, sin objetos que crear, mover ni borrar.
+ *
+ * <p>Funcionamiento:</p>
+ * <ul>
+ *     <li><b>Celdas</b>: la capa se divide en celdas verticales de
+ *     <code>espaciado</code> píxeles. Cada celda tiene a lo más un adorno, y si
+ *     lo tiene, su posición y tamaño dependen solo de la semilla y del índice de
+ *     la celda.</li>
+ *
+ *     <li><b>Solo lo visible</b>: con el recorrido multiplicado por la
+ *     velocidad de la capa se sabe qué celdas están en pantalla, y solo esas se
+ *     evalúan. El costo es proporcional a los adornos visibles.</li>
+ *
+ *     <li><b>Densidad</b>: una celda tiene adorno si su valor pseudoaleatorio
+ *     queda bajo la densidad. Al bajar la densidad por calidad desaparecen
+ *     algunos adornos, pero los que quedan no cambian de lugar.</li>
+ * </ul>
+ */
+public class CapaDecorativa implements CapaFondo {
+
+    private static final float VARIACION_ESCALA = 0.5f;
+
+    private final Texture textura;
+    private final float velocidad;
+    private final float densidad;
+    private final float espaciado;
+    private final float escala;
+    private final float opacidad;
+    private long semilla;
+    private float factorDensidad = 1f;
+    private float factorEspaciado = 1f;
+
+    /**
+     * @param textura   imagen de cada adorno.
+     * @param velocidad fracción del recorrido con que se desplaza la capa; las
+     *                  capas lejanas usan valores menores.
+     * @param densidad  probabilidad de que una celda tenga adorno, entre 0 y 1.
+     * @param espaciado alto de cada celda en píxeles de la capa.
+     * @param escala    tamaño medio de los adornos respecto de la textura.
+     * @param opacidad  transparencia con que se dibujan, entre 0 y 1.
+     * @param semilla   semilla de la distribución.
+     */
+    public CapaDecorativa(Texture textura, float velocidad, float densidad, float espaciado,
+                          float escala, float opacidad, long semilla) {
+        this.textura = textura;
+        this.velocidad = velocidad;
+        this.densidad = densidad;
+        this.espaciado = espaciado;
+        this.escala = escala;
+        this.opacidad = opacidad;
+        this.semilla = semilla;
+    }
+
+    /**
+     * Multiplica la densidad configurada, para que el nivel de calidad pueda
+     * reducir los adornos (0 = no se dibuja nada).
+     */
+    public void setFactorDensidad(float factorDensidad) {
+        this.factorDensidad = factorDensidad;
+    }
+
+    /**
+     * Divide el alto de las celdas, para que quepan más adornos en pantalla
+     * (la prueba de rendimiento lo usa para cargar el fondo).
+     */
+    public void setFactorEspaciado(float factorEspaciado) {
+        this.factorEspaciado = factorEspaciado;
+    }
+
+    /** Cambia la distribución de los adornos, por ejemplo al empezar otra carrera. */
+    public void setSemilla(long semilla) {
+        this.semilla = semilla;
+    }
+
+    @Override
+    public void dibujar(SpriteBatch batch, float recorrido, int ancho, int alto) {
+        float umbral = densidad * factorDensidad;
+        if (umbral <= 0f) {
+            return;
+        }
+
+        float altoMax = textura.getHeight() * escala * (1f + VARIACION_ESCALA / 2f);
+        float desplazamiento = recorrido * velocidad;
+        float espaciado = this.espaciado / factorEspaciado;
+
+        // Celdas cuyo adorno puede asomar en pantalla, contando su alto y el corrimiento dentro de la celda
+        int primera = (int) Math.floor((desplazamiento - altoMax - espaciado) / espaciado);
+        int ultima = (int) Math.floor((desplazamiento + alto) / espaciado);
+
+        batch.setColor(1f, 1f, 1f, opacidad);
+        for (int celda = primera; celda <= ultima; celda++) {
+            long h = mezclar(semilla ^ (celda * 0x9E3779B97F4A7C15L));
+            if (fraccion(h, 0) >= umbral) {
+                continue;
+            }
+            float factor = 1f - VARIACION_ESCALA / 2f + fraccion(h, 1) * VARIACION_ESCALA;
+            float anchoAdorno = textura.getWidth() * escala * factor;
+            float altoAdorno = textura.getHeight() * escala * factor;
+            float x = fraccion(h, 2) * (ancho - anchoAdorno);
+            float y = (celda + fraccion(h, 3)) * espaciado - desplazamiento;
+            batch.draw(textura, x, y, anchoAdorno, altoAdorno);
+        }
+        batch.setColor(Color.WHITE);
+    }
+
+    /** Toma 16 bits del hash como un valor en [0, 1). */
+    private static float fraccion(long h, int parte) {
+        return ((h >>> (parte * 16)) & 0xFFFF) / 65536f;
+    }
+
+    private static long mezclar(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,81 @@
+package com.duoc.race.fondo;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.duoc.race.interfaces.CapaFondo;
+import com.duoc.race.pista.PistaProcedural;
+
+/**
+ * Capa que sigue la forma de la pista procedural: la calzada entre los bordes
+ * o las tribunas a cada lado.
+ * <p>
+ * La pantalla se dibuja en franjas horizontales de <code>altoFranja</code>
+ * píxeles. En cada franja se consultan los bordes de la calzada y se dibuja la
+ * zona que corresponde. Las texturas están en modo repetición, por lo que el
+ * desplazamiento vertical se logra solo con las coordenadas de textura.
+ * </p>
+ * <p>
+ * Calzada y tribunas son capas separadas para que cada una dibuje todas sus
+ * franjas con la misma textura, sin alternar texturas (y vaciar el lote) en
+ * cada franja.
+ * </p>
+ */
+public class CapaPista implements CapaFondo {
+
+    /** Parte de la pantalla que cubre la capa. */
+    public enum Zona {
+        /** Entre los bordes de la calzada. */
+        CALZADA,
+        /** Desde cada borde hasta el costado de la pantalla. */
+        TRIBUNAS
+    }
+
+    private final Texture textura;
+    private final Zona zona;
+    private final float velocidad;
+    private final PistaProcedural pista;
+    private int altoFranja;
+
+    /**
+     * @param textura    textura en modo repetición.
+     * @param zona       parte de la pantalla que cubre.
+     * @param velocidad  fracción del recorrido con que se desplaza la textura
+     *                   (1 = junto con la pista).
+     * @param pista      pista de la que se leen los bordes.
+     * @param altoFranja alto inicial de cada franja en píxeles.
+     */
+    public CapaPista(Texture textura, Zona zona, float velocidad, PistaProcedural pista, int altoFranja) {
+        this.textura = textura;
+        this.zona = zona;
+        this.velocidad = velocidad;
+        this.pista = pista;
+        this.altoFranja = altoFranja;
+    }
+
+    /** Franjas más altas significan menos llamadas de dibujo y curvas menos suaves. */
+    public void setAltoFranja(int altoFranja) {
+        this.altoFranja = Math.max(1, altoFranja);
+    }
+
+    @Override
+    public void dibujar(SpriteBatch batch, float recorrido, int ancho, int alto) {
+        float desplazamiento = (-recorrido * velocidad / textura.getHeight()) % 1f;
+
+        for (int franjaY = 0; franjaY < alto; franjaY += altoFranja) {
+            float altoActual = Math.min(altoFranja, alto - franjaY);
+            float pistaY = recorrido + franjaY + altoActual / 2f;
+            float izquierda = pista.getBordeIzquierdo(pistaY);
+            float derecha = pista.getBordeDerecho(pistaY);
+
+            float abajo = desplazamiento + (alto - franjaY) / (float) alto;
+            float arriba = desplazamiento + (alto - franjaY - altoActual) / (float) alto;
+
+            if (zona == Zona.CALZADA) {
+                batch.draw(textura, izquierda, franjaY, derecha - izquierda, altoActual, 0f, abajo, 1f, arriba);
+            } else {
+                batch.draw(textura, 0, franjaY, izquierda, altoActual, 0f, abajo, 1f, arriba);
+                batch.draw(textura, derecha, franjaY, ancho - derecha, altoActual, 0f, abajo, 1f, arriba);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.duoc.race.fondo;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.duoc.race.interfaces.CapaFondo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fondo formado por varias capas que se dibujan de atrás hacia adelante, cada
+ * una con su propia velocidad de desplazamiento.
+ * <p>
+ * Las capas se dibujan una después de otra y no intercaladas, así las franjas
+ * o adornos de una misma capa comparten textura y el <code>SpriteBatch</code>
+ * los envía juntos.
+ * </p>
+ */
+public class FondoParallax {
+
+    private final List<CapaFondo> capas = new ArrayList<>();
+
+    /** Agrega una capa por delante de las que ya existen. */
+    public void agregar(CapaFondo capa) {
+        capas.add(capa);
+    }
+
+    /**
+     * @param batch     lote de dibujo ya iniciado.
+     * @param recorrido distancia recorrida por el jugador, en píxeles.
+     * @param ancho     ancho de la pantalla.
+     * @param alto      alto de la pantalla.
+     */
+    public void dibujar(SpriteBatch batch, float recorrido, int ancho, int alto) {
+        for (int i = 0; i < capas.size(); i++) {
+            capas.get(i).dibujar(batch, recorrido, ancho, alto);
+        }
+    }
+}
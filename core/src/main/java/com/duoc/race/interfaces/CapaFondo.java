@@ -0,0 +1,23 @@
+package com.duoc.race.interfaces;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * Una capa del fondo que se desplaza a su propia velocidad (parallax).
+ * <p>
+ * Las capas no guardan la posición de lo que dibujan: todo se calcula a partir
+ * del recorrido del jugador, por lo que no hay nada que actualizar entre frames.
+ * </p>
+ */
+public interface CapaFondo {
+
+    /**
+     * Dibuja la parte visible de la capa.
+     *
+     * @param batch     lote de dibujo ya iniciado.
+     * @param recorrido distancia recorrida por el jugador, en píxeles.
+     * @param ancho     ancho de la pantalla.
+     * @param alto      alto de la pantalla.
+     */
+    void dibujar(SpriteBatch batch, float recorrido, int ancho, int alto);
+}
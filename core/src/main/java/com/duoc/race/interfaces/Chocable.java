@@ -1,5 +0,0 @@
-package com.duoc.race.interfaces;
-
-public interface Chocable {
-    void chocoEnLaCarrera();
-}
@@ -0,0 +1,20 @@
+package com.duoc.race.interfaces;
+
+/**
+ * Fuente de las decisiones de manejo del auto del jugador.
+ * <p>
+ * Permite que el mismo ciclo de juego funcione con el teclado o con un piloto
+ * automático, sin que <code>Main</code> sepa cuál de los dos está conduciendo.
+ * </p>
+ */
+public interface Controlador {
+
+    /**
+     * Decide hacia dónde moverse en este frame.
+     *
+     * @param delta tiempo transcurrido entre frames.
+     * @return dirección entre -1 (izquierda a máxima velocidad) y 1 (derecha a
+     *         máxima velocidad); 0 para no moverse.
+     */
+    float leerDireccion(float delta);
+}
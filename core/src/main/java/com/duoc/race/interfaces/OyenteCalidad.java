@@ -0,0 +1,17 @@
+package com.duoc.race.interfaces;
+
+import com.duoc.race.rendimiento.NivelCalidad;
+
+/**
+ * Recibe los cambios de nivel de calidad que decide el gobernador de frames.
+ */
+public interface OyenteCalidad {
+
+    /**
+     * @param anterior    nivel que estaba activo.
+     * @param nuevo       nivel que se debe aplicar desde ahora.
+     * @param percentilMs tiempo de trabajo por frame (percentil evaluado) que
+     *                    motivó el cambio, en milisegundos.
+     */
+    void calidadCambiada(NivelCalidad anterior, NivelCalidad nuevo, float percentilMs);
+}
@@ -0,0 +1,18 @@
+package com.duoc.race.interfaces;
+
+/**
+ * Se entera de cuándo terminó la carga del juego (texturas, mundo, pista,
+ * audio): el primer frame dibujado después es el primero del juego real, no
+ * de la pantalla de carga.
+ * <p>
+ * Sirve para medir el arranque completo desde fuera del juego.
+ * </p>
+ */
+public interface OyenteCarga {
+
+    /**
+     * @param exito <code>false</code> si faltó algún recurso y el juego quedó
+     *              en la pantalla de error.
+     */
+    void juegoCargado(boolean exito);
+}
@@ -0,0 +1,26 @@
+package com.duoc.race.interfaces;
+
+/**
+ * Recibe los choques y roces que detecta el sistema de colisiones.
+ */
+public interface OyenteColision {
+
+    /**
+     * El jugador chocó con un obstáculo. El obstáculo ya está anotado para
+     * destruirse.
+     *
+     * @param entidad  entidad del obstáculo.
+     * @param tipo     id del tipo de obstáculo (componente <code>OBSTACULO</code>).
+     * @param impactoX punto medio entre el jugador y el obstáculo, en X.
+     * @param impactoY punto medio entre el jugador y el obstáculo, en Y.
+     */
+    void alChocar(int entidad, int tipo, float impactoX, float impactoY);
+
+    /**
+     * Un obstáculo pasó junto al jugador sin tocarlo.
+     *
+     * @param x costado del jugador por donde pasó.
+     * @param y centro vertical del jugador.
+     */
+    void alRozar(float x, float y);
+}
@@ -0,0 +1,23 @@
+package com.duoc.race.interfaces;
+
+/**
+ * Recibe cada medición de latencia de entrada: desde que llegó un evento de
+ * teclado o mando hasta que terminó de dibujarse el primer frame que lo
+ * reflejó.
+ * <p>
+ * En escritorio el instante del evento es el del sondeo de eventos del frame
+ * (<code>glfwPollEvents</code>), no el de la tecla, y el dibujado termina antes
+ * del intercambio de buffers. Sirve para conectar instrumentos externos; por
+ * ejemplo, una sonda puede encender un cuadro blanco en pantalla para medir con
+ * un fotodiodo la parte que el juego no ve (espera hasta el sondeo, intercambio
+ * de buffers y pantalla).
+ * </p>
+ */
+public interface SondaLatencia {
+
+    /**
+     * @param eventoNanos    instante del evento, según <code>TimeUtils.nanoTime()</code>.
+     * @param dibujadoNanos  instante en que terminó de dibujarse el frame, antes del intercambio de buffers.
+     */
+    void latenciaMedida(long eventoNanos, long dibujadoNanos);
+}
@@ -0,0 +1,32 @@
+package com.duoc.race.interfaces;
+
+import com.duoc.race.ecs.Consulta;
+import com.duoc.race.model.AutoJugador;
+
+/**
+ * Vista de solo lectura del estado de la carrera, para los controladores que
+ * necesitan "mirar" la pista, como el piloto automático.
+ */
+public interface VistaCarrera {
+
+    AutoJugador getJugador();
+
+    /**
+     * Obstáculos en pista: entidades con <code>POSICION</code>,
+     * <code>VELOCIDAD</code>, <code>TAMANO</code> y <code>OBSTACULO</code>.
+     * Las tablas solo deben leerse.
+     */
+    Consulta getObstaculos();
+
+    /** Borde izquierdo de la calzada a una altura de la pantalla. */
+    float getBordeIzquierdo(float pantallaY);
+
+    /** Borde derecho de la calzada a una altura de la pantalla. */
+    float getBordeDerecho(float pantallaY);
+
+    /** Velocidad horizontal máxima del jugador, en píxeles por segundo. */
+    float getVelocidadJugador();
+
+    /** Velocidad con que la pista avanza hacia abajo, en píxeles por segundo, incluido el impulso si hay uno. */
+    float getVelocidadPista();
+}
@@ -6,25 +6,65 @@ import com.badlogic.gdx.math.Rectangle;
 
 public abstract class Juego {
 
+    private static final float BOUNDS_INSET = 5;
+
+    // Identificador único y creciente: la telemetría lo usa para seguir a cada objeto entre frames
+    private static int nextId = 0;
+    protected final int id;
+
     protected float x;
     protected float y;
+    // Posición al comienzo del frame, para detectar choques a lo largo del movimiento
+    protected float previousX;
+    protected float previousY;
     protected float width;
     protected float height;
     public Texture texture;
 
     public Juego(float x, float y, Texture texture){
+        this.id = ++nextId;
         this.x =x;
         this.y = y;
+        this.previousX = x;
+        this.previousY = y;
         this.texture = texture;
-        this.width = texture.getWidth();
-        this.height = texture.getHeight();
+        if (texture != null) {
+            this.width = texture.getWidth();
+            this.height = texture.getHeight();
+        }
     }
 
     public abstract void update(float delta);
 
 
     public Rectangle getBounds(){
-        return new Rectangle(x + 5, y +5, width -10, height -10);
+        return getBoundsAt(x, y);
+    }
+
+    public Rectangle getBoundsAt(float atX, float atY){
+        return getBoundsAt(atX, atY, new Rectangle());
+    }
+
+    /** Como {@link #getBoundsAt(float, float)}, pero llenando <code>destino</code> en vez de crear uno. */
+    public Rectangle getBoundsAt(float atX, float atY, Rectangle destino){
+        return destino.set(atX + BOUNDS_INSET, atY + BOUNDS_INSET, width - BOUNDS_INSET * 2, height - BOUNDS_INSET * 2);
+    }
+
+    public Rectangle getFullBounds(){
+        return getFullBoundsAt(x, y);
+    }
+
+    public Rectangle getFullBoundsAt(float atX, float atY){
+        return new Rectangle(atX, atY, width, height);
+    }
+
+    public void savePreviousPosition(){
+        previousX = x;
+        previousY = y;
+    }
+
+    public int getId() {
+        return id;
     }
 
     public float getX() {
@@ -35,6 +75,14 @@ public abstract class Juego {
         return y;
     }
 
+    public float getPreviousX() {
+        return previousX;
+    }
+
+    public float getPreviousY() {
+        return previousY;
+    }
+
     public float getWidth() {
         return width;
     }
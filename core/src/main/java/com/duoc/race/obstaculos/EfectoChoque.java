@@ -0,0 +1,25 @@
+package com.duoc.race.obstaculos;
+
+/**
+ * Qué pasa cuando el jugador toca un obstáculo, además de sumar o restar su
+ * daño a la vida.
+ *
+ * <ul>
+ *     <li><b>CHOQUE</b>: golpe con chispas, escombros, humo y sonido de choque.</li>
+ *
+ *     <li><b>DERRAPE</b>: el auto patina hacia un costado y responde menos al
+ *     volante durante la duración del tipo (manchas de aceite).</li>
+ *
+ *     <li><b>IMPULSO</b>: la pista y el puntaje avanzan más rápido durante la
+ *     duración del tipo.</li>
+ *
+ *     <li><b>RECOGIDA</b>: el obstáculo se recoge sin golpe; con daño negativo
+ *     sirve como kit de reparación.</li>
+ * </ul>
+ */
+public enum EfectoChoque {
+    CHOQUE,
+    DERRAPE,
+    IMPULSO,
+    RECOGIDA
+}
@@ -0,0 +1,166 @@
+package com.duoc.race.obstaculos;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * Tipos de obstáculo disponibles, leídos de un archivo JSON.
+ *
+ * <p>Funcionamiento:</p>
+ * <ul>
+ *     <li><b>Ids densos</b>: cada tipo recibe un id desde 1 en el orden del
+ *     archivo, de modo que buscar el tipo de una entidad es leer un arreglo.
+ *     El 0 queda libre para "sin tipo", como en la telemetría.</li>
+ *
+ *     <li><b>Aparición</b>: {@link #elegir(float)} reparte los tipos según su
+ *     peso con una tabla de pesos acumulados.</li>
+ *
+ *     <li><b>Validación</b>: un archivo con campos faltantes o valores
+ *     imposibles se rechaza al cargarlo, con el nombre del tipo en el
+ *     mensaje, y no durante la carrera.</li>
+ * </ul>
+ *
+ * <p>Formato de cada tipo dentro del arreglo <code>tipos</code>:</p>
+ * <pre>
+ * { "nombre": "aceite", "textura": "mancha.png", "region": [0, 0, 64, 64],
+ *   "ancho": 60, "alto": 60, "margen": 5, "velocidad": 500,
+ *   "danio": 0, "peso": 1, "efecto": "DERRAPE", "duracion": 1.5 }
+ * </pre>
+ * <p>
+ * Son obligatorios <code>nombre</code>, <code>textura</code> y
+ * <code>velocidad</code>. Sin <code>region</code> se usa la textura
+ * completa; el resto toma los valores de los autos actuales.
+ * </p>
+ */
+public class RegistroObstaculos {
+
+    /** Los ids se graban en un byte de la telemetría. */
+    public static final int MAXIMO = 127;
+
+    private static final int   ANCHO_POR_DEFECTO  = 60;
+    private static final int   ALTO_POR_DEFECTO   = 100;
+    private static final float MARGEN_POR_DEFECTO = 5f;
+
+    // Índice 0 sin usar: el id es directamente la posición
+    private final TipoObstaculo[] tipos;
+    private final float[] pesoAcumulado;
+
+    private RegistroObstaculos(TipoObstaculo[] tipos) {
+        this.tipos = tipos;
+        this.pesoAcumulado = new float[tipos.length];
+        for (int id = 1; id < tipos.length; id++) {
+            pesoAcumulado[id] = pesoAcumulado[id - 1] + tipos[id].getPeso();
+        }
+        if (pesoAcumulado[tipos.length - 1] <= 0f) {
+            throw new IllegalArgumentException("Ningún tipo de obstáculo tiene peso de aparición");
+        }
+    }
+
+    /** Lee el registro de un archivo JSON. */
+    public static RegistroObstaculos cargar(FileHandle archivo) {
+        return desdeJson(new JsonReader().parse(archivo));
+    }
+
+    private static RegistroObstaculos desdeJson(JsonValue raiz) {
+        JsonValue lista = raiz.get("tipos");
+        if (lista == null || lista.size == 0) {
+            throw new IllegalArgumentException("El registro no tiene tipos de obstáculo");
+        }
+        if (lista.size > MAXIMO) {
+            throw new IllegalArgumentException("Hay " + lista.size + " tipos de obstáculo; el máximo es " + MAXIMO);
+        }
+
+        TipoObstaculo[] tipos = new TipoObstaculo[lista.size + 1];
+        int id = 1;
+        for (JsonValue datos = lista.child; datos != null; datos = datos.next, id++) {
+            tipos[id] = leerTipo(id, datos);
+        }
+        return new RegistroObstaculos(tipos);
+    }
+
+    private static TipoObstaculo leerTipo(int id, JsonValue datos) {
+        String nombre = datos.getString("nombre", null);
+        if (nombre == null) {
+            throw new IllegalArgumentException("El tipo de obstáculo " + id + " no tiene nombre");
+        }
+        String textura = datos.getString("textura", null);
+        if (textura == null) {
+            throw error(nombre, "no tiene textura");
+        }
+        if (!datos.has("velocidad")) {
+            throw error(nombre, "no tiene velocidad");
+        }
+        float velocidad = datos.getFloat("velocidad");
+        if (velocidad <= 0f) {
+            throw error(nombre, "tiene una velocidad que no es positiva");
+        }
+
+        int[] region = null;
+        if (datos.has("region")) {
+            region = datos.get("region").asIntArray();
+            if (region.length != 4 || region[2] <= 0 || region[3] <= 0) {
+                throw error(nombre, "tiene una región inválida; se espera [x, y, ancho, alto]");
+            }
+        }
+
+        int ancho = datos.getInt("ancho", ANCHO_POR_DEFECTO);
+        int alto = datos.getInt("alto", ALTO_POR_DEFECTO);
+        float margen = datos.getFloat("margen", MARGEN_POR_DEFECTO);
+        if (ancho <= 0 || alto <= 0 || margen < 0f || margen * 2 >= Math.min(ancho, alto)) {
+            throw error(nombre, "tiene un tamaño o margen inválido");
+        }
+        float peso = datos.getFloat("peso", 1f);
+        if (peso < 0f) {
+            throw error(nombre, "tiene peso negativo");
+        }
+
+        EfectoChoque efecto;
+        String nombreEfecto = datos.getString("efecto", EfectoChoque.CHOQUE.name());
+        try {
+            efecto = EfectoChoque.valueOf(nombreEfecto.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw error(nombre, "tiene un efecto desconocido: " + nombreEfecto);
+        }
+
+        return new TipoObstaculo(id, nombre, textura, region, ancho, alto, margen,
+            velocidad, datos.getInt("danio", 0), peso, efecto, datos.getFloat("duracion", 0f));
+    }
+
+    private static IllegalArgumentException error(String nombre, String problema) {
+        return new IllegalArgumentException("El obstáculo '" + nombre + "' " + problema);
+    }
+
+    /** Tipo con ese id. */
+    public TipoObstaculo get(int id) {
+        return tipos[id];
+    }
+
+    /** Cantidad de tipos; los ids van de 1 a este valor. */
+    public int getCantidad() {
+        return tipos.length - 1;
+    }
+
+    /**
+     * Elige un tipo según los pesos de aparición.
+     *
+     * @param azar número uniforme en [0, 1).
+     */
+    public TipoObstaculo elegir(float azar) {
+        float objetivo = azar * pesoAcumulado[tipos.length - 1];
+        for (int id = 1; id < tipos.length; id++) {
+            if (objetivo < pesoAcumulado[id]) {
+                return tipos[id];
+            }
+        }
+        // Solo por redondeo: el último tipo con peso
+        for (int id = tipos.length - 1; id > 0; id--) {
+            if (tipos[id].getPeso() > 0f) {
+                return tipos[id];
+            }
+        }
+        return tipos[tipos.length - 1];
+    }
+}
@@ -0,0 +1,120 @@
+package com.duoc.race.obstaculos;
+
+/**
+ * Datos de una clase de obstáculo, tal como se leen de
+ * <code>obstaculos.json</code>.
+ * <p>
+ * Las entidades del mundo guardan solo el id del tipo; todo lo demás se
+ * busca en el {@link RegistroObstaculos} por ese id.
+ * </p>
+ */
+public class TipoObstaculo {
+
+    private final int id;
+    private final String nombre;
+    private final String textura;
+    private final int[] region;
+    private final int ancho;
+    private final int alto;
+    private final float margen;
+    private final float velocidad;
+    private final int danio;
+    private final float peso;
+    private final EfectoChoque efecto;
+    private final float duracion;
+
+    TipoObstaculo(int id, String nombre, String textura, int[] region, int ancho, int alto, float margen,
+                  float velocidad, int danio, float peso, EfectoChoque efecto, float duracion) {
+        this.id = id;
+        this.nombre = nombre;
+        this.textura = textura;
+        this.region = region;
+        this.ancho = ancho;
+        this.alto = alto;
+        this.margen = margen;
+        this.velocidad = velocidad;
+        this.danio = danio;
+        this.peso = peso;
+        this.efecto = efecto;
+        this.duracion = duracion;
+    }
+
+    /** Id denso, desde 1, en el orden del archivo. */
+    public int getId() {
+        return id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /** Archivo de la textura dentro de <code>assets/</code>. */
+    public String getTextura() {
+        return textura;
+    }
+
+    /** Si se dibuja solo una parte de la textura (ver {@link #getRegionX()}). */
+    public boolean tieneRegion() {
+        return region != null;
+    }
+
+    public int getRegionX() {
+        return region[0];
+    }
+
+    public int getRegionY() {
+        return region[1];
+    }
+
+    public int getRegionAncho() {
+        return region[2];
+    }
+
+    public int getRegionAlto() {
+        return region[3];
+    }
+
+    /** Ancho con que se dibuja, en píxeles. */
+    public int getAncho() {
+        return ancho;
+    }
+
+    /** Alto con que se dibuja, en píxeles. */
+    public int getAlto() {
+        return alto;
+    }
+
+    /** Margen que se descuenta de cada lado para el choque sin máscaras. */
+    public float getMargen() {
+        return margen;
+    }
+
+    /** Velocidad con que baja por la pantalla, en píxeles por segundo. */
+    public float getVelocidad() {
+        return velocidad;
+    }
+
+    /** Vida que quita al tocarlo; negativo si la devuelve. */
+    public int getDanio() {
+        return danio;
+    }
+
+    /** Peso relativo con que aparece frente a los demás tipos; 0 si nunca aparece solo. */
+    public float getPeso() {
+        return peso;
+    }
+
+    public EfectoChoque getEfecto() {
+        return efecto;
+    }
+
+    /** Segundos que dura el efecto, para <code>DERRAPE</code> e <code>IMPULSO</code>. */
+    public float getDuracion() {
+        return duracion;
+    }
+
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
@@ -0,0 +1,81 @@
+package com.duoc.race.pista;
+
+/**
+ * Calcula la forma de la pista a partir de una semilla.
+ * <p>
+ * Cada tramo tiene un centro objetivo pseudoaleatorio, que depende solo de la
+ * semilla y del índice del tramo. Dentro de un tramo, el centro pasa del
+ * objetivo del tramo anterior al propio con una interpolación suave, por lo que
+ * las curvas son continuas y cualquier punto de la pista puede calcularse sin
+ * depender de los tramos generados antes.
+ * </p>
+ */
+public class GeneradorPista {
+
+    private final long  semilla;
+    private final float centroBase;
+    private final float amplitud;
+    private final float altoTramo;
+
+    /**
+     * @param semilla    semilla de la pista.
+     * @param centroBase posición X central de la calzada sin curvas.
+     * @param amplitud   desplazamiento máximo del centro hacia cada lado.
+     * @param altoTramo  largo de cada tramo en píxeles de recorrido.
+     */
+    public GeneradorPista(long semilla, float centroBase, float amplitud, float altoTramo) {
+        this.semilla = semilla;
+        this.centroBase = centroBase;
+        this.amplitud = amplitud;
+        this.altoTramo = altoTramo;
+    }
+
+    /**
+     * Rellena el arreglo de centros de un tramo.
+     *
+     * @param indice  índice del tramo.
+     * @param centros arreglo de destino; su largo define la cantidad de muestras.
+     */
+    void generarTramo(int indice, float[] centros) {
+        float desde = centroObjetivo(indice - 1);
+        float hasta = centroObjetivo(indice);
+        int ultimo = centros.length - 1;
+        for (int i = 0; i <= ultimo; i++) {
+            centros[i] = interpolar(desde, hasta, i / (float) ultimo);
+        }
+    }
+
+    /**
+     * Calcula el centro de la calzada en una posición de recorrido sin usar
+     * tramos precalculados.
+     *
+     * @param recorrido posición vertical en el mundo, en píxeles.
+     * @return posición X del centro de la calzada.
+     */
+    public float centroEn(float recorrido) {
+        int indice = (int) Math.floor(recorrido / altoTramo);
+        float t = recorrido / altoTramo - indice;
+        return interpolar(centroObjetivo(indice - 1), centroObjetivo(indice), t);
+    }
+
+    private float centroObjetivo(int indice) {
+        if (indice <= 0) {
+            // Los primeros tramos son rectos para que la partida comience tranquila
+            return centroBase;
+        }
+        long h = mezclar(semilla ^ (indice * 0x9E3779B97F4A7C15L));
+        float aleatorio = (h >>> 40) / (float) (1 << 24);  // [0, 1)
+        return centroBase + (aleatorio * 2f - 1f) * amplitud;
+    }
+
+    private static float interpolar(float desde, float hasta, float t) {
+        float suave = t * t * (3f - 2f * t);
+        return desde + (hasta - desde) * suave;
+    }
+
+    private static long mezclar(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,177 @@
+package com.duoc.race.pista;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pista procedural con curvas, generada por tramos delante del jugador.
+ * <p>
+ * La pista se divide en tramos de alto fijo. Un hilo en segundo plano genera
+ * los tramos que están por aparecer y el hilo de render solo los lee, de modo
+ * que la generación nunca ocupa tiempo del frame.
+ * </p>
+ *
+ * <p>Funcionamiento:</p>
+ * <ul>
+ *     <li><b>Buffer circular</b>: hay una cantidad fija de tramos en memoria.
+ *     El tramo <code>i</code> ocupa la posición <code>i % capacidad</code>, así
+ *     que los tramos que ya quedaron atrás se reemplazan por los que vienen. Cada
+ *     tramo se genera en un arreglo nuevo y se publica completo con una
+ *     escritura atómica de la posición, nunca se reescribe en su lugar.</li>
+ *
+ *     <li><b>Precarga</b>: en cada frame se piden los tramos hasta
+ *     <code>TRAMOS_ADELANTE</code> más allá del borde superior de la pantalla.</li>
+ *
+ *     <li><b>Respaldo</b>: si un tramo visible todavía no está listo, el borde se
+ *     calcula directamente con el <code>GeneradorPista</code> y se cuenta como
+ *     fallo de precarga. El resultado es el mismo, solo que más caro.</li>
+ * </ul>
+ */
+public class PistaProcedural {
+
+    public static final float ALTO_TRAMO   = 512f;
+    public static final float PASO_MUESTRA = 16f;
+
+    private static final int MUESTRAS_POR_TRAMO = (int) (ALTO_TRAMO / PASO_MUESTRA) + 1;
+    private static final int TRAMOS_ADELANTE    = 3;
+
+    private final AtomicReferenceArray<TramoPista> tramos;
+    private final ExecutorService hiloGenerador;
+
+    private final float anchoCalzada;
+    private final float centroBase;
+    private final float amplitud;
+
+    private volatile GeneradorPista generador;
+    private volatile int generacion = 0;
+    private int solicitadoHasta = -1;
+    private int fallosPrecarga  = 0;
+
+    /**
+     * @param anchoCalzada ancho de la calzada en píxeles.
+     * @param centroBase   posición X del centro de la calzada en las rectas.
+     * @param amplitud     desplazamiento máximo de las curvas hacia cada lado.
+     * @param altoPantalla alto visible, usado para dimensionar el buffer.
+     */
+    public PistaProcedural(float anchoCalzada, float centroBase, float amplitud, int altoPantalla) {
+        this.anchoCalzada = anchoCalzada;
+        this.centroBase = centroBase;
+        this.amplitud = amplitud;
+
+        int visibles = (int) Math.ceil(altoPantalla / ALTO_TRAMO) + 1;
+        tramos = new AtomicReferenceArray<>(visibles + TRAMOS_ADELANTE + 1);
+
+        hiloGenerador = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread hilo = new Thread(r, "pista-generador");
+                hilo.setDaemon(true);
+                return hilo;
+            }
+        });
+    }
+
+    /**
+     * Comienza una pista nueva con otra semilla. Los tramos de la pista anterior
+     * quedan invalidados, incluso los que se estén generando en ese momento.
+     *
+     * @param semilla semilla de la nueva pista.
+     */
+    public void reiniciar(long semilla) {
+        generador = new GeneradorPista(semilla, centroBase, amplitud, ALTO_TRAMO);
+        generacion++;
+        solicitadoHasta = -1;
+        fallosPrecarga = 0;
+    }
+
+    /**
+     * Pide al hilo generador los tramos que estarán visibles pronto.
+     * Debe llamarse una vez por frame desde el hilo de render.
+     *
+     * @param recorrido    posición del borde inferior de la pantalla en el mundo.
+     * @param altoPantalla alto visible en píxeles.
+     */
+    public void actualizar(float recorrido, int altoPantalla) {
+        int ultimoVisible = indiceTramo(recorrido + altoPantalla);
+        int objetivo = ultimoVisible + TRAMOS_ADELANTE;
+        int desde = Math.max(solicitadoHasta + 1, indiceTramo(recorrido));
+
+        for (int indice = desde; indice <= objetivo; indice++) {
+            solicitarTramo(indice);
+        }
+        solicitadoHasta = Math.max(solicitadoHasta, objetivo);
+    }
+
+    /** Borde izquierdo de la calzada en una posición de recorrido. */
+    public float getBordeIzquierdo(float recorrido) {
+        return getCentro(recorrido) - anchoCalzada / 2f;
+    }
+
+    /** Borde derecho de la calzada en una posición de recorrido. */
+    public float getBordeDerecho(float recorrido) {
+        return getCentro(recorrido) + anchoCalzada / 2f;
+    }
+
+    /**
+     * Centro de la calzada en una posición de recorrido, interpolado entre las
+     * muestras del tramo correspondiente.
+     */
+    public float getCentro(float recorrido) {
+        int indice = indiceTramo(recorrido);
+        TramoPista tramo = tramos.get(Math.floorMod(indice, tramos.length()));
+
+        if (tramo == null || tramo.clave != TramoPista.clave(generacion, indice)) {
+            return centroSinTramo(recorrido);
+        }
+
+        float local = (recorrido - indice * ALTO_TRAMO) / PASO_MUESTRA;
+        int muestra = Math.min((int) local, MUESTRAS_POR_TRAMO - 2);
+        float t = local - muestra;
+        float desde = tramo.centros[muestra];
+        float hasta = tramo.centros[muestra + 1];
+        return desde + (hasta - desde) * t;
+    }
+
+    public float getAnchoCalzada() {
+        return anchoCalzada;
+    }
+
+    /** Cantidad de consultas que encontraron su tramo sin generar desde el último reinicio. */
+    public int getFallosPrecarga() {
+        return fallosPrecarga;
+    }
+
+    /** Detiene el hilo generador. */
+    public void dispose() {
+        hiloGenerador.shutdownNow();
+    }
+
+    private float centroSinTramo(float recorrido) {
+        fallosPrecarga++;
+        return generador.centroEn(recorrido);
+    }
+
+    private void solicitarTramo(final int indice) {
+        final int generacionPedida = generacion;
+        final GeneradorPista generadorPedido = generador;
+        final int posicion = Math.floorMod(indice, tramos.length());
+
+        hiloGenerador.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generacionPedida != generacion) {
+                    return;
+                }
+                float[] centros = new float[MUESTRAS_POR_TRAMO];
+                generadorPedido.generarTramo(indice, centros);
+                tramos.set(posicion, new TramoPista(TramoPista.clave(generacionPedida, indice), centros));
+            }
+        });
+    }
+
+    private static int indiceTramo(float recorrido) {
+        return (int) Math.floor(recorrido / ALTO_TRAMO);
+    }
+}
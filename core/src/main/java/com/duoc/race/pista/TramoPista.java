@@ -0,0 +1,28 @@
+package com.duoc.race.pista;
+
+/**
+ * Tramo (chunk) de pista ya generado: guarda el centro de la calzada muestreado
+ * cada <code>PASO_MUESTRA</code> píxeles de recorrido.
+ * <p>
+ * Es inmutable: el hilo generador llena un arreglo nuevo, crea el tramo y
+ * recién entonces lo publica en el buffer circular. El hilo de render nunca ve
+ * un tramo a medio escribir, y la clave le dice si el tramo publicado en esa
+ * posición es el que busca o uno de otra generación o índice.
+ * </p>
+ */
+final class TramoPista {
+
+    /** Generación de la pista (32 bits altos) e índice del tramo (32 bits bajos). */
+    final long clave;
+
+    final float[] centros;
+
+    TramoPista(long clave, float[] centros) {
+        this.clave = clave;
+        this.centros = centros;
+    }
+
+    static long clave(int generacion, int indice) {
+        return ((long) generacion << 32) | (indice & 0xFFFFFFFFL);
+    }
+}
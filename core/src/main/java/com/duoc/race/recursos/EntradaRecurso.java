@@ -0,0 +1,33 @@
+package com.duoc.race.recursos;
+
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estado compartido de un recurso cargado: el objeto, su costo estimado en
+ * memoria de video y los manejadores que lo tienen tomado.
+ */
+class EntradaRecurso<T extends Disposable> {
+
+    final GestorRecursos gestor;
+    final String clave;
+    final Class<T> tipo;
+    final T valor;
+    final long bytes;
+    final List<Recurso<T>> manejadores = new ArrayList<>();
+    long ultimoUso;
+
+    EntradaRecurso(GestorRecursos gestor, String clave, Class<T> tipo, T valor, long bytes) {
+        this.gestor = gestor;
+        this.clave = clave;
+        this.tipo = tipo;
+        this.valor = valor;
+        this.bytes = bytes;
+    }
+
+    int getReferencias() {
+        return manejadores.size();
+    }
+}
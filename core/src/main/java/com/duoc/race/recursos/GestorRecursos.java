@@ -0,0 +1,275 @@
+package com.duoc.race.recursos;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Carga, comparte y libera los recursos del juego contando referencias.
+ *
+ * <p>Funcionamiento:</p>
+ * <ul>
+ *     <li><b>Manejadores tipados</b>: {@link #adquirir} devuelve un
+ *     {@link Recurso} por cada pedido. Si la clave ya está cargada se comparte
+ *     el mismo objeto; si no, se crea con el cargador entregado.</li>
+ *
+ *     <li><b>Caché con presupuesto</b>: al liberar la última referencia el
+ *     recurso no se destruye, por si se vuelve a pedir pronto. Solo cuando la
+ *     memoria de video estimada supera el presupuesto se descargan los recursos
+ *     sin referencias, empezando por el que lleva más tiempo sin usarse (LRU).
+ *     Un recurso con referencias nunca se descarga.</li>
+ *
+ *     <li><b>Reporte de fugas</b>: al cerrar, cada manejador que nadie liberó
+ *     aparece en {@link #getReporteFugas()}. Con {@link #setRastrearOrigen}
+ *     aparece también el lugar del código que lo adquirió; está desactivado
+ *     por defecto porque hay que recorrer la pila en cada pedido.</li>
+ * </ul>
+ *
+ * <p>
+ * La memoria de video se estima a partir del tamaño y formato de cada
+ * textura; los demás tipos de recurso no cuentan para el presupuesto.
+ * </p>
+ */
+public class GestorRecursos implements Disposable {
+
+    private static final String PAQUETE = GestorRecursos.class.getPackage().getName();
+
+    private final long presupuestoBytes;
+    private final Map<String, EntradaRecurso<?>> entradas = new LinkedHashMap<>();
+
+    private long frame = 0L;
+    private long bytesCargados = 0L;
+    private int cargas = 0;
+    private int aciertos = 0;
+    private int descargas = 0;
+    private boolean cerrado = false;
+    private boolean rastrearOrigen = false;
+
+    /**
+     * @param presupuestoBytes memoria de video que pueden ocupar los recursos
+     *                         antes de empezar a descargar los que no se usan.
+     */
+    public GestorRecursos(long presupuestoBytes) {
+        this.presupuestoBytes = presupuestoBytes;
+    }
+
+    /** Si se anota dónde se adquirió cada manejador; vale para los pedidos siguientes. */
+    public void setRastrearOrigen(boolean rastrearOrigen) {
+        this.rastrearOrigen = rastrearOrigen;
+    }
+
+    /** Adquiere una textura de la carpeta de assets, usando la ruta como clave. */
+    public Recurso<Texture> textura(String ruta) {
+        return adquirir(ruta, Texture.class, () -> new Texture(ruta));
+    }
+
+    /**
+     * Adquiere el recurso identificado por <code>clave</code>, cargándolo si no
+     * está en memoria.
+     *
+     * @param clave    identificador único del recurso (la ruta, o un nombre para
+     *                 los recursos generados por código).
+     * @param tipo     tipo esperado; debe coincidir si la clave ya está cargada.
+     * @param cargador crea el recurso cuando no está en caché. Sus excepciones
+     *                 llegan tal cual a quien llama.
+     */
+    public <T extends Disposable> Recurso<T> adquirir(String clave, Class<T> tipo, Supplier<T> cargador) {
+        if (cerrado) {
+            throw new IllegalStateException("El gestor de recursos ya se cerró");
+        }
+
+        EntradaRecurso<?> existente = entradas.get(clave);
+        EntradaRecurso<T> entrada;
+        if (existente != null) {
+            if (existente.tipo != tipo) {
+                throw new IllegalArgumentException("El recurso " + clave + " ya está cargado como "
+                    + existente.tipo.getSimpleName() + ", no como " + tipo.getSimpleName());
+            }
+            @SuppressWarnings("unchecked")
+            EntradaRecurso<T> mismoTipo = (EntradaRecurso<T>) existente;
+            entrada = mismoTipo;
+            aciertos++;
+        } else {
+            T valor = cargador.get();
+            entrada = new EntradaRecurso<>(this, clave, tipo, valor, estimarBytes(valor));
+            entradas.put(clave, entrada);
+            bytesCargados += entrada.bytes;
+            cargas++;
+        }
+
+        Recurso<T> recurso = new Recurso<>(entrada, rastrearOrigen ? buscarOrigen() : null);
+        entrada.manejadores.add(recurso);
+        entrada.ultimoUso = frame;
+        aplicarPresupuesto();
+        return recurso;
+    }
+
+    /** Avanza el reloj con que se ordenan los recursos por último uso. */
+    public void nuevoFrame() {
+        frame++;
+    }
+
+    /**
+     * Descarga ya todos los recursos sin referencias, sin esperar a que se
+     * supere el presupuesto (por ejemplo, al cambiar de pista).
+     *
+     * @return bytes liberados.
+     */
+    public long descargarSinUso() {
+        long antes = bytesCargados;
+        Iterator<EntradaRecurso<?>> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            EntradaRecurso<?> entrada = it.next();
+            if (entrada.getReferencias() == 0) {
+                it.remove();
+                descargar(entrada);
+            }
+        }
+        return antes - bytesCargados;
+    }
+
+    /**
+     * Manejadores que siguen tomados, uno por línea, con la clave, el tipo y,
+     * si se rastreaba, el lugar donde se adquirieron. Vacío si no hay fugas.
+     */
+    public List<String> getReporteFugas() {
+        List<String> fugas = new ArrayList<>();
+        for (EntradaRecurso<?> entrada : entradas.values()) {
+            for (Recurso<?> recurso : entrada.manejadores) {
+                String fuga = entrada.clave + " (" + entrada.tipo.getSimpleName() + ")";
+                fugas.add(recurso.getOrigen() != null ? fuga + " adquirido en " + recurso.getOrigen() : fuga);
+            }
+        }
+        return fugas;
+    }
+
+    /**
+     * Destruye todos los recursos cargados, tengan o no referencias. Consultar
+     * {@link #getReporteFugas()} antes de llamarlo.
+     */
+    @Override
+    public void dispose() {
+        for (EntradaRecurso<?> entrada : entradas.values()) {
+            descargar(entrada);
+        }
+        entradas.clear();
+        cerrado = true;
+    }
+
+    public long getFrame() {
+        return frame;
+    }
+
+    public long getPresupuestoBytes() {
+        return presupuestoBytes;
+    }
+
+    /** Memoria de video estimada de los recursos cargados, con o sin referencias. */
+    public long getBytesCargados() {
+        return bytesCargados;
+    }
+
+    public int getRecursosCargados() {
+        return entradas.size();
+    }
+
+    /** Veces que se creó un recurso porque no estaba en caché. */
+    public int getCargas() {
+        return cargas;
+    }
+
+    /** Veces que se entregó un recurso que ya estaba cargado. */
+    public int getAciertos() {
+        return aciertos;
+    }
+
+    /** Recursos destruidos por presupuesto o por {@link #descargarSinUso()}. */
+    public int getDescargas() {
+        return descargas;
+    }
+
+    void liberar(EntradaRecurso<?> entrada, Recurso<?> recurso) {
+        entrada.manejadores.remove(recurso);
+        entrada.ultimoUso = frame;
+        if (!cerrado) {
+            aplicarPresupuesto();
+        }
+    }
+
+    /**
+     * Descarga recursos sin referencias, del menos usado recientemente al más,
+     * hasta volver a quedar dentro del presupuesto o hasta que solo queden
+     * recursos en uso.
+     */
+    private void aplicarPresupuesto() {
+        while (bytesCargados > presupuestoBytes) {
+            EntradaRecurso<?> candidata = null;
+            for (EntradaRecurso<?> entrada : entradas.values()) {
+                if (entrada.getReferencias() == 0 && entrada.bytes > 0
+                    && (candidata == null || entrada.ultimoUso < candidata.ultimoUso)) {
+                    candidata = entrada;
+                }
+            }
+            if (candidata == null) {
+                return;
+            }
+            entradas.remove(candidata.clave);
+            descargar(candidata);
+        }
+    }
+
+    private void descargar(EntradaRecurso<?> entrada) {
+        entrada.valor.dispose();
+        bytesCargados -= entrada.bytes;
+        descargas++;
+    }
+
+    /** Primer marco de la pila fuera de este paquete: quien pidió el recurso. */
+    private static String buscarOrigen() {
+        for (StackTraceElement marco : new Throwable().getStackTrace()) {
+            if (!marco.getClassName().startsWith(PAQUETE)) {
+                return marco.toString();
+            }
+        }
+        return "desconocido";
+    }
+
+    private static long estimarBytes(Disposable valor) {
+        if (!(valor instanceof Texture)) {
+            return 0L;
+        }
+        Texture textura = (Texture) valor;
+        long pixeles = (long) textura.getWidth() * textura.getHeight();
+        TextureData datos = textura.getTextureData();
+        if (datos == null) {
+            return pixeles * 4;
+        }
+
+        int bytesPorPixel;
+        switch (datos.getFormat()) {
+            case Alpha:
+            case Intensity:
+                bytesPorPixel = 1;
+                break;
+            case LuminanceAlpha:
+            case RGB565:
+            case RGBA4444:
+                bytesPorPixel = 2;
+                break;
+            default:
+                // RGB888 suele guardarse con relleno a 4 bytes en la GPU
+                bytesPorPixel = 4;
+                break;
+        }
+        long bytes = pixeles * bytesPorPixel;
+        // Los mipmaps agregan un tercio sobre el nivel base
+        return datos.useMipMaps() ? bytes + bytes / 3 : bytes;
+    }
+}
@@ -0,0 +1,65 @@
+package com.duoc.race.recursos;
+
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Referencia tipada a un recurso administrado por el {@link GestorRecursos}.
+ * <p>
+ * Cada llamada a <code>adquirir</code> entrega un manejador nuevo, aunque el
+ * recurso ya esté cargado: así el gestor sabe cuántos dueños tiene y quién lo
+ * pidió. Cuando el dueño ya no lo necesita llama a {@link #liberar()}; el
+ * recurso no se destruye en ese momento, sino que queda en caché hasta que el
+ * presupuesto de memoria obligue a descargarlo.
+ * </p>
+ *
+ * @param <T> tipo del recurso (textura, sonido, etc.).
+ */
+public final class Recurso<T extends Disposable> {
+
+    private final EntradaRecurso<T> entrada;
+    private final String origen;
+    private boolean liberado = false;
+
+    Recurso(EntradaRecurso<T> entrada, String origen) {
+        this.entrada = entrada;
+        this.origen = origen;
+    }
+
+    /**
+     * Devuelve el recurso y lo marca como usado en el frame actual.
+     *
+     * @throws IllegalStateException si el manejador ya fue liberado.
+     */
+    public T get() {
+        if (liberado) {
+            throw new IllegalStateException("Recurso ya liberado: " + entrada.clave);
+        }
+        entrada.ultimoUso = entrada.gestor.getFrame();
+        return entrada.valor;
+    }
+
+    /** Devuelve la referencia. Llamarlo más de una vez no tiene efecto. */
+    public void liberar() {
+        if (liberado) {
+            return;
+        }
+        liberado = true;
+        entrada.gestor.liberar(entrada, this);
+    }
+
+    public String getClave() {
+        return entrada.clave;
+    }
+
+    public boolean isLiberado() {
+        return liberado;
+    }
+
+    /**
+     * Lugar del código que adquirió este manejador, para el reporte de fugas,
+     * o <code>null</code> si el gestor no lo rastreaba.
+     */
+    public String getOrigen() {
+        return origen;
+    }
+}
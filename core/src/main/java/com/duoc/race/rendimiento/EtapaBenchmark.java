@@ -0,0 +1,37 @@
+package com.duoc.race.rendimiento;
+
+/**
+ * Etapas de la prueba de rendimiento (<code>--benchmark</code>), de la más
+ * liviana a la más pesada. Cada una mantiene en pantalla, durante la misma
+ * cantidad de frames, una cantidad fija de cada cosa que cuesta dibujar.
+ *
+ * <ul>
+ *     <li><b>obstaculos</b>: obstáculos vivos a la vez; cuando uno sale de la
+ *     pantalla aparece otro.</li>
+ *
+ *     <li><b>factorNubes</b>: cuántas veces más juntas que en el juego van las
+ *     celdas de las nubes, con todas las celdas ocupadas.</li>
+ *
+ *     <li><b>particulas</b>: partículas vivas a la vez; no pasa del presupuesto
+ *     del sistema de partículas.</li>
+ * </ul>
+ */
+public enum EtapaBenchmark {
+
+    //          obstáculos  nubes  partículas
+    BASE        (   0,       1f,      0),
+    NORMAL      (   8,       1f,     64),
+    DENSA       (  64,       2f,    256),
+    SATURADA    ( 256,       4f,   1024),
+    EXTREMA     (1024,       8f,   1024);
+
+    public final int   obstaculos;
+    public final float factorNubes;
+    public final int   particulas;
+
+    EtapaBenchmark(int obstaculos, float factorNubes, int particulas) {
+        this.obstaculos = obstaculos;
+        this.factorNubes = factorNubes;
+        this.particulas = particulas;
+    }
+}
@@ -0,0 +1,222 @@
+package com.duoc.race.rendimiento;
+
+import com.duoc.race.interfaces.OyenteCalidad;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ajusta el nivel de calidad gráfica según cuánto tarda cada frame.
+ * <p>
+ * Se registran dos tiempos por frame: el <b>trabajo</b> (lo que tardan la
+ * actualización y el dibujado, medido por el juego) y el <b>intervalo</b> real
+ * entre frames (el <code>delta</code>). El trabajo dice cuánto margen queda
+ * antes de agotar el presupuesto; el intervalo detecta los frames perdidos
+ * aunque el costo esté en la GPU y no aparezca en el trabajo.
+ * </p>
+ *
+ * <p>Funcionamiento:</p>
+ * <ul>
+ *     <li><b>Histograma móvil</b>: los tiempos de trabajo de los últimos
+ *     <code>framesPorVentana</code> frames se guardan en intervalos de
+ *     <code>ANCHO_INTERVALO_MS</code>. El percentil se calcula recorriendo el
+ *     histograma, sin ordenar ni crear objetos.</li>
+ *
+ *     <li><b>Bajar calidad</b>: al cerrar una ventana, si el percentil supera el
+ *     presupuesto o se perdió más de <code>MAX_FRACCION_PERDIDOS</code> de los
+ *     frames, se baja un nivel.</li>
+ *
+ *     <li><b>Subir calidad (con histéresis)</b>: solo si el percentil queda por
+ *     debajo de <code>UMBRAL_SUBIDA</code> del presupuesto, sin frames perdidos,
+ *     durante varias ventanas seguidas. Cada bajada duplica las ventanas
+ *     necesarias para volver a subir (hasta un máximo), para no oscilar entre
+ *     dos niveles en equipos que están justo en el límite.</li>
+ *
+ *     <li><b>Eventos y métricas</b>: cada cambio se avisa a los
+ *     {@link OyenteCalidad} registrados, y se cuentan subidas, bajadas y frames
+ *     perdidos.</li>
+ * </ul>
+ */
+public class GobernadorFrames {
+
+    private static final float ANCHO_INTERVALO_MS   = 0.25f;
+    private static final int   INTERVALOS           = 200;
+    private static final float PERCENTIL            = 0.9f;
+    private static final float UMBRAL_SUBIDA        = 0.7f;
+    private static final float UMBRAL_PERDIDO       = 1.5f;
+    private static final float MAX_FRACCION_PERDIDOS = 0.1f;
+    private static final int   VENTANAS_SUBIDA_MIN  = 3;
+    private static final int   VENTANAS_SUBIDA_MAX  = 48;
+
+    private final float presupuestoMs;
+    private final int framesPorVentana;
+    private final List<OyenteCalidad> oyentes = new ArrayList<>();
+
+    // Histograma móvil: cada muestra guarda su intervalo para poder descontarla
+    private final int[]  histograma = new int[INTERVALOS];
+    private final byte[] perdidoMuestra;
+    private final short[] intervaloMuestra;
+    private int siguienteMuestra = 0;
+    private int muestras = 0;
+    private int perdidosEnVentana = 0;
+    private int framesDesdeEvaluacion = 0;
+
+    private NivelCalidad nivel;
+    private int ventanasHolgadas = 0;
+    private int ventanasParaSubir = VENTANAS_SUBIDA_MIN;
+
+    private long framesTotales = 0L;
+    private long framesPerdidos = 0L;
+    private int bajadas = 0;
+    private int subidas = 0;
+    private float ultimoPercentilMs = 0f;
+
+    /**
+     * @param presupuestoMs    duración de un frame a la tasa de refresco deseada.
+     * @param framesPorVentana cantidad de frames que se evalúan juntos.
+     * @param inicial          nivel de calidad con que se empieza.
+     */
+    public GobernadorFrames(float presupuestoMs, int framesPorVentana, NivelCalidad inicial) {
+        this.presupuestoMs = presupuestoMs;
+        this.framesPorVentana = framesPorVentana;
+        this.perdidoMuestra = new byte[framesPorVentana];
+        this.intervaloMuestra = new short[framesPorVentana];
+        this.nivel = inicial;
+    }
+
+    public void agregarOyente(OyenteCalidad oyente) {
+        oyentes.add(oyente);
+    }
+
+    /**
+     * Registra un frame y, si se completó una ventana, decide si cambia el
+     * nivel de calidad.
+     *
+     * @param trabajoMs   tiempo de actualización y dibujado del frame.
+     * @param intervaloMs tiempo real transcurrido desde el frame anterior.
+     */
+    public void registrar(float trabajoMs, float intervaloMs) {
+        boolean perdido = intervaloMs > presupuestoMs * UMBRAL_PERDIDO;
+        agregarMuestra(trabajoMs, perdido);
+
+        framesTotales++;
+        if (perdido) {
+            framesPerdidos++;
+        }
+
+        if (++framesDesdeEvaluacion >= framesPorVentana) {
+            framesDesdeEvaluacion = 0;
+            evaluar();
+        }
+    }
+
+    /**
+     * Tiempo de trabajo bajo el cual quedó la fracción <code>p</code> de los
+     * frames de la ventana actual (por ejemplo, 0.9 para el percentil 90).
+     */
+    public float getPercentilMs(float p) {
+        if (muestras == 0) {
+            return 0f;
+        }
+        int objetivo = Math.max(1, (int) Math.ceil(muestras * p));
+        int acumulado = 0;
+        for (int i = 0; i < INTERVALOS; i++) {
+            acumulado += histograma[i];
+            if (acumulado >= objetivo) {
+                return (i + 1) * ANCHO_INTERVALO_MS;
+            }
+        }
+        return INTERVALOS * ANCHO_INTERVALO_MS;
+    }
+
+    public NivelCalidad getNivel() {
+        return nivel;
+    }
+
+    public float getPresupuestoMs() {
+        return presupuestoMs;
+    }
+
+    /** Percentil evaluado al cerrar la última ventana. */
+    public float getUltimoPercentilMs() {
+        return ultimoPercentilMs;
+    }
+
+    public long getFramesTotales() {
+        return framesTotales;
+    }
+
+    /** Frames cuyo intervalo superó holgadamente el presupuesto. */
+    public long getFramesPerdidos() {
+        return framesPerdidos;
+    }
+
+    public int getBajadas() {
+        return bajadas;
+    }
+
+    public int getSubidas() {
+        return subidas;
+    }
+
+    private void agregarMuestra(float trabajoMs, boolean perdido) {
+        if (muestras == framesPorVentana) {
+            // Ventana llena: se descuenta la muestra más antigua
+            histograma[intervaloMuestra[siguienteMuestra]]--;
+            perdidosEnVentana -= perdidoMuestra[siguienteMuestra];
+        } else {
+            muestras++;
+        }
+
+        int intervalo = Math.min(INTERVALOS - 1, Math.max(0, (int) (trabajoMs / ANCHO_INTERVALO_MS)));
+        histograma[intervalo]++;
+        intervaloMuestra[siguienteMuestra] = (short) intervalo;
+        perdidoMuestra[siguienteMuestra] = (byte) (perdido ? 1 : 0);
+        perdidosEnVentana += perdido ? 1 : 0;
+        siguienteMuestra = (siguienteMuestra + 1) % framesPorVentana;
+    }
+
+    private void evaluar() {
+        float percentil = getPercentilMs(PERCENTIL);
+        ultimoPercentilMs = percentil;
+        boolean muchosPerdidos = perdidosEnVentana > muestras * MAX_FRACCION_PERDIDOS;
+
+        if (percentil > presupuestoMs || muchosPerdidos) {
+            ventanasHolgadas = 0;
+            if (nivel.inferior() != nivel) {
+                ventanasParaSubir = Math.min(ventanasParaSubir * 2, VENTANAS_SUBIDA_MAX);
+                bajadas++;
+                cambiarNivel(nivel.inferior(), percentil);
+            }
+            return;
+        }
+
+        if (percentil < presupuestoMs * UMBRAL_SUBIDA && perdidosEnVentana == 0) {
+            ventanasHolgadas++;
+        } else {
+            ventanasHolgadas = 0;
+        }
+
+        if (ventanasHolgadas >= ventanasParaSubir && nivel.superior() != nivel) {
+            ventanasHolgadas = 0;
+            subidas++;
+            cambiarNivel(nivel.superior(), percentil);
+        }
+    }
+
+    private void cambiarNivel(NivelCalidad nuevo, float percentil) {
+        NivelCalidad anterior = nivel;
+        nivel = nuevo;
+
+        // Las muestras tomadas con el nivel anterior ya no sirven para evaluar el nuevo
+        Arrays.fill(histograma, 0);
+        muestras = 0;
+        siguienteMuestra = 0;
+        perdidosEnVentana = 0;
+
+        for (int i = 0; i < oyentes.size(); i++) {
+            oyentes.get(i).calidadCambiada(anterior, nuevo, percentil);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.duoc.race.rendimiento;
+
+import com.badlogic.gdx.utils.JsonWriter;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Mediciones de la prueba de rendimiento, etapa por etapa, y el informe JSON
+ * que queda al terminar.
+ * <p>
+ * Por cada etapa se guardan el tiempo de cada frame (entre el comienzo de un
+ * frame y el del siguiente, así que incluye la presentación en pantalla) y
+ * las llamadas de dibujo y los obstáculos vivos que dibujó. Los arreglos se reservan al crear el informe; los
+ * percentiles se calculan al final, ordenando una copia.
+ * </p>
+ */
+public class InformeBenchmark {
+
+    private final int framesPorEtapa;
+    private final float[][] tiemposMs;
+    private final int[] frames;
+    private final long[] llamadasTotales;
+    private final int[] llamadasMaximas;
+    private final long[] obstaculosTotales;
+
+    /**
+     * @param framesPorEtapa frames que se miden en cada etapa.
+     */
+    public InformeBenchmark(int framesPorEtapa) {
+        int etapas = EtapaBenchmark.values().length;
+        this.framesPorEtapa = framesPorEtapa;
+        tiemposMs = new float[etapas][framesPorEtapa];
+        frames = new int[etapas];
+        llamadasTotales = new long[etapas];
+        llamadasMaximas = new int[etapas];
+        obstaculosTotales = new long[etapas];
+    }
+
+    /**
+     * Anota un frame de una etapa. Los que pasan de <code>framesPorEtapa</code>
+     * se ignoran.
+     *
+     * @param frameMs        duración del frame.
+     * @param llamadasDibujo llamadas de dibujo que hizo el frame.
+     * @param obstaculos     obstáculos vivos que dibujó el frame.
+     */
+    public void registrar(EtapaBenchmark etapa, float frameMs, int llamadasDibujo, int obstaculos) {
+        int e = etapa.ordinal();
+        if (frames[e] == framesPorEtapa) {
+            return;
+        }
+        tiemposMs[e][frames[e]++] = frameMs;
+        llamadasTotales[e] += llamadasDibujo;
+        llamadasMaximas[e] = Math.max(llamadasMaximas[e], llamadasDibujo);
+        obstaculosTotales[e] += obstaculos;
+    }
+
+    /** Si la etapa ya tiene todos sus frames medidos. */
+    public boolean isCompleta(EtapaBenchmark etapa) {
+        return frames[etapa.ordinal()] == framesPorEtapa;
+    }
+
+    /** Frames por segundo medios de la etapa. */
+    public float getFps(EtapaBenchmark etapa) {
+        int e = etapa.ordinal();
+        double totalMs = 0.0;
+        for (int i = 0; i < frames[e]; i++) {
+            totalMs += tiemposMs[e][i];
+        }
+        return totalMs > 0.0 ? (float) (frames[e] * 1000.0 / totalMs) : 0f;
+    }
+
+    /**
+     * Percentil del tiempo de frame de la etapa.
+     *
+     * @param fraccion entre 0 y 1; 1 es el frame más lento.
+     */
+    public float getPercentilMs(EtapaBenchmark etapa, float fraccion) {
+        int e = etapa.ordinal();
+        if (frames[e] == 0) {
+            return 0f;
+        }
+        float[] ordenados = Arrays.copyOf(tiemposMs[e], frames[e]);
+        Arrays.sort(ordenados);
+        int indice = (int) Math.ceil(fraccion * ordenados.length) - 1;
+        return ordenados[Math.max(0, Math.min(ordenados.length - 1, indice))];
+    }
+
+    public float getLlamadasMedias(EtapaBenchmark etapa) {
+        int e = etapa.ordinal();
+        return frames[e] == 0 ? 0f : (float) llamadasTotales[e] / frames[e];
+    }
+
+    public int getLlamadasMaximas(EtapaBenchmark etapa) {
+        return llamadasMaximas[etapa.ordinal()];
+    }
+
+    /** Obstáculos vivos por frame, en promedio. */
+    public float getObstaculosMedios(EtapaBenchmark etapa) {
+        int e = etapa.ordinal();
+        return frames[e] == 0 ? 0f : (float) obstaculosTotales[e] / frames[e];
+    }
+
+    /**
+     * Escribe el informe.
+     *
+     * @param renderer      nombre del renderer de OpenGL, para comparar solo
+     *                      informes del mismo equipo.
+     * @param calentamiento frames que se dejaron pasar sin medir al empezar cada etapa.
+     */
+    public void escribir(File archivo, String renderer, String version, int ancho, int alto,
+                         long semilla, float pasoSimulacion, int calentamiento) throws IOException {
+        File carpeta = archivo.getAbsoluteFile().getParentFile();
+        if (carpeta != null) {
+            carpeta.mkdirs();
+        }
+        try (Writer salida = new FileWriter(archivo)) {
+            JsonWriter json = new JsonWriter(salida);
+            json.setOutputType(JsonWriter.OutputType.json);
+            json.object()
+                .set("renderer", renderer)
+                .set("glVersion", version)
+                .set("width", ancho)
+                .set("height", alto)
+                .set("seed", semilla)
+                .set("simulationStepSeconds", pasoSimulacion)
+                .set("warmupFrames", calentamiento)
+                .set("framesPerStage", framesPorEtapa);
+            json.array("stages");
+            for (EtapaBenchmark etapa : EtapaBenchmark.values()) {
+                json.object()
+                    .set("name", etapa.name())
+                    .set("obstacles", etapa.obstaculos)
+                    .set("obstaclesMean", getObstaculosMedios(etapa))
+                    .set("cloudFactor", etapa.factorNubes)
+                    .set("particles", etapa.particulas)
+                    .set("frames", frames[etapa.ordinal()])
+                    .set("fps", getFps(etapa))
+                    .set("frameMsP50", getPercentilMs(etapa, 0.5f))
+                    .set("frameMsP99", getPercentilMs(etapa, 0.99f))
+                    .set("frameMsMax", getPercentilMs(etapa, 1f))
+                    .set("drawCallsMean", getLlamadasMedias(etapa))
+                    .set("drawCallsMax", getLlamadasMaximas(etapa))
+                    .pop();
+            }
+            json.pop();
+            json.pop();
+            json.flush();
+        }
+    }
+}
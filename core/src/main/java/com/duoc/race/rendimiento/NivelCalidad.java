@@ -0,0 +1,58 @@
+package com.duoc.race.rendimiento;
+
+/**
+ * Niveles de calidad gráfica que el {@link GobernadorFrames} puede elegir.
+ * <p>
+ * Están ordenados de mayor a menor calidad: bajar un nivel es pasar al
+ * siguiente valor del enum. Cada nivel define cuánto se reduce cada parte del
+ * costo de un frame.
+ * </p>
+ *
+ * <ul>
+ *     <li><b>densidadNubes</b>: fracción de las celdas de nubes que se dibujan
+ *     (0 = sin nubes).</li>
+ *
+ *     <li><b>calidadEfectos</b>: calidad del sistema de partículas, entre 0 y 1.</li>
+ *
+ *     <li><b>escalaRender</b>: fracción de la resolución con que se dibuja el
+ *     mundo antes de estirarlo a la ventana. El HUD siempre se dibuja a
+ *     resolución completa.</li>
+ *
+ *     <li><b>multiplicadorFranjaFondo</b>: cuántas veces más altas son las
+ *     franjas con que se dibuja la pista; franjas más altas significan menos
+ *     llamadas de dibujo y curvas menos suaves.</li>
+ * </ul>
+ */
+public enum NivelCalidad {
+
+    //        nubes  efectos escala franja
+    ALTO    ( 1f,    1f,     1f,    1),
+    MEDIO   ( 0.6f,  0.6f,   1f,    2),
+    BAJO    ( 0.3f,  0.3f,   0.75f, 4),
+    MINIMO  ( 0f,    0.1f,   0.5f,  8);
+
+    // values() copia el arreglo en cada llamada
+    private static final NivelCalidad[] NIVELES = values();
+
+    public final float densidadNubes;
+    public final float calidadEfectos;
+    public final float escalaRender;
+    public final int   multiplicadorFranjaFondo;
+
+    NivelCalidad(float densidadNubes, float calidadEfectos, float escalaRender, int multiplicadorFranjaFondo) {
+        this.densidadNubes = densidadNubes;
+        this.calidadEfectos = calidadEfectos;
+        this.escalaRender = escalaRender;
+        this.multiplicadorFranjaFondo = multiplicadorFranjaFondo;
+    }
+
+    /** Nivel inmediatamente inferior, o el mismo si ya es el mínimo. */
+    public NivelCalidad inferior() {
+        return NIVELES[Math.min(ordinal() + 1, NIVELES.length - 1)];
+    }
+
+    /** Nivel inmediatamente superior, o el mismo si ya es el máximo. */
+    public NivelCalidad superior() {
+        return NIVELES[Math.max(ordinal() - 1, 0)];
+    }
+}
@@ -0,0 +1,48 @@
+package com.duoc.race.sistemas;
+
+import com.duoc.race.ecs.Componente;
+
+/**
+ * Componentes de las entidades de la carrera y los índices de sus campos.
+ *
+ * <ul>
+ *     <li><b>POSICION</b> y <b>POSICION_ANTERIOR</b>: esquina inferior
+ *     izquierda ahora y al comienzo del frame (<code>X</code>, <code>Y</code>).</li>
+ *
+ *     <li><b>VELOCIDAD</b>: píxeles por segundo en cada eje (<code>X</code>,
+ *     <code>Y</code>).</li>
+ *
+ *     <li><b>TAMANO</b>: <code>ANCHO</code>, <code>ALTO</code> y el
+ *     <code>MARGEN</code> que se descuenta de cada lado para el rectángulo de
+ *     choque sin máscaras.</li>
+ *
+ *     <li><b>SPRITE</b>: índice de la imagen en la {@link TablaSprites}.</li>
+ *
+ *     <li><b>OBSTACULO</b>: id del <code>TIPO</code> de obstáculo en el
+ *     registro de obstáculos, donde están su daño y su efecto.</li>
+ * </ul>
+ */
+public final class Componentes {
+
+    public static final Componente POSICION          = Componente.definir("posicion", 2, 0);
+    public static final Componente POSICION_ANTERIOR = Componente.definir("posicionAnterior", 2, 0);
+    public static final Componente VELOCIDAD         = Componente.definir("velocidad", 2, 0);
+    public static final Componente TAMANO            = Componente.definir("tamano", 3, 0);
+    public static final Componente SPRITE            = Componente.definir("sprite", 0, 1);
+    public static final Componente OBSTACULO         = Componente.definir("obstaculo", 0, 1);
+
+    // Campos de POSICION, POSICION_ANTERIOR y VELOCIDAD
+    public static final int X = 0;
+    public static final int Y = 1;
+    // Campos de TAMANO
+    public static final int ANCHO  = 0;
+    public static final int ALTO   = 1;
+    public static final int MARGEN = 2;
+    // Campo de SPRITE
+    public static final int IMAGEN = 0;
+    // Campo de OBSTACULO
+    public static final int TIPO = 0;
+
+    private Componentes() {
+    }
+}
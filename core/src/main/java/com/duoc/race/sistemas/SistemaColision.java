@@ -0,0 +1,256 @@
+package com.duoc.race.sistemas;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.duoc.race.colision.Barrido;
+import com.duoc.race.colision.MascaraAlfa;
+import com.duoc.race.ecs.Arquetipo;
+import com.duoc.race.ecs.Componente;
+import com.duoc.race.ecs.Consulta;
+import com.duoc.race.ecs.Mundo;
+import com.duoc.race.ecs.Sistema;
+import com.duoc.race.interfaces.OyenteColision;
+import com.duoc.race.model.AutoJugador;
+
+import static com.duoc.race.sistemas.Componentes.*;
+
+/**
+ * Detecta los choques entre el jugador y los obstáculos, y los obstáculos que
+ * pasan rozándolo.
+ *
+ * <p>Funcionamiento:</p>
+ * <ul>
+ *     <li><b>Posición final</b>: primero se comparan los rectángulos (fase
+ *     amplia) y, si se tocan y hay máscaras, las máscaras de transparencia.</li>
+ *
+ *     <li><b>Colisión continua</b>: si no se tocan al final, se calcula el
+ *     intervalo del frame en que los rectángulos se solapan con
+ *     {@link Barrido} y se revisan las máscaras en ese tramo, de modo que un
+ *     obstáculo rápido no atraviese al jugador en un frame lento.</li>
+ *
+ *     <li><b>Reacción</b>: el sistema no sabe de vida, sonidos ni partículas;
+ *     avisa al {@link OyenteColision} y anota el obstáculo para destruirlo.
+ *     Por eso es exclusivo.</li>
+ * </ul>
+ */
+public class SistemaColision implements Sistema {
+
+    private final Mundo mundo;
+    private final Consulta consulta;
+    private final TablaSprites sprites;
+    private final AutoJugador jugador;
+    private final int spriteJugador;
+    private final OyenteColision oyente;
+
+    private boolean porPixel = true;
+    private boolean continua = true;
+    private float pasoMuestreo = 4f;
+    private float distanciaRoce = 18f;
+
+    // Reutilizados en cada comprobación para no crear objetos por frame
+    private final Rectangle rectObstaculo = new Rectangle();
+    private final Rectangle rectJugador = new Rectangle();
+    private final float[] intervalo = new float[2];
+
+    public SistemaColision(Mundo mundo, TablaSprites sprites, AutoJugador jugador, int spriteJugador,
+                           OyenteColision oyente) {
+        this.mundo = mundo;
+        this.consulta = new Consulta(mundo, POSICION, POSICION_ANTERIOR, TAMANO, SPRITE, OBSTACULO);
+        this.sprites = sprites;
+        this.jugador = jugador;
+        this.spriteJugador = spriteJugador;
+        this.oyente = oyente;
+    }
+
+    /** Activa la fase fina con máscaras de transparencia. */
+    public void setPorPixel(boolean porPixel) {
+        this.porPixel = porPixel;
+    }
+
+    /**
+     * @param continua     si se revisa el recorrido del frame y no solo la posición final.
+     * @param pasoMuestreo distancia máxima, en píxeles, entre dos revisiones de máscaras.
+     */
+    public void setContinua(boolean continua, float pasoMuestreo) {
+        this.continua = continua;
+        this.pasoMuestreo = pasoMuestreo;
+    }
+
+    /** Separación máxima, en píxeles, para que un obstáculo cuente como roce. */
+    public void setDistanciaRoce(float distanciaRoce) {
+        this.distanciaRoce = distanciaRoce;
+    }
+
+    @Override
+    public long getLecturas() {
+        return Componente.mascara(POSICION, POSICION_ANTERIOR, TAMANO, SPRITE, OBSTACULO);
+    }
+
+    @Override
+    public long getEscrituras() {
+        return 0L;
+    }
+
+    @Override
+    public boolean isExclusivo() {
+        return true;
+    }
+
+    @Override
+    public void ejecutar(float delta) {
+        for (int t = 0; t < consulta.getCantidadTablas(); t++) {
+            Arquetipo tabla = consulta.getTabla(t);
+            float[] x = tabla.getFloats(POSICION, X);
+            float[] y = tabla.getFloats(POSICION, Y);
+            float[] anteriorX = tabla.getFloats(POSICION_ANTERIOR, X);
+            float[] anteriorY = tabla.getFloats(POSICION_ANTERIOR, Y);
+            float[] ancho = tabla.getFloats(TAMANO, ANCHO);
+            float[] alto = tabla.getFloats(TAMANO, ALTO);
+            float[] margen = tabla.getFloats(TAMANO, MARGEN);
+            int[] imagen = tabla.getInts(SPRITE, IMAGEN);
+            int[] tipo = tabla.getInts(OBSTACULO, TIPO);
+
+            for (int i = 0; i < tabla.getCantidad(); i++) {
+                MascaraAlfa mascara = mascaraValida(imagen[i], ancho[i], alto[i]);
+                if (chocaConJugador(anteriorX[i], anteriorY[i], x[i], y[i], ancho[i], alto[i], margen[i], mascara)) {
+                    float impactoX = (x[i] + ancho[i] / 2f + jugador.getX() + jugador.getWidth() / 2f) / 2f;
+                    float impactoY = (y[i] + jugador.getY() + jugador.getHeight()) / 2f;
+                    oyente.alChocar(tabla.getEntidad(i), tipo[i], impactoX, impactoY);
+                    mundo.destruir(tabla.getEntidad(i));
+                } else {
+                    revisarRoce(anteriorY[i], x[i], y[i], ancho[i], alto[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Determina si el obstáculo tocó al jugador en algún momento del frame.
+     *
+     * @param mascara máscara del obstáculo, o <code>null</code> si se usan solo rectángulos.
+     */
+    private boolean chocaConJugador(float desdeX, float desdeY, float hastaX, float hastaY,
+                                    float ancho, float alto, float margen, MascaraAlfa mascara) {
+        if (seSolapanEn(1f, desdeX, desdeY, hastaX, hastaY, ancho, alto, margen, mascara)) {
+            return true;
+        }
+        if (!continua) {
+            return false;
+        }
+
+        rectanguloObstaculo(desdeX, desdeY, ancho, alto, margen, mascara);
+        rectanguloJugador(jugador.getPreviousX(), jugador.getPreviousY(), mascara);
+        float obstaculoDx = hastaX - desdeX;
+        float obstaculoDy = hastaY - desdeY;
+        float jugadorDx = jugador.getX() - jugador.getPreviousX();
+        float jugadorDy = jugador.getY() - jugador.getPreviousY();
+
+        if (!Barrido.intervaloDeContacto(rectObstaculo, obstaculoDx, obstaculoDy,
+                                         rectJugador, jugadorDx, jugadorDy, intervalo)) {
+            return false;
+        }
+        if (mascara == null) {
+            return true;
+        }
+
+        // Los rectángulos se tocan durante [entrada, salida]; se revisan las
+        // máscaras en ese tramo con pasos de a lo más pasoMuestreo píxeles
+        float entrada = intervalo[0];
+        float salida = intervalo[1];
+        float distanciaRelativa = Math.abs(obstaculoDx - jugadorDx) + Math.abs(obstaculoDy - jugadorDy);
+        int pasos = Math.max(1, (int) Math.ceil(distanciaRelativa * (salida - entrada) / pasoMuestreo));
+        for (int i = 0; i <= pasos; i++) {
+            float fraccion = entrada + (salida - entrada) * i / pasos;
+            if (seSolapanEn(fraccion, desdeX, desdeY, hastaX, hastaY, ancho, alto, margen, mascara)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Comprueba el choque con ambos ubicados en una fracción del recorrido del
+     * frame (0 = posición inicial, 1 = posición final).
+     */
+    private boolean seSolapanEn(float fraccion, float desdeX, float desdeY, float hastaX, float hastaY,
+                                float ancho, float alto, float margen, MascaraAlfa mascara) {
+        float obstaculoX = MathUtils.lerp(desdeX, hastaX, fraccion);
+        float obstaculoY = MathUtils.lerp(desdeY, hastaY, fraccion);
+        float jugadorX = MathUtils.lerp(jugador.getPreviousX(), jugador.getX(), fraccion);
+        float jugadorY = MathUtils.lerp(jugador.getPreviousY(), jugador.getY(), fraccion);
+
+        rectanguloObstaculo(obstaculoX, obstaculoY, ancho, alto, margen, mascara);
+        rectanguloJugador(jugadorX, jugadorY, mascara);
+        if (!rectObstaculo.overlaps(rectJugador)) {
+            return false;
+        }
+        if (mascara == null) {
+            return true;
+        }
+
+        return MascaraAlfa.seSolapan(
+            mascara, Math.round(obstaculoX), Math.round(obstaculoY),
+            sprites.getMascara(spriteJugador), Math.round(jugadorX), Math.round(jugadorY));
+    }
+
+    /**
+     * Rectángulo de la fase amplia del obstáculo: el completo si después se
+     * revisan las máscaras, o el reducido por el margen si no hay máscara
+     * (colisión por píxel apagada o imagen sin máscara válida), tanto en la
+     * posición final como en el barrido.
+     */
+    private void rectanguloObstaculo(float enX, float enY, float ancho, float alto, float margen, MascaraAlfa mascara) {
+        if (mascara != null) {
+            rectObstaculo.set(enX, enY, ancho, alto);
+        } else {
+            rectObstaculo.set(enX + margen, enY + margen, ancho - margen * 2, alto - margen * 2);
+        }
+    }
+
+    /** Como {@link #rectanguloObstaculo}, con el rectángulo reducido del auto si no hay máscara. */
+    private void rectanguloJugador(float enX, float enY, MascaraAlfa mascara) {
+        if (mascara != null) {
+            rectJugador.set(enX, enY, jugador.getWidth(), jugador.getHeight());
+        } else {
+            jugador.getBoundsAt(enX, enY, rectJugador);
+        }
+    }
+
+    /**
+     * Máscara del obstáculo si la colisión por píxel está activa y tanto él
+     * como el jugador tienen una máscara del tamaño con que se dibujan; si no,
+     * <code>null</code>.
+     */
+    private MascaraAlfa mascaraValida(int imagen, float ancho, float alto) {
+        if (!porPixel || sprites.getMascara(spriteJugador) == null) {
+            return null;
+        }
+        MascaraAlfa mascara = sprites.getMascara(imagen);
+        if (mascara == null || mascara.getAncho() != (int) ancho || mascara.getAlto() != (int) alto) {
+            return null;
+        }
+        return mascara;
+    }
+
+    /**
+     * Avisa un roce si el obstáculo acaba de pasar junto al jugador sin
+     * tocarlo: su centro cruzó en este frame el centro vertical del auto y
+     * quedó a lo más a <code>distanciaRoce</code> píxeles de su costado.
+     */
+    private void revisarRoce(float desdeY, float x, float y, float ancho, float alto) {
+        float centroJugadorY = jugador.getY() + jugador.getHeight() / 2f;
+        float medioAlto = alto / 2f;
+        if (desdeY + medioAlto < centroJugadorY || y + medioAlto >= centroJugadorY) {
+            return;
+        }
+
+        float huecoIzquierdo = jugador.getX() - (x + ancho);
+        float huecoDerecho = x - (jugador.getX() + jugador.getWidth());
+        float hueco = Math.max(huecoIzquierdo, huecoDerecho);
+        if (hueco < 0f || hueco > distanciaRoce) {
+            return;
+        }
+
+        oyente.alRozar(huecoIzquierdo >= 0f ? jugador.getX() : jugador.getX() + jugador.getWidth(), centroJugadorY);
+    }
+}
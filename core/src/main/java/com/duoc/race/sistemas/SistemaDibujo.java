@@ -0,0 +1,59 @@
+package com.duoc.race.sistemas;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.duoc.race.ecs.Arquetipo;
+import com.duoc.race.ecs.Componente;
+import com.duoc.race.ecs.Consulta;
+import com.duoc.race.ecs.Mundo;
+import com.duoc.race.ecs.Sistema;
+
+import static com.duoc.race.sistemas.Componentes.*;
+
+/**
+ * Dibuja las entidades con imagen. Se llama desde la fase de dibujado, con
+ * el lote ya iniciado, y no desde el planificador de la lógica.
+ */
+public class SistemaDibujo implements Sistema {
+
+    private final Consulta consulta;
+    private final TablaSprites sprites;
+    private final SpriteBatch batch;
+
+    public SistemaDibujo(Mundo mundo, TablaSprites sprites, SpriteBatch batch) {
+        this.consulta = new Consulta(mundo, POSICION, TAMANO, SPRITE);
+        this.sprites = sprites;
+        this.batch = batch;
+    }
+
+    @Override
+    public long getLecturas() {
+        return Componente.mascara(POSICION, TAMANO, SPRITE);
+    }
+
+    @Override
+    public long getEscrituras() {
+        return 0L;
+    }
+
+    @Override
+    public boolean isExclusivo() {
+        // El SpriteBatch solo puede usarse desde el hilo de OpenGL
+        return true;
+    }
+
+    @Override
+    public void ejecutar(float delta) {
+        for (int t = 0; t < consulta.getCantidadTablas(); t++) {
+            Arquetipo tabla = consulta.getTabla(t);
+            float[] x = tabla.getFloats(POSICION, X);
+            float[] y = tabla.getFloats(POSICION, Y);
+            float[] ancho = tabla.getFloats(TAMANO, ANCHO);
+            float[] alto = tabla.getFloats(TAMANO, ALTO);
+            int[] imagen = tabla.getInts(SPRITE, IMAGEN);
+
+            for (int i = 0; i < tabla.getCantidad(); i++) {
+                batch.draw(sprites.getRegion(imagen[i]), x[i], y[i], ancho[i], alto[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.duoc.race.sistemas;
+
+import com.duoc.race.ecs.Arquetipo;
+import com.duoc.race.ecs.Consulta;
+import com.duoc.race.ecs.Mundo;
+import com.duoc.race.ecs.Sistema;
+
+import static com.duoc.race.sistemas.Componentes.*;
+
+/**
+ * Destruye las entidades que ya salieron por abajo de la pantalla.
+ */
+public class SistemaLimpieza implements Sistema {
+
+    private final Mundo mundo;
+    private final Consulta consulta;
+    private final float limiteY;
+
+    /**
+     * @param limiteY altura bajo la cual una entidad se considera fuera de pantalla.
+     */
+    public SistemaLimpieza(Mundo mundo, float limiteY) {
+        this.mundo = mundo;
+        this.consulta = new Consulta(mundo, POSICION);
+        this.limiteY = limiteY;
+    }
+
+    @Override
+    public long getLecturas() {
+        return POSICION.getBit();
+    }
+
+    @Override
+    public long getEscrituras() {
+        return 0L;
+    }
+
+    @Override
+    public void ejecutar(float delta) {
+        for (int t = 0; t < consulta.getCantidadTablas(); t++) {
+            Arquetipo tabla = consulta.getTabla(t);
+            float[] y = tabla.getFloats(POSICION, Y);
+            for (int i = 0; i < tabla.getCantidad(); i++) {
+                if (y[i] < limiteY) {
+                    mundo.destruir(tabla.getEntidad(i));
+                }
+            }
+        }
+    }
+}
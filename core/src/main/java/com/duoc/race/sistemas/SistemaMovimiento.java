@@ -0,0 +1,52 @@
+package com.duoc.race.sistemas;
+
+import com.duoc.race.ecs.Arquetipo;
+import com.duoc.race.ecs.Componente;
+import com.duoc.race.ecs.Consulta;
+import com.duoc.race.ecs.Mundo;
+import com.duoc.race.ecs.Sistema;
+
+import static com.duoc.race.sistemas.Componentes.*;
+
+/**
+ * Guarda la posición al comienzo del frame y mueve cada entidad según su
+ * velocidad.
+ */
+public class SistemaMovimiento implements Sistema {
+
+    private final Consulta consulta;
+
+    public SistemaMovimiento(Mundo mundo) {
+        this.consulta = new Consulta(mundo, POSICION, POSICION_ANTERIOR, VELOCIDAD);
+    }
+
+    @Override
+    public long getLecturas() {
+        return VELOCIDAD.getBit();
+    }
+
+    @Override
+    public long getEscrituras() {
+        return Componente.mascara(POSICION, POSICION_ANTERIOR);
+    }
+
+    @Override
+    public void ejecutar(float delta) {
+        for (int t = 0; t < consulta.getCantidadTablas(); t++) {
+            Arquetipo tabla = consulta.getTabla(t);
+            float[] x = tabla.getFloats(POSICION, X);
+            float[] y = tabla.getFloats(POSICION, Y);
+            float[] anteriorX = tabla.getFloats(POSICION_ANTERIOR, X);
+            float[] anteriorY = tabla.getFloats(POSICION_ANTERIOR, Y);
+            float[] vx = tabla.getFloats(VELOCIDAD, X);
+            float[] vy = tabla.getFloats(VELOCIDAD, Y);
+
+            for (int i = 0; i < tabla.getCantidad(); i++) {
+                anteriorX[i] = x[i];
+                anteriorY[i] = y[i];
+                x[i] += vx[i] * delta;
+                y[i] += vy[i] * delta;
+            }
+        }
+    }
+}
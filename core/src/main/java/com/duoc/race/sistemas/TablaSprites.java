@@ -0,0 +1,40 @@
+package com.duoc.race.sistemas;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.duoc.race.colision.MascaraAlfa;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Imágenes que pueden usar las entidades, con su máscara de colisión.
+ * <p>
+ * Las entidades guardan solo el índice en esta tabla (componente
+ * <code>SPRITE</code>), así las columnas del mundo siguen siendo arreglos
+ * primitivos.
+ * </p>
+ */
+public class TablaSprites {
+
+    private final List<TextureRegion> regiones = new ArrayList<>();
+    private final List<MascaraAlfa> mascaras = new ArrayList<>();
+
+    /**
+     * @param mascara máscara de colisión, o <code>null</code> si la imagen no tiene.
+     * @return índice con que las entidades se refieren a la imagen.
+     */
+    public int registrar(TextureRegion region, MascaraAlfa mascara) {
+        regiones.add(region);
+        mascaras.add(mascara);
+        return regiones.size() - 1;
+    }
+
+    public TextureRegion getRegion(int indice) {
+        return regiones.get(indice);
+    }
+
+    /** Máscara de la imagen, o <code>null</code> si no tiene. */
+    public MascaraAlfa getMascara(int indice) {
+        return mascaras.get(indice);
+    }
+}
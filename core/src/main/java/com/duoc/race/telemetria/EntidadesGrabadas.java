@@ -0,0 +1,95 @@
+package com.duoc.race.telemetria;
+
+import java.util.Arrays;
+
+/**
+ * Posiciones de los obstáculos en un tick grabado.
+ * <p>
+ * Los datos se guardan en arreglos paralelos que se reutilizan de un tick al
+ * siguiente; las posiciones están en cuartos de píxel, tal como se graban.
+ * </p>
+ */
+public class EntidadesGrabadas {
+
+    int[]  ids   = new int[16];
+    int[]  qx    = new int[16];
+    int[]  qy    = new int[16];
+    byte[] tipos = new byte[16];
+    int cantidad = 0;
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    public int getId(int indice) {
+        return ids[indice];
+    }
+
+    /** Id del tipo de obstáculo en <code>obstaculos.json</code> (1 el primero), o 0 si no tiene. */
+    public byte getTipo(int indice) {
+        return tipos[indice];
+    }
+
+    public float getX(int indice) {
+        return qx[indice] / FormatoTelemetria.ESCALA_POSICION;
+    }
+
+    public float getY(int indice) {
+        return qy[indice] / FormatoTelemetria.ESCALA_POSICION;
+    }
+
+    void poner(int indice, int id, int x, int y, byte tipo) {
+        if (indice >= ids.length) {
+            int capacidad = Math.max(indice + 1, ids.length * 2);
+            ids   = Arrays.copyOf(ids, capacidad);
+            qx    = Arrays.copyOf(qx, capacidad);
+            qy    = Arrays.copyOf(qy, capacidad);
+            tipos = Arrays.copyOf(tipos, capacidad);
+        }
+        ids[indice] = id;
+        qx[indice] = x;
+        qy[indice] = y;
+        tipos[indice] = tipo;
+    }
+
+    /**
+     * Ordena las entidades por id. Las filas del mundo cambian de orden al
+     * quitar entidades, pero entre un tick y el siguiente casi no se mueven,
+     * así que el ordenamiento por inserción es prácticamente lineal.
+     */
+    void ordenarPorId() {
+        for (int i = 1; i < cantidad; i++) {
+            int id = ids[i];
+            int x = qx[i];
+            int y = qy[i];
+            byte tipo = tipos[i];
+            int j = i - 1;
+            while (j >= 0 && ids[j] > id) {
+                ids[j + 1] = ids[j];
+                qx[j + 1] = qx[j];
+                qy[j + 1] = qy[j];
+                tipos[j + 1] = tipos[j];
+                j--;
+            }
+            ids[j + 1] = id;
+            qx[j + 1] = x;
+            qy[j + 1] = y;
+            tipos[j + 1] = tipo;
+        }
+    }
+
+    /**
+     * Busca un id a partir de <code>desde</code>, avanzando mientras los ids
+     * sean menores. Como las listas se graban ordenadas por id, cada búsqueda
+     * continúa donde terminó la anterior.
+     *
+     * @return el índice donde se detuvo la búsqueda.
+     */
+    int avanzarHasta(int desde, int id) {
+        int i = desde;
+        while (i < cantidad && ids[i] < id) {
+            i++;
+        }
+        return i;
+    }
+}
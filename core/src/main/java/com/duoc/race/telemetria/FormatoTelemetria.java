@@ -0,0 +1,77 @@
+package com.duoc.race.telemetria;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Constantes y codificación compartidas por el grabador y el lector de
+ * telemetría.
+ *
+ * <p>Un archivo de telemetría es una secuencia de bloques:</p>
+ * <ul>
+ *     <li><b>Cabecera</b>: <code>MAGIA</code> (int), semilla de la carrera
+ *     (long), primer frame (long), último frame (long), cantidad de ticks
+ *     (int), largo sin comprimir (int) y largo comprimido (int). Un bloque
+ *     nunca mezcla dos carreras: si la semilla cambia, el bloque se cierra.</li>
+ *
+ *     <li><b>Datos</b>: los ticks del bloque comprimidos con Deflate. El primer
+ *     tick de cada bloque es completo (fotograma clave) y los demás guardan solo
+ *     la diferencia con el tick anterior, así cada bloque se puede leer sin los
+ *     anteriores.</li>
+ * </ul>
+ *
+ * <p>Cada tick guarda, con enteros de largo variable (<i>varint</i>, en zigzag
+ * para los valores con signo):</p>
+ * <ul>
+ *     <li>Diferencia de número de frame (absoluto en el fotograma clave).</li>
+ *     <li>Delta y tiempo de trabajo del frame, en centésimas de milisegundo.</li>
+ *     <li>Indicador de Game Over y diferencias de vida y puntaje.</li>
+ *     <li>Diferencia de posición del jugador.</li>
+ *     <li>Diferencia del recorrido de la pista. Con el recorrido y la semilla
+ *     de la cabecera se reconstruyen la pista, el fondo y las nubes.</li>
+ *     <li>Obstáculos, ordenados por id: cantidad y, por cada uno, la
+ *     diferencia de id con el anterior de la lista. Si el id ya existía en el tick anterior solo se
+ *     guarda cuánto se movió; si es nuevo, su tipo y su posición absoluta.</li>
+ * </ul>
+ * <p>
+ * Las posiciones se guardan en cuartos de píxel (<code>ESCALA_POSICION</code>).
+ * </p>
+ */
+final class FormatoTelemetria {
+
+    static final int   MAGIA            = 0x44525433; // "DRT3"
+    static final int   LARGO_CABECERA   = 40;
+    static final float ESCALA_POSICION  = 4f;
+    static final float ESCALA_TIEMPO    = 100f;
+
+    private FormatoTelemetria() {
+    }
+
+    static void escribirVarint(ByteBuffer destino, long valor) {
+        while ((valor & ~0x7FL) != 0L) {
+            destino.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        destino.put((byte) valor);
+    }
+
+    static void escribirZigzag(ByteBuffer destino, long valor) {
+        escribirVarint(destino, (valor << 1) ^ (valor >> 63));
+    }
+
+    static long leerVarint(ByteBuffer origen) {
+        long valor = 0L;
+        int desplazamiento = 0;
+        byte b;
+        do {
+            b = origen.get();
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            desplazamiento += 7;
+        } while ((b & 0x80) != 0);
+        return valor;
+    }
+
+    static long leerZigzag(ByteBuffer origen) {
+        long valor = leerVarint(origen);
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+}
@@ -0,0 +1,82 @@
+package com.duoc.race.telemetria;
+
+/**
+ * Estado del mundo en un tick leído de una grabación.
+ * <p>
+ * El {@link LectorTelemetria} reutiliza la misma instancia en cada tick, de
+ * modo que recorrer una grabación larga no crea objetos por tick.
+ * </p>
+ */
+public class FotoTelemetria {
+
+    long frame;
+    long semilla;
+    float deltaMs;
+    float trabajoMs;
+    boolean gameOver;
+    int vida;
+    int puntaje;
+    int jugadorX;
+    int jugadorY;
+    int recorrido;
+
+    EntidadesGrabadas obstaculos = new EntidadesGrabadas();
+
+    // Listas del tick anterior, necesarias para decodificar las diferencias
+    EntidadesGrabadas obstaculosAnteriores = new EntidadesGrabadas();
+
+    public long getFrame() {
+        return frame;
+    }
+
+    /** Semilla de la carrera del tick, de la que salen la pista y las nubes. */
+    public long getSemilla() {
+        return semilla;
+    }
+
+    /** Tiempo real transcurrido desde el frame anterior, en milisegundos. */
+    public float getDeltaMs() {
+        return deltaMs;
+    }
+
+    /** Tiempo de actualización y dibujado del frame, en milisegundos. */
+    public float getTrabajoMs() {
+        return trabajoMs;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public int getVida() {
+        return vida;
+    }
+
+    public int getPuntaje() {
+        return puntaje;
+    }
+
+    public float getJugadorX() {
+        return jugadorX / FormatoTelemetria.ESCALA_POSICION;
+    }
+
+    public float getJugadorY() {
+        return jugadorY / FormatoTelemetria.ESCALA_POSICION;
+    }
+
+    /** Distancia recorrida por la pista, en píxeles. */
+    public float getRecorrido() {
+        return recorrido / FormatoTelemetria.ESCALA_POSICION;
+    }
+
+    public EntidadesGrabadas getObstaculos() {
+        return obstaculos;
+    }
+
+    /** Deja la lista actual como anterior, para decodificar el tick siguiente. */
+    void avanzarListas() {
+        EntidadesGrabadas intercambio = obstaculosAnteriores;
+        obstaculosAnteriores = obstaculos;
+        obstaculos = intercambio;
+    }
+}
@@ -0,0 +1,400 @@
+package com.duoc.race.telemetria;
+
+import com.duoc.race.ecs.Arquetipo;
+import com.duoc.race.ecs.Consulta;
+import com.duoc.race.model.AutoJugador;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+import static com.duoc.race.sistemas.Componentes.*;
+
+/**
+ * Graba el estado del mundo en cada tick para analizarlo después con el
+ * {@link VisorTelemetria}.
+ * <p>
+ * El trabajo se reparte en dos hilos para que grabar casi no cueste tiempo
+ * de frame:
+ * </p>
+ * <ul>
+ *     <li><b>Hilo del juego</b>: {@link #registrar} codifica el tick como
+ *     diferencia con el anterior (ver {@link FormatoTelemetria}) dentro del
+ *     bloque en curso. Son unas decenas de bytes escritos en un
+ *     <code>ByteBuffer</code> ya reservado, sin crear objetos.</li>
+ *
+ *     <li><b>Hilo escritor</b>: recibe los bloques completos, los comprime con
+ *     Deflate y los escribe con un <code>FileChannel</code>. Cuando el archivo
+ *     supera <code>bytesPorArchivo</code> se rota (<code>sesion.tlm</code> pasa
+ *     a <code>sesion.tlm.1</code>, etc.) y se conservan solo los últimos
+ *     <code>archivosRetenidos</code>.</li>
+ * </ul>
+ *
+ * <p>
+ * La memoria está acotada: hay <code>BLOQUES</code> bloques que circulan entre
+ * ambos hilos. Si el disco no da abasto y no queda ningún bloque libre, los
+ * ticks se descartan (y se cuentan) en lugar de hacer esperar al juego; la
+ * grabación sigue con el siguiente bloque libre, que empieza con un tick
+ * completo. También se descarta un tick con tantos obstáculos que no cabría
+ * ni en un bloque vacío.
+ * </p>
+ */
+public class GrabadorTelemetria {
+
+    private static final int BLOQUES          = 4;
+    private static final int BYTES_POR_BLOQUE = 64 * 1024;
+    private static final int TICKS_POR_BLOQUE = 120;
+    // Peor caso de bytes por tick: campos fijos más dos posiciones e id por objeto
+    private static final int BYTES_FIJOS_TICK  = 64;
+    private static final int BYTES_POR_OBJETO  = 16;
+
+    /** Bloque de ticks sin comprimir que circula entre el juego y el escritor. */
+    private static final class Bloque {
+        final ByteBuffer datos = ByteBuffer.allocate(BYTES_POR_BLOQUE);
+        long semilla;
+        long primerFrame;
+        long ultimoFrame;
+        int ticks;
+    }
+
+    private static final Bloque FIN = new Bloque();
+
+    private final File archivo;
+    private final long bytesPorArchivo;
+    private final int archivosRetenidos;
+
+    private final BlockingQueue<Bloque> libres = new ArrayBlockingQueue<>(BLOQUES);
+    private final BlockingQueue<Bloque> llenos = new ArrayBlockingQueue<>(BLOQUES + 1);
+    private final Thread escritor;
+
+    // Estado del hilo del juego
+    private Bloque actual;
+    private long frameAnterior;
+    private int vidaAnterior;
+    private int puntajeAnterior;
+    private int jugadorXAnterior;
+    private int jugadorYAnterior;
+    private int recorridoAnterior;
+    private EntidadesGrabadas obstaculosAnteriores = new EntidadesGrabadas();
+    private EntidadesGrabadas obstaculosNuevos = new EntidadesGrabadas();
+    // Obstáculos del tick tomados de las tablas del mundo y ordenados por id
+    private final EntidadesGrabadas capturados = new EntidadesGrabadas();
+
+    private long ticksGrabados = 0L;
+    private long ticksDescartados = 0L;
+    private long costoTotalNanos = 0L;
+
+    // Estado del hilo escritor
+    private FileChannel canal;
+    private volatile long bytesEscritos = 0L;
+    private volatile String error = null;
+
+    /**
+     * Abre el archivo de grabación y arranca el hilo escritor.
+     *
+     * @param archivo           archivo de la sesión; las rotaciones se guardan a su lado.
+     * @param bytesPorArchivo   tamaño a partir del cual se rota el archivo.
+     * @param archivosRetenidos cantidad de archivos rotados que se conservan.
+     * @throws IOException si no se puede crear el archivo.
+     */
+    public GrabadorTelemetria(File archivo, long bytesPorArchivo, int archivosRetenidos) throws IOException {
+        this.archivo = archivo.getAbsoluteFile();
+        this.bytesPorArchivo = bytesPorArchivo;
+        this.archivosRetenidos = archivosRetenidos;
+
+        File carpeta = this.archivo.getParentFile();
+        if (carpeta != null) {
+            carpeta.mkdirs();
+        }
+        canal = abrir();
+
+        for (int i = 0; i < BLOQUES; i++) {
+            libres.add(new Bloque());
+        }
+
+        escritor = new Thread(this::escribirBloques, "telemetria-escritor");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    /**
+     * Graba un tick. Se llama una vez por frame desde el hilo del juego.
+     *
+     * @param frame      número de frame.
+     * @param deltaMs    tiempo real desde el frame anterior.
+     * @param trabajoMs  tiempo de actualización y dibujado del frame.
+     * @param gameOver   si la partida terminó.
+     * @param vida       vida del jugador.
+     * @param puntaje    puntaje actual.
+     * @param jugador    auto del jugador.
+     * @param obstaculos obstáculos en pantalla: entidades con <code>POSICION</code>
+     *                   y <code>OBSTACULO</code>; el id grabado es la entidad.
+     * @param recorrido  distancia recorrida por la pista.
+     * @param semilla    semilla de la carrera, de la que salen la pista y las
+     *                   capas de nubes; con ella y el recorrido se reconstruyen.
+     */
+    public void registrar(long frame, float deltaMs, float trabajoMs, boolean gameOver, int vida, int puntaje,
+                          AutoJugador jugador, Consulta obstaculos, float recorrido, long semilla) {
+        long inicio = System.nanoTime();
+
+        capturar(obstaculos);
+        int espacio = BYTES_FIJOS_TICK + capturados.cantidad * BYTES_POR_OBJETO;
+        if (espacio > BYTES_POR_BLOQUE) {
+            // El siguiente tick grabado se codifica contra el último que sí entró
+            ticksDescartados++;
+            costoTotalNanos += System.nanoTime() - inicio;
+            return;
+        }
+        if (actual != null && (actual.ticks >= TICKS_POR_BLOQUE || actual.datos.remaining() < espacio
+            || actual.semilla != semilla)) {
+            enviarBloque();
+        }
+        if (actual == null) {
+            actual = libres.poll();
+            if (actual == null) {
+                // El escritor va atrasado: se descarta el tick antes que detener el juego
+                ticksDescartados++;
+                costoTotalNanos += System.nanoTime() - inicio;
+                return;
+            }
+            actual.datos.clear();
+            actual.ticks = 0;
+            actual.semilla = semilla;
+            actual.primerFrame = frame;
+        }
+
+        boolean clave = actual.ticks == 0;
+        ByteBuffer datos = actual.datos;
+
+        FormatoTelemetria.escribirZigzag(datos, clave ? frame : frame - frameAnterior);
+        FormatoTelemetria.escribirVarint(datos, Math.round(deltaMs * FormatoTelemetria.ESCALA_TIEMPO));
+        FormatoTelemetria.escribirVarint(datos, Math.round(trabajoMs * FormatoTelemetria.ESCALA_TIEMPO));
+        datos.put((byte) (gameOver ? 1 : 0));
+        FormatoTelemetria.escribirZigzag(datos, clave ? vida : vida - vidaAnterior);
+        FormatoTelemetria.escribirZigzag(datos, clave ? puntaje : puntaje - puntajeAnterior);
+
+        int jugadorX = cuantizar(jugador.getX());
+        int jugadorY = cuantizar(jugador.getY());
+        FormatoTelemetria.escribirZigzag(datos, clave ? jugadorX : jugadorX - jugadorXAnterior);
+        FormatoTelemetria.escribirZigzag(datos, clave ? jugadorY : jugadorY - jugadorYAnterior);
+        int recorridoCuantizado = cuantizar(recorrido);
+        FormatoTelemetria.escribirZigzag(datos, clave ? recorridoCuantizado : recorridoCuantizado - recorridoAnterior);
+
+        codificarLista(datos, capturados, clave, obstaculosAnteriores, obstaculosNuevos);
+        EntidadesGrabadas intercambio = obstaculosAnteriores;
+        obstaculosAnteriores = obstaculosNuevos;
+        obstaculosNuevos = intercambio;
+
+        frameAnterior = frame;
+        vidaAnterior = vida;
+        puntajeAnterior = puntaje;
+        jugadorXAnterior = jugadorX;
+        jugadorYAnterior = jugadorY;
+        recorridoAnterior = recorridoCuantizado;
+        actual.ultimoFrame = frame;
+        actual.ticks++;
+        ticksGrabados++;
+
+        costoTotalNanos += System.nanoTime() - inicio;
+    }
+
+    /**
+     * Envía el bloque en curso, espera a que el escritor termine y cierra el
+     * archivo.
+     */
+    public void cerrar() {
+        if (actual != null && actual.ticks > 0) {
+            enviarBloque();
+        }
+        llenos.offer(FIN);
+        try {
+            escritor.join(5000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getTicksGrabados() {
+        return ticksGrabados;
+    }
+
+    /** Ticks que no se grabaron porque no había bloques libres. */
+    public long getTicksDescartados() {
+        return ticksDescartados;
+    }
+
+    /** Bytes comprimidos escritos en disco, incluidas las cabeceras. */
+    public long getBytesEscritos() {
+        return bytesEscritos;
+    }
+
+    /** Costo medio de grabar un tick en el hilo del juego, en microsegundos. */
+    public float getCostoMedioMicros() {
+        long ticks = ticksGrabados + ticksDescartados;
+        return ticks == 0 ? 0f : costoTotalNanos / 1000f / ticks;
+    }
+
+    /** Mensaje del último error de escritura, o <code>null</code> si no hubo. */
+    public String getError() {
+        return error;
+    }
+
+    private void enviarBloque() {
+        actual.datos.flip();
+        // La cola de llenos tiene lugar para todos los bloques, así que nunca bloquea
+        llenos.offer(actual);
+        actual = null;
+    }
+
+    /** Copia id, posición y tipo de los obstáculos a <code>capturados</code>, ordenados por id. */
+    private void capturar(Consulta consulta) {
+        int n = 0;
+        for (int t = 0; t < consulta.getCantidadTablas(); t++) {
+            Arquetipo tabla = consulta.getTabla(t);
+            float[] x = tabla.getFloats(POSICION, X);
+            float[] y = tabla.getFloats(POSICION, Y);
+            int[] tipo = tabla.getInts(OBSTACULO, TIPO);
+            for (int i = 0; i < tabla.getCantidad(); i++, n++) {
+                capturados.poner(n, tabla.getEntidad(i), cuantizar(x[i]), cuantizar(y[i]), (byte) tipo[i]);
+            }
+        }
+        capturados.cantidad = n;
+        capturados.ordenarPorId();
+    }
+
+    private void codificarLista(ByteBuffer datos, EntidadesGrabadas lista, boolean clave,
+                                EntidadesGrabadas anteriores, EntidadesGrabadas nuevas) {
+        int cantidad = lista.cantidad;
+        FormatoTelemetria.escribirVarint(datos, cantidad);
+
+        int idAnterior = 0;
+        int buscado = 0;
+        for (int i = 0; i < cantidad; i++) {
+            int id = lista.ids[i];
+            int x = lista.qx[i];
+            int y = lista.qy[i];
+            byte tipo = lista.tipos[i];
+
+            FormatoTelemetria.escribirZigzag(datos, id - idAnterior);
+            idAnterior = id;
+
+            if (!clave) {
+                buscado = anteriores.avanzarHasta(buscado, id);
+            }
+            if (!clave && buscado < anteriores.cantidad && anteriores.ids[buscado] == id) {
+                FormatoTelemetria.escribirZigzag(datos, x - anteriores.qx[buscado]);
+                FormatoTelemetria.escribirZigzag(datos, y - anteriores.qy[buscado]);
+            } else {
+                datos.put(tipo);
+                FormatoTelemetria.escribirZigzag(datos, x);
+                FormatoTelemetria.escribirZigzag(datos, y);
+            }
+            nuevas.poner(i, id, x, y, tipo);
+        }
+        nuevas.cantidad = cantidad;
+    }
+
+    private static int cuantizar(float posicion) {
+        return Math.round(posicion * FormatoTelemetria.ESCALA_POSICION);
+    }
+
+    // -------------------------------------------------------------------------
+    // Hilo escritor
+    // -------------------------------------------------------------------------
+
+    private void escribirBloques() {
+        Deflater compresor = new Deflater(Deflater.BEST_SPEED);
+        byte[] comprimido = new byte[BYTES_POR_BLOQUE + 1024];
+        ByteBuffer cabecera = ByteBuffer.allocate(FormatoTelemetria.LARGO_CABECERA).order(ByteOrder.BIG_ENDIAN);
+
+        try {
+            while (true) {
+                Bloque bloque = llenos.take();
+                if (bloque == FIN) {
+                    break;
+                }
+                if (error == null) {
+                    try {
+                        compresor.reset();
+                        compresor.setInput(bloque.datos.array(), 0, bloque.datos.limit());
+                        compresor.finish();
+                        int largo = 0;
+                        while (!compresor.finished()) {
+                            if (largo == comprimido.length) {
+                                comprimido = Arrays.copyOf(comprimido, comprimido.length * 2);
+                            }
+                            largo += compresor.deflate(comprimido, largo, comprimido.length - largo);
+                        }
+
+                        cabecera.clear();
+                        cabecera.putInt(FormatoTelemetria.MAGIA);
+                        cabecera.putLong(bloque.semilla);
+                        cabecera.putLong(bloque.primerFrame);
+                        cabecera.putLong(bloque.ultimoFrame);
+                        cabecera.putInt(bloque.ticks);
+                        cabecera.putInt(bloque.datos.limit());
+                        cabecera.putInt(largo);
+                        cabecera.flip();
+
+                        ByteBuffer cuerpo = ByteBuffer.wrap(comprimido, 0, largo);
+                        ByteBuffer[] partes = {cabecera, cuerpo};
+                        while (cuerpo.hasRemaining()) {
+                            canal.write(partes);
+                        }
+                        bytesEscritos += FormatoTelemetria.LARGO_CABECERA + largo;
+
+                        if (canal.position() >= bytesPorArchivo) {
+                            rotar();
+                        }
+                    } catch (IOException e) {
+                        error = e.getMessage();
+                    }
+                }
+                libres.offer(bloque);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            compresor.end();
+            try {
+                canal.close();
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e.getMessage();
+                }
+            }
+        }
+    }
+
+    private FileChannel abrir() throws IOException {
+        return FileChannel.open(archivo.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    /** Desplaza los archivos rotados un lugar y empieza un archivo nuevo. */
+    private void rotar() throws IOException {
+        canal.close();
+        Files.deleteIfExists(rotado(archivosRetenidos).toPath());
+        for (int i = archivosRetenidos - 1; i >= 1; i--) {
+            File origen = rotado(i);
+            if (origen.exists()) {
+                Files.move(origen.toPath(), rotado(i + 1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(archivo.toPath(), rotado(1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        canal = abrir();
+    }
+
+    private File rotado(int indice) {
+        return new File(archivo.getPath() + "." + indice);
+    }
+}
@@ -0,0 +1,234 @@
+package com.duoc.race.telemetria;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Recorre, tick a tick, una sesión grabada por el {@link GrabadorTelemetria}.
+ * <p>
+ * Una sesión puede ocupar varios archivos por la rotación; se leen del más
+ * antiguo al más nuevo. Un bloque incompleto al final de un archivo (por
+ * ejemplo, si el juego se cerró de golpe) se ignora.
+ * </p>
+ * <p>
+ * Para saltar a un frame se usan solo las cabeceras: los bloques que terminan
+ * antes del frame buscado se saltan sin descomprimirlos.
+ * </p>
+ */
+public class LectorTelemetria implements Closeable {
+
+    private final List<File> archivos;
+    private final ByteBuffer cabecera = ByteBuffer.allocate(FormatoTelemetria.LARGO_CABECERA).order(ByteOrder.BIG_ENDIAN);
+    private final Inflater descompresor = new Inflater();
+
+    private int siguienteArchivo = 0;
+    private FileChannel canal;
+
+    private ByteBuffer bloque = ByteBuffer.allocate(0);
+    private byte[] comprimido = new byte[0];
+    private int ticksRestantes = 0;
+    private boolean primerTickDelBloque = false;
+    private long semillaBloque;
+
+    /**
+     * @param archivos archivos de la sesión, del más antiguo al más nuevo.
+     */
+    public LectorTelemetria(List<File> archivos) {
+        this.archivos = new ArrayList<>(archivos);
+    }
+
+    /**
+     * Archivos que forman la sesión grabada en <code>archivo</code>: primero
+     * las rotaciones más antiguas (<code>.N</code> … <code>.1</code>) y al
+     * final el archivo actual.
+     */
+    public static List<File> archivosDeSesion(File archivo) {
+        List<File> rotados = new ArrayList<>();
+        for (int i = 1; new File(archivo.getPath() + "." + i).exists(); i++) {
+            rotados.add(0, new File(archivo.getPath() + "." + i));
+        }
+        if (archivo.exists()) {
+            rotados.add(archivo);
+        }
+        return rotados;
+    }
+
+    /**
+     * Lee el siguiente tick.
+     *
+     * @param foto instancia donde se deja el estado del tick.
+     * @return <code>false</code> si la sesión terminó.
+     */
+    public boolean siguiente(FotoTelemetria foto) throws IOException {
+        while (ticksRestantes == 0) {
+            if (!leerCabecera()) {
+                return false;
+            }
+            if (!leerBloque()) {
+                return false;
+            }
+        }
+        decodificarTick(foto);
+        ticksRestantes--;
+        return true;
+    }
+
+    /**
+     * Avanza hasta el primer tick cuyo frame sea igual o posterior a
+     * <code>frame</code>.
+     *
+     * @return <code>false</code> si la sesión termina antes de ese frame.
+     */
+    public boolean avanzarHasta(long frame, FotoTelemetria foto) throws IOException {
+        while (ticksRestantes == 0) {
+            if (!leerCabecera()) {
+                return false;
+            }
+            long ultimoFrame = cabecera.getLong(20);
+            if (ultimoFrame >= frame) {
+                if (!leerBloque()) {
+                    return false;
+                }
+            } else {
+                canal.position(canal.position() + cabecera.getInt(36));
+            }
+        }
+        while (siguiente(foto)) {
+            if (foto.frame >= frame) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        descompresor.end();
+        if (canal != null) {
+            canal.close();
+            canal = null;
+        }
+    }
+
+    /**
+     * Lee la cabecera del siguiente bloque, pasando al siguiente archivo cuando
+     * el actual se termina.
+     */
+    private boolean leerCabecera() throws IOException {
+        while (true) {
+            if (canal == null) {
+                if (siguienteArchivo >= archivos.size()) {
+                    return false;
+                }
+                canal = FileChannel.open(archivos.get(siguienteArchivo++).toPath(), StandardOpenOption.READ);
+            }
+            cabecera.clear();
+            if (leerCompleto(cabecera) && cabecera.getInt(0) == FormatoTelemetria.MAGIA) {
+                return true;
+            }
+            canal.close();
+            canal = null;
+        }
+    }
+
+    /** Lee y descomprime el bloque cuya cabecera se acaba de leer. */
+    private boolean leerBloque() throws IOException {
+        int ticks = cabecera.getInt(28);
+        int largoCrudo = cabecera.getInt(32);
+        int largoComprimido = cabecera.getInt(36);
+
+        if (comprimido.length < largoComprimido) {
+            comprimido = new byte[largoComprimido];
+        }
+        if (bloque.capacity() < largoCrudo) {
+            bloque = ByteBuffer.allocate(largoCrudo);
+        }
+
+        ByteBuffer destino = ByteBuffer.wrap(comprimido, 0, largoComprimido);
+        if (!leerCompleto(destino)) {
+            // Bloque cortado al final del archivo: se pasa al siguiente
+            canal.close();
+            canal = null;
+            return leerCabecera() && leerBloque();
+        }
+
+        descompresor.reset();
+        descompresor.setInput(comprimido, 0, largoComprimido);
+        try {
+            int largo = 0;
+            while (largo < largoCrudo && !descompresor.finished()) {
+                largo += descompresor.inflate(bloque.array(), largo, largoCrudo - largo);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("bloque de telemetría dañado", e);
+        }
+
+        bloque.clear();
+        bloque.limit(largoCrudo);
+        semillaBloque = cabecera.getLong(4);
+        ticksRestantes = ticks;
+        primerTickDelBloque = true;
+        return true;
+    }
+
+    private boolean leerCompleto(ByteBuffer destino) throws IOException {
+        while (destino.hasRemaining()) {
+            if (canal.read(destino) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void decodificarTick(FotoTelemetria foto) {
+        boolean clave = primerTickDelBloque;
+        primerTickDelBloque = false;
+
+        long frame = FormatoTelemetria.leerZigzag(bloque);
+        foto.frame = clave ? frame : foto.frame + frame;
+        foto.semilla = semillaBloque;
+        foto.deltaMs = FormatoTelemetria.leerVarint(bloque) / FormatoTelemetria.ESCALA_TIEMPO;
+        foto.trabajoMs = FormatoTelemetria.leerVarint(bloque) / FormatoTelemetria.ESCALA_TIEMPO;
+        foto.gameOver = bloque.get() != 0;
+        foto.vida = (int) FormatoTelemetria.leerZigzag(bloque) + (clave ? 0 : foto.vida);
+        foto.puntaje = (int) FormatoTelemetria.leerZigzag(bloque) + (clave ? 0 : foto.puntaje);
+        foto.jugadorX = (int) FormatoTelemetria.leerZigzag(bloque) + (clave ? 0 : foto.jugadorX);
+        foto.jugadorY = (int) FormatoTelemetria.leerZigzag(bloque) + (clave ? 0 : foto.jugadorY);
+        foto.recorrido = (int) FormatoTelemetria.leerZigzag(bloque) + (clave ? 0 : foto.recorrido);
+
+        foto.avanzarListas();
+        decodificarLista(foto.obstaculosAnteriores, foto.obstaculos, clave);
+    }
+
+    private void decodificarLista(EntidadesGrabadas anteriores, EntidadesGrabadas nuevas, boolean clave) {
+        int cantidad = (int) FormatoTelemetria.leerVarint(bloque);
+        int id = 0;
+        int buscado = 0;
+        for (int i = 0; i < cantidad; i++) {
+            id += (int) FormatoTelemetria.leerZigzag(bloque);
+            if (!clave) {
+                buscado = anteriores.avanzarHasta(buscado, id);
+            }
+            if (!clave && buscado < anteriores.cantidad && anteriores.ids[buscado] == id) {
+                int x = anteriores.qx[buscado] + (int) FormatoTelemetria.leerZigzag(bloque);
+                int y = anteriores.qy[buscado] + (int) FormatoTelemetria.leerZigzag(bloque);
+                nuevas.poner(i, id, x, y, anteriores.tipos[buscado]);
+            } else {
+                byte tipo = bloque.get();
+                int x = (int) FormatoTelemetria.leerZigzag(bloque);
+                int y = (int) FormatoTelemetria.leerZigzag(bloque);
+                nuevas.poner(i, id, x, y, tipo);
+            }
+        }
+        nuevas.cantidad = cantidad;
+    }
+}
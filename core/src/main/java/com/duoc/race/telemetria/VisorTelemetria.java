@@ -0,0 +1,190 @@
+package com.duoc.race.telemetria;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Herramienta de consola para revisar una sesión grabada, sin abrir ventana
+ * ni cargar LibGDX.
+ *
+ * <p>Modos:</p>
+ * <ul>
+ *     <li><b>Resumen</b> (por defecto): duración, las carreras grabadas con su
+ *     semilla, percentiles del tiempo de frame y de trabajo, los frames más
+ *     lentos (tirones) y los frames en que el jugador perdió vida.</li>
+ *
+ *     <li><b><code>--tick N</code></b>: estado completo del mundo en el frame
+ *     <code>N</code> (o el primero grabado después).</li>
+ *
+ *     <li><b><code>--rango A B</code></b>: una línea por tick entre los frames
+ *     <code>A</code> y <code>B</code>, para seguir lo que pasó alrededor de un
+ *     tirón o de un choque.</li>
+ * </ul>
+ *
+ * <p>Uso: <code>./gradlew core:telemetryViewer --args="sesion.tlm --tick 1200"</code></p>
+ */
+public class VisorTelemetria {
+
+    private static final int PEORES_FRAMES = 5;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Uso: VisorTelemetria <archivo> [--tick N | --rango A B]");
+            System.exit(2);
+        }
+
+        List<File> archivos = LectorTelemetria.archivosDeSesion(new File(args[0]));
+        if (archivos.isEmpty()) {
+            System.err.println("No existe la grabación " + args[0]);
+            System.exit(1);
+        }
+
+        try (LectorTelemetria lector = new LectorTelemetria(archivos)) {
+            if (args.length >= 3 && args[1].equals("--tick")) {
+                mostrarTick(lector, Long.parseLong(args[2]));
+            } else if (args.length >= 4 && args[1].equals("--rango")) {
+                mostrarRango(lector, Long.parseLong(args[2]), Long.parseLong(args[3]));
+            } else {
+                mostrarResumen(lector, archivos.size());
+            }
+        }
+    }
+
+    private static void mostrarTick(LectorTelemetria lector, long frame) throws IOException {
+        FotoTelemetria foto = new FotoTelemetria();
+        if (!lector.avanzarHasta(frame, foto)) {
+            System.out.println("La grabación termina antes del frame " + frame);
+            return;
+        }
+
+        System.out.println(String.format(Locale.ROOT,
+            "frame %d  delta %.2f ms  trabajo %.2f ms  vida %d  puntaje %d%s",
+            foto.getFrame(), foto.getDeltaMs(), foto.getTrabajoMs(), foto.getVida(), foto.getPuntaje(),
+            foto.isGameOver() ? "  GAME OVER" : ""));
+        System.out.println(String.format(Locale.ROOT, "jugador   x=%.2f y=%.2f  recorrido %.2f  semilla %d",
+            foto.getJugadorX(), foto.getJugadorY(), foto.getRecorrido(), foto.getSemilla()));
+        imprimirEntidades("obstáculo", foto.getObstaculos());
+    }
+
+    private static void mostrarRango(LectorTelemetria lector, long desde, long hasta) throws IOException {
+        FotoTelemetria foto = new FotoTelemetria();
+        if (!lector.avanzarHasta(desde, foto)) {
+            System.out.println("La grabación termina antes del frame " + desde);
+            return;
+        }
+        System.out.println("frame      delta_ms  trabajo_ms  vida  puntaje  jugador_x  obstaculos");
+        do {
+            if (foto.getFrame() > hasta) {
+                break;
+            }
+            System.out.println(String.format(Locale.ROOT, "%-10d %8.2f %11.2f %5d %8d %10.2f %11d%s",
+                foto.getFrame(), foto.getDeltaMs(), foto.getTrabajoMs(), foto.getVida(), foto.getPuntaje(),
+                foto.getJugadorX(), foto.getObstaculos().getCantidad(), foto.isGameOver() ? "  GAME OVER" : ""));
+        } while (lector.siguiente(foto));
+    }
+
+    private static void mostrarResumen(LectorTelemetria lector, int cantidadArchivos) throws IOException {
+        FotoTelemetria foto = new FotoTelemetria();
+        float[] deltas = new float[1024];
+        float[] trabajos = new float[1024];
+        long[] peoresFrames = new long[PEORES_FRAMES];
+        float[] peoresDeltas = new float[PEORES_FRAMES];
+        int ticks = 0;
+        long primerFrame = -1L;
+        long ultimoFrame = -1L;
+        double duracionMs = 0.0;
+        int vidaAnterior = Integer.MIN_VALUE;
+        int maxObstaculos = 0;
+        StringBuilder choques = new StringBuilder();
+        StringBuilder carreras = new StringBuilder();
+        int cantidadCarreras = 0;
+        long semillaAnterior = 0L;
+
+        while (lector.siguiente(foto)) {
+            if (ticks == deltas.length) {
+                deltas = Arrays.copyOf(deltas, ticks * 2);
+                trabajos = Arrays.copyOf(trabajos, ticks * 2);
+            }
+            deltas[ticks] = foto.getDeltaMs();
+            trabajos[ticks] = foto.getTrabajoMs();
+            ticks++;
+
+            if (primerFrame < 0 || foto.getSemilla() != semillaAnterior) {
+                cantidadCarreras++;
+                semillaAnterior = foto.getSemilla();
+                carreras.append(String.format(Locale.ROOT, "  frame %d: semilla %d%n", foto.getFrame(), semillaAnterior));
+            }
+            if (primerFrame < 0) {
+                primerFrame = foto.getFrame();
+            }
+            ultimoFrame = foto.getFrame();
+            duracionMs += foto.getDeltaMs();
+            maxObstaculos = Math.max(maxObstaculos, foto.getObstaculos().getCantidad());
+            registrarPeor(peoresFrames, peoresDeltas, foto.getFrame(), foto.getDeltaMs());
+
+            if (vidaAnterior != Integer.MIN_VALUE && foto.getVida() < vidaAnterior) {
+                choques.append(String.format(Locale.ROOT, "  frame %d: vida %d -> %d%n",
+                    foto.getFrame(), vidaAnterior, foto.getVida()));
+            }
+            vidaAnterior = foto.getVida();
+        }
+
+        if (ticks == 0) {
+            System.out.println("La grabación no tiene ticks.");
+            return;
+        }
+
+        long framesEsperados = ultimoFrame - primerFrame + 1;
+        System.out.println(String.format(Locale.ROOT, "archivos %d  ticks %d  frames %d..%d  ticks faltantes %d  duración %.1f s",
+            cantidadArchivos, ticks, primerFrame, ultimoFrame, framesEsperados - ticks, duracionMs / 1000.0));
+        System.out.println("obstáculos simultáneos (máx) " + maxObstaculos);
+        System.out.print("carreras " + cantidadCarreras + ":\n" + carreras);
+
+        Arrays.sort(deltas, 0, ticks);
+        Arrays.sort(trabajos, 0, ticks);
+        System.out.println(String.format(Locale.ROOT, "delta ms    p50 %.2f  p95 %.2f  p99 %.2f  máx %.2f",
+            percentil(deltas, ticks, 0.5f), percentil(deltas, ticks, 0.95f),
+            percentil(deltas, ticks, 0.99f), deltas[ticks - 1]));
+        System.out.println(String.format(Locale.ROOT, "trabajo ms  p50 %.2f  p95 %.2f  p99 %.2f  máx %.2f",
+            percentil(trabajos, ticks, 0.5f), percentil(trabajos, ticks, 0.95f),
+            percentil(trabajos, ticks, 0.99f), trabajos[ticks - 1]));
+
+        System.out.println("frames más lentos:");
+        for (int i = 0; i < PEORES_FRAMES && peoresDeltas[i] > 0f; i++) {
+            System.out.println(String.format(Locale.ROOT, "  frame %d: %.2f ms", peoresFrames[i], peoresDeltas[i]));
+        }
+        System.out.print(choques.length() == 0 ? "sin choques\n" : "choques:\n" + choques);
+    }
+
+    /** Mantiene los frames con mayor delta, ordenados de mayor a menor. */
+    private static void registrarPeor(long[] frames, float[] deltas, long frame, float delta) {
+        int posicion = deltas.length;
+        while (posicion > 0 && deltas[posicion - 1] < delta) {
+            posicion--;
+        }
+        if (posicion == deltas.length) {
+            return;
+        }
+        for (int i = deltas.length - 1; i > posicion; i--) {
+            deltas[i] = deltas[i - 1];
+            frames[i] = frames[i - 1];
+        }
+        deltas[posicion] = delta;
+        frames[posicion] = frame;
+    }
+
+    private static float percentil(float[] ordenados, int cantidad, float p) {
+        int indice = Math.min(cantidad - 1, (int) Math.ceil(cantidad * p) - 1);
+        return ordenados[Math.max(0, indice)];
+    }
+
+    private static void imprimirEntidades(String nombre, EntidadesGrabadas entidades) {
+        for (int i = 0; i < entidades.getCantidad(); i++) {
+            System.out.println(String.format(Locale.ROOT, "%-9s id=%d tipo=%d x=%.2f y=%.2f",
+                nombre, entidades.getId(i), entidades.getTipo(i), entidades.getX(i), entidades.getY(i)));
+        }
+    }
+}
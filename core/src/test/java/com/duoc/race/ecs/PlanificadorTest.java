@@ -0,0 +1,185 @@
+package com.duoc.race.ecs;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Agrupación en etapas y ejecución con hilos auxiliares del {@link Planificador}.
+ */
+public class PlanificadorTest {
+
+    private static final Componente A = Componente.definir("pruebaA", 1, 0);
+    private static final Componente B = Componente.definir("pruebaB", 1, 0);
+    private static final Componente C = Componente.definir("pruebaC", 1, 0);
+
+    private final Mundo mundo = new Mundo();
+    private Planificador planificador;
+
+    @After
+    public void cerrar() {
+        if (planificador != null) {
+            planificador.dispose();
+        }
+    }
+
+    @Test
+    public void agrupaLosSistemasSinConflicto() {
+        planificador = new Planificador(mundo, 2);
+        SistemaPrueba escribeA = new SistemaPrueba(0L, A.getBit(), false);
+        SistemaPrueba escribeB = new SistemaPrueba(0L, B.getBit(), false);
+        SistemaPrueba leeC = new SistemaPrueba(C.getBit(), 0L, false);
+        SistemaPrueba leeA = new SistemaPrueba(A.getBit(), 0L, false);
+        SistemaPrueba exclusivo = new SistemaPrueba(0L, 0L, true);
+        SistemaPrueba escribeC = new SistemaPrueba(0L, C.getBit(), false);
+        SistemaPrueba leeB = new SistemaPrueba(B.getBit(), 0L, false);
+
+        for (Sistema sistema : Arrays.asList(escribeA, escribeB, leeC, leeA, exclusivo, escribeC, leeB)) {
+            planificador.agregar(sistema);
+        }
+
+        assertEquals(4, planificador.getCantidadEtapas());
+        assertEquals(Arrays.asList(escribeA, escribeB, leeC), planificador.getEtapa(0));
+        // Lee lo que escribe un sistema de la etapa anterior
+        assertEquals(Arrays.asList(leeA), planificador.getEtapa(1));
+        assertEquals(Arrays.asList(exclusivo), planificador.getEtapa(2));
+        // Después de un exclusivo siempre empieza otra etapa
+        assertEquals(Arrays.asList(escribeC, leeB), planificador.getEtapa(3));
+    }
+
+    @Test
+    public void ejecutaLaEtapaEnVariosHilos() throws Exception {
+        planificador = new Planificador(mundo, 2);
+        // Cada sistema espera a los otros dos: en un solo hilo no terminaría nunca
+        CountDownLatch todos = new CountDownLatch(3);
+        SistemaPrueba[] sistemas = new SistemaPrueba[3];
+        Componente[] escrituras = {A, B, C};
+        for (int i = 0; i < sistemas.length; i++) {
+            sistemas[i] = new SistemaPrueba(0L, escrituras[i].getBit(), false) {
+                @Override
+                public void ejecutar(float delta) {
+                    super.ejecutar(delta);
+                    todos.countDown();
+                    try {
+                        if (!todos.await(5, TimeUnit.SECONDS)) {
+                            throw new IllegalStateException("los sistemas no corrieron a la vez");
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+            planificador.agregar(sistemas[i]);
+        }
+        assertEquals(1, planificador.getCantidadEtapas());
+
+        planificador.ejecutar(0.016f);
+
+        assertEquals(Thread.currentThread(), sistemas[0].hilo);
+        assertFalse(sistemas[1].hilo == Thread.currentThread());
+        assertFalse(sistemas[2].hilo == Thread.currentThread());
+        assertFalse(sistemas[1].hilo == sistemas[2].hilo);
+    }
+
+    @Test
+    public void aplicaLasDestruccionesAnotadasEnParaleloEntreEtapas() {
+        planificador = new Planificador(mundo, 2);
+        Arquetipo tabla = mundo.arquetipo(A, B);
+        int[] entidades = new int[8];
+        for (int i = 0; i < entidades.length; i++) {
+            entidades[i] = mundo.crear(tabla);
+        }
+        // Dos sistemas de la misma etapa anotan destrucciones a la vez
+        planificador.agregar(new SistemaPrueba(A.getBit(), 0L, false) {
+            @Override
+            public void ejecutar(float delta) {
+                for (int i = 0; i < entidades.length; i += 2) {
+                    mundo.destruir(entidades[i]);
+                }
+            }
+        });
+        planificador.agregar(new SistemaPrueba(B.getBit(), 0L, false) {
+            @Override
+            public void ejecutar(float delta) {
+                for (int i = 1; i < entidades.length; i += 2) {
+                    mundo.destruir(entidades[i]);
+                }
+            }
+        });
+        int[] vistas = new int[1];
+        planificador.agregar(new SistemaPrueba(0L, 0L, true) {
+            @Override
+            public void ejecutar(float delta) {
+                vistas[0] = tabla.getCantidad();
+            }
+        });
+        assertEquals(2, planificador.getCantidadEtapas());
+
+        planificador.ejecutar(0.016f);
+
+        assertEquals(0, vistas[0]);
+        assertEquals(0, mundo.getCantidadEntidades());
+        for (int entidad : entidades) {
+            assertFalse(mundo.estaViva(entidad));
+        }
+    }
+
+    @Test
+    public void propagaElErrorDeUnSistemaAuxiliar() {
+        planificador = new Planificador(mundo, 1);
+        planificador.agregar(new SistemaPrueba(0L, A.getBit(), false));
+        planificador.agregar(new SistemaPrueba(0L, B.getBit(), false) {
+            @Override
+            public void ejecutar(float delta) {
+                throw new ArithmeticException("prueba");
+            }
+        });
+        try {
+            planificador.ejecutar(0.016f);
+            fail("el error del hilo auxiliar se perdió");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof ArithmeticException);
+        }
+    }
+
+    private static class SistemaPrueba implements Sistema {
+        private final long lecturas;
+        private final long escrituras;
+        private final boolean exclusivo;
+        volatile Thread hilo;
+
+        SistemaPrueba(long lecturas, long escrituras, boolean exclusivo) {
+            this.lecturas = lecturas;
+            this.escrituras = escrituras;
+            this.exclusivo = exclusivo;
+        }
+
+        @Override
+        public long getLecturas() {
+            return lecturas;
+        }
+
+        @Override
+        public long getEscrituras() {
+            return escrituras;
+        }
+
+        @Override
+        public boolean isExclusivo() {
+            return exclusivo;
+        }
+
+        @Override
+        public void ejecutar(float delta) {
+            hilo = Thread.currentThread();
+        }
+    }
+}
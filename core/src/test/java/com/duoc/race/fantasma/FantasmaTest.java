@@ -0,0 +1,132 @@
+package com.duoc.race.fantasma;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Ida y vuelta {@link GrabadorFantasma} → archivo → {@link Fantasma}: claves
+ * cada {@link FormatoFantasma#INTERVALO_CLAVE} ticks, deltas que no caben en
+ * un byte y carreras largas sin que el error se acumule.
+ */
+public class FantasmaTest {
+
+    private static final int TICKS_POR_SEGUNDO = 60;
+    // Medio cuarto de píxel: lo más que puede errar la cuantización
+    private static final float TOLERANCIA = 0.5f / FormatoFantasma.ESCALA_POSICION;
+
+    private File archivo;
+    private Fantasma fantasma;
+
+    @Before
+    public void preparar() throws IOException {
+        archivo = File.createTempFile("prueba", FormatoFantasma.EXTENSION);
+    }
+
+    @After
+    public void limpiar() throws IOException {
+        if (fantasma != null) {
+            fantasma.close();
+        }
+        archivo.delete();
+    }
+
+    @Test
+    public void recuperaCadaTickAlrededorDeLasClaves() throws IOException {
+        int ticks = FormatoFantasma.INTERVALO_CLAVE * 4 + 10;
+        GrabadorFantasma grabador = new GrabadorFantasma(TICKS_POR_SEGUNDO);
+        grabador.iniciar(42L, x(0), distancia(0));
+        for (int t = 1; t < ticks; t++) {
+            grabador.registrar(tiempo(t), x(t), distancia(t));
+        }
+        abrir(grabador, 1234);
+
+        assertEquals(42L, fantasma.getSemilla());
+        assertEquals(1234, fantasma.getPuntaje());
+        assertEquals(ticks, grabador.getTicks());
+        // Hacia adelante, como en una carrera, y después saltando hacia atrás
+        for (int t = 0; t < ticks - 1; t++) {
+            comprobar(t, x(t), distancia(t));
+        }
+        int[] alrededorDeClaves = {129, 128, 127, 65, 64, 63, 1, 0, 192, 191};
+        for (int t : alrededorDeClaves) {
+            comprobar(t, x(t), distancia(t));
+        }
+        assertFalse(fantasma.ubicar(tiempo(ticks)));
+    }
+
+    @Test
+    public void unSaltoGrandeSeRepartePorLosTicksSiguientes() throws IOException {
+        GrabadorFantasma grabador = new GrabadorFantasma(TICKS_POR_SEGUNDO);
+        grabador.iniciar(7L, 100f, 0f);
+        // Tick 10: X salta 100 px (400 cuartos) y la distancia 200 px (800 cuartos)
+        for (int t = 1; t < 30; t++) {
+            boolean despues = t >= 10;
+            grabador.registrar(tiempo(t), despues ? 200f : 100f, despues ? 200f : 0f);
+        }
+        abrir(grabador, 0);
+
+        float pasoX = 127f / FormatoFantasma.ESCALA_POSICION;
+        float pasoDistancia = 255f / FormatoFantasma.ESCALA_POSICION;
+        comprobar(9, 100f, 0f);
+        comprobar(10, 100f + pasoX, pasoDistancia);
+        comprobar(11, 100f + pasoX * 2, pasoDistancia * 2);
+        comprobar(12, 100f + pasoX * 3, pasoDistancia * 3);
+        // Se alcanza la posición real y no queda error
+        comprobar(13, 200f, 200f);
+        comprobar(28, 200f, 200f);
+    }
+
+    @Test
+    public void unaCarreraLargaNoAcumulaError() throws IOException {
+        GrabadorFantasma grabador = new GrabadorFantasma(TICKS_POR_SEGUNDO);
+        grabador.iniciar(1L, 320f, 0f);
+        // Diez minutos con frames de duración irregular y velocidades que no
+        // son múltiplos de un cuarto de píxel
+        float velocidadX = 3.3f;
+        float velocidadDistancia = 301.7f;
+        float tiempo = 0f;
+        int frame = 0;
+        while (tiempo < 600f) {
+            tiempo += (frame++ % 3 == 0) ? 1f / 23f : 1f / 71f;
+            grabador.registrar(tiempo, 320f + velocidadX * tiempo, velocidadDistancia * tiempo);
+        }
+        abrir(grabador, 0);
+
+        int ultimo = grabador.getTicks() - 2;
+        for (int t = ultimo - FormatoFantasma.INTERVALO_CLAVE * 2; t <= ultimo; t++) {
+            float enTick = tiempo(t);
+            comprobar(t, 320f + velocidadX * enTick, velocidadDistancia * enTick);
+        }
+    }
+
+    private void abrir(GrabadorFantasma grabador, int puntaje) throws IOException {
+        grabador.escribir(archivo, puntaje);
+        fantasma = new Fantasma(archivo);
+    }
+
+    private void comprobar(int tick, float x, float distancia) {
+        assertTrue("tick " + tick, fantasma.ubicar(tiempo(tick)));
+        assertEquals("x en el tick " + tick, x, fantasma.getX(), TOLERANCIA);
+        assertEquals("distancia en el tick " + tick, distancia, fantasma.getDistancia(), TOLERANCIA);
+    }
+
+    private static float tiempo(int tick) {
+        return (float) tick / TICKS_POR_SEGUNDO;
+    }
+
+    private static float x(int tick) {
+        return 300f + 40f * (float) Math.sin(tick * 0.05);
+    }
+
+    private static float distancia(int tick) {
+        return tick * 5.3f;
+    }
+}
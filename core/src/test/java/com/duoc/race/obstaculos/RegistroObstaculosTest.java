@@ -0,0 +1,109 @@
+package com.duoc.race.obstaculos;
+
+import com.badlogic.gdx.files.FileHandle;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Carga y validación del registro de obstáculos, con un tipo de cada efecto.
+ */
+public class RegistroObstaculosTest {
+
+    private static final String UNO_DE_CADA_EFECTO = "{ \"tipos\": ["
+        + "{ \"nombre\": \"auto\", \"textura\": \"auto.png\", \"velocidad\": 700, \"danio\": 30, \"peso\": 6 },"
+        + "{ \"nombre\": \"aceite\", \"textura\": \"mancha.png\", \"region\": [0, 0, 64, 64],"
+        + "  \"ancho\": 60, \"alto\": 60, \"velocidad\": 500, \"peso\": 0, \"efecto\": \"derrape\", \"duracion\": 1.5 },"
+        + "{ \"nombre\": \"turbo\", \"textura\": \"turbo.png\", \"velocidad\": 500, \"peso\": 3,"
+        + "  \"efecto\": \"IMPULSO\", \"duracion\": 2 },"
+        + "{ \"nombre\": \"reparacion\", \"textura\": \"kit.png\", \"velocidad\": 400, \"danio\": -20, \"peso\": 1,"
+        + "  \"efecto\": \"RECOGIDA\" }"
+        + "] }";
+
+    private File archivo;
+
+    @Before
+    public void preparar() throws IOException {
+        archivo = File.createTempFile("obstaculos", ".json");
+    }
+
+    @After
+    public void limpiar() {
+        archivo.delete();
+    }
+
+    @Test
+    public void cargaUnTipoDeCadaEfecto() throws IOException {
+        RegistroObstaculos registro = cargar(UNO_DE_CADA_EFECTO);
+
+        assertEquals(4, registro.getCantidad());
+        assertEquals(EfectoChoque.CHOQUE, registro.get(1).getEfecto());
+        assertEquals(EfectoChoque.DERRAPE, registro.get(2).getEfecto());
+        assertEquals(EfectoChoque.IMPULSO, registro.get(3).getEfecto());
+        assertEquals(EfectoChoque.RECOGIDA, registro.get(4).getEfecto());
+
+        TipoObstaculo aceite = registro.get(2);
+        assertEquals(2, aceite.getId());
+        assertEquals("aceite", aceite.getNombre());
+        assertEquals(1.5f, aceite.getDuracion(), 0f);
+        assertEquals(64, aceite.getRegionAncho());
+        assertEquals(60, aceite.getAncho());
+        assertEquals(-20, registro.get(4).getDanio());
+        // Sin tamaño se usan los valores de los autos
+        assertEquals(100, registro.get(1).getAlto());
+        assertEquals(5f, registro.get(1).getMargen(), 0f);
+    }
+
+    @Test
+    public void eligeSegunLosPesos() throws IOException {
+        RegistroObstaculos registro = cargar(UNO_DE_CADA_EFECTO);
+
+        // Pesos 6, 0, 3 y 1: el aceite no aparece nunca
+        assertEquals("auto", registro.elegir(0f).getNombre());
+        assertEquals("auto", registro.elegir(0.59f).getNombre());
+        assertEquals("turbo", registro.elegir(0.65f).getNombre());
+        assertEquals("turbo", registro.elegir(0.89f).getNombre());
+        assertEquals("reparacion", registro.elegir(0.95f).getNombre());
+        assertEquals("reparacion", registro.elegir(1f).getNombre());
+    }
+
+    @Test
+    public void rechazaVelocidadCeroONegativa() throws IOException {
+        rechaza("{ \"tipos\": [ { \"nombre\": \"quieto\", \"textura\": \"a.png\", \"velocidad\": 0 } ] }", "quieto");
+        rechaza("{ \"tipos\": [ { \"nombre\": \"reversa\", \"textura\": \"a.png\", \"velocidad\": -300 } ] }", "reversa");
+    }
+
+    @Test
+    public void rechazaCamposFaltantesYValoresImposibles() throws IOException {
+        rechaza("{ \"tipos\": [ { \"nombre\": \"sinVelocidad\", \"textura\": \"a.png\" } ] }", "sinVelocidad");
+        rechaza("{ \"tipos\": [ { \"nombre\": \"raro\", \"textura\": \"a.png\", \"velocidad\": 100,"
+            + " \"efecto\": \"TELETRANSPORTE\" } ] }", "raro");
+        rechaza("{ \"tipos\": [ { \"nombre\": \"delgado\", \"textura\": \"a.png\", \"velocidad\": 100,"
+            + " \"ancho\": 8, \"margen\": 4 } ] }", "delgado");
+        rechaza("{ \"tipos\": [ { \"nombre\": \"invisible\", \"textura\": \"a.png\", \"velocidad\": 100,"
+            + " \"peso\": 0 } ] }", "peso");
+    }
+
+    private RegistroObstaculos cargar(String json) throws IOException {
+        Files.write(archivo.toPath(), json.getBytes(StandardCharsets.UTF_8));
+        return RegistroObstaculos.cargar(new FileHandle(archivo));
+    }
+
+    private void rechaza(String json, String enElMensaje) throws IOException {
+        try {
+            cargar(json);
+            fail("se aceptó un registro inválido: " + json);
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(enElMensaje));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.duoc.race.sistemas;
+
+import com.duoc.race.colision.MascaraAlfa;
+import com.duoc.race.ecs.Arquetipo;
+import com.duoc.race.ecs.Mundo;
+import com.duoc.race.interfaces.OyenteColision;
+import com.duoc.race.model.AutoJugador;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.duoc.race.sistemas.Componentes.*;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Choques con desplazamientos grandes, roces al borde y movimiento paralelo.
+ * El jugador mide 60x100 y está quieto en (200, 50) salvo que la prueba lo
+ * mueva; los obstáculos miden lo mismo y tienen máscaras llenas, así que la
+ * fase fina coincide con los rectángulos.
+ */
+public class SistemaColisionTest {
+
+    private static final float PASO = 0.5f;
+    private static final float VELOCIDAD_RAPIDA = 700f;
+
+    private Mundo mundo;
+    private Arquetipo arquetipo;
+    private AutoJugador jugador;
+    private SistemaColision sistema;
+    private int sprite;
+    private int spriteSinMascara;
+    private int choques;
+    private int roces;
+
+    @Before
+    public void preparar() {
+        mundo = new Mundo();
+        arquetipo = mundo.arquetipo(POSICION, POSICION_ANTERIOR, VELOCIDAD, TAMANO, SPRITE, OBSTACULO);
+        TablaSprites sprites = new TablaSprites();
+        int spriteJugador = sprites.registrar(null, mascaraLlena(60, 100));
+        sprite = sprites.registrar(null, mascaraLlena(60, 100));
+        spriteSinMascara = sprites.registrar(null, null);
+        jugador = new AutoJugador(200f, 50f, null);
+        choques = 0;
+        roces = 0;
+        sistema = new SistemaColision(mundo, sprites, jugador, spriteJugador, new OyenteColision() {
+            @Override
+            public void alChocar(int entidad, int tipo, float impactoX, float impactoY) {
+                choques++;
+            }
+
+            @Override
+            public void alRozar(float x, float y) {
+                roces++;
+            }
+        });
+    }
+
+    @Test
+    public void obstaculoRapidoNoAtraviesaAlJugador() {
+        // 700 px/s durante medio segundo: empieza arriba del auto y termina debajo
+        obstaculo(200f, 160f, 200f, 160f - VELOCIDAD_RAPIDA * PASO);
+        sistema.ejecutar(PASO);
+        assertEquals(1, choques);
+    }
+
+    @Test
+    public void sinColisionContinuaElObstaculoRapidoAtraviesa() {
+        sistema.setContinua(false, 4f);
+        obstaculo(200f, 160f, 200f, 160f - VELOCIDAD_RAPIDA * PASO);
+        sistema.ejecutar(PASO);
+        assertEquals(0, choques);
+    }
+
+    @Test
+    public void obstaculoRapidoSoloConRectangulos() {
+        sistema.setPorPixel(false);
+        obstaculo(200f, 160f, 200f, 160f - VELOCIDAD_RAPIDA * PASO);
+        sistema.ejecutar(PASO);
+        assertEquals(1, choques);
+    }
+
+    @Test
+    public void sinMascaraElBarridoUsaRectangulosReducidos() {
+        // Los rectángulos completos se solapan 10 px, pero los reducidos (margen 8 y el del auto) no
+        int entidad = obstaculo(250f, 160f, 250f, 160f - VELOCIDAD_RAPIDA * PASO);
+        mundo.setFloat(entidad, TAMANO, MARGEN, 8f);
+        mundo.setInt(entidad, SPRITE, IMAGEN, spriteSinMascara);
+        sistema.ejecutar(PASO);
+        assertEquals(0, choques);
+    }
+
+    @Test
+    public void sinMascaraElObstaculoRapidoChoca() {
+        int entidad = obstaculo(230f, 160f, 230f, 160f - VELOCIDAD_RAPIDA * PASO);
+        mundo.setFloat(entidad, TAMANO, MARGEN, 8f);
+        mundo.setInt(entidad, SPRITE, IMAGEN, spriteSinMascara);
+        sistema.ejecutar(PASO);
+        assertEquals(1, choques);
+    }
+
+    @Test
+    public void rozarElBordeNoEsChoque() {
+        // Pegado al costado derecho del auto durante todo el recorrido
+        obstaculo(260f, 160f, 260f, 160f - VELOCIDAD_RAPIDA * PASO);
+        sistema.ejecutar(PASO);
+        assertEquals(0, choques);
+        assertEquals(1, roces);
+    }
+
+    @Test
+    public void unPixelDeSolapeEsChoque() {
+        obstaculo(259f, 160f, 259f, 160f - VELOCIDAD_RAPIDA * PASO);
+        sistema.ejecutar(PASO);
+        assertEquals(1, choques);
+        assertEquals(0, roces);
+    }
+
+    @Test
+    public void movimientoParaleloSeparadoNoChoca() {
+        moverJugador(300f, 50f);
+        obstaculo(270f, 50f, 370f, 50f);
+        sistema.ejecutar(PASO);
+        assertEquals(0, choques);
+    }
+
+    @Test
+    public void movimientoParaleloPegadoNoChoca() {
+        moverJugador(200f, 50f + VELOCIDAD_RAPIDA * PASO);
+        obstaculo(260f, 50f, 260f, 50f + VELOCIDAD_RAPIDA * PASO);
+        sistema.ejecutar(PASO);
+        assertEquals(0, choques);
+    }
+
+    @Test
+    public void movimientoParaleloSolapadoChoca() {
+        moverJugador(300f, 50f);
+        obstaculo(250f, 50f, 350f, 50f);
+        sistema.ejecutar(PASO);
+        assertEquals(1, choques);
+    }
+
+    private void moverJugador(float x, float y) {
+        jugador.savePreviousPosition();
+        jugador.setX(x);
+        jugador.setY(y);
+    }
+
+    private int obstaculo(float desdeX, float desdeY, float hastaX, float hastaY) {
+        int entidad = mundo.crear(arquetipo);
+        mundo.setFloat(entidad, POSICION_ANTERIOR, X, desdeX);
+        mundo.setFloat(entidad, POSICION_ANTERIOR, Y, desdeY);
+        mundo.setFloat(entidad, POSICION, X, hastaX);
+        mundo.setFloat(entidad, POSICION, Y, hastaY);
+        mundo.setFloat(entidad, TAMANO, ANCHO, 60f);
+        mundo.setFloat(entidad, TAMANO, ALTO, 100f);
+        mundo.setInt(entidad, SPRITE, IMAGEN, sprite);
+        return entidad;
+    }
+
+    private static MascaraAlfa mascaraLlena(int ancho, int alto) {
+        MascaraAlfa mascara = new MascaraAlfa(ancho, alto);
+        for (int y = 0; y < alto; y++) {
+            for (int x = 0; x < ancho; x++) {
+                mascara.marcar(x, y);
+            }
+        }
+        return mascara;
+    }
+}
@@ -1,18 +1,133 @@
 package com.duoc.race.lwjgl3;
 
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.duoc.race.ConfiguracionJuego;
 import com.duoc.race.Main;
+import com.duoc.race.captura.FormatoCaptura;
+
+import java.io.File;
+import java.util.Locale;
 
 /** Launches the desktop (LWJGL3) application. */
 public class Lwjgl3Launcher {
+    private static final int BENCHMARK_WIDTH = 1280;
+    private static final int BENCHMARK_HEIGHT = 720;
+
     public static void main(String[] args) {
-        if (StartupHelper.startNewJvmIfRequired()) return; // This handles macOS support and helps on Windows.
-        createApplication();
+        long mainStart = System.nanoTime();
+        if (StartupHelper.startNewJvmIfRequired(true, args)) return; // This handles macOS support and helps on Windows.
+        createApplication(args, mainStart);
+    }
+
+    private static Lwjgl3Application createApplication(String[] args, long mainStart) {
+        //// --bot lets the lookahead AI drive and restarts after each game over (attract mode, soak runs).
+        //// --record <file> writes session telemetry; inspect it with core:telemetryViewer.
+        ConfiguracionJuego configuration = new ConfiguracionJuego()
+            .setModoBot(hasArgument(args, "--bot"));
+        String recordFile = argumentValue(args, "--record");
+        if (recordFile != null) {
+            configuration.setArchivoTelemetria(new File(recordFile));
+        }
+        //// --vram-budget-mb <n> caps the estimated texture memory kept cached by the resource manager.
+        String vramBudget = argumentValue(args, "--vram-budget-mb");
+        if (vramBudget != null) {
+            long budgetMb = parseVramBudgetMb(vramBudget);
+            if (budgetMb > 0) {
+                configuration.setPresupuestoVram(budgetMb * 1024 * 1024);
+            } else {
+                System.err.println("Invalid --vram-budget-mb '" + vramBudget + "', expected a positive number of MB; using "
+                    + configuration.getPresupuestoVram() / (1024 * 1024) + " MB instead.");
+            }
+        }
+        //// --track-resources makes the resource leak report on exit say where each leaked handle was acquired.
+        configuration.setRastrearRecursos(hasArgument(args, "--track-resources"));
+        //// --input-latency logs the time from the event poll that delivered each input to the end of drawing
+        //// the frame that showed it, before the buffer swap.
+        if (hasArgument(args, "--input-latency")) {
+            configuration.setSondaLatencia((eventNanos, drawnNanos) -> Gdx.app.log("ENTRADA",
+                String.format(Locale.ROOT, "latencia %.2f ms", (drawnNanos - eventNanos) / 1_000_000f)));
+        }
+        //// --capture <dir> records video from the first frame into <dir>; F11 toggles recording and F12
+        //// saves a screenshot at any time. --capture-format png|y4m picks the video format (y4m by default).
+        String captureDir = argumentValue(args, "--capture");
+        if (captureDir != null) {
+            configuration.setCarpetaCapturas(new File(captureDir)).setGrabarAlIniciar(true);
+        }
+        String captureFormat = argumentValue(args, "--capture-format");
+        if (captureFormat != null) {
+            FormatoCaptura format = parseCaptureFormat(captureFormat);
+            if (format != null) {
+                configuration.setFormatoVideo(format);
+            } else {
+                System.err.println("Unknown --capture-format '" + captureFormat + "', expected one of "
+                    + acceptedCaptureFormats() + "; recording "
+                    + configuration.getFormatoVideo().name().toLowerCase(Locale.ROOT) + " instead.");
+            }
+        }
+        //// --ghosts races every run on the track of the best saved run, against translucent replays of the
+        //// best runs on that track; --ghost-dir <dir> changes where they are kept (fantasmas/ by default).
+        String ghostDir = argumentValue(args, "--ghost-dir");
+        if (ghostDir != null || hasArgument(args, "--ghosts")) {
+            configuration.setCarpetaFantasmas(new File(ghostDir != null ? ghostDir : "fantasmas"));
+        }
+        //// --benchmark runs the scripted rendering stages at a fixed seed and resolution, without vsync, and
+        //// writes a JSON report (benchmark.json, or the file given with --benchmark-report <file>).
+        boolean benchmark = hasArgument(args, "--benchmark");
+        if (benchmark) {
+            String report = argumentValue(args, "--benchmark-report");
+            configuration.setArchivoBenchmark(new File(report != null ? report : "benchmark.json"));
+        }
+        ApplicationListener game = new Main(configuration);
+        //// --startup-probe prints time-to-loaded-game and RSS, then exits; see scripts/startup-benchmark.sh.
+        if (hasArgument(args, "--startup-probe")) {
+            SondaArranque probe = new SondaArranque(game, true, mainStart);
+            configuration.setOyenteCarga(probe);
+            game = probe;
+        }
+        return new Lwjgl3Application(game, benchmark ? getBenchmarkConfiguration() : getDefaultConfiguration());
+    }
+
+    private static boolean hasArgument(String[] args, String name) {
+        for (String arg : args) {
+            if (name.equals(arg)) return true;
+        }
+        return false;
+    }
+
+    private static String argumentValue(String[] args, String name) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (name.equals(args[i])) return args[i + 1];
+        }
+        return null;
     }
 
-    private static Lwjgl3Application createApplication() {
-        return new Lwjgl3Application(new Main(), getDefaultConfiguration());
+    /** Returns the budget in MB, or -1 if the value is not a positive number that fits in bytes. */
+    private static long parseVramBudgetMb(String value) {
+        try {
+            long megabytes = Long.parseLong(value.trim());
+            return megabytes > 0 && megabytes <= Long.MAX_VALUE / (1024 * 1024) ? megabytes : -1L;
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static FormatoCaptura parseCaptureFormat(String value) {
+        for (FormatoCaptura format : FormatoCaptura.values()) {
+            if (format.name().equalsIgnoreCase(value)) return format;
+        }
+        return null;
+    }
+
+    private static String acceptedCaptureFormats() {
+        StringBuilder accepted = new StringBuilder();
+        for (FormatoCaptura format : FormatoCaptura.values()) {
+            if (accepted.length() > 0) accepted.append(", ");
+            accepted.append(format.name().toLowerCase(Locale.ROOT));
+        }
+        return accepted.toString();
     }
 
     private static Lwjgl3ApplicationConfiguration getDefaultConfiguration() {
@@ -42,4 +157,19 @@ public class Lwjgl3Launcher {
 
         return configuration;
     }
+
+    private static Lwjgl3ApplicationConfiguration getBenchmarkConfiguration() {
+        Lwjgl3ApplicationConfiguration configuration = new Lwjgl3ApplicationConfiguration();
+        configuration.setTitle("DuocRacing benchmark");
+        //// No vsync and no frame cap, so the report measures how fast frames can be made, not the monitor.
+        configuration.useVsync(false);
+        configuration.setForegroundFPS(0);
+        //// A fixed, non-resizable window keeps the fill cost identical between runs and machines.
+        configuration.setWindowedMode(BENCHMARK_WIDTH, BENCHMARK_HEIGHT);
+        configuration.setResizable(false);
+        //// Plain desktop OpenGL instead of ANGLE: Mesa's llvmpipe provides it on machines without a GPU
+        //// (run under xvfb-run when there is no display).
+        configuration.setOpenGLEmulation(Lwjgl3ApplicationConfiguration.GLEmulation.GL20, 0, 0);
+        return configuration;
+    }
 }
\ No newline at end of file
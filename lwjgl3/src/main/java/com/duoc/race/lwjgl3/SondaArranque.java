@@ -0,0 +1,275 @@
+package com.duoc.race.lwjgl3;
+
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Gdx;
+import com.duoc.race.interfaces.OyenteCarga;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Envuelve la aplicación para medir el arranque: cuánto tarda en terminar
+ * <code>create()</code>, cuánto tarda el primer <code>render()</code> (la
+ * pantalla de carga), cuánto tarda el juego en quedar cargado y cuánta memoria
+ * residente (RSS) usa el proceso en ese momento.
+ * <p>
+ * Los tiempos se miden desde que el sistema operativo creó el proceso (cuando
+ * se puede leer en <code>/proc</code>), de modo que incluyen el arranque de la
+ * JVM y son comparables entre el jar y el ejecutable nativo de GraalVM. El
+ * juego avisa por {@link OyenteCarga} cuando termina de cargar; al terminar el
+ * primer frame que empieza después de ese aviso se imprime una línea
+ * <code>STARTUP</code> y, si se pidió, se cierra la aplicación. Así la
+ * medición (y el entrenamiento del archivo AppCDS) cubre las texturas, el
+ * mundo, la pista y el audio, no solo el texto "CARGANDO...".
+ * </p>
+ * <p>
+ * En la JVM también se informa cuántas clases se cargaron, cuánto tiempo
+ * pasó la JVM cargándolas y si se usó un archivo de Class Data Sharing, para
+ * comparar el arranque con y sin el archivo AppCDS.
+ * </p>
+ */
+public class SondaArranque implements ApplicationListener, OyenteCarga {
+
+    private final ApplicationListener juego;
+    private final boolean salirAlCargar;
+    private final long inicioMain;
+
+    private long finCreate;
+    private long primerRender;
+    private long finCarga;
+    private boolean cargado;
+    private boolean informado;
+
+    /**
+     * @param juego         aplicación real a la que se delegan todos los eventos.
+     * @param salirAlCargar si es <code>true</code>, cierra la aplicación tras el
+     *                      primer frame del juego ya cargado (o si la carga falla).
+     * @param inicioMain    <code>System.nanoTime()</code> tomado al entrar a <code>main</code>.
+     */
+    public SondaArranque(ApplicationListener juego, boolean salirAlCargar, long inicioMain) {
+        this.juego = juego;
+        this.salirAlCargar = salirAlCargar;
+        this.inicioMain = inicioMain;
+    }
+
+    @Override
+    public void juegoCargado(boolean exito) {
+        finCarga = System.nanoTime();
+        if (exito) {
+            cargado = true;
+            return;
+        }
+        System.err.println("STARTUP: la carga del juego falló, no hay medición");
+        informado = true;
+        if (salirAlCargar) {
+            Gdx.app.exit();
+        }
+    }
+
+    @Override
+    public void create() {
+        juego.create();
+        finCreate = System.nanoTime();
+    }
+
+    @Override
+    public void render() {
+        // Solo cuenta un frame que empezó con el juego ya cargado: el frame que
+        // llama a loadGame() termina sin haber dibujado la carrera ni el menú
+        boolean cargadoAlEmpezar = cargado;
+        juego.render();
+        if (primerRender == 0L) {
+            primerRender = System.nanoTime();
+        }
+        if (!cargadoAlEmpezar || informado) {
+            return;
+        }
+        informado = true;
+
+        long listo = System.nanoTime();
+        long antesDeMain = edadProcesoMs() - (listo - inicioMain) / 1_000_000L;
+
+        System.out.println("STARTUP"
+            + " modo=" + (esImagenNativa() ? "native" : "jvm")
+            + " antes_de_main_ms=" + Math.max(antesDeMain, -1L)
+            + " create_ms=" + (finCreate - inicioMain) / 1_000_000L
+            + " primer_frame_ms=" + (primerRender - inicioMain) / 1_000_000L
+            + " carga_ms=" + (finCarga - inicioMain) / 1_000_000L
+            + " listo_ms=" + (listo - inicioMain) / 1_000_000L
+            + " rss_kb=" + leerEstado("VmRSS:")
+            + " rss_max_kb=" + leerEstado("VmHWM:")
+            + " clases=" + clasesCargadas()
+            + " carga_clases_ms=" + tiempoCargaClasesMs()
+            + " cds=" + usaArchivoCds());
+
+        if (salirAlCargar) {
+            Gdx.app.exit();
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        juego.resize(width, height);
+    }
+
+    @Override
+    public void pause() {
+        juego.pause();
+    }
+
+    @Override
+    public void resume() {
+        juego.resume();
+    }
+
+    @Override
+    public void dispose() {
+        juego.dispose();
+    }
+
+    static boolean esImagenNativa() {
+        return !System.getProperty("org.graalvm.nativeimage.imagecode", "").isEmpty();
+    }
+
+    private static long clasesCargadas() {
+        if (esImagenNativa()) {
+            return -1L;
+        }
+        return ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+    }
+
+    /**
+     * Tiempo total que la JVM pasó cargando clases, leído de los contadores de
+     * rendimiento de HotSpot (los mismos que muestra <code>jstat -class</code>).
+     * Devuelve <code>-1</code> si la JVM no los expone.
+     */
+    private static long tiempoCargaClasesMs() {
+        if (esImagenNativa()) {
+            return -1L;
+        }
+        long ticks = leerContadorHotSpot("sun.cls.time");
+        long frecuencia = leerContadorHotSpot("sun.os.hrt.frequency");
+        if (ticks < 0 || frecuencia <= 0) {
+            return -1L;
+        }
+        return ticks * 1000L / frecuencia;
+    }
+
+    /**
+     * Lee un contador numérico del archivo <code>hsperfdata</code> que HotSpot
+     * publica para cada proceso.
+     *
+     * @return el valor del contador, o <code>-1</code> si no se encuentra.
+     */
+    private static long leerContadorHotSpot(String nombre) {
+        String pid = ManagementFactory.getRuntimeMXBean().getName().split("@")[0];
+        File archivo = new File(System.getProperty("java.io.tmpdir"),
+            "hsperfdata_" + System.getProperty("user.name") + File.separator + pid);
+        if (!archivo.exists()) {
+            return -1L;
+        }
+        try (RandomAccessFile lector = new RandomAccessFile(archivo, "r");
+             FileChannel canal = lector.getChannel()) {
+            MappedByteBuffer datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            datos.order(datos.get(4) == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+
+            // Cabecera: desplazamiento de la primera entrada y cantidad de entradas
+            int entrada = datos.getInt(24);
+            int cantidad = datos.getInt(28);
+            for (int i = 0; i < cantidad; i++) {
+                int largo = datos.getInt(entrada);
+                int desplazamientoNombre = datos.getInt(entrada + 4);
+                int largoVector = datos.getInt(entrada + 8);
+                byte tipo = datos.get(entrada + 12);
+                int desplazamientoDato = datos.getInt(entrada + 16);
+
+                if (tipo == 'J' && largoVector == 0 && nombreEs(datos, entrada + desplazamientoNombre, nombre)) {
+                    return datos.getLong(entrada + desplazamientoDato);
+                }
+                entrada += largo;
+            }
+        } catch (IOException | RuntimeException e) {
+            return -1L;
+        }
+        return -1L;
+    }
+
+    private static boolean nombreEs(ByteBuffer datos, int posicion, String nombre) {
+        for (int i = 0; i < nombre.length(); i++) {
+            if (datos.get(posicion + i) != nombre.charAt(i)) {
+                return false;
+            }
+        }
+        return datos.get(posicion + nombre.length()) == 0;
+    }
+
+    private static boolean usaArchivoCds() {
+        if (esImagenNativa()) {
+            return false;
+        }
+        for (String argumento : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argumento.startsWith("-XX:SharedArchiveFile=")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Milisegundos desde que se creó el proceso, según <code>/proc</code>.
+     * Devuelve <code>-1</code> fuera de Linux.
+     */
+    private static long edadProcesoMs() {
+        try {
+            String stat = leerLinea(new File("/proc/self/stat"));
+            String uptime = leerLinea(new File("/proc/uptime"));
+            if (stat == null || uptime == null) {
+                return -1L;
+            }
+            // El nombre del proceso va entre paréntesis y puede tener espacios
+            String[] campos = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            long inicioTicks = Long.parseLong(campos[19]);
+            double segundosDesdeArranque = Double.parseDouble(uptime.split(" ")[0]);
+            // USER_HZ es 100 en todos los kernels Linux de escritorio
+            return (long) (segundosDesdeArranque * 1000.0) - inicioTicks * 10L;
+        } catch (IOException | RuntimeException e) {
+            return -1L;
+        }
+    }
+
+    /** Lee un valor en kB de <code>/proc/self/status</code>, o <code>-1</code> si no existe. */
+    private static long leerEstado(String clave) {
+        File estado = new File("/proc/self/status");
+        if (!estado.exists()) {
+            return -1L;
+        }
+        try (BufferedReader lector = new BufferedReader(new FileReader(estado))) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (linea.startsWith(clave)) {
+                    return Long.parseLong(linea.substring(clave.length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1L;
+        }
+        return -1L;
+    }
+
+    private static String leerLinea(File archivo) throws IOException {
+        if (!archivo.exists()) {
+            return null;
+        }
+        try (BufferedReader lector = new BufferedReader(new FileReader(archivo))) {
+            return lector.readLine();
+        }
+    }
+}
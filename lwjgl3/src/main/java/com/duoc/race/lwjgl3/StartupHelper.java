@@ -45,6 +45,13 @@ public class StartupHelper {
 
     private static final String JVM_RESTARTED_ARG = "jvmIsRestarted";
 
+    /**
+     * Set by the macOS start script instead of {@code -XX:ArchiveClassesAtExit}:
+     * the JVM that restarts itself must not dump, so the path is handed to the
+     * restarted JVM, which loads the game's classes.
+     */
+    private static final String CDS_DUMP_PROPERTY = "duoc.cds.archiveAtExit";
+
     private StartupHelper() {
         throw new UnsupportedOperationException();
     }
@@ -70,10 +77,13 @@ public class StartupHelper {
      *            whether the output of the new JVM should be rerouted to the
      *            old JVM, so it can be accessed in the same place; keeps the
      *            old JVM running if enabled
+     * @param programArgs
+     *            the arguments given to {@code main}, passed on unchanged to
+     *            the new JVM
      * @return whether a new JVM was started and thus no code should be executed
      *         in this one
      */
-    public static boolean startNewJvmIfRequired(boolean redirectOutput) {
+    public static boolean startNewJvmIfRequired(boolean redirectOutput, String... programArgs) {
         String osName = System.getProperty("os.name").toLowerCase(java.util.Locale.ROOT);
         if (!osName.contains("mac")) {
             if (osName.contains("windows")) {
@@ -140,7 +150,23 @@ public class StartupHelper {
         jvmArgs.add(javaExecPath);
         jvmArgs.add("-XstartOnFirstThread");
         jvmArgs.add("-D" + JVM_RESTARTED_ARG + "=true");
-        jvmArgs.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        String dumpPrefix = "-D" + CDS_DUMP_PROPERTY + "=";
+        for (String arg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (arg.startsWith(dumpPrefix)) {
+                // Only the new JVM loads the game, so only it trains the archive.
+                jvmArgs.add("-XX:ArchiveClassesAtExit=" + arg.substring(dumpPrefix.length()));
+            } else if (!arg.startsWith("-XX:ArchiveClassesAtExit=") && !arg.startsWith("-XX:SharedArchiveFile=")) {
+                // This JVM keeps its own archive flags; if the new one also dumped to the same
+                // .jsa, whichever exits last (this one, with almost no classes) would overwrite it.
+                jvmArgs.add(arg);
+            }
+        }
+        // Lets the restarted JVM map its classes from the AppCDS archive instead of loading them a second time.
+        String cdsArchive = findCdsArchive();
+        if (cdsArchive != null) {
+            jvmArgs.add("-XX:SharedArchiveFile=" + cdsArchive);
+            jvmArgs.add("-Xshare:auto");
+        }
         jvmArgs.add("-cp");
         jvmArgs.add(System.getProperty("java.class.path"));
         String mainClass = System.getenv("JAVA_MAIN_CLASS_" + pid);
@@ -154,6 +180,9 @@ public class StartupHelper {
             }
         }
         jvmArgs.add(mainClass);
+        for (String programArg : programArgs) {
+            jvmArgs.add(programArg);
+        }
 
         try {
             if (!redirectOutput) {
@@ -180,6 +209,26 @@ public class StartupHelper {
         return true;
     }
 
+    /**
+     * Looks for the AppCDS archive that {@code lwjgl3:cdsArchive} writes next to
+     * the jar ({@code DuocRacing-1.0.0.jsa} for {@code DuocRacing-1.0.0.jar}).
+     *
+     * @return the archive path, or {@code null} if there is none or the JVM is
+     *         older than Java 13
+     */
+    private static String findCdsArchive() {
+        String specVersion = System.getProperty("java.specification.version", "1.8");
+        if (specVersion.startsWith("1.") || Integer.parseInt(specVersion) < 13) {
+            return null;
+        }
+        String classPath = System.getProperty("java.class.path", "");
+        if (!classPath.endsWith(".jar") || classPath.contains(File.pathSeparator)) {
+            return null;
+        }
+        File archive = new File(classPath.substring(0, classPath.length() - ".jar".length()) + ".jsa");
+        return archive.isFile() ? archive.getAbsolutePath() : null;
+    }
+
     /**
      * Starts a new JVM if the application was started on macOS without the
      * {@code -XstartOnFirstThread} argument. Returns whether a new JVM was
@@ -0,0 +1,94 @@
+#!/usr/bin/env bash
+# Compares cold start of the game between two launch variants.
+#
+#   native: the JVM jar against the GraalVM native binary.
+#   cds:    the JVM jar without and with the AppCDS archive made by lwjgl3:cdsArchive.
+#
+# Each variant is launched several times with --startup-probe, which makes the game print one
+# STARTUP line after the first frame drawn with the game fully loaded (textures, world, track, audio)
+# and exit. first_frame is the loading screen; ready is that first loaded frame. The table shows the
+# median of every metric; JVM-only metrics are -1 for the native binary.
+#
+# Usage: scripts/startup-benchmark.sh native [runs] [jar] [native-binary]
+#        scripts/startup-benchmark.sh cds [runs] [jar] [archive.jsa]
+# Normally run through Gradle: lwjgl3:startupBenchmark (native) or lwjgl3:cdsStartupReport (cds).
+set -euo pipefail
+
+MODE="${1:-native}"
+RUNS="${2:-5}"
+JAR="${3:-lwjgl3/build/libs/DuocRacing-1.0.0.jar}"
+# The game loads its assets relative to the working directory.
+ASSETS_DIR="$(cd "$(dirname "$0")/.." && pwd)/assets"
+
+absolute() {
+  echo "$(cd "$(dirname "$1")" && pwd)/$(basename "$1")"
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { if (NR == 0) print "-"; else print v[int((NR + 1) / 2)] }'
+}
+
+field() {
+  sed -n "s/.*$1=\([-0-9]*\).*/\1/p"
+}
+
+run_variant() {
+  local name="$1"; shift
+  local lines=""
+  local walls=""
+  for _ in $(seq "$RUNS"); do
+    local start end line
+    start=$(date +%s%N)
+    line=$(cd "$ASSETS_DIR" && "$@" --startup-probe 2>/dev/null | grep '^STARTUP' || true)
+    end=$(date +%s%N)
+    if [ -z "$line" ]; then
+      echo "$name: no STARTUP line; is a display available?" >&2
+      return 1
+    fi
+    lines+="$line"$'\n'
+    walls+="$(( (end - start) / 1000000 ))"$'\n'
+  done
+  printf '%-8s %8s %11s %8s %9s %9s %11s %8s %13s\n' "$name" \
+    "$(printf '%s' "$walls" | median)" \
+    "$(printf '%s' "$lines" | field primer_frame_ms | median)" \
+    "$(printf '%s' "$lines" | field listo_ms | median)" \
+    "$(printf '%s' "$lines" | field create_ms | median)" \
+    "$(printf '%s' "$lines" | field rss_kb | median)" \
+    "$(printf '%s' "$lines" | field rss_max_kb | median)" \
+    "$(printf '%s' "$lines" | field clases | median)" \
+    "$(printf '%s' "$lines" | field carga_clases_ms | median)"
+}
+
+if [ ! -f "$JAR" ]; then
+  echo "$JAR not found, run ./gradlew lwjgl3:jar" >&2
+  exit 1
+fi
+JAR="$(absolute "$JAR")"
+
+printf '%-8s %8s %11s %8s %9s %9s %11s %8s %13s\n' \
+  variant wall_ms first_frame ready create_ms rss_kb peak_rss_kb classes class_load_ms
+
+case "$MODE" in
+  native)
+    NATIVE="${4:-lwjgl3/build/native/nativeCompile/DuocRacing}"
+    run_variant jvm java -jar "$JAR"
+    if [ -x "$NATIVE" ]; then
+      run_variant native "$(absolute "$NATIVE")"
+    else
+      echo "native: $NATIVE not found, run ./gradlew lwjgl3:nativeCompile -PenableGraalNative=true" >&2
+    fi
+    ;;
+  cds)
+    ARCHIVE="${4:-${JAR%.jar}.jsa}"
+    run_variant base-cds java -Xshare:auto -jar "$JAR"
+    if [ -f "$ARCHIVE" ]; then
+      run_variant appcds java -XX:SharedArchiveFile="$(absolute "$ARCHIVE")" -Xshare:auto -jar "$JAR"
+    else
+      echo "appcds: $ARCHIVE not found, run ./gradlew lwjgl3:cdsArchive" >&2
+    fi
+    ;;
+  *)
+    echo "unknown mode '$MODE', expected native or cds" >&2
+    exit 1
+    ;;
+esac